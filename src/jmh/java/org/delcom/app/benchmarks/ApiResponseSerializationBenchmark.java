@@ -0,0 +1,93 @@
+package org.delcom.app.benchmarks;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.dto.MenuItemPage;
+import org.delcom.app.entities.MenuItem;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serialisasi JSON respons GET /api/menu-items (ApiResponse<MenuItemPage>),
+ * ditulis ke output stream seperti respons HTTP. Ukuran halaman mengikuti
+ * yang dilayani API: ConstUtil.PAGE_SIZE_DEFAULT dan ConstUtil.PAGE_SIZE_MAX.
+ *
+ * Jalankan: mvn -Pbenchmark test-compile exec:exec -Djmh.args="ApiResponseSerialization"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiResponseSerializationBenchmark {
+
+    private static final String[] CATEGORIES = { "Appetizer", "Main Course", "Dessert", "Beverage" };
+
+    // PAGE_SIZE_DEFAULT dan PAGE_SIZE_MAX (anotasi hanya menerima literal)
+    @Param({ "20", "100" })
+    public int pageSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private ApiResponse<MenuItemPage> response;
+
+    // Hanya menghitung byte, agar yang diukur serialisasi dan bukan alokasi buffer
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        if (pageSize > ConstUtil.PAGE_SIZE_MAX) {
+            throw new IllegalArgumentException("pageSize melebihi PAGE_SIZE_MAX (" + ConstUtil.PAGE_SIZE_MAX + ")");
+        }
+
+        UUID userId = UUID.randomUUID();
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            String category = CATEGORIES[i % CATEGORIES.length];
+            MenuItem menuItem = new MenuItem(userId, "Menu " + i, category, 15000.0 + i,
+                    "Deskripsi menu nomor " + i + " dengan \"kutip\" dan karakter é", 10 + i % 20, i % 6);
+            menuItem.setId(UUID.randomUUID());
+            menuItem.setCalories(i % 3 == 0 ? null : 250 + i % 500);
+            menuItem.setImageUrl("menu_" + menuItem.getId() + ".jpg");
+            // createdAt dan updatedAt diisi seperti saat disimpan ke database
+            ReflectionTestUtils.invokeMethod(menuItem, "onCreate");
+            menuItems.add(menuItem);
+        }
+        // Halaman penuh selalu membawa cursor ke halaman berikutnya
+        MenuItem last = menuItems.get(menuItems.size() - 1);
+        MenuItemPage page = new MenuItemPage(menuItems, CursorUtil.encode(last.getCreatedAt(), last.getId()));
+        response = new ApiResponse<>("success", "Daftar menu berhasil diambil", page);
+    }
+
+    @Benchmark
+    public long serialize() {
+        CountingOutputStream output = new CountingOutputStream();
+        jsonMapper.writeValue(output, response);
+        return output.count;
+    }
+}
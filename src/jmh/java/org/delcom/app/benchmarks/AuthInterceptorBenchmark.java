@@ -0,0 +1,86 @@
+package org.delcom.app.benchmarks;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
+import org.delcom.app.interceptors.AuthInterceptor;
+import org.delcom.app.services.AuthPrincipalCache;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.UserService;
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * AuthInterceptor.preHandle untuk request API dengan bearer token valid.
+ * Database diganti stub in-memory, sehingga yang diukur adalah verifikasi
+ * JWT, cache principal dan overhead interceptor itu sendiri.
+ *
+ * principalCache=false memakai cache berkapasitas 0 (setiap request lewat
+ * lookup token dan user).
+ *
+ * Jalankan: mvn -Pbenchmark test-compile exec:exec -Djmh.args="AuthInterceptorBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthInterceptorBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean principalCache;
+
+    private AuthInterceptor authInterceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateToken(userId);
+        AuthToken authToken = new AuthToken(userId, token);
+        User user = new User("Benchmark", "benchmark@example.com", "password");
+        user.setId(userId);
+
+        AuthPrincipalCache cache = new AuthPrincipalCache(principalCache ? 10000 : 0, Duration.ofMinutes(5));
+        AuthTokenService authTokenService = new AuthTokenService(null, cache) {
+            @Override
+            public AuthToken findUserToken(UUID id, String value) {
+                return userId.equals(id) && token.equals(value) ? authToken : null;
+            }
+        };
+        UserService userService = new UserService(null, cache) {
+            @Override
+            public User getUserById(UUID id) {
+                return userId.equals(id) ? user : null;
+            }
+        };
+
+        authInterceptor = new AuthInterceptor();
+        ReflectionTestUtils.setField(authInterceptor, "authContext", new AuthContext());
+        ReflectionTestUtils.setField(authInterceptor, "authTokenService", authTokenService);
+        ReflectionTestUtils.setField(authInterceptor, "userService", userService);
+        ReflectionTestUtils.setField(authInterceptor, "authPrincipalCache", cache);
+
+        request = new MockHttpServletRequest("GET", "/api/menu-items");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return authInterceptor.preHandle(request, response, null);
+    }
+}
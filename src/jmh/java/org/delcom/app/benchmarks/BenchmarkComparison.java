@@ -0,0 +1,90 @@
+package org.delcom.app.benchmarks;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Membandingkan dua hasil JMH (-rf json), misalnya hasil dari main branch
+ * dengan hasil perubahan yang sedang diuji. Benchmark dicocokkan per nama
+ * dan @Param; skor yang memburuk lebih dari batas (persen) ditandai
+ * REGRESI dan program keluar dengan kode 1, sehingga bisa dipakai di CI.
+ *
+ * Untuk mode thrpt skor lebih besar lebih baik, untuk mode lain (avgt,
+ * sample, ss) skor lebih kecil lebih baik.
+ *
+ * mvn -Pbenchmark test-compile exec:exec@jmh-compare
+ *     -Dcompare.args="baseline.json target/jmh-result.json 10"
+ *
+ * Argumen: baseline.json current.json [batas regresi persen=10]
+ */
+public class BenchmarkComparison {
+
+    // Satu baris hasil JMH
+    private record Result(String mode, double score, String unit) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Argumen: baseline.json current.json [batas regresi persen]");
+            System.exit(1);
+        }
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %-8s %9s%n", "Benchmark", "Baseline", "Sekarang", "Unit", "Selisih");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %-8s %9s%n", entry.getKey(), "-", now.score(), now.unit(),
+                        "baru");
+                continue;
+            }
+
+            double change = (now.score() - before.score()) / before.score() * 100;
+            // Perubahan positif = lebih buruk, apa pun mode benchmark-nya
+            double worse = "thrpt".equals(now.mode()) ? -change : change;
+            boolean regression = worse > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %-8s %+8.1f%%%s%n", entry.getKey(), before.score(), now.score(),
+                    now.unit(), change, regression ? "  REGRESI" : "");
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-80s (tidak ada di hasil sekarang)%n", name);
+            }
+        }
+
+        System.out.println(regressions == 0
+                ? "Tidak ada regresi di atas " + threshold + "%"
+                : regressions + " benchmark regresi di atas " + threshold + "%");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static Map<String, Result> read(File file) {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : JsonMapper.builder().build().readTree(file)) {
+            StringBuilder name = new StringBuilder(run.get("benchmark").asString()
+                    .replace("org.delcom.app.benchmarks.", ""));
+            JsonNode params = run.get("params");
+            if (params != null) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.properties().forEach(param -> sorted.put(param.getKey(), param.getValue().asString()));
+                name.append(sorted);
+            }
+            JsonNode metric = run.get("primaryMetric");
+            results.put(name.toString(), new Result(run.get("mode").asString(), metric.get("score").asDouble(),
+                    metric.get("scoreUnit").asString()));
+        }
+        return results;
+    }
+}
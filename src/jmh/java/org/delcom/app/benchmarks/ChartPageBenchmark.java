@@ -0,0 +1,76 @@
+package org.delcom.app.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.dto.MenuStats;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.MenuItemService;
+import org.delcom.app.views.MenuItemView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.ui.ExtendedModelMap;
+
+/**
+ * Transformasi statistik kategori menjadi data chart di
+ * MenuItemView.getChartPage (tanpa render template). Statistik diambil dari
+ * stub MenuItemService, seperti saat cache katalog menu sudah terisi.
+ *
+ * Jalankan: mvn -Pbenchmark test-compile exec:exec -Djmh.args="ChartPageBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChartPageBenchmark {
+
+    @Param({ "4", "100" })
+    public int categories;
+
+    private MenuItemView menuItemView;
+
+    @Setup
+    public void setup() {
+        List<CategoryStats> rows = new ArrayList<>();
+        for (int i = 0; i < categories; i++) {
+            rows.add(new CategoryStats("Kategori " + i, 25L + i, 20L + i, 18000.0 + i, 450000.0 + i, 5, 45));
+        }
+        MenuStats stats = new MenuStats(rows);
+        MenuItemService menuItemService = new MenuItemService(null, null, null) {
+            @Override
+            public MenuStats getMenuStats(UUID userId) {
+                return stats;
+            }
+        };
+        menuItemView = new MenuItemView(menuItemService, null, null, null);
+
+        // Thread benchmark sama dengan thread setup (Scope.Thread)
+        User user = new User("Benchmark", "benchmark@example.com", "password");
+        user.setId(UUID.randomUUID());
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public ExtendedModelMap getChartPage() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        menuItemView.getChartPage(model);
+        return model;
+    }
+}
@@ -0,0 +1,617 @@
+package org.delcom.app.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Uji beban end-to-end: menjalankan aplikasi (JVM terpisah) dengan database
+ * PostgreSQL sekali pakai, mengisi N tenant x M menu, lalu mengirim traffic
+ * campuran dari banyak virtual user dan melaporkan throughput serta latensi
+ * p50/p99/p999 per route. Semua berjalan di satu mesin tanpa jaringan
+ * (setelah dependency Maven ada di repository lokal).
+ *
+ * Campuran traffic per iterasi virtual user (persen):
+ * halaman home 25, pencarian API 20, gambar menu 25, halaman chart 10,
+ * CRUD API (create, read, update, delete) 15, login API 5. Setiap login API
+ * menerbitkan token baru (jti acak) yang lalu dipakai virtual user itu;
+ * token virtual user lain milik tenant yang sama tetap berlaku.
+ *
+ * mvn -Pbenchmark test-compile exec:exec@e2e-load
+ *     -Dload.args="tenants=10 items=500 concurrency=50 duration=60"
+ *
+ * Argumen (semua opsional, format nama=nilai):
+ * - tenants (10), items per tenant (200), concurrency (50),
+ *   warmup detik (10), duration detik (60)
+ * - db, dbUser, dbPassword: pakai server PostgreSQL yang sudah ada
+ *   (misalnya saat berjalan sebagai root) alih-alih PostgreSQL embedded
+ * - report: file hasil JSON (target/load-test-report.json)
+ * - log: log aplikasi (target/load-test-app.log)
+ * Argumen --nama=nilai diteruskan ke aplikasi, misalnya
+ * --spring.threads.virtual.enabled=true.
+ */
+public class EndToEndLoadTest {
+
+    static final String PASSWORD = "loadtest";
+
+    private static final String[] CATEGORIES = { "Appetizer", "Main Course", "Dessert", "Beverage" };
+    private static final String[] WORDS = { "Nasi", "Mie", "Ayam", "Sate", "Soto", "Bakso", "Ikan", "Tahu",
+            "Tempe", "Es", "Teh", "Kopi", "Pisang", "Goreng", "Bakar", "Pedas", "Manis", "Spesial" };
+
+    // Total sampel latensi yang disimpan (dibagi rata ke semua virtual user dan route)
+    private static final int MAX_SAMPLES = 5_000_000;
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern AUTH_TOKEN = Pattern.compile("\"authToken\":\"([^\"]+)\"");
+    private static final Pattern MENU_ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+    private static final Pattern SESSION = Pattern.compile("JSESSIONID=([^;]+)");
+
+    enum Route {
+        HOME("GET /"),
+        SEARCH("GET /api/menu-items?search="),
+        IMAGE("GET /menu-items/image/{file}"),
+        CHART("GET /menu-items/chart"),
+        CREATE("POST /api/menu-items"),
+        READ("GET /api/menu-items/{id}"),
+        UPDATE("PUT /api/menu-items/{id}"),
+        DELETE("DELETE /api/menu-items/{id}"),
+        LOGIN("POST /api/auth/login");
+
+        private final String label;
+
+        Route(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Tenant(UUID id, String email) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                System.err.println("Argumen tidak dikenal: " + arg);
+                System.exit(1);
+            }
+        }
+        int tenants = Integer.parseInt(options.getOrDefault("tenants", "10"));
+        int items = Integer.parseInt(options.getOrDefault("items", "200"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "60"));
+        Path report = Paths.get(options.getOrDefault("report", "target/load-test-report.json"));
+        Path log = Paths.get(options.getOrDefault("log", "target/load-test-app.log"));
+
+        Path workDir = Files.createTempDirectory("load-test-");
+        try (LoadTestDatabase database = options.containsKey("db")
+                ? LoadTestDatabase.external(options.get("db"), options.getOrDefault("dbUser", "postgres"),
+                        options.getOrDefault("dbPassword", ""))
+                : LoadTestDatabase.embedded()) {
+            Path uploadDir = Files.createDirectories(workDir.resolve("uploads"));
+            String image = writeImage(uploadDir);
+
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            Process app = startApp(database, port, uploadDir, appArgs, log);
+            try {
+                URI base = URI.create("http://localhost:" + port);
+                waitUntilUp(base, app, log);
+
+                long seedStart = System.nanoTime();
+                List<Tenant> seeded = seed(database, tenants, items, image);
+                System.out.printf("Seed: %d tenant x %d menu dalam %.1f detik%n", tenants, items,
+                        (System.nanoTime() - seedStart) / 1e9);
+
+                Map<String, Object> result = run(base, seeded, image, concurrency, warmup, duration);
+                Map<String, Object> config = new LinkedHashMap<>();
+                config.put("tenants", tenants);
+                config.put("items", items);
+                config.put("concurrency", concurrency);
+                config.put("warmupSeconds", warmup);
+                config.put("durationSeconds", duration);
+                config.put("database", options.containsKey("db") ? "external" : "embedded");
+                config.put("appArgs", appArgs);
+                result.put("config", config);
+
+                Files.createDirectories(report.toAbsolutePath().getParent());
+                JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), result);
+                System.out.println("Hasil JSON: " + report);
+            } finally {
+                app.destroy();
+                if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                    app.destroyForcibly();
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(workDir)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    // ============================
+    // APLIKASI DAN DATA
+    // ============================
+
+    private static Process startApp(LoadTestDatabase database, int port, Path uploadDir, List<String> appArgs,
+                                    Path log) throws Exception {
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                // Restart devtools hanya bisa dimatikan lewat system property
+                "-Dspring.devtools.restart.enabled=false",
+                "-cp", System.getProperty("java.class.path"),
+                "org.delcom.app.Application",
+                "--server.port=" + port,
+                // Health check di port yang sama dengan aplikasi
+                "--management.server.port=" + port,
+                "--spring.datasource.url=" + database.jdbcUrl,
+                "--spring.datasource.username=" + database.username,
+                "--spring.datasource.password=" + database.password,
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--app.upload.dir=" + uploadDir,
+                "--spring.devtools.livereload.enabled=false",
+                "--spring.thymeleaf.cache=true",
+                "--spring.output.ansi.enabled=NEVER"));
+        command.addAll(appArgs);
+
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        System.out.println("Menjalankan aplikasi di port " + port + ", log: " + log);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void waitUntilUp(URI base, Process app, Path log) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(base.resolve("/actuator/health")).GET().build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(180);
+            while (System.nanoTime() < deadline) {
+                if (!app.isAlive()) {
+                    throw new IllegalStateException("Aplikasi berhenti saat start, lihat " + log);
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return;
+                    }
+                } catch (java.io.IOException e) {
+                    // Belum menerima koneksi
+                }
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException("Aplikasi tidak siap dalam 180 detik, lihat " + log);
+    }
+
+    // Gambar menu content-addressed (sha256 isi file), dipakai bersama oleh semua menu
+    private static String writeImage(Path uploadDir) throws Exception {
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        byte[] content = png.toByteArray();
+        String filename = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)) + ".png";
+        Files.write(uploadDir.resolve(filename), content);
+        return filename;
+    }
+
+    // Data langsung lewat JDBC (tabel sudah dibuat aplikasi saat start)
+    private static List<Tenant> seed(LoadTestDatabase database, int tenants, int items, String image)
+            throws Exception {
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Random random = new Random(7);
+        List<Tenant> seeded = new ArrayList<>();
+
+        try (Connection connection = database.connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement users = connection.prepareStatement(
+                    "INSERT INTO users (id, name, email, password, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement menus = connection.prepareStatement(
+                    "INSERT INTO menu_items (id, user_id, name, category, price, description, image_url, "
+                            + "is_available, preparation_time, spicy_level, calories, created_at, updated_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int t = 0; t < tenants; t++) {
+                    Tenant tenant = new Tenant(UUID.randomUUID(), "tenant" + t + "@loadtest.local");
+                    seeded.add(tenant);
+                    users.setObject(1, tenant.id());
+                    users.setString(2, "Tenant " + t);
+                    users.setString(3, tenant.email());
+                    users.setString(4, passwordHash);
+                    users.setTimestamp(5, now);
+                    users.setTimestamp(6, now);
+                    users.addBatch();
+
+                    for (int i = 0; i < items; i++) {
+                        menus.setObject(1, UUID.randomUUID());
+                        menus.setObject(2, tenant.id());
+                        menus.setString(3, WORDS[random.nextInt(WORDS.length)] + " "
+                                + WORDS[random.nextInt(WORDS.length)] + " " + i);
+                        menus.setString(4, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                        menus.setDouble(5, 5000 + random.nextInt(96) * 500);
+                        menus.setString(6, "Menu uji beban nomor " + i);
+                        menus.setString(7, random.nextInt(4) == 0 ? null : image);
+                        menus.setBoolean(8, random.nextInt(10) != 0);
+                        menus.setInt(9, 5 + random.nextInt(40));
+                        menus.setInt(10, random.nextInt(6));
+                        menus.setInt(11, 100 + random.nextInt(900));
+                        // Urutan created_at berbeda per menu, seperti data sungguhan
+                        Timestamp created = Timestamp.valueOf(now.toLocalDateTime().minusSeconds(i));
+                        menus.setTimestamp(12, created);
+                        menus.setTimestamp(13, created);
+                        menus.addBatch();
+                        if (i % 1000 == 999) {
+                            menus.executeBatch();
+                        }
+                    }
+                    menus.executeBatch();
+                }
+                users.executeBatch();
+            }
+            // Statistik kategori yang biasanya dijaga MenuStatService
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO menu_stats (id, user_id, category, menu_count, price_sum, "
+                        + "available_count, min_preparation_time, max_preparation_time, updated_at) "
+                        + "SELECT gen_random_uuid(), user_id, category, COUNT(*), SUM(price), "
+                        + "SUM(CASE WHEN is_available THEN 1 ELSE 0 END), MIN(preparation_time), "
+                        + "MAX(preparation_time), now() FROM menu_items GROUP BY user_id, category");
+                statement.execute("ANALYZE");
+            }
+            connection.commit();
+        }
+        return seeded;
+    }
+
+    // ============================
+    // TRAFFIC
+    // ============================
+
+    private static Map<String, Object> run(URI base, List<Tenant> tenants, String image, int concurrency,
+                                           long warmup, long duration) throws Exception {
+        int samplesPerRoute = Math.max(1000, MAX_SAMPLES / (concurrency * Route.values().length));
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+            // Login satu per satu: hashing password dibatasi thread pool kecil di aplikasi
+            System.out.println("Login " + concurrency + " virtual user...");
+            List<VirtualUser> users = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                VirtualUser user = new VirtualUser(client, base, tenants.get(i % tenants.size()), image,
+                        samplesPerRoute);
+                user.login();
+                users.add(user);
+            }
+
+            System.out.printf("Pemanasan %d detik, lalu mengukur %d detik dengan %d virtual user%n",
+                    warmup, duration, concurrency);
+            long measureStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+            long deadline = measureStart + TimeUnit.SECONDS.toNanos(duration);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (VirtualUser user : users) {
+                    executor.submit(() -> {
+                        user.loop(measureStart, deadline);
+                        return null;
+                    });
+                }
+            }
+            return report(users, duration);
+        }
+    }
+
+    private static Map<String, Object> report(List<VirtualUser> users, double elapsed) {
+        List<Map<String, Object>> routes = new ArrayList<>();
+        System.out.printf("%n%-36s %9s %7s %9s %9s %9s %9s %9s%n", "Route", "Request", "Error", "req/s",
+                "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long[][] all = new long[Route.values().length][];
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Route route : Route.values()) {
+            long requests = 0;
+            long errors = 0;
+            List<long[]> parts = new ArrayList<>();
+            for (VirtualUser user : users) {
+                Samples samples = user.samples[route.ordinal()];
+                requests += samples.requests;
+                errors += samples.errors;
+                parts.add(Arrays.copyOf(samples.values, samples.count));
+            }
+            long[] sorted = parts.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            all[route.ordinal()] = sorted;
+            totalRequests += requests;
+            totalErrors += errors;
+            routes.add(row(route.label, requests, errors, elapsed, sorted));
+        }
+        long[] total = Arrays.stream(all).flatMapToLong(Arrays::stream).sorted().toArray();
+        Map<String, Object> summary = row("TOTAL", totalRequests, totalErrors, elapsed, total);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", summary);
+        result.put("routes", routes);
+        return result;
+    }
+
+    private static Map<String, Object> row(String label, long requests, long errors, double elapsed,
+                                           long[] sorted) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("route", label);
+        row.put("requests", requests);
+        row.put("errors", errors);
+        row.put("throughput", requests / elapsed);
+        row.put("p50Ms", percentile(sorted, 0.50));
+        row.put("p99Ms", percentile(sorted, 0.99));
+        row.put("p999Ms", percentile(sorted, 0.999));
+        row.put("maxMs", percentile(sorted, 1.0));
+        System.out.printf("%-36s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", label, requests, errors,
+                requests / elapsed, row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+        return row;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    // Latensi satu route milik satu virtual user (hanya diakses thread-nya sendiri)
+    private static final class Samples {
+        private final int max;
+        private long[] values = new long[256];
+        private int count;
+        private long requests;
+        private long errors;
+
+        private Samples(int max) {
+            this.max = max;
+        }
+
+        private void add(long nanos) {
+            requests++;
+            if (count == values.length && count < max) {
+                values = Arrays.copyOf(values, Math.min(max, count * 2));
+            }
+            if (count < values.length) {
+                values[count++] = nanos;
+            }
+        }
+    }
+
+    /**
+     * Satu pengguna: sesi browser (cookie JSESSIONID untuk halaman web) dan
+     * bearer token untuk API, milik satu tenant.
+     */
+    private static final class VirtualUser {
+        private final HttpClient client;
+        private final URI base;
+        private final Tenant tenant;
+        private final String image;
+        private final Samples[] samples = new Samples[Route.values().length];
+
+        private String session;
+        private String csrf;
+        private String token;
+        private long measureStart;
+
+        private VirtualUser(HttpClient client, URI base, Tenant tenant, String image, int samplesPerRoute) {
+            this.client = client;
+            this.base = base;
+            this.tenant = tenant;
+            this.image = image;
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = new Samples(samplesPerRoute);
+            }
+        }
+
+        // Login web (sesi untuk halaman dan gambar) lalu login API (bearer token)
+        private void login() throws Exception {
+            HttpResponse<String> page = client.send(HttpRequest.newBuilder(base.resolve("/auth/login")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            session = extract(SESSION, page.headers().firstValue("Set-Cookie").orElse(""), "cookie sesi");
+            csrf = extract(CSRF, page.body(), "token CSRF");
+
+            HttpResponse<Void> web = client.send(webLogin(), HttpResponse.BodyHandlers.discarding());
+            if (web.statusCode() != 302) {
+                throw new IllegalStateException("Login web gagal untuk " + tenant.email() + ": " + web.statusCode());
+            }
+
+            // Hashing password bisa menolak (429) saat antreannya penuh
+            for (int attempt = 0; token == null; attempt++) {
+                HttpResponse<String> api = client.send(apiLogin(), HttpResponse.BodyHandlers.ofString());
+                if (api.statusCode() == 200) {
+                    token = extract(AUTH_TOKEN, api.body(), "token API");
+                } else if (api.statusCode() != 429 || attempt == 20) {
+                    throw new IllegalStateException("Login API gagal: " + api.statusCode() + " " + api.body());
+                } else {
+                    Thread.sleep(100);
+                }
+            }
+        }
+
+        private void loop(long measureStart, long deadline) {
+            this.measureStart = measureStart;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                int pick = random.nextInt(100);
+                try {
+                    if (pick < 25) {
+                        send(Route.HOME, browser("/").GET().build());
+                    } else if (pick < 45) {
+                        String search = URLEncoder.encode(WORDS[random.nextInt(WORDS.length)], StandardCharsets.UTF_8);
+                        send(Route.SEARCH, api("/api/menu-items?limit=20&search=" + search).GET().build());
+                    } else if (pick < 70) {
+                        send(Route.IMAGE, browser("/menu-items/image/" + image).GET().build());
+                    } else if (pick < 80) {
+                        send(Route.CHART, browser("/menu-items/chart").GET().build());
+                    } else if (pick < 95) {
+                        crud(random);
+                    } else {
+                        relogin();
+                    }
+                } catch (Exception e) {
+                    // Error jaringan sudah dihitung di send()
+                }
+            }
+        }
+
+        private void crud(ThreadLocalRandom random) throws Exception {
+            String body = "{\"name\":\"Menu uji " + random.nextInt(1_000_000) + "\",\"category\":\""
+                    + CATEGORIES[random.nextInt(CATEGORIES.length)] + "\",\"price\":"
+                    + (5000 + random.nextInt(96) * 500) + ",\"description\":\"Dibuat uji beban\","
+                    + "\"preparationTime\":15,\"spicyLevel\":1,\"calories\":300}";
+            String created = send(Route.CREATE, api("/api/menu-items")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build());
+            Matcher id = created == null ? null : MENU_ID.matcher(created);
+            if (id == null || !id.find()) {
+                return;
+            }
+            String path = "/api/menu-items/" + id.group(1);
+            send(Route.READ, api(path).GET().build());
+            send(Route.UPDATE, api(path)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body.replace("uji beban", "uji beban (ubah)"))).build());
+            send(Route.DELETE, api(path).DELETE().build());
+        }
+
+        // Login API ulang, token baru dipakai untuk request berikutnya
+        private void relogin() throws Exception {
+            String body = send(Route.LOGIN, apiLogin());
+            Matcher matcher = body == null ? null : AUTH_TOKEN.matcher(body);
+            if (matcher != null && matcher.find()) {
+                token = matcher.group(1);
+            }
+        }
+
+        /**
+         * Mengirim request dan mencatat latensinya (setelah pemanasan).
+         * Status selain 2xx dihitung error.
+         *
+         * @return body respons untuk CREATE dan LOGIN, selain itu null
+         */
+        private String send(Route route, HttpRequest request) throws Exception {
+            long start = System.nanoTime();
+            String body = null;
+            int status;
+            try {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream input = response.body()) {
+                    if (route == Route.CREATE || route == Route.LOGIN) {
+                        body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                    } else {
+                        input.transferTo(OutputStream.nullOutputStream());
+                    }
+                }
+                status = response.statusCode();
+            } catch (Exception e) {
+                if (start >= measureStart) {
+                    samples[route.ordinal()].errors++;
+                }
+                throw e;
+            }
+            if (start >= measureStart) {
+                Samples routeSamples = samples[route.ordinal()];
+                routeSamples.add(System.nanoTime() - start);
+                if (status < 200 || status >= 300) {
+                    routeSamples.errors++;
+                }
+            }
+            return body;
+        }
+
+        private HttpRequest.Builder browser(String path) {
+            return HttpRequest.newBuilder(base.resolve(path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Cookie", "JSESSIONID=" + session);
+        }
+
+        private HttpRequest.Builder api(String path) {
+            return browser(path)
+                    .header("Authorization", "Bearer " + token)
+                    .header("X-CSRF-TOKEN", csrf);
+        }
+
+        private HttpRequest webLogin() {
+            String form = "email=" + URLEncoder.encode(tenant.email(), StandardCharsets.UTF_8)
+                    + "&password=" + PASSWORD + "&_csrf=" + URLEncoder.encode(csrf, StandardCharsets.UTF_8);
+            return browser("/auth/login/post")
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+
+        private HttpRequest apiLogin() {
+            return browser("/api/auth/login")
+                    .header("X-CSRF-TOKEN", csrf)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"" + tenant.email() + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build();
+        }
+
+        private static String extract(Pattern pattern, String text, String what) {
+            Matcher matcher = pattern.matcher(text);
+            if (!matcher.find()) {
+                throw new IllegalStateException("Tidak menemukan " + what);
+            }
+            return matcher.group(1);
+        }
+    }
+}
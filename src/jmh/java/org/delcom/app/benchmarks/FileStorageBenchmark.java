@@ -0,0 +1,76 @@
+package org.delcom.app.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.delcom.app.services.FileStorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Throughput penyimpanan upload seperti di produksi (tanpa blob store):
+ * FileStorageService.stageFile lalu storeStagedFile ke folder sementara.
+ * Nama file bergilir di antara 16 menu, sehingga file lama ditimpa seperti
+ * saat gambar menu diganti dan disk tidak terus terisi.
+ *
+ * Jalankan: mvn -Pbenchmark test-compile exec:exec -Djmh.args="FileStorageBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FileStorageBenchmark {
+
+    @Param({ "16384", "1048576" })
+    public int fileSize;
+
+    private final UUID[] menuIds = new UUID[16];
+    private int next = 0;
+    private Path uploadDir;
+    private FileStorageService fileStorageService;
+    private MockMultipartFile file;
+
+    @Setup
+    public void setup() throws IOException {
+        uploadDir = Files.createTempDirectory("jmh-uploads-");
+        fileStorageService = new FileStorageService();
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        file = new MockMultipartFile("imageFile", "menu.jpg", "image/jpeg", content);
+        for (int i = 0; i < menuIds.length; i++) {
+            menuIds[i] = UUID.randomUUID();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public String storeFile() throws IOException {
+        String filename = FileStorageService.menuFilename(menuIds[next++ & (menuIds.length - 1)], ".jpg");
+        fileStorageService.storeStagedFile(fileStorageService.stageFile(file), filename);
+        return filename;
+    }
+}
@@ -0,0 +1,109 @@
+package org.delcom.app.benchmarks;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pembangkit beban HTTP untuk uji beban terhadap aplikasi yang sedang
+ * berjalan: setiap client adalah satu virtual thread yang mengirim request
+ * yang sama berulang kali selama durasi uji.
+ */
+final class HttpLoadGenerator {
+
+    // Total sampel latensi yang disimpan (dibagi rata ke semua client)
+    private static final int MAX_SAMPLES = 5_000_000;
+
+    private HttpLoadGenerator() {
+    }
+
+    /**
+     * Pemanasan 5 detik lalu mengukur selama durasi uji dan mencetak hasilnya
+     */
+    static void run(HttpRequest request, int concurrency, long seconds) throws Exception {
+        // Pemanasan singkat agar JIT dan koneksi siap sebelum diukur
+        new Result(concurrency).load(request, 5);
+
+        Result result = new Result(concurrency);
+        long start = System.nanoTime();
+        result.load(request, seconds);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] all = result.latencies.stream().flatMapToLong(Arrays::stream).filter(l -> l > 0).sorted().toArray();
+        System.out.printf("concurrency=%d durasi=%.1fs%n", concurrency, elapsed);
+        System.out.printf("request=%d error=%d throughput=%.0f req/s %.1f MB/s%n",
+                result.requests.sum(), result.errors.sum(), result.requests.sum() / elapsed,
+                result.bytes.sum() / elapsed / (1024 * 1024));
+        if (all.length > 0) {
+            System.out.printf("latensi p50=%.1fms p99=%.1fms max=%.1fms%n",
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static final class Result {
+        private final int concurrency;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final List<long[]> latencies = new ArrayList<>();
+
+        private Result(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        private void load(HttpRequest request, long seconds) throws Exception {
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            int samplesPerClient = Math.max(100, MAX_SAMPLES / concurrency);
+            // Resource ditutup terbalik: executor menunggu semua worker selesai
+            // sebelum client ditutup
+            try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                 ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < concurrency; i++) {
+                    long[] samples = new long[samplesPerClient];
+                    latencies.add(samples);
+                    executor.submit(() -> {
+                        int n = 0;
+                        while (System.nanoTime() < deadline) {
+                            long t0 = System.nanoTime();
+                            try {
+                                HttpResponse<InputStream> response = client.send(request,
+                                        HttpResponse.BodyHandlers.ofInputStream());
+                                // Body dibaca sampai habis (termasuk respons chunked) tanpa disimpan
+                                long length;
+                                try (InputStream body = response.body()) {
+                                    length = body.transferTo(OutputStream.nullOutputStream());
+                                }
+                                if (response.statusCode() != 200) {
+                                    if (errors.sum() == 0) {
+                                        System.err.println("Status " + response.statusCode());
+                                    }
+                                    errors.increment();
+                                    continue;
+                                }
+                                bytes.add(length);
+                                requests.increment();
+                                if (n < samples.length) {
+                                    samples[n++] = System.nanoTime() - t0;
+                                }
+                            } catch (Exception e) {
+                                if (errors.sum() == 0) {
+                                    System.err.println("Request gagal: " + e);
+                                }
+                                errors.increment();
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.delcom.app.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Uji throughput endpoint gambar menu dengan banyak request bersamaan
+ * terhadap aplikasi yang sedang berjalan.
+ *
+ * Bandingkan jalur sendfile (default) dengan jalur lama lewat Spring
+ * dengan menjalankan aplikasi memakai app.upload.sendfile-min-size=-1.
+ *
+ * Jalankan:
+ * mvn -Pbenchmark test-compile exec:exec@image-load
+ *     -Dload.args="http://localhost:8080/menu-items/image/menu_x.png 1000 30 JSESSIONID=..."
+ *
+ * Argumen: url [concurrency=1000] [durasi detik=30] [cookie]
+ */
+public class ImageServingLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Argumen: url [concurrency] [durasi detik] [cookie]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        String cookie = args.length > 3 ? args[3] : null;
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET().timeout(Duration.ofSeconds(30));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        HttpLoadGenerator.run(builder.build(), concurrency, seconds);
+    }
+}
@@ -0,0 +1,49 @@
+package org.delcom.app.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Operasi JwtUtil yang dipakai saat login dan di setiap request API:
+ * pembuatan token (HMAC-SHA) dan dua helper verifikasi lama.
+ *
+ * Jalankan: mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtUtilBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+    private UUID userId;
+    private String token;
+
+    @Setup
+    public void setup() {
+        userId = UUID.randomUUID();
+        token = JwtUtil.generateToken(userId);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(userId);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return JwtUtil.validateToken(token, false);
+    }
+
+    @Benchmark
+    public UUID extractUserId() {
+        return JwtUtil.extractUserId(token);
+    }
+}
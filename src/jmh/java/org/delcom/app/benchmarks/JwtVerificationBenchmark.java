@@ -0,0 +1,53 @@
+package org.delcom.app.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Membandingkan verifikasi token di AuthInterceptor:
+ * - legacy: validateToken lalu extractUserId, masing-masing membuat parser
+ *   baru dan menghitung HMAC untuk token yang sama
+ * - singleParse: JwtUtil.verify dengan parser bersama, satu kali HMAC
+ *
+ * Jalankan: mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        token = JwtUtil.generateToken(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public UUID legacy() {
+        // Salinan alur lama AuthInterceptor sebelum verifikasi satu kali parse
+        Jwts.parser().verifyWith(JwtUtil.getKey()).build().parseSignedClaims(token);
+        String subject = Jwts.parser().verifyWith(JwtUtil.getKey()).build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        return UUID.fromString(subject);
+    }
+
+    @Benchmark
+    public UUID singleParse() {
+        JwtUtil.VerifiedToken verified = JwtUtil.verify(token);
+        return verified.expired() ? null : verified.userId();
+    }
+}
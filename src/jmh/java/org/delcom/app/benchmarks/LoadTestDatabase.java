@@ -0,0 +1,85 @@
+package org.delcom.app.benchmarks;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Database PostgreSQL sekali pakai untuk EndToEndLoadTest.
+ *
+ * Default: PostgreSQL embedded (binary dari artifact Maven zonky, tanpa
+ * Docker dan tanpa jaringan setelah artifact ada di repository lokal).
+ * PostgreSQL tidak bisa dijalankan sebagai root, sehingga di mesin seperti
+ * itu server yang sudah ada bisa dipakai: database baru dibuat untuk satu
+ * run lalu dihapus lagi.
+ */
+final class LoadTestDatabase implements AutoCloseable {
+
+    private static final Pattern JDBC_URL = Pattern.compile("(jdbc:postgresql://[^/]+/)([^?]*)(.*)");
+
+    private final EmbeddedPostgres embedded;
+    private final String adminUrl;
+    private final String database;
+
+    final String jdbcUrl;
+    final String username;
+    final String password;
+
+    private LoadTestDatabase(EmbeddedPostgres embedded, String adminUrl, String database, String jdbcUrl,
+                             String username, String password) {
+        this.embedded = embedded;
+        this.adminUrl = adminUrl;
+        this.database = database;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    static LoadTestDatabase embedded() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setServerConfig("max_connections", "200")
+                .start();
+        String url = "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+        return new LoadTestDatabase(postgres, null, null, url, "postgres", "");
+    }
+
+    /**
+     * @param adminUrl - URL JDBC ke server yang sudah ada (misalnya database postgres),
+     *                 dipakai untuk CREATE DATABASE dan DROP DATABASE
+     */
+    static LoadTestDatabase external(String adminUrl, String username, String password) throws SQLException {
+        Matcher matcher = JDBC_URL.matcher(adminUrl);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("URL database harus jdbc:postgresql://host:port/db: " + adminUrl);
+        }
+        String database = "loadtest_" + System.currentTimeMillis();
+        try (Connection connection = DriverManager.getConnection(adminUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        }
+        String url = matcher.group(1) + database + matcher.group(3);
+        return new LoadTestDatabase(null, adminUrl, database, url, username, password);
+    }
+
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, username, password);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (embedded != null) {
+            embedded.close();
+            return;
+        }
+        try (Connection connection = DriverManager.getConnection(adminUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + database + " WITH (FORCE)");
+        }
+    }
+}
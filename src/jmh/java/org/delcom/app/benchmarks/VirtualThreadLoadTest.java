@@ -0,0 +1,41 @@
+package org.delcom.app.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Uji beban API menu dengan 5000 client bersamaan, untuk membandingkan
+ * Tomcat dengan platform thread (default) dan virtual thread.
+ *
+ * Jalankan aplikasi dua kali, dengan spring.threads.virtual.enabled=false
+ * lalu true, dan jalankan uji yang sama terhadap masing-masing. Gunakan
+ * endpoint yang benar-benar menunggu database, misalnya pencarian menu
+ * (hasil pencarian tidak di-cache):
+ *
+ * mvn -Pbenchmark test-compile exec:exec@api-load
+ *     -Dload.args="http://localhost:8080/api/menu-items?search=nasi 5000 30 TOKEN"
+ *
+ * Argumen: url [concurrency=5000] [durasi detik=30] [token API]
+ */
+public class VirtualThreadLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Argumen: url [concurrency] [durasi detik] [token API]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        String token = args.length > 3 ? args[3] : null;
+
+        // Timeout panjang: dengan platform thread sebagian besar client
+        // menunggu di antrean koneksi Tomcat
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET().timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpLoadGenerator.run(builder.build(), concurrency, seconds);
+    }
+}
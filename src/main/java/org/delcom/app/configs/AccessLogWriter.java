@@ -0,0 +1,317 @@
+package org.delcom.app.configs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Access log asinkron dalam format JSON (satu objek per baris).
+ *
+ * Thread request hanya menyalin nilai ke slot ring buffer yang sudah
+ * dialokasikan di awal (tanpa lock dan tanpa alokasi objek). Satu thread
+ * background mengosongkan buffer, meng-encode setiap record ke buffer byte
+ * yang dipakai ulang, lalu menulis per batch ke output.
+ *
+ * Jika buffer penuh, record dibuang (policy drop, default) atau thread
+ * request menunggu sampai ada slot kosong (policy block, dengan jeda park
+ * yang bertambah sampai BLOCK_MAX_PARK_NANOS). Jika thread writer tidak
+ * berjalan, record dibuang walaupun policy block, agar request tidak
+ * tertahan selamanya.
+ */
+@Component
+public class AccessLogWriter {
+
+    public static final String POLICY_DROP = "drop";
+    public static final String POLICY_BLOCK = "block";
+
+    // Jeda thread writer saat buffer kosong
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // Jeda thread request saat buffer penuh (policy block)
+    private static final long BLOCK_MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long BLOCK_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Slot[] slots;
+    // Urutan per slot: slot bisa ditulis producer jika nilainya = posisi
+    // producer, dan siap dibaca writer jika nilainya = posisi + 1
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // hanya dipakai thread writer
+
+    private final boolean block;
+    private final OutputStream output;
+    private volatile Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long written = 0;
+    private long reportedDropped = 0;
+
+    // Buffer encode milik thread writer
+    private byte[] buffer = new byte[64 * 1024];
+    private int length = 0;
+
+    // Satu record access log (diisi ulang, tidak pernah dialokasikan per request)
+    private static final class Slot {
+        private long timestamp;
+        private String method;
+        private String uri;
+        private int status;
+        private long durationNanos;
+        private String handler;
+        private String remoteAddr;
+    }
+
+    @Autowired
+    public AccessLogWriter(@Value("${app.access-log.buffer-size:8192}") int bufferSize,
+                           @Value("${app.access-log.full-policy:drop}") String fullPolicy) {
+        this(bufferSize, fullPolicy, System.out);
+    }
+
+    AccessLogWriter(int bufferSize, String fullPolicy, OutputStream output) {
+        // Kapasitas dibulatkan ke pangkat dua agar posisi slot cukup di-mask
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) * 2 - 1);
+        this.slots = new Slot[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+
+        String policy = fullPolicy.toLowerCase(Locale.ROOT);
+        if (!POLICY_DROP.equals(policy) && !POLICY_BLOCK.equals(policy)) {
+            throw new IllegalArgumentException("app.access-log.full-policy harus drop atau block: " + fullPolicy);
+        }
+        this.block = POLICY_BLOCK.equals(policy);
+        this.output = output;
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread thread = new Thread(this::drainLoop, "access-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+    }
+
+    /**
+     * Menambahkan satu record ke buffer
+     *
+     * @return false jika record dibuang karena buffer penuh (policy drop)
+     *         atau writer sudah berhenti
+     */
+    public boolean append(long timestamp, String method, String uri, int status, long durationNanos,
+                          String handler, String remoteAddr) {
+        long position = tail.get();
+        long parkNanos = BLOCK_MIN_PARK_NANOS;
+        while (true) {
+            if (!running) {
+                return false;
+            }
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    slot.timestamp = timestamp;
+                    slot.method = method;
+                    slot.uri = uri;
+                    slot.status = status;
+                    slot.durationNanos = durationNanos;
+                    slot.handler = handler;
+                    slot.remoteAddr = remoteAddr;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (available < 0) {
+                // Buffer penuh
+                Thread thread = writer;
+                if (!block || thread == null || !thread.isAlive()) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                LockSupport.unpark(thread);
+                LockSupport.parkNanos(this, parkNanos);
+                parkNanos = Math.min(parkNanos * 2, BLOCK_MAX_PARK_NANOS);
+            }
+            position = tail.get();
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        // Sisa record ditulis sebelum berhenti
+        drain();
+    }
+
+    // Mengosongkan buffer sekali jalan, lalu menulis hasilnya sebagai satu batch
+    int drain() {
+        int count = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            encode(slots[index]);
+            // Referensi String dilepas agar bisa di-GC
+            slots[index].method = null;
+            slots[index].uri = null;
+            slots[index].handler = null;
+            slots[index].remoteAddr = null;
+            sequences.set(index, head + slots.length);
+            head++;
+            count++;
+        }
+        if (count > 0) {
+            flush();
+            written += count;
+        }
+
+        long droppedNow = dropped.get();
+        if (droppedNow != reportedDropped) {
+            System.err.println("Access log: " + (droppedNow - reportedDropped) + " record dibuang (buffer penuh)");
+            reportedDropped = droppedNow;
+        }
+        return count;
+    }
+
+    private void flush() {
+        try {
+            output.write(buffer, 0, length);
+            output.flush();
+        } catch (IOException e) {
+            System.err.println("Access log gagal ditulis: " + e.getMessage());
+        }
+        length = 0;
+    }
+
+    // {"ts":..,"method":"..","uri":"..","status":..,"durationMs":..,"handler":"..","remote":".."}
+    private void encode(Slot slot) {
+        ascii("{\"ts\":");
+        number(slot.timestamp);
+        ascii(",\"method\":");
+        string(slot.method);
+        ascii(",\"uri\":");
+        string(slot.uri);
+        ascii(",\"status\":");
+        number(slot.status);
+        ascii(",\"durationMs\":");
+        // Milidetik dengan 3 desimal tanpa memformat double
+        long micros = slot.durationNanos / 1000;
+        number(micros / 1000);
+        put('.');
+        long fraction = micros % 1000;
+        put((char) ('0' + fraction / 100));
+        put((char) ('0' + fraction / 10 % 10));
+        put((char) ('0' + fraction % 10));
+        ascii(",\"handler\":");
+        string(slot.handler);
+        ascii(",\"remote\":");
+        string(slot.remoteAddr);
+        ascii("}\n");
+    }
+
+    private void ascii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            put(value.charAt(i));
+        }
+    }
+
+    private void number(long value) {
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        if (value >= 10) {
+            number(value / 10);
+        }
+        put((char) ('0' + value % 10));
+    }
+
+    // String JSON (UTF-8), null ditulis sebagai null
+    private void string(String value) {
+        if (value == null) {
+            ascii("null");
+            return;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                put('\\');
+                put(c);
+            } else if (c < 0x20) {
+                ascii("\\u00");
+                put(Character.forDigit(c >> 4, 16));
+                put(Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                put(c);
+            } else if (c < 0x800) {
+                put((char) (0xC0 | c >> 6));
+                put((char) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                put((char) (0xF0 | codePoint >> 18));
+                put((char) (0x80 | codePoint >> 12 & 0x3F));
+                put((char) (0x80 | codePoint >> 6 & 0x3F));
+                put((char) (0x80 | codePoint & 0x3F));
+            } else {
+                put((char) (0xE0 | c >> 12));
+                put((char) (0x80 | c >> 6 & 0x3F));
+                put((char) (0x80 | c & 0x3F));
+            }
+        }
+        put('"');
+    }
+
+    // Menulis satu byte (nilai char < 256)
+    private void put(char value) {
+        if (length == buffer.length) {
+            flush();
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,59 @@
+package org.delcom.app.configs;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Ukuran pool koneksi database (HikariCP).
+ *
+ * Pada mode virtual thread (spring.threads.virtual.enabled=true) jumlah
+ * request yang berjalan bersamaan tidak lagi dibatasi thread pool Tomcat,
+ * sehingga pool koneksi menjadi batas beban ke PostgreSQL. Pool sengaja
+ * tidak diperbesar mengikuti jumlah request: request yang belum mendapat
+ * koneksi cukup menunggu (murah untuk virtual thread) sampai
+ * spring.datasource.hikari.connection-timeout.
+ *
+ * Jumlah koneksi yang efisien ditentukan oleh server PostgreSQL (sekitar
+ * jumlah core server database x 2 + 1), bukan oleh server aplikasi, dan
+ * dibagi oleh semua node aplikasi. Karena itu, jika
+ * spring.datasource.hikari.maximum-pool-size tidak diisi (atau kosong),
+ * ukuran pool per node adalah app.db.max-connections / app.db.nodes. Tanpa
+ * app.db.max-connections ukuran default HikariCP dipakai.
+ */
+@Configuration
+public class DataSourcePoolConfig {
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+    static final String MAX_CONNECTIONS = "app.db.max-connections";
+    static final String NODES = "app.db.nodes";
+
+    @Bean
+    static BeanPostProcessor hikariPoolSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && !StringUtils.hasText(environment.getProperty(MAXIMUM_POOL_SIZE))) {
+                    Integer maxConnections = environment.getProperty(MAX_CONNECTIONS, Integer.class);
+                    if (maxConnections != null) {
+                        int nodes = environment.getProperty(NODES, Integer.class, 1);
+                        int poolSize = poolSize(maxConnections, nodes);
+                        dataSource.setMaximumPoolSize(poolSize);
+                        System.out.println("Pool koneksi database: " + poolSize + " koneksi ("
+                                + maxConnections + " koneksi / " + nodes + " node)");
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int maxConnections, int nodes) {
+        return Math.max(1, maxConnections / Math.max(1, nodes));
+    }
+}
@@ -0,0 +1,48 @@
+package org.delcom.app.configs;
+
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Membuat index PostgreSQL yang tidak bisa dideklarasikan lewat anotasi JPA
+ * (misalnya index ekspresi GIN untuk full-text search) dan migrasi data
+ * kecil. Dijalankan setelah Hibernate memperbarui skema, dan aman
+ * dijalankan berulang kali.
+ */
+@Component
+public class DatabaseIndexInitializer implements ApplicationRunner {
+
+    static final List<String> STATEMENTS = List.of(
+            // Full-text search menu (nama berbobot lebih tinggi dari deskripsi)
+            "CREATE INDEX IF NOT EXISTS idx_menu_items_search ON menu_items USING GIN (("
+                    + "setweight(to_tsvector('simple', coalesce(name, '')), 'A') || "
+                    + "setweight(to_tsvector('simple', coalesce(description, '')), 'B')))",
+
+            // Migrasi auth_tokens lama ke pencarian berdasarkan hash token:
+            // buang duplikat (user, token) lalu isi token_hash yang masih kosong
+            "DELETE FROM auth_tokens a USING auth_tokens b WHERE a.token_hash IS NULL "
+                    + "AND a.user_id = b.user_id AND a.token = b.token AND a.id < b.id",
+            "UPDATE auth_tokens SET token_hash = sha256(convert_to(token, 'UTF8')) WHERE token_hash IS NULL");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                // Jangan gagalkan startup, query tetap berjalan tanpa index
+                System.err.println("Gagal membuat index database: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.delcom.app.configs;
+
+import java.util.function.ToDoubleFunction;
+
+import org.delcom.app.services.AuthPrincipalCache;
+import org.delcom.app.services.AuthTokenReaper;
+import org.delcom.app.services.ImageUploadService;
+import org.delcom.app.services.MenuCatalogCache;
+import org.delcom.app.services.OrphanImageCollector;
+import org.delcom.app.services.PasswordHashingService;
+import org.delcom.app.services.VirtualThreadPinningMonitor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrik Micrometer untuk statistik yang sudah dihitung service aplikasi
+ * (cache, upload gambar, hashing password, job terjadwal, virtual thread,
+ * access log).
+ *
+ * Nilai dibaca dari getter service saat di-scrape, sehingga tidak ada
+ * biaya tambahan di jalur request. Metrik lain datang dari Spring Boot:
+ * http.server.requests (latency per endpoint), spring.data.repository.invocations
+ * (query repository) dan hikaricp.connections.* (termasuk waktu tunggu
+ * koneksi pool). Semua diekspor lewat /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder applicationStatsMetrics(MenuCatalogCache menuCatalogCache, AuthPrincipalCache authPrincipalCache,
+                                        ImageUploadService imageUploadService,
+                                        PasswordHashingService passwordHashingService,
+                                        OrphanImageCollector orphanImageCollector, AuthTokenReaper authTokenReaper,
+                                        VirtualThreadPinningMonitor pinningMonitor, AccessLogWriter accessLogWriter) {
+        return registry -> {
+            // Cache (nama metrik mengikuti konvensi cache Micrometer)
+            counter(registry, "cache.gets", menuCatalogCache, MenuCatalogCache::getHits,
+                    "cache", "menu_catalog", "result", "hit");
+            counter(registry, "cache.gets", menuCatalogCache, MenuCatalogCache::getMisses,
+                    "cache", "menu_catalog", "result", "miss");
+            counter(registry, "cache.evictions", menuCatalogCache, MenuCatalogCache::getEvictions,
+                    "cache", "menu_catalog");
+            gauge(registry, "cache.size", menuCatalogCache, MenuCatalogCache::getWeight,
+                    "cache", "menu_catalog");
+            counter(registry, "cache.gets", authPrincipalCache, AuthPrincipalCache::getHits,
+                    "cache", "auth_principal", "result", "hit");
+            counter(registry, "cache.gets", authPrincipalCache, AuthPrincipalCache::getMisses,
+                    "cache", "auth_principal", "result", "miss");
+            counter(registry, "cache.evictions", authPrincipalCache, AuthPrincipalCache::getEvictions,
+                    "cache", "auth_principal");
+            gauge(registry, "cache.size", authPrincipalCache, AuthPrincipalCache::getSize,
+                    "cache", "auth_principal");
+
+            // Upload gambar asinkron
+            counter(registry, "app.image.upload.submitted", imageUploadService, ImageUploadService::getSubmitted);
+            counter(registry, "app.image.upload", imageUploadService, ImageUploadService::getCompleted,
+                    "result", "completed");
+            counter(registry, "app.image.upload", imageUploadService, ImageUploadService::getFailures,
+                    "result", "failed");
+            counter(registry, "app.image.upload", imageUploadService, ImageUploadService::getSuperseded,
+                    "result", "superseded");
+            counter(registry, "app.image.upload", imageUploadService, ImageUploadService::getRejected,
+                    "result", "rejected");
+            counter(registry, "app.image.upload.deduplicated", imageUploadService,
+                    ImageUploadService::getDeduplicated);
+            counter(registry, "app.image.upload.released", imageUploadService, ImageUploadService::getReleased);
+            gauge(registry, "app.image.upload.queue", imageUploadService, ImageUploadService::getQueueDepth);
+
+            // Executor hashing password (durasi dicatat timer app.auth.password-hash)
+            gauge(registry, "app.auth.password-hash.queue", passwordHashingService,
+                    PasswordHashingService::getQueueDepth);
+            gauge(registry, "app.auth.password-hash.active", passwordHashingService,
+                    PasswordHashingService::getActiveCount);
+            counter(registry, "app.auth.password-hash.rejected", passwordHashingService,
+                    PasswordHashingService::getRejected);
+
+            // Job terjadwal
+            counter(registry, "app.image.orphan-gc.runs", orphanImageCollector, OrphanImageCollector::getRuns);
+            counter(registry, "app.image.orphan-gc.deleted", orphanImageCollector,
+                    OrphanImageCollector::getTotalDeletedFiles);
+            FunctionCounter.builder("app.image.orphan-gc.reclaimed", orphanImageCollector,
+                    OrphanImageCollector::getTotalReclaimedBytes).baseUnit("bytes").register(registry);
+            counter(registry, "app.auth.token-reaper.runs", authTokenReaper, AuthTokenReaper::getRuns);
+            counter(registry, "app.auth.token-reaper.reclaimed", authTokenReaper,
+                    AuthTokenReaper::getTotalReclaimed);
+
+            // Virtual thread yang pinned ke carrier thread (event JFR)
+            counter(registry, "app.threads.pinned", pinningMonitor, VirtualThreadPinningMonitor::getPinnedEvents);
+            FunctionCounter.builder("app.threads.pinned.duration", pinningMonitor,
+                    monitor -> monitor.getPinnedNanos() / 1e9).baseUnit("seconds").register(registry);
+            Gauge.builder("app.threads.pinned.max", pinningMonitor,
+                    monitor -> monitor.getMaxPinnedNanos() / 1e9).baseUnit("seconds").register(registry);
+
+            // Access log
+            counter(registry, "app.access-log.written", accessLogWriter, AccessLogWriter::getWritten);
+            counter(registry, "app.access-log.dropped", accessLogWriter, AccessLogWriter::getDropped);
+            gauge(registry, "app.access-log.capacity", accessLogWriter, AccessLogWriter::getCapacity);
+        };
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value,
+                                    String... tags) {
+        FunctionCounter.builder(name, source, value).tags(tags).register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value,
+                                  String... tags) {
+        Gauge.builder(name, source, value).tags(tags).register(registry);
+    }
+}
@@ -4,27 +4,33 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
-
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mencatat setiap request ke access log (AccessLogWriter).
+ *
+ * Asal request diambil dari handler yang sudah dipilih Spring MVC
+ * (atribut HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE), dan nama
+ * handler dibentuk sekali per method controller lalu dipakai ulang.
+ */
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final String RESET = "\u001B[0m";
-    private static final String GREEN = "\u001B[32m";
-    private static final String YELLOW = "\u001B[33m";
-    private static final String RED = "\u001B[31m";
-    private static final String CYAN = "\u001B[36m";
+    private final AccessLogWriter accessLogWriter;
 
-    @Value("${server.port:8080}")
-    private int port;
+    // Nama handler per method controller, misalnya MenuItemController.getAllMenuItems
+    private final ConcurrentHashMap<Method, String> handlerNames = new ConcurrentHashMap<>();
 
-    @Value("${spring.devtools.livereload.enabled:false}")
-    private boolean livereload;
+    public RequestLoggingFilter(AccessLogWriter accessLogWriter) {
+        this.accessLogWriter = accessLogWriter;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,45 +38,24 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
+        long duration = System.nanoTime() - start;
 
-        int status = response.getStatus();
-        String color;
-        if (status >= 500) {
-            color = RED;
-        } else if (status >= 400) {
-            color = YELLOW;
-        } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/.well-known")) {
+            return;
         }
+        accessLogWriter.append(System.currentTimeMillis(), request.getMethod(), uri, response.getStatus(),
+                duration, handlerName(request), request.getRemoteAddr());
+    }
 
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
-
-        String remoteAddr = request.getRemoteAddr();
-
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
-                request.getMethod(),
-                request.getRequestURI(),
-                status,
-                duration,
-                RESET,
-                originInfo,
-                remoteAddr);
-
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
+    // null jika request tidak ditangani controller (file statis, error sebelum dispatch)
+    private String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return handlerNames.computeIfAbsent(handler.getMethod(),
+                    method -> method.getDeclaringClass().getSimpleName() + "." + method.getName());
         }
+        return null;
     }
 }
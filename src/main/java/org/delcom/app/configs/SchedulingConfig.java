@@ -0,0 +1,12 @@
+package org.delcom.app.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Mengaktifkan job terjadwal (@Scheduled), misalnya rekonsiliasi menu_stats
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package org.delcom.app.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,7 +13,12 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
         @Bean
-        SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        SecurityFilterChain securityFilterChain(HttpSecurity http,
+                        @Value("${server.port:8080}") int serverPort,
+                        @Value("${management.server.port:-1}") int managementPort) throws Exception {
+                // Scrape Prometheus tanpa login hanya lewat port management yang
+                // terpisah (internal), tidak pernah lewat port publik aplikasi
+                boolean separateManagementPort = managementPort > 0 && managementPort != serverPort;
                 http
                                 .exceptionHandling(ex -> ex
                                                 .authenticationEntryPoint((req, res, e) -> {
@@ -22,6 +28,13 @@ public class SecurityConfig {
                                                 .requestMatchers("/auth/**", "/assets/**", "/api/**",
                                                                 "/css/**", "/js/**")
                                                 .permitAll()
+                                                // Health check (tanpa login)
+                                                .requestMatchers("/actuator/health")
+                                                .permitAll()
+                                                .requestMatchers(request -> separateManagementPort
+                                                                && request.getLocalPort() == managementPort
+                                                                && "/actuator/prometheus".equals(request.getRequestURI()))
+                                                .permitAll()
                                                 .anyRequest().authenticated())
 
                                 .formLogin(form -> form.disable())
@@ -24,6 +24,8 @@ public class StartupInfoLogger implements ApplicationListener<ApplicationReadyEv
         boolean liveReloadEnabled = env.getProperty("spring.devtools.livereload.enabled", Boolean.class, false);
         String liveReloadPort = env.getProperty("spring.devtools.livereload.port", "35729");
 
+        boolean virtualThreads = Boolean.TRUE.equals(env.getProperty("spring.threads.virtual.enabled", Boolean.class));
+
         // Ambil host (default localhost)
         String host = env.getProperty("server.address", "localhost");
 
@@ -40,6 +42,7 @@ public class StartupInfoLogger implements ApplicationListener<ApplicationReadyEv
                 liveReloadEnabled
                         ? (YELLOW + "> LiveReload: ENABLED (port " + liveReloadPort + ")" + RESET)
                         : (YELLOW + "> LiveReload: DISABLED" + RESET));
+        System.out.println(YELLOW + "> Virtual threads: " + (virtualThreads ? "ENABLED" : "DISABLED") + RESET);
         System.out.println();
     }
 }
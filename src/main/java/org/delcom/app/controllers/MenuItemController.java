@@ -1,18 +1,35 @@
 package org.delcom.app.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.MenuBatchRequest;
+import org.delcom.app.dto.MenuBatchResult;
+import org.delcom.app.dto.MenuImportResult;
+import org.delcom.app.dto.MenuItemPage;
 import org.delcom.app.entities.MenuItem;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.ImageUploadService;
+import org.delcom.app.services.MenuBatchService;
+import org.delcom.app.services.MenuExportService;
+import org.delcom.app.services.MenuImportService;
 import org.delcom.app.services.MenuItemService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/menu-items")
 public class MenuItemController {
@@ -22,6 +39,18 @@ public class MenuItemController {
     @Autowired
     protected AuthContext authContext;
 
+    @Autowired
+    protected ImageUploadService imageUploadService;
+
+    @Autowired
+    protected MenuImportService menuImportService;
+
+    @Autowired
+    protected MenuExportService menuExportService;
+
+    @Autowired
+    protected MenuBatchService menuBatchService;
+
     public MenuItemController(MenuItemService menuItemService) {
         this.menuItemService = menuItemService;
     }
@@ -31,21 +60,12 @@ public class MenuItemController {
     public ResponseEntity<ApiResponse<Map<String, UUID>>> createMenuItem(@RequestBody MenuItem reqMenuItem) {
         
         // Validasi input
-        if (reqMenuItem.getName() == null || reqMenuItem.getName().isEmpty()) {
-            return ResponseEntity.badRequest()
-                .body(new ApiResponse<>("fail", "Nama menu tidak boleh kosong", null));
-        }
-        if (reqMenuItem.getCategory() == null || reqMenuItem.getCategory().isEmpty()) {
-            return ResponseEntity.badRequest()
-                .body(new ApiResponse<>("fail", "Kategori tidak boleh kosong", null));
-        }
-        if (reqMenuItem.getPrice() == null || reqMenuItem.getPrice() <= 0) {
+        String error = MenuItemService.validateNewMenuItem(reqMenuItem.getName(), reqMenuItem.getCategory(),
+                reqMenuItem.getPrice(), reqMenuItem.getPreparationTime(), reqMenuItem.getSpicyLevel(),
+                reqMenuItem.getCalories());
+        if (error != null) {
             return ResponseEntity.badRequest()
-                .body(new ApiResponse<>("fail", "Harga harus lebih dari 0", null));
-        }
-        if (reqMenuItem.getPreparationTime() == null || reqMenuItem.getPreparationTime() <= 0) {
-            return ResponseEntity.badRequest()
-                .body(new ApiResponse<>("fail", "Waktu persiapan harus lebih dari 0", null));
+                .body(new ApiResponse<>("fail", error, null));
         }
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
@@ -72,10 +92,98 @@ public class MenuItemController {
         ));
     }
 
-    // READ - Mendapatkan semua menu dengan opsi pencarian
+    // CREATE - Import banyak menu sekaligus dari CSV (baris pertama header) atau NDJSON
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<ApiResponse<MenuImportResult>> importMenuItems(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        String format = MediaType.parseMediaType(contentType).getSubtype().equals("csv")
+                ? MenuImportService.FORMAT_CSV
+                : MenuImportService.FORMAT_NDJSON;
+        MenuImportResult result;
+        try {
+            result = menuImportService.importMenuItems(authUser.getId(), format, body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Import selesai: " + result.getImported() + " menu ditambahkan, " + result.getFailed() + " baris gagal",
+            result
+        ));
+    }
+
+    // READ - Export semua menu sebagai CSV atau NDJSON, opsional dikompresi gzip (.gz)
+    // Ditulis langsung ke response selama baris dibaca dari database. Jika
+    // export gagal setelah body mulai terkirim, koneksi diputus sehingga
+    // body terpotong (lihat MenuExportService) dan harus dianggap gagal.
+    @GetMapping("/export")
+    public void exportMenuItems(
+            @RequestParam(defaultValue = MenuImportService.FORMAT_CSV) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+
+        if (!authContext.isAuthenticated()) {
+            sendFailResponse(response, 403, "User tidak terautentikasi");
+            return;
+        }
+        User authUser = authContext.getAuthUser();
+
+        boolean csv = format.equals(MenuImportService.FORMAT_CSV);
+        if (!csv && !format.equals(MenuImportService.FORMAT_NDJSON)) {
+            sendFailResponse(response, 400, "Format export harus csv atau ndjson");
+            return;
+        }
+
+        String filename = "menu-items." + format + (gzip ? ".gz" : "");
+        if (gzip) {
+            response.setContentType("application/gzip");
+        } else {
+            response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        OutputStream output = response.getOutputStream();
+        try {
+            if (gzip) {
+                GZIPOutputStream gzipOutput = new GZIPOutputStream(output, 8192);
+                menuExportService.exportMenuItems(authUser.getId(), format, gzipOutput);
+                gzipOutput.finish();
+            } else {
+                menuExportService.exportMenuItems(authUser.getId(), format, output);
+            }
+        } catch (IllegalStateException e) {
+            // Semua slot export terpakai; belum ada data yang terkirim
+            response.reset();
+            sendFailResponse(response, 503, e.getMessage());
+        }
+    }
+
+    // Body sama dengan ApiResponse, untuk handler yang menulis response sendiri
+    private void sendFailResponse(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(String.format(
+                "{\"status\":\"fail\",\"message\":\"%s\",\"data\":null}", message));
+    }
+
+    // READ - Mendapatkan menu per halaman dengan opsi pencarian
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, List<MenuItem>>>> getAllMenuItems(
-            @RequestParam(required = false) String search) {
+    public ResponseEntity<ApiResponse<MenuItemPage>> getAllMenuItems(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403)
@@ -83,11 +191,16 @@ public class MenuItemController {
         }
         User authUser = authContext.getAuthUser();
 
-        List<MenuItem> menuItems = menuItemService.getAllMenuItems(authUser.getId(), search);
+        MenuItemPage page = menuItemService.getMenuItemsPage(authUser.getId(), null, search, cursor, limit);
+        if (page == null) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Cursor tidak valid", null));
+        }
+
         return ResponseEntity.ok(new ApiResponse<>(
             "success",
             "Daftar menu berhasil diambil",
-            Map.of("menuItems", menuItems)
+            page
         ));
     }
 
@@ -114,10 +227,12 @@ public class MenuItemController {
         ));
     }
 
-    // READ - Mendapatkan menu berdasarkan kategori
+    // READ - Mendapatkan menu per halaman berdasarkan kategori
     @GetMapping("/category/{category}")
-    public ResponseEntity<ApiResponse<Map<String, List<MenuItem>>>> getMenuItemsByCategory(
-            @PathVariable String category) {
+    public ResponseEntity<ApiResponse<MenuItemPage>> getMenuItemsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403)
@@ -125,11 +240,16 @@ public class MenuItemController {
         }
         User authUser = authContext.getAuthUser();
 
-        List<MenuItem> menuItems = menuItemService.getMenuItemsByCategory(authUser.getId(), category);
+        MenuItemPage page = menuItemService.getMenuItemsPage(authUser.getId(), category, null, cursor, limit);
+        if (page == null) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", "Cursor tidak valid", null));
+        }
+
         return ResponseEntity.ok(new ApiResponse<>(
             "success",
             "Daftar menu berdasarkan kategori berhasil diambil",
-            Map.of("menuItems", menuItems)
+            page
         ));
     }
 
@@ -184,6 +304,33 @@ public class MenuItemController {
         ));
     }
 
+    // UPDATE - Mengubah banyak menu sekaligus dalam satu transaksi:
+    // ketersediaan, harga (persentase per ID atau per kategori), atau hapus
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<MenuBatchResult>> batchUpdateMenuItems(
+            @RequestBody MenuBatchRequest reqBatch) {
+
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403)
+                .body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        MenuBatchResult result;
+        try {
+            result = menuBatchService.applyBatch(authUser.getId(), reqBatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+            "success",
+            "Batch selesai: " + result.getAffected() + " menu diproses",
+            result
+        ));
+    }
+
     // DELETE - Menghapus menu
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<String>> deleteMenuItem(@PathVariable UUID id) {
@@ -194,12 +341,16 @@ public class MenuItemController {
         }
         User authUser = authContext.getAuthUser();
 
+        String imageUrl = menuItemService.getMenuImageUrl(id);
         boolean status = menuItemService.deleteMenuItem(authUser.getId(), id);
         if (!status) {
             return ResponseEntity.status(404)
                 .body(new ApiResponse<>("fail", "Menu tidak ditemukan", null));
         }
 
+        // File gambar dihapus jika tidak dipakai menu lain
+        imageUploadService.releaseImage(imageUrl);
+
         return ResponseEntity.ok(new ApiResponse<>(
             "success",
             "Menu berhasil dihapus",
@@ -2,17 +2,18 @@ package org.delcom.app.controllers;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -29,6 +30,11 @@ public class UserController {
     @Autowired
     protected AuthContext authContext;
 
+    @Autowired
+    protected PasswordHashingService passwordHashingService;
+
+    private static final String MESSAGE_BUSY = "Server sedang sibuk, silakan coba lagi";
+
     // Melakukan registrasi pengguna
     // -------------------------------
     @PostMapping("/auth/register")
@@ -49,7 +55,12 @@ public class UserController {
                             null));
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(reqUser.getPassword());
+        String hashPassword;
+        try {
+            hashPassword = passwordHashingService.encode(reqUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).body(new ApiResponse<>("fail", MESSAGE_BUSY, null));
+        }
 
         User createdUser = userService.createUser(
                 reqUser.getName(),
@@ -77,8 +88,12 @@ public class UserController {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(reqUser.getPassword(), existingUser.getPassword());
+        boolean isPasswordMatch;
+        try {
+            isPasswordMatch = passwordHashingService.matches(reqUser.getPassword(), existingUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).body(new ApiResponse<>("fail", MESSAGE_BUSY, null));
+        }
         if (!isPasswordMatch) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
@@ -170,15 +185,22 @@ public class UserController {
                     .body(new ApiResponse<>("fail", "Password lama dan baru wajib diisi", null));
         }
 
-        // Validasi password lama
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(oldPassword, authUser.getPassword());
-        if (!isPasswordMatch) {
-            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+        String hashPassword;
+        try {
+            // Validasi password lama
+            boolean isPasswordMatch = passwordHashingService.matches(oldPassword, authUser.getPassword());
+            if (!isPasswordMatch) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+            }
+
+            // Hash password baru
+            hashPassword = passwordHashingService.encode(newPassword);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).body(new ApiResponse<>("fail", MESSAGE_BUSY, null));
         }
 
         // Update password baru
-        String hashPassword = new BCryptPasswordEncoder().encode(newPassword);
         User updatedUser = userService.updatePassword(authUser.getId(), hashPassword);
         if (updatedUser == null) {
             ApiResponse<Void> response = new ApiResponse<>("fail", "User tidak ditemukan", null);
@@ -0,0 +1,57 @@
+package org.delcom.app.dto;
+
+/**
+ * Statistik menu untuk satu kategori, dibaca dari tabel menu_stats
+ */
+public class CategoryStats {
+
+    private final String category;
+    private final long count;
+    private final long availableCount;
+    private final double averagePrice;
+    private final double totalPrice;
+    private final Integer minPreparationTime;
+    private final Integer maxPreparationTime;
+
+    // Constructor (dipakai oleh constructor expression JPQL)
+    public CategoryStats(String category, Long count, Long availableCount,
+                         Double averagePrice, Double totalPrice,
+                         Integer minPreparationTime, Integer maxPreparationTime) {
+        this.category = category;
+        this.count = count;
+        this.availableCount = availableCount;
+        this.averagePrice = averagePrice;
+        this.totalPrice = totalPrice;
+        this.minPreparationTime = minPreparationTime;
+        this.maxPreparationTime = maxPreparationTime;
+    }
+
+    // Getters
+    public String getCategory() {
+        return category;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getAvailableCount() {
+        return availableCount;
+    }
+
+    public double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Integer getMinPreparationTime() {
+        return minPreparationTime;
+    }
+
+    public Integer getMaxPreparationTime() {
+        return maxPreparationTime;
+    }
+}
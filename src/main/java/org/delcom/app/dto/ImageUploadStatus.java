@@ -0,0 +1,45 @@
+package org.delcom.app.dto;
+
+import java.util.UUID;
+
+public class ImageUploadStatus {
+
+    public static final String PENDING = "PENDING";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private final UUID uploadId;
+    private final String state;
+    private final String message;
+    private final String imageUrl; // nama file gambar, hanya terisi jika DONE
+
+    // Constructor
+    public ImageUploadStatus(UUID uploadId, String state, String message, String imageUrl) {
+        this.uploadId = uploadId;
+        this.state = state;
+        this.message = message;
+        this.imageUrl = imageUrl;
+    }
+
+    // Getters
+    public UUID getUploadId() {
+        return uploadId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public boolean isFinished() {
+        return DONE.equals(state) || FAILED.equals(state);
+    }
+}
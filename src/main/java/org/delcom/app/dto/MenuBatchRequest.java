@@ -0,0 +1,58 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class MenuBatchRequest {
+
+    private String action; // availability, price, atau delete
+    private List<UUID> ids;
+    private String category; // target perubahan harga per kategori (pengganti ids)
+    private Boolean isAvailable; // untuk action availability
+    private Double pricePercent; // untuk action price, misalnya 10 (naik 10%) atau -5 (turun 5%)
+
+    // Constructor
+    public MenuBatchRequest() {
+    }
+
+    // Getters and Setters
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+
+    public Double getPricePercent() {
+        return pricePercent;
+    }
+
+    public void setPricePercent(Double pricePercent) {
+        this.pricePercent = pricePercent;
+    }
+}
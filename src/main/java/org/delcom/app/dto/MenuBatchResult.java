@@ -0,0 +1,40 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class MenuBatchResult {
+
+    private final String action;
+    private final long affected;
+    private final List<ItemResult> results;
+
+    /**
+     * Hasil batch untuk satu menu
+     *
+     * @param id     - ID menu
+     * @param status - updated, deleted, atau not_found
+     */
+    public record ItemResult(UUID id, String status) {
+    }
+
+    // Constructor
+    public MenuBatchResult(String action, long affected, List<ItemResult> results) {
+        this.action = action;
+        this.affected = affected;
+        this.results = results;
+    }
+
+    // Getters
+    public String getAction() {
+        return action;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+
+    public List<ItemResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,43 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+public class MenuImportResult {
+
+    private final long imported;
+    private final long failed;
+    private final List<RowError> errors; // dibatasi, bisa lebih sedikit dari failed
+
+    /**
+     * Baris yang gagal diimport
+     *
+     * @param row     - nomor baris di file (baris header CSV = 1)
+     * @param message - alasan gagal
+     */
+    public record RowError(long row, String message) {
+    }
+
+    // Constructor
+    public MenuImportResult(long imported, long failed, List<RowError> errors) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    // Getters
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errors.size() < failed;
+    }
+}
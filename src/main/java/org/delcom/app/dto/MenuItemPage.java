@@ -0,0 +1,30 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+import org.delcom.app.entities.MenuItem;
+
+public class MenuItemPage {
+
+    private final List<MenuItem> menuItems;
+    private final String nextCursor; // null jika sudah halaman terakhir
+
+    // Constructor
+    public MenuItemPage(List<MenuItem> menuItems, String nextCursor) {
+        this.menuItems = menuItems;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<MenuItem> getMenuItems() {
+        return menuItems;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,59 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+/**
+ * Ringkasan statistik menu milik user: per kategori dan keseluruhan.
+ * Angka keseluruhan diturunkan dari baris per kategori sehingga cukup
+ * satu query agregasi.
+ */
+public class MenuStats {
+
+    private final List<CategoryStats> categories;
+    private final long totalMenus;
+    private final long availableMenus;
+    private final double totalPrice;
+
+    // Constructor
+    public MenuStats(List<CategoryStats> categories) {
+        this.categories = categories;
+
+        long menus = 0;
+        long available = 0;
+        double price = 0;
+        for (CategoryStats stats : categories) {
+            menus += stats.getCount();
+            available += stats.getAvailableCount();
+            price += stats.getTotalPrice();
+        }
+        this.totalMenus = menus;
+        this.availableMenus = available;
+        this.totalPrice = price;
+    }
+
+    // Getters
+    public List<CategoryStats> getCategories() {
+        return categories;
+    }
+
+    public long getTotalMenus() {
+        return totalMenus;
+    }
+
+    public long getAvailableMenus() {
+        return availableMenus;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public int getTotalCategories() {
+        return categories.size();
+    }
+
+    // Rata-rata harga seluruh menu (0 jika belum ada menu)
+    public double getAveragePrice() {
+        return totalMenus == 0 ? 0.0 : totalPrice / totalMenus;
+    }
+}
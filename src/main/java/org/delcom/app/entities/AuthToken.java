@@ -3,12 +3,18 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.delcom.app.utils.HashUtil;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "auth_tokens")
+@Table(name = "auth_tokens", indexes = {
+        @Index(name = "uk_auth_tokens_user_token_hash", columnList = "user_id, token_hash", unique = true),
+        @Index(name = "idx_auth_tokens_created_at", columnList = "created_at")
+})
 @JsonPropertyOrder({ "id", "token", "userId", "createdAt" })
 public class AuthToken {
     @Id
@@ -19,6 +25,11 @@ public class AuthToken {
     @Column(name = "token", nullable = false, columnDefinition = "TEXT")
     private String token;
 
+    // SHA-256 dari token, dipakai untuk pencarian lewat index (user_id, token_hash)
+    @JsonIgnore
+    @Column(name = "token_hash", columnDefinition = "bytea")
+    private byte[] tokenHash;
+
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
@@ -31,6 +42,7 @@ public class AuthToken {
     public AuthToken(UUID userId, String token) {
         this.userId = userId;
         this.token = token;
+        this.tokenHash = hashToken(token);
         this.createdAt = LocalDateTime.now();
     }
 
@@ -48,6 +60,15 @@ public class AuthToken {
 
     public void setToken(String token) {
         this.token = token;
+        this.tokenHash = hashToken(token);
+    }
+
+    private static byte[] hashToken(String token) {
+        return token == null ? null : HashUtil.sha256(token);
+    }
+
+    public byte[] getTokenHash() {
+        return tokenHash;
     }
 
     public UUID getUserId() {
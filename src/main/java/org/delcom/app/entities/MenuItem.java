@@ -5,7 +5,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "menu_items")
+@Table(name = "menu_items", indexes = {
+        @Index(name = "idx_menu_items_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_menu_items_user_category_created", columnList = "user_id, category, created_at, id"),
+        @Index(name = "idx_menu_items_image_url", columnList = "image_url")
+})
 public class MenuItem {
 
     // ===== ATRIBUT WAJIB (4) =====
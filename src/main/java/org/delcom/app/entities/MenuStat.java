@@ -0,0 +1,87 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Statistik menu per user per kategori yang diperbarui secara inkremental
+ * setiap kali menu ditambah, diubah, atau dihapus (lihat MenuStatService).
+ * Tabel ini hanya ditulis lewat native query di MenuStatRepository.
+ */
+@Entity
+@Table(name = "menu_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_menu_stats_user_category", columnNames = { "user_id", "category" })
+})
+public class MenuStat {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+
+    @Column(name = "menu_count", nullable = false)
+    private Long menuCount;
+
+    @Column(name = "price_sum", nullable = false)
+    private Double priceSum;
+
+    @Column(name = "available_count", nullable = false)
+    private Long availableCount;
+
+    @Column(name = "min_preparation_time")
+    private Integer minPreparationTime;
+
+    @Column(name = "max_preparation_time")
+    private Integer maxPreparationTime;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // ===== CONSTRUCTOR =====
+    public MenuStat() {
+    }
+
+    // ===== GETTERS =====
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Long getMenuCount() {
+        return menuCount;
+    }
+
+    public Double getPriceSum() {
+        return priceSum;
+    }
+
+    public Long getAvailableCount() {
+        return availableCount;
+    }
+
+    public Integer getMinPreparationTime() {
+        return minPreparationTime;
+    }
+
+    public Integer getMaxPreparationTime() {
+        return maxPreparationTime;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -50,6 +50,16 @@ public class User {
         this.password = password;
     }
 
+    // Salinan untuk dipakai per request (misalnya dari cache autentikasi)
+    public User(User other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.email = other.email;
+        this.password = other.password;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // ======= Getters and Setters =======
     public UUID getId() {
         return id;
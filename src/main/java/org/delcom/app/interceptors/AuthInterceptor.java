@@ -3,6 +3,7 @@ package org.delcom.app.interceptors;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthPrincipalCache;
 import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
@@ -10,14 +11,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class AuthInterceptor implements HandlerInterceptor {
 
+    static final String STAGE_TIMER = "app.auth.stage";
+
     @Autowired
     protected AuthContext authContext;
 
@@ -27,6 +35,29 @@ public class AuthInterceptor implements HandlerInterceptor {
     @Autowired
     protected UserService userService;
 
+    @Autowired
+    protected AuthPrincipalCache authPrincipalCache;
+
+    // Durasi tiap tahap autentikasi (tag stage). Tanpa registry aplikasi
+    // (misalnya di test) metrik tidak dicatat ke mana pun
+    private Timer jwtVerifyTimer = stageTimer(Metrics.globalRegistry, "jwt_verify");
+    private Timer tokenLookupTimer = stageTimer(Metrics.globalRegistry, "token_lookup");
+    private Timer userLookupTimer = stageTimer(Metrics.globalRegistry, "user_lookup");
+
+    @Autowired(required = false)
+    protected final void setMeterRegistry(MeterRegistry meterRegistry) {
+        jwtVerifyTimer = stageTimer(meterRegistry, "jwt_verify");
+        tokenLookupTimer = stageTimer(meterRegistry, "token_lookup");
+        userLookupTimer = stageTimer(meterRegistry, "user_lookup");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Durasi tahap autentikasi AuthInterceptor")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
@@ -45,33 +76,53 @@ public class AuthInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Validasi format token JWT
-        if (!JwtUtil.validateToken(token, true)) {
+        // Validasi token JWT (satu kali parse dan verifikasi signature)
+        long start = System.nanoTime();
+        JwtUtil.VerifiedToken verifiedToken = JwtUtil.verify(token);
+        jwtVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (verifiedToken == null) {
             sendErrorResponse(response, 401, "Token autentikasi tidak valid");
             return false;
         }
 
-        // Ekstrak userId dari token
-        UUID userId = JwtUtil.extractUserId(token);
+        // Ekstrak userId dari token (token expired tidak punya userId yang berlaku)
+        UUID userId = verifiedToken.expired() ? null : verifiedToken.userId();
         if (userId == null) {
             sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
             return false;
         }
 
+        // Token yang sudah pernah diverifikasi tidak perlu dicek ke database lagi
+        User cachedUser = authPrincipalCache.get(token);
+        if (cachedUser != null) {
+            authContext.setAuthUser(cachedUser);
+            return true;
+        }
+        long cacheGeneration = authPrincipalCache.getGeneration();
+
         // Cari token di database
+        start = System.nanoTime();
         AuthToken authToken = authTokenService.findUserToken(userId, token);
+        tokenLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         if (authToken == null) {
             sendErrorResponse(response, 401, "Token autentikasi sudah expired");
             return false;
         }
 
         // Ambil data user
+        start = System.nanoTime();
         User authUser = userService.getUserById(authToken.getUserId());
+        userLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         if (authUser == null) {
             sendErrorResponse(response, 404, "User tidak ditemukan");
             return false;
         }
 
+        // Simpan hasil verifikasi, paling lama sampai token expired
+        Date expiration = verifiedToken.expiration();
+        long expiresAt = expiration == null ? Long.MAX_VALUE : expiration.getTime();
+        authPrincipalCache.put(token, authUser, expiresAt, cacheGeneration);
+
         // Set user ke auth context
         authContext.setAuthUser(authUser);
         return true;
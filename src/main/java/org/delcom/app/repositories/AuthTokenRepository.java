@@ -1,5 +1,6 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
@@ -11,11 +12,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
-    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.token = ?2")
-    AuthToken findUserToken(UUID userId, String token);
+    // Pencarian lewat index unik (user_id, token_hash)
+    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.tokenHash = ?2")
+    AuthToken findUserToken(UUID userId, byte[] tokenHash);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM AuthToken at WHERE at.userId = ?1")
     void deleteByUserId(UUID userId);
+
+    // Menghapus satu batch token yang dibuat sebelum cutoff, masing-masing
+    // dalam transaksi pendek. Baris yang sedang dikunci node lain dilewati.
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM auth_tokens WHERE id IN (SELECT id FROM auth_tokens WHERE created_at < ?1 "
+                   + "ORDER BY created_at LIMIT ?2 FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteCreatedBefore(LocalDateTime cutoff, int batchSize);
 }
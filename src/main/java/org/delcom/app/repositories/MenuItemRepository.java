@@ -1,10 +1,13 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.delcom.app.entities.MenuItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,37 +16,52 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
     
-    // Mencari menu berdasarkan keyword (nama atau deskripsi)
-    @Query("SELECT m FROM MenuItem m WHERE (LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(m.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-            "AND m.userId = :userId ORDER BY m.createdAt DESC")
-    List<MenuItem> findByKeyword(@Param("userId") UUID userId, @Param("keyword") String keyword);
+    // Mencari menu dengan full-text search (nama atau deskripsi) + prefix matching
+    // Ekspresi tsvector harus sama persis dengan index idx_menu_items_search
+    @Query(value = "SELECT m.* FROM menu_items m WHERE m.user_id = :userId " +
+            "AND (setweight(to_tsvector('simple', coalesce(m.name, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(m.description, '')), 'B')) " +
+            "@@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(setweight(to_tsvector('simple', coalesce(m.name, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(m.description, '')), 'B'), " +
+            "to_tsquery('simple', :query)) DESC, m.created_at DESC, m.id DESC " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<MenuItem> searchFullText(@Param("userId") UUID userId, @Param("query") String query,
+            @Param("limit") int limit, @Param("offset") int offset);
 
-    // Mendapatkan semua menu berdasarkan userId
-    @Query("SELECT m FROM MenuItem m WHERE m.userId = :userId ORDER BY m.createdAt DESC")
-    List<MenuItem> findAllByUserId(@Param("userId") UUID userId);
+    // Keyset pagination - halaman menu setelah posisi (createdAt, id)
+    @Query("SELECT m FROM MenuItem m WHERE m.userId = :userId " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MenuItem> findPageByUserId(@Param("userId") UUID userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    // Keyset pagination - halaman menu berdasarkan kategori
+    @Query("SELECT m FROM MenuItem m WHERE m.userId = :userId AND m.category = :category " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MenuItem> findPageByCategory(@Param("userId") UUID userId, @Param("category") String category,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
 
     // Mendapatkan menu berdasarkan id dan userId
     @Query("SELECT m FROM MenuItem m WHERE m.id = :id AND m.userId = :userId")
     Optional<MenuItem> findByUserIdAndId(@Param("userId") UUID userId, @Param("id") UUID id);
 
-    // Mendapatkan menu berdasarkan kategori
-    @Query("SELECT m FROM MenuItem m WHERE m.category = :category AND m.userId = :userId ORDER BY m.name ASC")
-    List<MenuItem> findByCategory(@Param("userId") UUID userId, @Param("category") String category);
-
-    // Mendapatkan menu yang tersedia saja
-    @Query("SELECT m FROM MenuItem m WHERE m.isAvailable = true AND m.userId = :userId ORDER BY m.createdAt DESC")
-    List<MenuItem> findAvailableMenus(@Param("userId") UUID userId);
+    // Mengunci nama file gambar di semua node sampai transaksi selesai
+    // (advisory lock PostgreSQL), dipakai saat reference count dicek
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtextextended(:imageUrl, 0))) l",
+           nativeQuery = true)
+    int lockImageUrl(@Param("imageUrl") String imageUrl);
 
-    // Untuk data chart - count by category
-    @Query("SELECT m.category, COUNT(m) FROM MenuItem m WHERE m.userId = :userId GROUP BY m.category")
-    List<Object[]> countByCategory(@Param("userId") UUID userId);
+    // Jumlah menu yang memakai file gambar (reference count gambar)
+    @Query("SELECT COUNT(m) FROM MenuItem m WHERE m.imageUrl = :imageUrl")
+    long countByImageUrl(@Param("imageUrl") String imageUrl);
 
-    // Untuk data chart - average price by category
-    @Query("SELECT m.category, AVG(m.price) FROM MenuItem m WHERE m.userId = :userId GROUP BY m.category")
-    List<Object[]> averagePriceByCategory(@Param("userId") UUID userId);
+    // Nama file gambar menu tanpa memuat seluruh entity
+    @Query("SELECT m.imageUrl FROM MenuItem m WHERE m.id = :id")
+    Optional<String> findImageUrlById(@Param("id") UUID id);
 
-    // Untuk data chart - total price by category
-    @Query("SELECT m.category, SUM(m.price) FROM MenuItem m WHERE m.userId = :userId GROUP BY m.category")
-    List<Object[]> totalPriceByCategory(@Param("userId") UUID userId);
+    // Nama file gambar (dari daftar) yang masih dipakai menu, untuk pengecekan per batch
+    @Query("SELECT DISTINCT m.imageUrl FROM MenuItem m WHERE m.imageUrl IN :imageUrls")
+    List<String> findImageUrlsIn(@Param("imageUrls") Collection<String> imageUrls);
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package org.delcom.app.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.entities.MenuStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MenuStatRepository extends JpaRepository<MenuStat, UUID> {
+
+    // Statistik per kategori milik user (satu baris per kategori)
+    @Query("SELECT new org.delcom.app.dto.CategoryStats(s.category, s.menuCount, s.availableCount, " +
+           "s.priceSum / s.menuCount, s.priceSum, s.minPreparationTime, s.maxPreparationTime) " +
+           "FROM MenuStat s WHERE s.userId = :userId AND s.menuCount > 0 ORDER BY s.category")
+    List<CategoryStats> findCategoryStats(@Param("userId") UUID userId);
+
+    // Menambahkan satu menu ke statistik kategorinya (upsert)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO menu_stats AS s (id, user_id, category, menu_count, price_sum, available_count, " +
+                   "min_preparation_time, max_preparation_time, updated_at) " +
+                   "VALUES (gen_random_uuid(), :userId, :category, 1, :price, :available, :prepTime, :prepTime, now()) " +
+                   "ON CONFLICT (user_id, category) DO UPDATE SET " +
+                   "menu_count = s.menu_count + 1, " +
+                   "price_sum = s.price_sum + EXCLUDED.price_sum, " +
+                   "available_count = s.available_count + EXCLUDED.available_count, " +
+                   "min_preparation_time = LEAST(s.min_preparation_time, EXCLUDED.min_preparation_time), " +
+                   "max_preparation_time = GREATEST(s.max_preparation_time, EXCLUDED.max_preparation_time), " +
+                   "updated_at = now()", nativeQuery = true)
+    void addItem(@Param("userId") UUID userId, @Param("category") String category, @Param("price") double price,
+                 @Param("available") int available, @Param("prepTime") Integer prepTime);
+
+    // Menambahkan banyak menu sekaligus ke statistik satu kategori (upsert)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO menu_stats AS s (id, user_id, category, menu_count, price_sum, available_count, " +
+                   "min_preparation_time, max_preparation_time, updated_at) " +
+                   "VALUES (gen_random_uuid(), :userId, :category, :count, :priceSum, :available, :minPrepTime, " +
+                   ":maxPrepTime, now()) " +
+                   "ON CONFLICT (user_id, category) DO UPDATE SET " +
+                   "menu_count = s.menu_count + EXCLUDED.menu_count, " +
+                   "price_sum = s.price_sum + EXCLUDED.price_sum, " +
+                   "available_count = s.available_count + EXCLUDED.available_count, " +
+                   "min_preparation_time = LEAST(s.min_preparation_time, EXCLUDED.min_preparation_time), " +
+                   "max_preparation_time = GREATEST(s.max_preparation_time, EXCLUDED.max_preparation_time), " +
+                   "updated_at = now()", nativeQuery = true)
+    void addItems(@Param("userId") UUID userId, @Param("category") String category, @Param("count") int count,
+                  @Param("priceSum") double priceSum, @Param("available") int available,
+                  @Param("minPrepTime") Integer minPrepTime, @Param("maxPrepTime") Integer maxPrepTime);
+
+    // Mengurangi satu menu dari statistik kategorinya
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE menu_stats SET menu_count = menu_count - 1, price_sum = price_sum - :price, " +
+                   "available_count = available_count - :available, updated_at = now() " +
+                   "WHERE user_id = :userId AND category = :category", nativeQuery = true)
+    void removeItem(@Param("userId") UUID userId, @Param("category") String category, @Param("price") double price,
+                    @Param("available") int available);
+
+    // Min/max tidak bisa dikurangi secara inkremental, jadi dihitung ulang dari
+    // menu_items hanya jika menu yang dihapus adalah nilai ekstremnya
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE menu_stats s SET min_preparation_time = x.min_prep, max_preparation_time = x.max_prep " +
+                   "FROM (SELECT MIN(preparation_time) AS min_prep, MAX(preparation_time) AS max_prep " +
+                   "FROM menu_items WHERE user_id = :userId AND category = :category) x " +
+                   "WHERE s.user_id = :userId AND s.category = :category " +
+                   "AND (s.min_preparation_time = :prepTime OR s.max_preparation_time = :prepTime)", nativeQuery = true)
+    void refreshPreparationTimeRange(@Param("userId") UUID userId, @Param("category") String category,
+                                     @Param("prepTime") Integer prepTime);
+
+    @Modifying
+    @Query(value = "DELETE FROM menu_stats WHERE user_id = :userId AND category = :category AND menu_count <= 0",
+           nativeQuery = true)
+    void deleteEmpty(@Param("userId") UUID userId, @Param("category") String category);
+
+    // ===== PERUBAHAN BATCH =====
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM menu_stats WHERE user_id = :userId AND category IN (:categories)",
+           nativeQuery = true)
+    void deleteCategories(@Param("userId") UUID userId, @Param("categories") Collection<String> categories);
+
+    // Statistik kategori dihitung ulang dari menu_items (kategori tanpa menu tidak ditulis)
+    @Modifying
+    @Query(value = "INSERT INTO menu_stats (id, user_id, category, menu_count, price_sum, available_count, " +
+                   "min_preparation_time, max_preparation_time, updated_at) " +
+                   "SELECT gen_random_uuid(), user_id, category, COUNT(*), SUM(price), " +
+                   "SUM(CASE WHEN is_available THEN 1 ELSE 0 END), MIN(preparation_time), MAX(preparation_time), now() " +
+                   "FROM menu_items WHERE user_id = :userId AND category IN (:categories) " +
+                   "GROUP BY user_id, category", nativeQuery = true)
+    int rebuildCategories(@Param("userId") UUID userId, @Param("categories") Collection<String> categories);
+
+    // ===== REKONSILIASI =====
+
+    // Pasangan (user_id, category) milik user yang punya menu tetapi belum
+    // punya baris statistik sama sekali (misalnya data lama sebelum tabel ini ada)
+    @Query(value = "SELECT m.user_id, m.category FROM menu_items m WHERE m.user_id IN (" +
+                   "SELECT u.id FROM users u WHERE NOT EXISTS (" +
+                   "SELECT 1 FROM menu_stats s WHERE s.user_id = u.id)) " +
+                   "GROUP BY m.user_id, m.category", nativeQuery = true)
+    List<Object[]> findMissingCategories();
+
+    // Hanya satu node yang merekonsiliasi; lock dilepas saat transaksi selesai
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('menu_stats_reconcile'))", nativeQuery = true)
+    boolean tryLockReconcile();
+
+    // Pasangan (user_id, category) yang statistiknya berbeda dengan hasil agregasi ulang menu_items
+    @Query(value = "SELECT COALESCE(f.user_id, s.user_id), COALESCE(f.category, s.category) FROM (" +
+                   "SELECT user_id, category, COUNT(*) AS menu_count, SUM(price) AS price_sum, " +
+                   "SUM(CASE WHEN is_available THEN 1 ELSE 0 END) AS available_count, " +
+                   "MIN(preparation_time) AS min_prep, MAX(preparation_time) AS max_prep " +
+                   "FROM menu_items GROUP BY user_id, category) f " +
+                   "FULL OUTER JOIN menu_stats s ON s.user_id = f.user_id AND s.category = f.category " +
+                   "WHERE f.menu_count IS DISTINCT FROM s.menu_count " +
+                   "OR f.available_count IS DISTINCT FROM s.available_count " +
+                   "OR f.min_prep IS DISTINCT FROM s.min_preparation_time " +
+                   "OR f.max_prep IS DISTINCT FROM s.max_preparation_time " +
+                   "OR ABS(COALESCE(f.price_sum, 0) - COALESCE(s.price_sum, 0)) > 0.005", nativeQuery = true)
+    List<Object[]> findDrift();
+
+    // Mengunci baris statistik satu kategori (dibuat kosong jika belum ada),
+    // sehingga perubahan menu di kategori itu menunggu sampai dihitung ulang
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO menu_stats AS s (id, user_id, category, menu_count, price_sum, available_count, " +
+                   "min_preparation_time, max_preparation_time, updated_at) " +
+                   "VALUES (gen_random_uuid(), :userId, :category, 0, 0, 0, NULL, NULL, now()) " +
+                   "ON CONFLICT (user_id, category) DO UPDATE SET updated_at = now()", nativeQuery = true)
+    void lockCategory(@Param("userId") UUID userId, @Param("category") String category);
+
+    // Statistik satu kategori dihitung ulang dari menu_items (kategori tanpa
+    // menu menjadi menu_count = 0 dan dihapus dengan deleteEmpty)
+    @Modifying
+    @Query(value = "UPDATE menu_stats s SET menu_count = x.menu_count, price_sum = x.price_sum, " +
+                   "available_count = x.available_count, min_preparation_time = x.min_prep, " +
+                   "max_preparation_time = x.max_prep, updated_at = now() " +
+                   "FROM (SELECT COUNT(*) AS menu_count, COALESCE(SUM(price), 0) AS price_sum, " +
+                   "COALESCE(SUM(CASE WHEN is_available THEN 1 ELSE 0 END), 0) AS available_count, " +
+                   "MIN(preparation_time) AS min_prep, MAX(preparation_time) AS max_prep " +
+                   "FROM menu_items WHERE user_id = :userId AND category = :category) x " +
+                   "WHERE s.user_id = :userId AND s.category = :category", nativeQuery = true)
+    void recountCategory(@Param("userId") UUID userId, @Param("category") String category);
+}
@@ -0,0 +1,187 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.utils.HashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache hasil verifikasi token API: token (disimpan sebagai hash SHA-256)
+ * yang sudah dicek ke database beserta user pemiliknya.
+ *
+ * Entry berlaku paling lama app.auth.principal-cache.ttl dan tidak pernah
+ * melewati waktu expired JWT. Semua entry milik user dihapus ketika token
+ * user dihapus (login ulang, ganti password) atau data user berubah.
+ */
+@Service
+public class AuthPrincipalCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // accessOrder = true: urutan iterasi dari yang paling lama tidak dipakai
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Set<String>> tokensByUser = new HashMap<>();
+
+    // Bertambah setiap ada invalidasi, untuk mendeteksi invalidasi yang
+    // terjadi selama token sedang diverifikasi ke database
+    private long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public AuthPrincipalCache(@Value("${app.auth.principal-cache.max-entries:10000}") int maxEntries,
+                              @Value("${app.auth.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Mengambil user untuk token yang sudah pernah diverifikasi
+     *
+     * @return salinan user, atau null jika tidak ada / sudah kedaluwarsa
+     */
+    public synchronized User get(String token) {
+        String tokenHash = HashUtil.sha256Hex(token);
+        Entry entry = entries.get(tokenHash);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt <= now()) {
+            removeEntry(tokenHash, entry);
+            misses++;
+            return null;
+        }
+        hits++;
+        // Salinan agar perubahan pada user di request (misalnya menghapus
+        // password sebelum dikirim ke client) tidak mengubah isi cache
+        return new User(entry.user);
+    }
+
+    /**
+     * Diambil sebelum memverifikasi token ke database, lalu diberikan ke put()
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Menyimpan hasil verifikasi token. Tidak disimpan jika ada invalidasi
+     * sejak generation diambil, karena hasil verifikasi mungkin sudah basi.
+     *
+     * @param token          - token JWT
+     * @param user           - pemilik token
+     * @param tokenExpiresAt - waktu expired JWT (epoch millis)
+     * @param generation     - nilai getGeneration() sebelum verifikasi
+     */
+    public synchronized void put(String token, User user, long tokenExpiresAt, long generation) {
+        long expiresAt = Math.min(tokenExpiresAt, now() + ttlMillis);
+        if (generation != this.generation || expiresAt <= now() || maxEntries <= 0) {
+            return;
+        }
+
+        String tokenHash = HashUtil.sha256Hex(token);
+        Entry previous = entries.get(tokenHash);
+        if (previous != null) {
+            removeEntry(tokenHash, previous);
+        }
+
+        entries.put(tokenHash, new Entry(new User(user), expiresAt));
+        tokensByUser.computeIfAbsent(user.getId(), id -> new HashSet<>()).add(tokenHash);
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            unlinkUser(eldest.getKey(), eldest.getValue().user.getId());
+            evictions++;
+        }
+    }
+
+    /**
+     * Menghapus semua token milik user dari cache.
+     * Jika dipanggil di dalam transaksi, dihapus lagi setelah transaksi
+     * selesai agar request yang berjalan bersamaan tidak menyimpan data lama.
+     */
+    public void invalidateUser(UUID userId) {
+        removeUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeUser(userId);
+                }
+            });
+        }
+    }
+
+    private synchronized void removeUser(UUID userId) {
+        generation++;
+        Set<String> tokenHashes = tokensByUser.remove(userId);
+        if (tokenHashes != null) {
+            for (String tokenHash : tokenHashes) {
+                entries.remove(tokenHash);
+            }
+        }
+    }
+
+    private void removeEntry(String tokenHash, Entry entry) {
+        entries.remove(tokenHash);
+        unlinkUser(tokenHash, entry.user.getId());
+    }
+
+    private void unlinkUser(String tokenHash, UUID userId) {
+        Set<String> tokenHashes = tokensByUser.get(userId);
+        tokenHashes.remove(tokenHash);
+        if (tokenHashes.isEmpty()) {
+            tokensByUser.remove(userId);
+        }
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
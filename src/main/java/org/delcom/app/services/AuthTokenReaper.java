@@ -0,0 +1,88 @@
+package org.delcom.app.services;
+
+import java.time.LocalDateTime;
+
+import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Job terjadwal yang menghapus token API yang sudah expired dari auth_tokens.
+ *
+ * Token dianggap expired jika created_at lebih lama dari masa berlaku JWT.
+ * Penghapusan dilakukan per batch dengan transaksi pendek, dan baris yang
+ * dikunci oleh node lain dilewati (SKIP LOCKED), sehingga aman dijalankan
+ * di beberapa node sekaligus.
+ */
+@Service
+public class AuthTokenReaper {
+
+    private final AuthTokenRepository authTokenRepository;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private long runs = 0;
+    private long lastReclaimed = 0;
+    private long totalReclaimed = 0;
+
+    public AuthTokenReaper(AuthTokenRepository authTokenRepository,
+                           @Value("${app.auth.token-reaper.batch-size:1000}") int batchSize,
+                           @Value("${app.auth.token-reaper.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.authTokenRepository = authTokenRepository;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Menghapus token expired sampai habis atau batas batch per run tercapai.
+     * Sisa token akan dihapus pada run berikutnya.
+     *
+     * @return jumlah token yang dihapus pada run ini
+     */
+    @Scheduled(initialDelayString = "${app.auth.token-reaper.initial-delay:PT1M}",
+               fixedDelayString = "${app.auth.token-reaper.interval:PT15M}")
+    public long reap() {
+        LocalDateTime cutoff = now().minusNanos(JwtUtil.getExpirationTime() * 1_000_000);
+        long reclaimed = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = authTokenRepository.deleteCreatedBefore(cutoff, batchSize);
+            reclaimed += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+
+        synchronized (this) {
+            runs++;
+            lastReclaimed = reclaimed;
+            totalReclaimed += reclaimed;
+        }
+        if (reclaimed > 0) {
+            System.out.println("Token expired dihapus: " + reclaimed + " baris");
+        }
+        return reclaimed;
+    }
+
+    protected LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getRuns() {
+        return runs;
+    }
+
+    // Jumlah token yang dihapus pada run terakhir
+    public synchronized long getLastReclaimed() {
+        return lastReclaimed;
+    }
+
+    public synchronized long getTotalReclaimed() {
+        return totalReclaimed;
+    }
+}
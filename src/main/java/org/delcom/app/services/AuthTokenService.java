@@ -4,20 +4,23 @@ import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.HashUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthTokenService {
     private final AuthTokenRepository authTokenRepository;
+    private final AuthPrincipalCache authPrincipalCache;
 
-    public AuthTokenService(AuthTokenRepository authTokenRepository) {
+    public AuthTokenService(AuthTokenRepository authTokenRepository, AuthPrincipalCache authPrincipalCache) {
         this.authTokenRepository = authTokenRepository;
+        this.authPrincipalCache = authPrincipalCache;
     }
 
     @Transactional(readOnly = true)
     public AuthToken findUserToken(UUID userId, String token) {
-        return authTokenRepository.findUserToken(userId, token);
+        return authTokenRepository.findUserToken(userId, HashUtil.sha256(token));
     }
 
     @Transactional
@@ -28,5 +31,6 @@ public class AuthTokenService {
     @Transactional
     public void deleteAuthToken(UUID userId) {
         authTokenRepository.deleteByUserId(userId);
+        authPrincipalCache.invalidateUser(userId);
     }
 }
@@ -0,0 +1,59 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Penyimpanan file gambar bersama (blob store) di belakang
+ * FileStorageService, agar beberapa node aplikasi bisa memakai gambar yang
+ * sama tanpa NFS.
+ *
+ * Implementasi dipilih lewat app.storage.type (local / s3). Folder upload
+ * lokal tetap dipakai sebagai cache read-through: file diunduh dari blob
+ * store saat pertama kali diminta lalu dikirim dari disk lokal.
+ * Key adalah nama file gambar (tanpa folder).
+ */
+public interface BlobStore {
+
+    /**
+     * Menyimpan (atau menimpa) isi file sebagai key
+     */
+    void store(String key, Path source) throws IOException;
+
+    /**
+     * Membuka isi file untuk dibaca
+     *
+     * @return stream isi file (wajib ditutup), atau null jika tidak ada
+     */
+    InputStream stream(String key) throws IOException;
+
+    /**
+     * Menghapus file, tidak error jika file tidak ada
+     *
+     * @return false jika file tidak ada
+     */
+    boolean delete(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Mengunduh isi file ke target
+     *
+     * @return false jika file tidak ada
+     */
+    default boolean load(String key, Path target) throws IOException {
+        InputStream input = stream(key);
+        if (input == null) {
+            return false;
+        }
+        try {
+            Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            input.close();
+        }
+        return true;
+    }
+}
@@ -1,5 +1,10 @@
 package org.delcom.app.services;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -10,61 +15,194 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * Service untuk mengelola penyimpanan file gambar menu
  * Adapted from TodoCover to MenuItem
+ *
+ * Jika ada BlobStore (app.storage.type), setiap file yang disimpan juga
+ * dikirim ke blob store dan folder upload menjadi cache read-through,
+ * sehingga beberapa node bisa memakai gambar yang sama.
+ *
+ * Durasi dan ukuran file dicatat ke metrik app.file.storage.duration dan
+ * app.file.storage.bytes (tag operation: store, fetch, delete).
  */
 @Service
 public class FileStorageService {
+
+    static final String STAGING_DIR = "staging";
+    static final String TIMER = "app.file.storage.duration";
+    static final String BYTES = "app.file.storage.bytes";
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z]+");
     
     @Value("${app.upload.dir:./uploads}")
     protected String uploadDir; // protected untuk testing
 
+    // Penyimpanan bersama, null jika gambar hanya disimpan di disk lokal
+    @Autowired(required = false)
+    protected BlobStore blobStore;
+
+    // Tanpa registry aplikasi (misalnya di test) metrik tidak dicatat ke mana pun
+    private Timer storeTimer = timer(Metrics.globalRegistry, "store");
+    private Timer fetchTimer = timer(Metrics.globalRegistry, "fetch");
+    private Timer deleteTimer = timer(Metrics.globalRegistry, "delete");
+    private DistributionSummary storeBytes = bytes(Metrics.globalRegistry, "store");
+    private DistributionSummary fetchBytes = bytes(Metrics.globalRegistry, "fetch");
+
+    @Autowired(required = false)
+    protected final void setMeterRegistry(MeterRegistry meterRegistry) {
+        storeTimer = timer(meterRegistry, "store");
+        fetchTimer = timer(meterRegistry, "fetch");
+        deleteTimer = timer(meterRegistry, "delete");
+        storeBytes = bytes(meterRegistry, "store");
+        fetchBytes = bytes(meterRegistry, "fetch");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(TIMER)
+                .description("Durasi operasi penyimpanan file gambar (termasuk blob store)")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary bytes(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder(BYTES)
+                .description("Ukuran file gambar yang disimpan atau diunduh dari blob store")
+                .baseUnit("bytes")
+                // Bucket sampai batas upload (spring.servlet.multipart.max-file-size)
+                .serviceLevelObjectives(16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024, 5 * 1024 * 1024)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
     /**
-     * Menyimpan file gambar menu ke server
-     * Changed from: cover_[todoId] → menu_[menuId]
-     * 
+     * Menyimpan upload ke folder staging dengan nama acak, sebelum divalidasi
+     * dan dipindah ke folder upload oleh ImageUploadService.
+     * transferTo cukup me-rename file sementara multipart jika sudah di disk.
+     *
      * @param file - MultipartFile dari form upload
-     * @param menuId - UUID dari menu item
-     * @return String - nama file (contoh: menu_abc-123.jpg)
+     * @return Path - lokasi file di folder staging
      * @throws IOException jika gagal menyimpan
      */
-    public String storeFile(MultipartFile file, UUID menuId) throws IOException {
-        // 1. Buat directory jika belum ada
+    public Path stageFile(MultipartFile file) throws IOException {
+        Path stagingPath = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(STAGING_DIR);
+        Files.createDirectories(stagingPath);
+
+        Path stagedFile = stagingPath.resolve(UUID.randomUUID() + ".upload");
+        file.transferTo(stagedFile.toFile());
+        return stagedFile;
+    }
+
+    /**
+     * Memindahkan file dari staging menjadi gambar menu secara atomik, sehingga
+     * request lain tidak pernah membaca gambar yang setengah tersalin.
+     * File content-addressed yang sudah ada tidak ditimpa (isinya sama),
+     * sehingga ETag dan Last-Modified-nya tetap.
+     *
+     * @param stagedFile - file hasil stageFile()
+     * @param filename - nama file tujuan (menuFilename / contentAddressedFilename)
+     * @throws IOException jika gagal memindahkan
+     */
+    public void storeStagedFile(Path stagedFile, String filename) throws IOException {
+        long start = System.nanoTime();
         Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        Files.createDirectories(uploadPath);
+
+        Path target = uploadPath.resolve(filename);
+        boolean contentAddressed = isContentAddressed(filename);
+        if (contentAddressed && Files.exists(target)) {
+            Files.delete(stagedFile);
+        } else {
+            Files.move(stagedFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // File content-addressed yang sudah ada di blob store tidak diunggah ulang
+        if (blobStore != null && !(contentAddressed && blobStore.exists(filename))) {
+            blobStore.store(filename, target);
         }
+        storeBytes.record(Files.size(target));
+        record(storeTimer, start);
+    }
 
-        // 2. Ambil ekstensi file
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+    /**
+     * Cache read-through: mengunduh file dari blob store ke folder upload
+     * jika belum ada di disk lokal. Nama file harus sudah divalidasi.
+     */
+    public void ensureLocalCopy(String filename) {
+        if (blobStore == null) {
+            return;
+        }
+        Path target = Paths.get(uploadDir).resolve(filename);
+        if (Files.exists(target)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Path stagingPath = Paths.get(uploadDir).resolve(STAGING_DIR);
+            Files.createDirectories(stagingPath);
+            // Diunduh ke file sementara lalu dipindah, agar request lain tidak
+            // pernah membaca file yang setengah terunduh
+            Path temp = Files.createTempFile(stagingPath, "fetch-", ".tmp");
+            try {
+                if (blobStore.load(filename, temp)) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    fetchBytes.record(Files.size(target));
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Error fetching file from blob store: " + e.getMessage());
         }
+        record(fetchTimer, start);
+    }
 
-        // 3. Generate nama file unik untuk menu
-        // Format: menu_[UUID].[ext]
-        String filename = "menu_" + menuId.toString() + fileExtension;
+    /**
+     * Nama file gambar per menu: menu_[menuId].[ext]
+     */
+    public static String menuFilename(UUID menuId, String fileExtension) {
+        return "menu_" + menuId.toString() + fileExtension;
+    }
 
-        // 4. Simpan file (REPLACE_EXISTING untuk update gambar)
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Nama file content-addressed: [sha256 isi file].[ext]. Gambar yang sama
+     * dipakai bersama oleh semua menu dan isinya tidak pernah berubah.
+     */
+    public static String contentAddressedFilename(String sha256Hex, String fileExtension) {
+        return sha256Hex + fileExtension;
+    }
 
-        return filename;
+    /**
+     * Cek apakah nama file berasal dari contentAddressedFilename()
+     */
+    public static boolean isContentAddressed(String filename) {
+        return filename != null && CONTENT_ADDRESSED_NAME.matcher(filename).matches();
     }
 
     /**
      * Menghapus file gambar menu
+     *
+     * @return true jika file ada dan dihapus (di disk lokal atau blob store)
      */
     public boolean deleteFile(String filename) {
+        long start = System.nanoTime();
         try {
+            // Blob store dihapus lebih dulu: jika gagal, salinan lokal tetap ada
+            boolean deletedRemote = blobStore != null && blobStore.delete(filename);
             Path filePath = Paths.get(uploadDir).resolve(filename);
-            return Files.deleteIfExists(filePath);
+            return Files.deleteIfExists(filePath) || deletedRemote;
         } catch (IOException e) {
             System.err.println("Error deleting file: " + e.getMessage());
             return false;
+        } finally {
+            record(deleteTimer, start);
         }
     }
 
@@ -0,0 +1,429 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+
+import org.delcom.app.dto.ImageUploadStatus;
+import org.delcom.app.utils.HashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Memproses upload gambar menu di background agar form upload langsung
+ * selesai.
+ *
+ * Request hanya menyimpan file ke folder staging lalu mendapat status
+ * PENDING. Worker (jumlah dan antreannya terbatas) memeriksa isi file, memindahkan
+ * file ke folder upload secara atomik, memperbarui imageUrl menu, lalu
+ * menjadwalkan pembuatan varian. Status terakhir per menu bisa di-poll
+ * dari halaman detail. Jika ada beberapa upload untuk menu yang sama,
+ * hanya upload terbaru yang dipasang.
+ *
+ * Pada mode content-addressed (app.upload.content-addressed) file diberi
+ * nama dari hash SHA-256 isinya, sehingga foto yang sama untuk banyak menu
+ * hanya disimpan sekali dan URL-nya tidak pernah berubah isi. Referensi
+ * dihitung dari menu_items.image_url; file yang tidak lagi dipakai menu
+ * mana pun dihapus saat gambar menu diganti atau menu dihapus.
+ *
+ * Pemasangan dan pelepasan file dikunci per nama file dengan advisory lock
+ * PostgreSQL sampai transaksinya commit, sehingga node yang menghapus file
+ * (reference count 0) dan node yang memakai ulang file yang sama di blob
+ * store tidak bisa saling menyalip.
+ */
+@Service
+public class ImageUploadService {
+
+    static final String MESSAGE_PROCESSING = "Gambar sedang diproses";
+    static final String MESSAGE_DONE = "Gambar menu berhasil diupload";
+    static final String MESSAGE_BUSY = "Server sedang sibuk, silakan coba lagi";
+    static final String MESSAGE_UNSUPPORTED = "Format file tidak didukung. Gunakan JPG, PNG, atau GIF";
+    static final String MESSAGE_NOT_FOUND = "Menu tidak ditemukan";
+
+    // Format hasil deteksi isi file -> ekstensi file yang disimpan
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "jpeg", ".jpg",
+            "png", ".png",
+            "gif", ".gif");
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final FileStorageService fileStorageService;
+    private final MenuItemService menuItemService;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxStatuses;
+    private final ExecutorService executor;
+
+    // Back-pressure: slot antrean (worker + antrean) dan worker yang aktif
+    private final Semaphore queueSlots;
+    private final Semaphore workers;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    // Status upload terakhir per menu, urutan dari yang paling lama diperbarui
+    private final LinkedHashMap<UUID, ImageUploadStatus> statuses = new LinkedHashMap<>();
+
+    private final boolean contentAddressed;
+
+    // Memasang gambar (cek upload terbaru, pindah file, update database)
+    // dikunci per menu agar upload lama tidak menimpa upload yang lebih baru
+    private final Object[] menuLocks = new Object[LOCK_STRIPES];
+
+    private long submitted = 0;
+    private long completed = 0;
+    private long failures = 0;
+    private long superseded = 0;
+    private long rejected = 0;
+    private long deduplicated = 0;
+    private long released = 0;
+
+    public ImageUploadService(FileStorageService fileStorageService, MenuItemService menuItemService,
+                              ImageVariantService imageVariantService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.upload.processing-threads:2}") int threads,
+                              @Value("${app.upload.processing-queue-capacity:50}") int queueCapacity,
+                              @Value("${app.upload.processing-status-max-entries:1000}") int maxStatuses,
+                              @Value("${app.upload.content-addressed:true}") boolean contentAddressed,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.fileStorageService = fileStorageService;
+        this.menuItemService = menuItemService;
+        this.imageVariantService = imageVariantService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxStatuses = Math.max(1, maxStatuses);
+        this.contentAddressed = contentAddressed;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            menuLocks[i] = new Object();
+        }
+
+        // Worker kebanyakan menunggu I/O (file dan database), sehingga pada mode
+        // virtual thread setiap upload mendapat virtual thread sendiri (virtual
+        // thread tidak di-pool). Jumlah worker aktif dan antrean tetap dibatasi
+        // dengan semaphore sebagai back-pressure upload; pada mode platform
+        // thread ukuran pool sudah sama dengan jumlah worker.
+        this.queueSlots = new Semaphore(threads + Math.max(1, queueCapacity));
+        this.workers = new Semaphore(threads);
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("image-upload-", 1).factory());
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "image-upload-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Menyimpan upload ke staging dan menjadwalkan pemrosesannya
+     *
+     * @param menuId - UUID dari menu item
+     * @param file   - MultipartFile dari form upload
+     * @return status PENDING
+     * @throws IOException                jika gagal menyimpan ke staging
+     * @throws RejectedExecutionException jika antrean pemrosesan penuh
+     */
+    public ImageUploadStatus submit(UUID menuId, MultipartFile file) throws IOException {
+        Path stagedFile = fileStorageService.stageFile(file);
+        UUID uploadId = UUID.randomUUID();
+        ImageUploadStatus status = new ImageUploadStatus(uploadId, ImageUploadStatus.PENDING, MESSAGE_PROCESSING, null);
+
+        // Status dicatat sebelum dijadwalkan agar worker mengenali upload ini
+        // sebagai upload terbaru
+        synchronized (this) {
+            putStatus(menuId, status);
+        }
+
+        try {
+            schedule(() -> process(menuId, uploadId, stagedFile));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(stagedFile);
+            synchronized (this) {
+                rejected++;
+                putStatus(menuId, new ImageUploadStatus(uploadId, ImageUploadStatus.FAILED, MESSAGE_BUSY, null));
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            submitted++;
+        }
+        return status;
+    }
+
+    // Menolak tugas jika worker dan antrean penuh
+    private void schedule(Runnable task) {
+        if (!queueSlots.tryAcquire()) {
+            throw new RejectedExecutionException("Antrean pemrosesan upload penuh");
+        }
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> runWorker(task));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            queueSlots.release();
+            throw e;
+        }
+    }
+
+    private void runWorker(Runnable task) {
+        try {
+            workers.acquire();
+        } catch (InterruptedException e) {
+            // Aplikasi berhenti; file staging dibersihkan OrphanImageCollector
+            queued.decrementAndGet();
+            queueSlots.release();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        queued.decrementAndGet();
+        try {
+            task.run();
+        } finally {
+            workers.release();
+            queueSlots.release();
+        }
+    }
+
+    /**
+     * Status upload terakhir untuk menu
+     *
+     * @return status, atau null jika tidak ada upload yang tercatat
+     */
+    public synchronized ImageUploadStatus getStatus(UUID menuId) {
+        return statuses.get(menuId);
+    }
+
+    void process(UUID menuId, UUID uploadId, Path stagedFile) {
+        try {
+            updateStatus(menuId, uploadId, ImageUploadStatus.PROCESSING, MESSAGE_PROCESSING, null);
+
+            // Isi file diperiksa, bukan hanya Content-Type dari browser
+            String fileExtension = detectExtension(stagedFile);
+            if (fileExtension == null) {
+                fail(menuId, uploadId, MESSAGE_UNSUPPORTED);
+                return;
+            }
+
+            String filename = contentAddressed
+                    ? FileStorageService.contentAddressedFilename(HashUtil.sha256Hex(stagedFile), fileExtension)
+                    : FileStorageService.menuFilename(menuId, fileExtension);
+            String previous;
+            synchronized (menuLocks[Math.floorMod(menuId.hashCode(), LOCK_STRIPES)]) {
+                if (!isCurrent(menuId, uploadId)) {
+                    // Sudah digantikan upload yang lebih baru
+                    synchronized (this) {
+                        superseded++;
+                    }
+                    return;
+                }
+                previous = menuItemService.getMenuImageUrl(menuId);
+                if (!attachImage(menuId, stagedFile, filename)) {
+                    // Menu dihapus selama upload diproses
+                    releaseImage(filename);
+                    fail(menuId, uploadId, MESSAGE_NOT_FOUND);
+                    return;
+                }
+            }
+
+            // Gambar lama dihapus jika tidak dipakai menu lain
+            if (!filename.equals(previous)) {
+                releaseImage(previous);
+            }
+
+            imageVariantService.generateAsync(filename);
+            if (updateStatus(menuId, uploadId, ImageUploadStatus.DONE, MESSAGE_DONE, filename)) {
+                synchronized (this) {
+                    completed++;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error processing uploaded image: " + e.getMessage());
+            fail(menuId, uploadId, "Gagal mengupload gambar: " + e.getMessage());
+        } finally {
+            deleteQuietly(stagedFile);
+        }
+    }
+
+    /**
+     * Menyimpan file lalu memasangnya ke menu dalam satu transaksi di bawah
+     * lock nama file. Lock baru dilepas setelah image_url menu di-commit,
+     * sehingga releaseImage di node lain melihat reference count terbaru,
+     * dan sebaliknya file yang dilepas sudah terhapus sebelum pengecekan
+     * blob store di sini.
+     *
+     * @return false jika menu sudah tidak ada
+     */
+    private boolean attachImage(UUID menuId, Path stagedFile, String filename) throws IOException {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                menuItemService.lockImageUrl(filename);
+                if (contentAddressed && fileStorageService.fileExists(filename)) {
+                    synchronized (this) {
+                        deduplicated++;
+                    }
+                }
+                try {
+                    fileStorageService.storeStagedFile(stagedFile, filename);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return menuItemService.updateMenuImage(menuId, filename) != null;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Mendeteksi format gambar dari isi file
+     *
+     * @return ekstensi file (.jpg/.png/.gif), atau null jika bukan gambar
+     *         yang didukung
+     */
+    static String detectExtension(Path file) throws IOException {
+        try (ImageInputStream input = new FileImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                // Header gambar harus bisa dibaca (bukan file yang terpotong)
+                reader.getWidth(0);
+                return EXTENSIONS.get(reader.getFormatName().toLowerCase(Locale.ROOT));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Menghapus file gambar jika sudah tidak dipakai menu mana pun.
+     * Dipanggil setelah gambar menu diganti atau menu dihapus.
+     *
+     * @return true jika file dihapus
+     */
+    public boolean releaseImage(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return false;
+        }
+        // Reference count dicek dan file dihapus di bawah lock nama file yang
+        // sama dengan attachImage (di semua node)
+        boolean deleted = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            menuItemService.lockImageUrl(filename);
+            return menuItemService.countMenuItemsByImageUrl(filename) == 0 && fileStorageService.deleteFile(filename);
+        }));
+        if (deleted) {
+            synchronized (this) {
+                released++;
+            }
+        }
+        return deleted;
+    }
+
+    private void fail(UUID menuId, UUID uploadId, String message) {
+        if (updateStatus(menuId, uploadId, ImageUploadStatus.FAILED, message, null)) {
+            synchronized (this) {
+                failures++;
+            }
+        }
+    }
+
+    private synchronized boolean isCurrent(UUID menuId, UUID uploadId) {
+        ImageUploadStatus current = statuses.get(menuId);
+        return current != null && current.getUploadId().equals(uploadId);
+    }
+
+    // Status hanya diperbarui jika upload ini masih upload terbaru untuk menu
+    private synchronized boolean updateStatus(UUID menuId, UUID uploadId, String state, String message,
+                                              String imageUrl) {
+        if (!isCurrent(menuId, uploadId)) {
+            return false;
+        }
+        putStatus(menuId, new ImageUploadStatus(uploadId, state, message, imageUrl));
+        return true;
+    }
+
+    private void putStatus(UUID menuId, ImageUploadStatus status) {
+        statuses.remove(menuId);
+        statuses.put(menuId, status);
+
+        Iterator<UUID> iterator = statuses.keySet().iterator();
+        while (statuses.size() > maxStatuses) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Error deleting staged file: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getSubmitted() {
+        return submitted;
+    }
+
+    public synchronized long getCompleted() {
+        return completed;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized long getSuperseded() {
+        return superseded;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized long getDeduplicated() {
+        return deduplicated;
+    }
+
+    public synchronized long getReleased() {
+        return released;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+}
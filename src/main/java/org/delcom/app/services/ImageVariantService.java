@@ -0,0 +1,289 @@
+package org.delcom.app.services;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.delcom.app.services.MenuImageService.MenuImage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Membuat varian gambar menu dengan lebar tetap (misalnya 160/480/1024px)
+ * untuk dikirim lewat ?w= pada endpoint gambar.
+ *
+ * Varian disimpan di {uploadDir}/variants dengan nama dari hash isi gambar
+ * asli, sehingga varian lama tidak pernah terkirim untuk gambar baru.
+ * Pembuatan varian berjalan di thread pool terpisah yang dibatasi: saat
+ * upload, atau saat varian pertama kali diminta (untuk gambar lama).
+ * Selama varian belum ada, gambar asli yang dikirim.
+ */
+@Service
+public class ImageVariantService {
+
+    static final String VARIANT_DIR = "variants";
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final int MAX_FAILED_ENTRIES = 10000;
+
+    private final MenuImageService menuImageService;
+    private final FileStorageService fileStorageService;
+    private final int[] widths;
+    private final ThreadPoolExecutor executor;
+
+    // Hash gambar yang sedang diproses / gagal diproses, agar tidak
+    // dijadwalkan berulang kali
+    private final Set<String> inFlight = new HashSet<>();
+    private final Set<String> failed = new HashSet<>();
+    // Urutan hash yang gagal, entry tertua dibuang saat penuh
+    private final String[] failedOrder = new String[MAX_FAILED_ENTRIES];
+    private int failedNext = 0;
+
+    private long generated = 0;
+    private long failures = 0;
+    private long rejected = 0;
+
+    public ImageVariantService(MenuImageService menuImageService, FileStorageService fileStorageService,
+                               @Value("${app.upload.variant-widths:160,480,1024}") int[] widths,
+                               @Value("${app.upload.variant-threads:1}") int threads,
+                               @Value("${app.upload.variant-queue-capacity:100}") int queueCapacity) {
+        this.menuImageService = menuImageService;
+        this.fileStorageService = fileStorageService;
+        this.widths = Arrays.stream(widths).sorted().toArray();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Menjadwalkan pembuatan semua varian untuk gambar yang baru diupload
+     */
+    public void generateAsync(String filename) {
+        MenuImage original = menuImageService.getImage(filename);
+        if (original != null) {
+            schedule(original);
+        }
+    }
+
+    /**
+     * Mengambil varian terkecil yang lebarnya minimal width.
+     *
+     * @return varian, atau null jika gambar asli yang harus dikirim (width
+     *         lebih besar dari semua varian, atau varian belum dibuat)
+     */
+    public MenuImage getVariant(MenuImage original, int width) {
+        int target = selectWidth(width);
+        if (target < 0 || !isSupported(original)) {
+            return null;
+        }
+
+        // Varian JPEG, atau PNG jika gambar asli transparan
+        MenuImage variant = menuImageService.describe(variantPath(original, target, false), MediaType.IMAGE_JPEG);
+        if (variant == null) {
+            variant = menuImageService.describe(variantPath(original, target, true), MediaType.IMAGE_PNG);
+        }
+        if (variant == null) {
+            // Gambar lama yang belum punya varian
+            schedule(original);
+        }
+        return variant;
+    }
+
+    // Lebar varian terkecil yang >= width, atau -1 jika tidak ada
+    private int selectWidth(int width) {
+        for (int candidate : widths) {
+            if (candidate >= width) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private void schedule(MenuImage original) {
+        if (!isSupported(original)) {
+            return;
+        }
+        String hash = original.contentHash();
+        synchronized (this) {
+            if (failed.contains(hash) || !inFlight.add(hash)) {
+                return;
+            }
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    synchronized (this) {
+                        inFlight.remove(hash);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Antrean penuh: varian dibuat saat diminta berikutnya
+            synchronized (this) {
+                inFlight.remove(hash);
+                rejected++;
+            }
+        }
+    }
+
+    /**
+     * Membuat semua varian yang belum ada. Varian yang lebih lebar dari
+     * gambar asli tetap dibuat dengan lebar asli (hanya di-encode ulang).
+     */
+    void generate(MenuImage original) {
+        try {
+            BufferedImage source = ImageIO.read(original.path().toFile());
+            if (source == null) {
+                throw new IOException("Format gambar tidak dikenali");
+            }
+
+            Files.createDirectories(variantDir());
+            // Foto di-encode ulang sebagai JPEG (jauh lebih kecil dari PNG),
+            // hanya gambar transparan yang tetap PNG
+            boolean alpha = source.getColorModel().hasAlpha();
+            for (int width : widths) {
+                Path target = variantPath(original, width, alpha);
+                if (Files.exists(target)) {
+                    continue;
+                }
+                BufferedImage resized = resize(source, Math.min(width, source.getWidth()), alpha);
+
+                // Ditulis ke file sementara lalu dipindah, agar request lain
+                // tidak pernah membaca varian yang setengah jadi
+                Path temp = Files.createTempFile(variantDir(), "variant-", ".tmp");
+                try {
+                    write(resized, alpha, temp);
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                synchronized (this) {
+                    generated++;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Gagal membuat varian gambar " + original.path().getFileName() + ": " + e.getMessage());
+            synchronized (this) {
+                failures++;
+                failed.remove(failedOrder[failedNext]);
+                failedOrder[failedNext] = original.contentHash();
+                failedNext = (failedNext + 1) % failedOrder.length;
+                failed.add(original.contentHash());
+            }
+        }
+    }
+
+    // Diperkecil bertahap setengah ukuran agar hasilnya tidak pecah (aliasing)
+    static BufferedImage resize(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        while (currentWidth / 2 >= width) {
+            currentWidth /= 2;
+            currentHeight = Math.max(1, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight, alpha);
+        }
+        return draw(current, width, height, alpha);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void write(BufferedImage image, boolean alpha, Path target) throws IOException {
+        if (alpha) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static boolean isSupported(MenuImage original) {
+        return "image".equals(original.contentType().getType());
+    }
+
+    private Path variantDir() {
+        return Paths.get(fileStorageService.getUploadDir()).toAbsolutePath().normalize().resolve(VARIANT_DIR);
+    }
+
+    private Path variantPath(MenuImage original, int width, boolean alpha) {
+        String extension = alpha ? ".png" : ".jpg";
+        return variantDir().resolve(original.contentHash() + "-" + width + extension);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getGenerated() {
+        return generated;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+}
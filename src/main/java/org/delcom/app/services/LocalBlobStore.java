@@ -0,0 +1,72 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Blob store di folder lokal, misalnya volume bersama yang di-mount di
+ * semua node (app.storage.type=local).
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+
+    public LocalBlobStore(@Value("${app.storage.local.dir}") String dir) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void store(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(root);
+
+        // Disalin ke file sementara lalu dipindah, agar node lain tidak
+        // pernah membaca file yang setengah tersalin
+        Path temp = Files.createTempFile(root, "blob-", ".tmp");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream stream(String key) throws IOException {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    // Key harus berupa nama file langsung di dalam root (tanpa "../")
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!root.equals(path.getParent())) {
+            throw new IllegalArgumentException("Key blob tidak valid: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,194 @@
+package org.delcom.app.services;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.dto.MenuBatchRequest;
+import org.delcom.app.dto.MenuBatchResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mengubah banyak menu sekaligus: ketersediaan, harga (persentase, per
+ * daftar ID atau per kategori), atau menghapus.
+ *
+ * Setiap batch adalah satu statement UPDATE/DELETE ... RETURNING yang
+ * dijalankan dalam satu transaksi bersama perhitungan ulang statistik
+ * kategori yang terdampak, sehingga tidak perlu memuat entity menu satu per
+ * satu. Hasilnya dilaporkan per ID menu. File gambar menu yang dihapus
+ * dilepas setelah transaksi selesai.
+ */
+@Service
+public class MenuBatchService {
+
+    public static final String ACTION_AVAILABILITY = "availability";
+    public static final String ACTION_PRICE = "price";
+    public static final String ACTION_DELETE = "delete";
+
+    public static final String STATUS_UPDATED = "updated";
+    public static final String STATUS_DELETED = "deleted";
+    public static final String STATUS_NOT_FOUND = "not_found";
+
+    static final String RETURNING = " RETURNING id, category, image_url";
+
+    static final String AVAILABILITY_SQL = "UPDATE menu_items SET is_available = ?, updated_at = now() "
+            + "WHERE user_id = ? AND id = ANY(?)" + RETURNING;
+
+    // Harga dibulatkan 2 desimal dan tetap lebih dari 0
+    static final String PRICE_SET = "UPDATE menu_items "
+            + "SET price = GREATEST(ROUND(CAST(price * ? AS numeric), 2), 0.01), updated_at = now() ";
+    static final String PRICE_BY_ID_SQL = PRICE_SET + "WHERE user_id = ? AND id = ANY(?)" + RETURNING;
+    static final String PRICE_BY_CATEGORY_SQL = PRICE_SET + "WHERE user_id = ? AND category = ?" + RETURNING;
+
+    static final String DELETE_SQL = "DELETE FROM menu_items WHERE user_id = ? AND id = ANY(?)" + RETURNING;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MenuStatService menuStatService;
+    private final MenuCatalogCache menuCatalogCache;
+    private final ImageUploadService imageUploadService;
+    private final int maxIds;
+
+    public MenuBatchService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            MenuStatService menuStatService, MenuCatalogCache menuCatalogCache,
+                            ImageUploadService imageUploadService,
+                            @Value("${app.batch.max-ids:1000}") int maxIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.menuStatService = menuStatService;
+        this.menuCatalogCache = menuCatalogCache;
+        this.imageUploadService = imageUploadService;
+        this.maxIds = maxIds;
+    }
+
+    // Baris menu yang diubah atau dihapus (hasil RETURNING)
+    private record ChangedRow(UUID id, String category, String imageUrl) {
+    }
+
+    /**
+     * Menjalankan satu batch perubahan menu milik user dalam satu transaksi
+     *
+     * @return status per ID menu (urutan sama dengan ids, atau urutan database
+     *         untuk perubahan harga per kategori)
+     * @throws IllegalArgumentException jika request tidak valid
+     */
+    public MenuBatchResult applyBatch(UUID userId, MenuBatchRequest request) {
+        String action = request.getAction();
+        boolean byCategory = request.getCategory() != null && !request.getCategory().isEmpty();
+
+        // Parameter statement: nilai baru (jika ada), user, lalu target (ids atau kategori)
+        List<Object> params = new ArrayList<>();
+        String sql;
+        if (ACTION_AVAILABILITY.equals(action)) {
+            if (request.getIsAvailable() == null) {
+                throw new IllegalArgumentException("Status ketersediaan tidak boleh kosong");
+            }
+            sql = AVAILABILITY_SQL;
+            params.add(request.getIsAvailable());
+        } else if (ACTION_PRICE.equals(action)) {
+            Double percent = request.getPricePercent();
+            if (percent == null || !Double.isFinite(percent) || percent <= -100) {
+                throw new IllegalArgumentException("Persentase harga harus lebih dari -100");
+            }
+            sql = byCategory ? PRICE_BY_CATEGORY_SQL : PRICE_BY_ID_SQL;
+            params.add(1 + percent / 100);
+        } else if (ACTION_DELETE.equals(action)) {
+            sql = DELETE_SQL;
+        } else {
+            throw new IllegalArgumentException("Aksi batch harus availability, price, atau delete");
+        }
+        if (byCategory && !ACTION_PRICE.equals(action)) {
+            throw new IllegalArgumentException("Kategori hanya bisa dipakai untuk perubahan harga");
+        }
+        List<UUID> ids = byCategory ? List.of() : validateIds(request.getIds());
+        params.add(userId);
+        params.add(byCategory ? request.getCategory() : ids);
+
+        List<ChangedRow> changed = transactionTemplate.execute(status -> {
+            List<ChangedRow> rows = execute(sql, params);
+            Set<String> categories = new LinkedHashSet<>();
+            for (ChangedRow row : rows) {
+                categories.add(row.category());
+            }
+            menuStatService.rebuildCategories(userId, categories);
+            return rows;
+        });
+
+        if (!changed.isEmpty()) {
+            menuCatalogCache.invalidate(userId);
+        }
+        String done = STATUS_UPDATED;
+        if (ACTION_DELETE.equals(action)) {
+            done = STATUS_DELETED;
+            // File gambar dihapus jika tidak dipakai menu lain
+            Set<String> imageUrls = new LinkedHashSet<>();
+            for (ChangedRow row : changed) {
+                if (row.imageUrl() != null) {
+                    imageUrls.add(row.imageUrl());
+                }
+            }
+            for (String imageUrl : imageUrls) {
+                imageUploadService.releaseImage(imageUrl);
+            }
+        }
+        return new MenuBatchResult(action, changed.size(), toResults(byCategory, ids, changed, done));
+    }
+
+    private List<UUID> validateIds(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Daftar ID menu tidak boleh kosong");
+        }
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("Maksimal " + maxIds + " menu per batch");
+        }
+        if (distinct.contains(null)) {
+            throw new IllegalArgumentException("ID menu tidak boleh kosong");
+        }
+        return distinct;
+    }
+
+    // Parameter List dikirim sebagai array uuid (untuk "id = ANY(?)")
+    private List<ChangedRow> execute(String sql, List<Object> params) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            for (int i = 0; i < params.size(); i++) {
+                if (params.get(i) instanceof List<?> list) {
+                    statement.setArray(i + 1, connection.createArrayOf("uuid", list.toArray()));
+                } else {
+                    statement.setObject(i + 1, params.get(i));
+                }
+            }
+            return statement;
+        }, (resultSet, rowNum) -> new ChangedRow(resultSet.getObject("id", UUID.class),
+                resultSet.getString("category"), resultSet.getString("image_url")));
+    }
+
+    private static List<MenuBatchResult.ItemResult> toResults(boolean byCategory, List<UUID> ids,
+                                                             List<ChangedRow> changed, String done) {
+        List<MenuBatchResult.ItemResult> results = new ArrayList<>();
+        if (byCategory) {
+            for (ChangedRow row : changed) {
+                results.add(new MenuBatchResult.ItemResult(row.id(), done));
+            }
+            return results;
+        }
+        Map<UUID, ChangedRow> byId = new HashMap<>();
+        for (ChangedRow row : changed) {
+            byId.put(row.id(), row);
+        }
+        for (UUID id : ids) {
+            results.add(new MenuBatchResult.ItemResult(id, byId.containsKey(id) ? done : STATUS_NOT_FOUND));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,181 @@
+package org.delcom.app.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.delcom.app.dto.MenuItemPage;
+import org.delcom.app.dto.MenuStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache katalog menu per user (tenant) di memori.
+ *
+ * Setiap user memiliki satu entry berisi hasil query baca yang terbatas
+ * ukurannya (halaman menu, data chart); daftar menu lengkap tidak di-cache. Entry dievict secara LRU berdasarkan total bobot,
+ * yaitu jumlah baris yang disimpan, bukan jumlah user. Seluruh entry milik
+ * user dihapus setiap kali menunya berubah.
+ */
+@Service
+public class MenuCatalogCache {
+
+    private final long maxWeight;
+
+    // accessOrder = true: urutan iterasi dari yang paling lama tidak dipakai
+    private final LinkedHashMap<UUID, TenantEntry> tenants = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public MenuCatalogCache(@Value("${app.cache.menu-catalog.max-weight:50000}") long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Mengambil nilai dari cache, atau memuatnya lewat loader jika belum ada.
+     * Nilai null tidak disimpan.
+     *
+     * @param userId - pemilik data
+     * @param key    - nama query beserta parameternya
+     * @param loader - query ke database
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, String key, Supplier<T> loader) {
+        // Kapasitas nol: cache nonaktif, tanpa menyentuh map maupun statistik
+        if (maxWeight <= 0) {
+            return loader.get();
+        }
+
+        TenantEntry entry;
+        synchronized (this) {
+            entry = tenants.get(userId);
+            if (entry != null && entry.values.containsKey(key)) {
+                hits++;
+                return (T) entry.values.get(key);
+            }
+            misses++;
+            if (entry == null) {
+                entry = new TenantEntry();
+                tenants.put(userId, entry);
+                totalWeight += entry.weight;
+                evictIfNeeded();
+            }
+        }
+
+        // Query dijalankan di luar lock agar user lain tidak ikut menunggu
+        T value = loader.get();
+        if (value == null) {
+            return null;
+        }
+
+        long weight = weigh(value);
+        synchronized (this) {
+            // Jika entry sudah diinvalidasi selama query berjalan, hasilnya
+            // mungkin sudah basi sehingga tidak disimpan
+            if (tenants.get(userId) == entry && !entry.values.containsKey(key)
+                    && entry.weight + weight <= maxWeight) {
+                entry.values.put(key, value);
+                entry.weight += weight;
+                totalWeight += weight;
+                evictIfNeeded();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Menghapus semua data cache milik user.
+     * Jika dipanggil di dalam transaksi, cache dihapus lagi setelah transaksi
+     * selesai agar data yang dimuat sebelum commit tidak tertinggal.
+     */
+    public void invalidate(UUID userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    private synchronized void remove(UUID userId) {
+        TenantEntry entry = tenants.remove(userId);
+        if (entry != null) {
+            totalWeight -= entry.weight;
+        }
+    }
+
+    public synchronized void clear() {
+        tenants.clear();
+        totalWeight = 0;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<TenantEntry> iterator = tenants.values().iterator();
+        // Entry yang baru dipakai berada di akhir, sehingga tidak ikut dievict
+        while (totalWeight > maxWeight) {
+            TenantEntry eldest = iterator.next();
+            iterator.remove();
+            totalWeight -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    // Bobot = jumlah baris yang disimpan
+    private static long weigh(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof MenuItemPage page) {
+            return Math.max(1, page.getMenuItems().size());
+        }
+        if (value instanceof MenuStats stats) {
+            return Math.max(1, stats.getTotalCategories());
+        }
+        return 1;
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getWeight() {
+        return totalWeight;
+    }
+
+    public synchronized int getTenantCount() {
+        return tenants.size();
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    private static class TenantEntry {
+        private final Map<String, Object> values = new HashMap<>();
+        private long weight = 1; // overhead entry user
+    }
+}
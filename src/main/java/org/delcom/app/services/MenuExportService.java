@@ -0,0 +1,190 @@
+package org.delcom.app.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+import org.delcom.app.utils.CsvUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Export seluruh menu milik user sebagai CSV atau NDJSON.
+ *
+ * Baris dibaca dengan cursor JDBC forward-only (fetch size
+ * app.export.fetch-size) dan langsung ditulis ke output stream, sehingga
+ * pemakaian memori tetap sama berapa pun jumlah menunya. Driver PostgreSQL
+ * hanya memakai cursor di dalam transaksi, karena itu query dijalankan
+ * dalam transaksi read-only; satu koneksi pool dipakai selama export.
+ * Karena itu jumlah export yang berjalan bersamaan dibatasi
+ * (app.export.max-concurrent, harus di bawah ukuran pool) dan satu export
+ * dihentikan setelah app.export.timeout, agar client yang lambat tidak
+ * menahan koneksi tanpa batas.
+ *
+ * Export yang gagal di tengah jalan (timeout, error database, koneksi
+ * client terputus) tidak bisa lagi mengubah status HTTP yang sudah
+ * terkirim; koneksi diputus tanpa penutup chunked encoding (dan tanpa
+ * trailer gzip), sehingga client harus menganggap body yang terpotong
+ * sebagai export gagal.
+ *
+ * Kolom CSV sama dengan header yang diterima import menu, sehingga hasil
+ * export bisa diimport kembali.
+ */
+@Service
+public class MenuExportService {
+
+    static final String SELECT_SQL = "SELECT id, name, category, price, description, is_available, "
+            + "preparation_time, spicy_level, calories, image_url, created_at, updated_at "
+            + "FROM menu_items WHERE user_id = ? ORDER BY created_at DESC, id DESC";
+
+    static final String CSV_HEADER = "id,name,category,price,description,is_available,preparation_time,"
+            + "spicy_level,calories,image_url,created_at,updated_at\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final int fetchSize;
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public MenuExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             JsonMapper jsonMapper,
+                             @Value("${app.export.fetch-size:500}") int fetchSize,
+                             @Value("${app.export.max-concurrent:2}") int maxConcurrent,
+                             @Value("${app.export.timeout:PT5M}") Duration timeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Juga menjadi query timeout statement di dalam transaksi
+        this.transactionTemplate.setTimeout((int) Math.max(1, timeout.toSeconds()));
+        this.jsonMapper = jsonMapper;
+        this.fetchSize = fetchSize;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.timeout = timeout;
+    }
+
+    /**
+     * Menulis semua menu milik user ke output (UTF-8), terbaru lebih dulu.
+     * Output di-flush tetapi tidak ditutup.
+     *
+     * @param format - MenuImportService.FORMAT_CSV atau FORMAT_NDJSON
+     * @return jumlah menu yang ditulis
+     * @throws IllegalStateException jika export lain sudah memakai semua slot,
+     *         sebelum ada yang ditulis ke output
+     * @throws IOException jika gagal menulis (misalnya client memutus koneksi)
+     *         atau export melebihi app.export.timeout
+     */
+    public long exportMenuItems(UUID userId, String format, OutputStream output) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new IllegalStateException("Terlalu banyak export yang sedang berjalan, coba lagi nanti");
+        }
+        try {
+            return writeMenuItems(userId, format, output);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private long writeMenuItems(UUID userId, String format, OutputStream output) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        boolean csv = MenuImportService.FORMAT_CSV.equals(format);
+        if (csv) {
+            writer.write(CSV_HEADER);
+        }
+
+        StringBuilder record = new StringBuilder(256);
+        long[] rows = { 0 };
+        RowCallbackHandler handler = resultSet -> {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new UncheckedIOException(new IOException("Export melebihi batas waktu " + timeout));
+            }
+            record.setLength(0);
+            if (csv) {
+                appendCsv(record, resultSet);
+            } else {
+                record.append(jsonMapper.writeValueAsString(toMap(resultSet)));
+            }
+            record.append('\n');
+            try {
+                writer.append(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        };
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setObject(1, userId);
+                return statement;
+            }, handler));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private static void appendCsv(StringBuilder record, ResultSet resultSet) throws SQLException {
+        CsvUtil.appendField(record, resultSet.getString("id"));
+        record.append(',');
+        CsvUtil.appendField(record, resultSet.getString("name"));
+        record.append(',');
+        CsvUtil.appendField(record, resultSet.getString("category"));
+        record.append(',').append(resultSet.getDouble("price")).append(',');
+        CsvUtil.appendField(record, resultSet.getString("description"));
+        record.append(',').append(resultSet.getBoolean("is_available"))
+                .append(',').append(resultSet.getInt("preparation_time"))
+                .append(',').append(resultSet.getInt("spicy_level"))
+                .append(',');
+        Integer calories = resultSet.getObject("calories", Integer.class);
+        if (calories != null) {
+            record.append(calories.intValue());
+        }
+        record.append(',');
+        CsvUtil.appendField(record, resultSet.getString("image_url"));
+        record.append(',').append(resultSet.getObject("created_at", LocalDateTime.class))
+                .append(',').append(resultSet.getObject("updated_at", LocalDateTime.class));
+    }
+
+    // Nama field sama dengan JSON API menu (dan import NDJSON)
+    private static Map<String, Object> toMap(ResultSet resultSet) throws SQLException {
+        Map<String, Object> menuItem = new LinkedHashMap<>();
+        menuItem.put("id", resultSet.getString("id"));
+        menuItem.put("name", resultSet.getString("name"));
+        menuItem.put("category", resultSet.getString("category"));
+        menuItem.put("price", resultSet.getDouble("price"));
+        menuItem.put("description", resultSet.getString("description"));
+        menuItem.put("isAvailable", resultSet.getBoolean("is_available"));
+        menuItem.put("preparationTime", resultSet.getInt("preparation_time"));
+        menuItem.put("spicyLevel", resultSet.getInt("spicy_level"));
+        menuItem.put("calories", resultSet.getObject("calories", Integer.class));
+        menuItem.put("imageUrl", resultSet.getString("image_url"));
+        menuItem.put("createdAt", resultSet.getObject("created_at", LocalDateTime.class).toString());
+        menuItem.put("updatedAt", resultSet.getObject("updated_at", LocalDateTime.class).toString());
+        return menuItem;
+    }
+}
@@ -0,0 +1,126 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.delcom.app.utils.HashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Menyediakan metadata gambar menu untuk dikirim dengan HTTP caching.
+ *
+ * ETag adalah hash SHA-256 isi file, dan versi pada URL gambar adalah
+ * awalan hash tersebut. Hash disimpan di memori berdasarkan ukuran dan
+ * waktu modifikasi file, sehingga file hanya dibaca ulang jika berubah.
+ */
+@Service
+public class MenuImageService {
+
+    static final int VERSION_LENGTH = 16;
+
+    private final FileStorageService fileStorageService;
+    private final Map<Path, MenuImage> images;
+
+    /**
+     * Gambar yang siap dikirim
+     *
+     * @param path         - lokasi file
+     * @param size         - ukuran file (byte)
+     * @param lastModified - waktu modifikasi (epoch millis)
+     * @param contentHash  - SHA-256 isi file (hex)
+     * @param contentType  - tipe konten berdasarkan ekstensi
+     */
+    public record MenuImage(Path path, long size, long lastModified, String contentHash, MediaType contentType) {
+
+        public String getETag() {
+            return "\"" + contentHash + "\"";
+        }
+
+        public String getVersion() {
+            return contentHash.substring(0, VERSION_LENGTH);
+        }
+    }
+
+    public MenuImageService(FileStorageService fileStorageService,
+                            @Value("${app.upload.image-metadata-cache.max-entries:10000}") int maxEntries) {
+        this.fileStorageService = fileStorageService;
+        // accessOrder = true: entry yang paling lama tidak dipakai dibuang lebih dulu
+        this.images = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, MenuImage> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return gambar beserta metadata, atau null jika nama file tidak valid
+     *         atau file tidak ditemukan
+     */
+    public MenuImage getImage(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return null;
+        }
+
+        // Tolak nama file yang keluar dari direktori upload (misalnya "../")
+        Path uploadPath = Paths.get(fileStorageService.getUploadDir()).toAbsolutePath().normalize();
+        Path path = uploadPath.resolve(filename).normalize();
+        if (!path.getParent().equals(uploadPath)) {
+            return null;
+        }
+
+        // Diunduh dari blob store jika belum ada di node ini
+        fileStorageService.ensureLocalCopy(filename);
+
+        return describe(path, MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM));
+    }
+
+    /**
+     * Metadata file gambar tanpa validasi nama file, hanya untuk path yang
+     * dibuat sendiri oleh aplikasi (misalnya varian ukuran gambar)
+     *
+     * @return metadata, atau null jika file tidak ditemukan
+     */
+    MenuImage describe(Path path, MediaType contentType) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            synchronized (images) {
+                MenuImage cached = images.get(path);
+                if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+                    return cached;
+                }
+            }
+
+            // Hash dihitung di luar lock, file gambar bisa berukuran beberapa MB
+            MenuImage image = new MenuImage(path, size, lastModified, HashUtil.sha256Hex(path), contentType);
+            synchronized (images) {
+                images.put(path, image);
+            }
+            return image;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Versi gambar untuk URL (dipakai di template), null jika file tidak ada
+     */
+    public String getVersion(String filename) {
+        MenuImage image = getImage(filename);
+        return image == null ? null : image.getVersion();
+    }
+}
@@ -0,0 +1,353 @@
+package org.delcom.app.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.dto.MenuImportResult;
+import org.delcom.app.dto.MenuItemForm;
+import org.delcom.app.entities.MenuItem;
+import org.delcom.app.utils.CsvUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Import menu dalam jumlah besar dari CSV atau NDJSON (satu objek JSON per
+ * baris).
+ *
+ * File dibaca sebagai stream, satu baris per langkah, sehingga ukuran file
+ * tidak mempengaruhi pemakaian memori. Baris yang valid dikumpulkan per
+ * chunk lalu disimpan dengan JDBC batch insert dalam satu transaksi pendek
+ * per chunk (bersama statistik menu_stats). Baris yang tidak valid
+ * dilewati dan dilaporkan beserta nomor barisnya; chunk yang sudah
+ * tersimpan tidak dibatalkan oleh baris yang gagal setelahnya.
+ */
+@Service
+public class MenuImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    static final String INSERT_SQL = "INSERT INTO menu_items (id, user_id, name, category, price, description, "
+            + "is_available, preparation_time, spicy_level, calories, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Header CSV wajib (tanpa huruf besar, spasi, "_" dan "-")
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "category", "price", "preparationtime");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MenuStatService menuStatService;
+    private final MenuCatalogCache menuCatalogCache;
+    private final JsonMapper jsonMapper;
+    private final int batchSize;
+    private final int maxRows;
+    private final int maxErrors;
+
+    public MenuImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             MenuStatService menuStatService, MenuCatalogCache menuCatalogCache,
+                             JsonMapper jsonMapper,
+                             @Value("${app.import.batch-size:1000}") int batchSize,
+                             @Value("${app.import.max-rows:100000}") int maxRows,
+                             @Value("${app.import.max-errors:100}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.menuStatService = menuStatService;
+        this.menuCatalogCache = menuCatalogCache;
+        this.jsonMapper = jsonMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRows = maxRows;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Import menu milik user dari stream CSV (baris pertama header) atau
+     * NDJSON, berencoding UTF-8
+     *
+     * @param format - FORMAT_CSV atau FORMAT_NDJSON
+     * @return jumlah menu yang tersimpan dan baris yang gagal
+     * @throws IllegalArgumentException jika header CSV tidak memiliki kolom wajib
+     */
+    public MenuImportResult importMenuItems(UUID userId, String format, InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun(userId);
+        try {
+            if (FORMAT_CSV.equals(format)) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        } catch (IOException e) {
+            // Baris valid sebelum error tetap disimpan
+            run.fail(run.lastRow + 1, "Gagal membaca file: " + e.getMessage());
+        } finally {
+            run.flush();
+            if (run.imported > 0) {
+                menuCatalogCache.invalidate(userId);
+            }
+        }
+        return new MenuImportResult(run.imported, run.failed, run.errors);
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        List<String> header = CsvUtil.readRecord(reader);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Kolom CSV wajib tidak ada: " + column);
+            }
+        }
+
+        run.lastRow = 1;
+        List<String> record;
+        while ((record = CsvUtil.readRecord(reader)) != null) {
+            long row = ++run.lastRow;
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue; // baris kosong
+            }
+            if (!run.accept(row)) {
+                return;
+            }
+            try {
+                run.add(row, toForm(record, columns));
+            } catch (IllegalArgumentException e) {
+                run.fail(row, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        while ((line = readLine(reader)) != null) {
+            long row = ++run.lastRow;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!run.accept(row)) {
+                return;
+            }
+            MenuItemForm form;
+            try {
+                form = jsonMapper.readValue(line, MenuItemForm.class);
+            } catch (JacksonException e) {
+                form = null;
+            }
+            if (form == null) {
+                run.fail(row, "JSON tidak valid");
+            } else {
+                run.add(row, form);
+            }
+        }
+    }
+
+    // Seperti BufferedReader.readLine, dengan batas panjang yang sama dengan
+    // record CSV agar file tanpa baris baru tidak dibaca seluruhnya ke memori
+    private static String readLine(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (c != -1 && c != '\n') {
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            }
+            if (line.length() >= CsvUtil.MAX_RECORD_LENGTH) {
+                throw new IOException("Baris NDJSON lebih dari " + CsvUtil.MAX_RECORD_LENGTH + " karakter");
+            }
+            line.append((char) c);
+            c = reader.read();
+        }
+        return line.toString();
+    }
+
+    // "Preparation Time", "preparation_time" dan "preparationTime" dianggap sama
+    private static String normalizeColumn(String column) {
+        return column.replace("\uFEFF", "").replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static MenuItemForm toForm(List<String> record, Map<String, Integer> columns) {
+        MenuItemForm form = new MenuItemForm();
+        form.setName(value(record, columns, "name"));
+        form.setCategory(value(record, columns, "category"));
+        form.setPrice(parseDouble(value(record, columns, "price"), "Harga"));
+        form.setDescription(value(record, columns, "description"));
+        form.setPreparationTime(parseInteger(value(record, columns, "preparationtime"), "Waktu persiapan"));
+        form.setSpicyLevel(parseInteger(value(record, columns, "spicylevel"), "Level pedas"));
+        form.setCalories(parseInteger(value(record, columns, "calories"), "Kalori"));
+
+        String isAvailable = value(record, columns, "isavailable");
+        if (isAvailable != null) {
+            form.setIsAvailable(parseBoolean(isAvailable));
+        }
+        return form;
+    }
+
+    // null jika kolom tidak ada atau kosong
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private static Double parseDouble(String value, String label) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " tidak valid: " + value);
+        }
+    }
+
+    private static Integer parseInteger(String value, String label) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " tidak valid: " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "ya":
+                return true;
+            case "false", "0", "tidak":
+                return false;
+            default:
+                throw new IllegalArgumentException("Status ketersediaan tidak valid: " + value);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, MenuItem menuItem, LocalDateTime now) throws SQLException {
+        statement.setObject(1, menuItem.getId());
+        statement.setObject(2, menuItem.getUserId());
+        statement.setString(3, menuItem.getName());
+        statement.setString(4, menuItem.getCategory());
+        statement.setDouble(5, menuItem.getPrice());
+        statement.setString(6, menuItem.getDescription());
+        statement.setBoolean(7, menuItem.getIsAvailable());
+        statement.setInt(8, menuItem.getPreparationTime());
+        statement.setInt(9, menuItem.getSpicyLevel());
+        statement.setObject(10, menuItem.getCalories(), Types.INTEGER);
+        statement.setObject(11, now);
+        statement.setObject(12, now);
+    }
+
+    // Status satu kali import
+    private final class ImportRun {
+        private final UUID userId;
+        private final List<MenuItem> chunk = new ArrayList<>();
+        private final long[] chunkRows = new long[batchSize];
+        private final List<MenuImportResult.RowError> errors = new ArrayList<>();
+        private long lastRow = 0;
+        private long rows = 0;
+        private long imported = 0;
+        private long failed = 0;
+
+        private ImportRun(UUID userId) {
+            this.userId = userId;
+        }
+
+        // false jika batas jumlah baris sudah tercapai
+        private boolean accept(long row) {
+            if (rows >= maxRows) {
+                fail(row, "Maksimal " + maxRows + " baris per import, sisa file tidak diproses");
+                return false;
+            }
+            rows++;
+            return true;
+        }
+
+        private void add(long row, MenuItemForm form) {
+            String error = MenuItemService.validateNewMenuItem(form.getName(), form.getCategory(),
+                    form.getPrice(), form.getPreparationTime(), form.getSpicyLevel(), form.getCalories());
+            if (error != null) {
+                fail(row, error);
+                return;
+            }
+
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId(UUID.randomUUID());
+            menuItem.setUserId(userId);
+            menuItem.setName(form.getName());
+            menuItem.setCategory(form.getCategory());
+            menuItem.setPrice(form.getPrice());
+            menuItem.setDescription(form.getDescription());
+            menuItem.setIsAvailable(!Boolean.FALSE.equals(form.getIsAvailable()));
+            menuItem.setPreparationTime(form.getPreparationTime());
+            menuItem.setSpicyLevel(form.getSpicyLevel() == null ? 0 : form.getSpicyLevel());
+            menuItem.setCalories(form.getCalories());
+
+            chunkRows[chunk.size()] = row;
+            chunk.add(menuItem);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new MenuImportResult.RowError(row, message));
+            }
+        }
+
+        // Menyimpan chunk dalam satu transaksi: semua baris chunk tersimpan atau tidak sama sekali
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(),
+                            (statement, menuItem) -> bind(statement, menuItem, now));
+                    menuStatService.recordAddedAll(userId, chunk);
+                });
+                imported += chunk.size();
+            } catch (DataAccessException | TransactionException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    fail(chunkRows[i], "Gagal menyimpan menu: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+            chunk.clear();
+        }
+    }
+}
@@ -1,22 +1,77 @@
 package org.delcom.app.services;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.dto.MenuItemPage;
+import org.delcom.app.dto.MenuStats;
 import org.delcom.app.entities.MenuItem;
 import org.delcom.app.repositories.MenuItemRepository;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
+import org.delcom.app.utils.SearchUtil;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class MenuItemService {
 
+    // Batas kolom menu_items
+    static final int MAX_NAME_LENGTH = 100;
+    static final int MAX_CATEGORY_LENGTH = 50;
+    static final int MAX_SPICY_LEVEL = 5;
+
     private final MenuItemRepository menuItemRepository;
+    private final MenuCatalogCache menuCatalogCache;
+    private final MenuStatService menuStatService;
 
-    public MenuItemService(MenuItemRepository menuItemRepository) {
+    public MenuItemService(MenuItemRepository menuItemRepository, MenuCatalogCache menuCatalogCache,
+                           MenuStatService menuStatService) {
         this.menuItemRepository = menuItemRepository;
+        this.menuCatalogCache = menuCatalogCache;
+        this.menuStatService = menuStatService;
+    }
+
+    /**
+     * Aturan menu baru yang dipakai bersama oleh form web, REST API dan
+     * import, termasuk batas kolom database
+     *
+     * @return pesan error, atau null jika valid
+     */
+    public static String validateNewMenuItem(String name, String category, Double price,
+                                             Integer preparationTime, Integer spicyLevel, Integer calories) {
+        if (name == null || name.isBlank()) {
+            return "Nama menu tidak boleh kosong";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "Nama menu maksimal " + MAX_NAME_LENGTH + " karakter";
+        }
+        if (category == null || category.isBlank()) {
+            return "Kategori tidak boleh kosong";
+        }
+        if (category.length() > MAX_CATEGORY_LENGTH) {
+            return "Kategori maksimal " + MAX_CATEGORY_LENGTH + " karakter";
+        }
+        if (price == null || !Double.isFinite(price) || price <= 0) {
+            return "Harga harus lebih dari 0";
+        }
+        if (preparationTime == null || preparationTime <= 0) {
+            return "Waktu persiapan harus lebih dari 0";
+        }
+        if (spicyLevel != null && (spicyLevel < 0 || spicyLevel > MAX_SPICY_LEVEL)) {
+            return "Level pedas harus antara 0 dan " + MAX_SPICY_LEVEL;
+        }
+        if (calories != null && calories < 0) {
+            return "Kalori tidak boleh negatif";
+        }
+        return null;
     }
 
     // CREATE - Menambahkan menu baru
+    @Transactional
     public MenuItem createMenuItem(UUID userId, String name, String category, Double price,
                                    String description, Integer preparationTime, Integer spicyLevel, Integer calories) {
         MenuItem menuItem = new MenuItem();
@@ -30,33 +85,87 @@ public class MenuItemService {
         menuItem.setCalories(calories);
         menuItem.setIsAvailable(true);
 
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuStatService.recordAdded(saved);
+        menuCatalogCache.invalidate(userId);
+        return saved;
     }
 
-    // READ - Mendapatkan semua menu dengan opsi pencarian
-    public List<MenuItem> getAllMenuItems(UUID userId, String search) {
-        if (search == null || search.isEmpty()) {
-            return menuItemRepository.findAllByUserId(userId);
+    // READ - Mendapatkan satu halaman menu (keyset pagination pada createdAt, id)
+    // Mengembalikan null jika cursor tidak valid
+    public MenuItemPage getMenuItemsPage(UUID userId, String category, String search,
+                                         String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        // Hasil pencarian tidak di-cache karena variasi kata kuncinya tidak terbatas
+        if ((category == null || category.isEmpty()) && search != null && !search.isEmpty()) {
+            return searchMenuItemsPage(userId, search, cursor, pageSize);
         }
-        return menuItemRepository.findByKeyword(userId, search);
+
+        String key = "page|" + category + "|" + cursor + "|" + pageSize;
+        return menuCatalogCache.get(userId, key, () -> loadMenuItemsPage(userId, category, cursor, pageSize));
     }
 
-    // READ - Mendapatkan menu berdasarkan ID
-    public MenuItem getMenuItemById(UUID userId, UUID id) {
-        return menuItemRepository.findByUserIdAndId(userId, id).orElse(null);
+    private MenuItemPage loadMenuItemsPage(UUID userId, String category, String cursor, int pageSize) {
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        if (position == null) {
+            return null;
+        }
+
+        // Ambil satu item ekstra untuk mengetahui apakah masih ada halaman berikutnya
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<MenuItem> menuItems;
+        if (category != null && !category.isEmpty()) {
+            menuItems = menuItemRepository.findPageByCategory(
+                    userId, category, position.createdAt(), position.id(), fetchLimit);
+        } else {
+            menuItems = menuItemRepository.findPageByUserId(
+                    userId, position.createdAt(), position.id(), fetchLimit);
+        }
+
+        if (menuItems.size() <= pageSize) {
+            return new MenuItemPage(menuItems, null);
+        }
+
+        List<MenuItem> pageItems = menuItems.subList(0, pageSize);
+        MenuItem last = pageItems.get(pageSize - 1);
+        return new MenuItemPage(pageItems, CursorUtil.encode(last.getCreatedAt(), last.getId()));
+    }
+
+    // Hasil pencarian diurutkan berdasarkan relevansi, sehingga halaman
+    // berikutnya dilanjutkan dengan offset
+    private MenuItemPage searchMenuItemsPage(UUID userId, String search, String cursor, int pageSize) {
+        Integer offset = CursorUtil.decodeOffset(cursor);
+        if (offset == null) {
+            return null;
+        }
+
+        String query = SearchUtil.toPrefixTsQuery(search);
+        if (query == null) {
+            return new MenuItemPage(new ArrayList<>(), null);
+        }
+
+        List<MenuItem> menuItems = menuItemRepository.searchFullText(userId, query, pageSize + 1, offset);
+        if (menuItems.size() <= pageSize) {
+            return new MenuItemPage(menuItems, null);
+        }
+        return new MenuItemPage(menuItems.subList(0, pageSize), CursorUtil.encodeOffset(offset + pageSize));
     }
 
-    // READ - Mendapatkan menu berdasarkan kategori
-    public List<MenuItem> getMenuItemsByCategory(UUID userId, String category) {
-        return menuItemRepository.findByCategory(userId, category);
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return ConstUtil.PAGE_SIZE_DEFAULT;
+        }
+        return Math.min(limit, ConstUtil.PAGE_SIZE_MAX);
     }
 
-    // READ - Mendapatkan menu yang tersedia
-    public List<MenuItem> getAvailableMenuItems(UUID userId) {
-        return menuItemRepository.findAvailableMenus(userId);
+    // READ - Mendapatkan menu berdasarkan ID
+    public MenuItem getMenuItemById(UUID userId, UUID id) {
+        return menuItemRepository.findByUserIdAndId(userId, id).orElse(null);
     }
 
     // UPDATE - Memperbarui menu
+    @Transactional
     public MenuItem updateMenuItem(UUID userId, UUID id, String name, String category, Double price,
                                    String description, Integer preparationTime, Integer spicyLevel, 
                                    Integer calories, Boolean isAvailable) {
@@ -66,6 +175,12 @@ public class MenuItemService {
             return null;
         }
 
+        // Nilai lama untuk mengurangi statistik kategori sebelumnya
+        String oldCategory = existingMenuItem.getCategory();
+        Double oldPrice = existingMenuItem.getPrice();
+        Boolean oldIsAvailable = existingMenuItem.getIsAvailable();
+        Integer oldPreparationTime = existingMenuItem.getPreparationTime();
+
         existingMenuItem.setName(name);
         existingMenuItem.setCategory(category);
         existingMenuItem.setPrice(price);
@@ -75,7 +190,11 @@ public class MenuItemService {
         existingMenuItem.setCalories(calories);
         existingMenuItem.setIsAvailable(isAvailable);
 
-        return menuItemRepository.save(existingMenuItem);
+        MenuItem saved = menuItemRepository.save(existingMenuItem);
+        menuStatService.recordRemoved(userId, oldCategory, oldPrice, oldIsAvailable, oldPreparationTime);
+        menuStatService.recordAdded(saved);
+        menuCatalogCache.invalidate(userId);
+        return saved;
     }
 
     // UPDATE - Memperbarui gambar menu
@@ -87,10 +206,29 @@ public class MenuItemService {
         }
 
         existingMenuItem.setImageUrl(imageUrl);
-        return menuItemRepository.save(existingMenuItem);
+        MenuItem saved = menuItemRepository.save(existingMenuItem);
+        menuCatalogCache.invalidate(existingMenuItem.getUserId());
+        return saved;
+    }
+
+    // READ - Nama file gambar menu, null jika tidak ada
+    public String getMenuImageUrl(UUID id) {
+        return menuItemRepository.findImageUrlById(id).orElse(null);
+    }
+
+    // Harus dipanggil di dalam transaksi: menahan pemasangan dan pelepasan
+    // file gambar yang sama di node lain sampai transaksi selesai
+    public void lockImageUrl(String imageUrl) {
+        menuItemRepository.lockImageUrl(imageUrl);
+    }
+
+    // READ - Jumlah menu yang memakai file gambar
+    public long countMenuItemsByImageUrl(String imageUrl) {
+        return menuItemRepository.countByImageUrl(imageUrl);
     }
 
     // DELETE - Menghapus menu
+    @Transactional
     public boolean deleteMenuItem(UUID userId, UUID id) {
         MenuItem existingMenuItem = menuItemRepository.findByUserIdAndId(userId, id).orElse(null);
         
@@ -99,21 +237,33 @@ public class MenuItemService {
         }
 
         menuItemRepository.delete(existingMenuItem);
+        menuStatService.recordRemoved(userId, existingMenuItem.getCategory(), existingMenuItem.getPrice(),
+                existingMenuItem.getIsAvailable(), existingMenuItem.getPreparationTime());
+        menuCatalogCache.invalidate(userId);
         return true;
     }
 
+    // CHART DATA - Statistik per kategori dan keseluruhan (dari tabel menu_stats)
+    public MenuStats getMenuStats(UUID userId) {
+        return menuCatalogCache.get(userId, "stats",
+                () -> new MenuStats(menuStatService.getCategoryStats(userId)));
+    }
+
     // CHART DATA - Menghitung jumlah menu per kategori
     public List<Object[]> getMenuCountByCategory(UUID userId) {
-        return menuItemRepository.countByCategory(userId);
+        List<Object[]> result = new ArrayList<>();
+        for (CategoryStats stats : getMenuStats(userId).getCategories()) {
+            result.add(new Object[] { stats.getCategory(), stats.getCount() });
+        }
+        return result;
     }
 
     // CHART DATA - Menghitung rata-rata harga per kategori
     public List<Object[]> getAveragePriceByCategory(UUID userId) {
-        return menuItemRepository.averagePriceByCategory(userId);
-    }
-
-    // CHART DATA - Menghitung total harga per kategori
-    public List<Object[]> getTotalPriceByCategory(UUID userId) {
-        return menuItemRepository.totalPriceByCategory(userId);
+        List<Object[]> result = new ArrayList<>();
+        for (CategoryStats stats : getMenuStats(userId).getCategories()) {
+            result.add(new Object[] { stats.getCategory(), stats.getAveragePrice() });
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package org.delcom.app.services;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.entities.MenuItem;
+import org.delcom.app.repositories.MenuStatRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service untuk tabel statistik menu_stats.
+ *
+ * Method record* dipanggil oleh MenuItemService di dalam transaksi yang
+ * sama dengan perubahan menu, sehingga statistik selalu konsisten dengan
+ * menu_items. Saat startup, user yang belum punya baris statistik diisi
+ * sekali; rekonsiliasi berkala memverifikasi hasil pembaruan inkremental
+ * dan memperbaiki kategori yang tidak sesuai.
+ */
+@Service
+public class MenuStatService {
+
+    private final MenuStatRepository menuStatRepository;
+    private final MenuCatalogCache menuCatalogCache;
+
+    public MenuStatService(MenuStatRepository menuStatRepository, MenuCatalogCache menuCatalogCache) {
+        this.menuStatRepository = menuStatRepository;
+        this.menuCatalogCache = menuCatalogCache;
+    }
+
+    // READ - Statistik per kategori (O(jumlah kategori))
+    public List<CategoryStats> getCategoryStats(UUID userId) {
+        return menuStatRepository.findCategoryStats(userId);
+    }
+
+    // Menu baru ditambahkan (atau nilai baru setelah update)
+    public void recordAdded(MenuItem menuItem) {
+        menuStatRepository.addItem(menuItem.getUserId(), menuItem.getCategory(), menuItem.getPrice(),
+                availableFlag(menuItem.getIsAvailable()), menuItem.getPreparationTime());
+    }
+
+    // Banyak menu ditambahkan sekaligus (import): satu upsert per kategori
+    public void recordAddedAll(UUID userId, List<MenuItem> menuItems) {
+        Map<String, CategoryTotals> totals = new LinkedHashMap<>();
+        for (MenuItem menuItem : menuItems) {
+            totals.computeIfAbsent(menuItem.getCategory(), category -> new CategoryTotals()).add(menuItem);
+        }
+        for (Map.Entry<String, CategoryTotals> entry : totals.entrySet()) {
+            CategoryTotals total = entry.getValue();
+            menuStatRepository.addItems(userId, entry.getKey(), total.count, total.priceSum, total.available,
+                    total.minPreparationTime, total.maxPreparationTime);
+        }
+    }
+
+    // Menu dihapus (atau nilai lama sebelum update)
+    // Harus dipanggil setelah perubahan menu_items dilakukan pada transaksi ini
+    public void recordRemoved(UUID userId, String category, Double price, Boolean isAvailable,
+                              Integer preparationTime) {
+        menuStatRepository.removeItem(userId, category, price, availableFlag(isAvailable));
+        menuStatRepository.refreshPreparationTimeRange(userId, category, preparationTime);
+        menuStatRepository.deleteEmpty(userId, category);
+    }
+
+    // Banyak menu diubah atau dihapus sekaligus (batch): statistik kategori
+    // yang terdampak dihitung ulang dari menu_items
+    public void rebuildCategories(UUID userId, Collection<String> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+        menuStatRepository.deleteCategories(userId, categories);
+        menuStatRepository.rebuildCategories(userId, categories);
+    }
+
+    /**
+     * Mengisi menu_stats untuk user yang sudah punya menu tetapi belum punya
+     * baris statistik (database lama, atau tabel masih kosong), sehingga
+     * grafik langsung benar setelah deploy tanpa menunggu rekonsiliasi.
+     * Memakai advisory lock yang sama dengan rekonsiliasi; jika node lain
+     * sedang menjalankannya, run ini dilewati.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!menuStatRepository.tryLockReconcile()) {
+            System.out.println("Pengisian awal menu_stats dilewati: sedang dijalankan node lain");
+            return;
+        }
+
+        Map<UUID, Set<String>> missing = new LinkedHashMap<>();
+        for (Object[] row : menuStatRepository.findMissingCategories()) {
+            missing.computeIfAbsent((UUID) row[0], userId -> new LinkedHashSet<>()).add((String) row[1]);
+        }
+        for (Map.Entry<UUID, Set<String>> entry : missing.entrySet()) {
+            rebuildCategories(entry.getKey(), entry.getValue());
+            menuCatalogCache.invalidate(entry.getKey());
+        }
+
+        if (!missing.isEmpty()) {
+            System.out.println("Pengisian awal menu_stats: " + missing.size() + " user diisi");
+        }
+    }
+
+    /**
+     * Memverifikasi menu_stats terhadap menu_items dan menghitung ulang hanya
+     * kategori yang tidak sesuai. Jika tidak ada selisih, tidak ada baris yang
+     * dikunci atau ditulis. Hanya satu node yang menjalankannya sekaligus
+     * (advisory lock); node lain melewati run ini.
+     *
+     * @return jumlah kategori yang tidak sesuai, atau -1 jika sedang
+     *         dijalankan node lain
+     */
+    @Transactional
+    @Scheduled(initialDelayString = "${app.stats.reconcile-initial-delay:PT1H}",
+               fixedDelayString = "${app.stats.reconcile-interval:PT24H}")
+    public long reconcile() {
+        if (!menuStatRepository.tryLockReconcile()) {
+            System.out.println("Rekonsiliasi menu_stats dilewati: sedang dijalankan node lain");
+            return -1;
+        }
+
+        List<Object[]> drift = menuStatRepository.findDrift();
+        Set<UUID> users = new HashSet<>();
+        for (Object[] row : drift) {
+            UUID userId = (UUID) row[0];
+            String category = (String) row[1];
+            menuStatRepository.lockCategory(userId, category);
+            menuStatRepository.recountCategory(userId, category);
+            menuStatRepository.deleteEmpty(userId, category);
+            users.add(userId);
+        }
+        for (UUID userId : users) {
+            menuCatalogCache.invalidate(userId);
+        }
+
+        if (!drift.isEmpty()) {
+            System.err.println("Rekonsiliasi menu_stats: " + drift.size() + " kategori tidak sesuai, dihitung ulang");
+        }
+        System.out.println("Rekonsiliasi menu_stats selesai");
+        return drift.size();
+    }
+
+    private static int availableFlag(Boolean isAvailable) {
+        return Boolean.TRUE.equals(isAvailable) ? 1 : 0;
+    }
+
+    // Akumulasi statistik satu kategori
+    private static final class CategoryTotals {
+        private int count = 0;
+        private double priceSum = 0;
+        private int available = 0;
+        private Integer minPreparationTime;
+        private Integer maxPreparationTime;
+
+        private void add(MenuItem menuItem) {
+            count++;
+            priceSum += menuItem.getPrice();
+            available += availableFlag(menuItem.getIsAvailable());
+            int preparationTime = menuItem.getPreparationTime();
+            if (minPreparationTime == null || preparationTime < minPreparationTime) {
+                minPreparationTime = preparationTime;
+            }
+            if (maxPreparationTime == null || preparationTime > maxPreparationTime) {
+                maxPreparationTime = preparationTime;
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.delcom.app.repositories.MenuItemRepository;
+import org.delcom.app.services.MenuImageService.MenuImage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Job terjadwal yang menghapus file gambar yatim dari folder upload, yaitu
+ * file yang tertinggal karena gagal dihapus atau berasal dari versi lama
+ * aplikasi (misalnya menu_[id].png di samping menu_[id].jpg).
+ *
+ * Folder upload dibaca dengan DirectoryStream (tanpa memuat seluruh isi
+ * folder) dan nama file dicek ke menu_items.image_url per batch. Hanya file
+ * yang lebih tua dari grace period yang dihapus, agar upload yang sedang
+ * berjalan tidak ikut terhapus. Penghapusan lewat
+ * ImageUploadService.releaseImage, yang mengecek ulang reference count di
+ * bawah lock nama file yang sama dengan proses upload (di semua node).
+ *
+ * Setelah itu varian yang gambar aslinya sudah tidak ada dan file staging
+ * yang terbengkalai juga dihapus.
+ */
+@Service
+public class OrphanImageCollector {
+
+    private final FileStorageService fileStorageService;
+    private final MenuImageService menuImageService;
+    private final ImageUploadService imageUploadService;
+    private final MenuItemRepository menuItemRepository;
+    private final int batchSize;
+    private final Duration gracePeriod;
+
+    private long runs = 0;
+    private long lastDeletedFiles = 0;
+    private long totalDeletedFiles = 0;
+    private long lastReclaimedBytes = 0;
+    private long totalReclaimedBytes = 0;
+
+    // Hasil satu kali run
+    private static final class Run {
+        // Hash isi gambar yang masih ada, varian dengan hash lain dihapus
+        private final Set<String> liveHashes = new HashSet<>();
+        private long deletedFiles = 0;
+        private long reclaimedBytes = 0;
+
+        private void deleted(long size) {
+            deletedFiles++;
+            reclaimedBytes += size;
+        }
+    }
+
+    public OrphanImageCollector(FileStorageService fileStorageService, MenuImageService menuImageService,
+                                ImageUploadService imageUploadService, MenuItemRepository menuItemRepository,
+                                @Value("${app.upload.orphan-gc.batch-size:500}") int batchSize,
+                                @Value("${app.upload.orphan-gc.grace-period:PT24H}") Duration gracePeriod) {
+        this.fileStorageService = fileStorageService;
+        this.menuImageService = menuImageService;
+        this.imageUploadService = imageUploadService;
+        this.menuItemRepository = menuItemRepository;
+        this.batchSize = Math.max(1, batchSize);
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * Menghapus gambar, varian dan file staging yatim yang lebih tua dari
+     * grace period. Jika folder gagal dibaca, run dihentikan agar varian
+     * gambar yang belum dicek tidak ikut terhapus.
+     *
+     * @return jumlah byte yang dibebaskan pada run ini
+     */
+    @Scheduled(initialDelayString = "${app.upload.orphan-gc.initial-delay:PT10M}",
+               fixedDelayString = "${app.upload.orphan-gc.interval:PT6H}")
+    public long collect() {
+        long cutoff = now().minus(gracePeriod).toEpochMilli();
+        Path uploadPath = Paths.get(fileStorageService.getUploadDir()).toAbsolutePath().normalize();
+        Run run = new Run();
+        try {
+            collectImages(uploadPath, cutoff, run);
+            collectVariants(uploadPath.resolve(ImageVariantService.VARIANT_DIR), cutoff, run);
+            collectStaging(uploadPath.resolve(FileStorageService.STAGING_DIR), cutoff, run);
+        } catch (IOException e) {
+            System.err.println("Error collecting orphan images: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            runs++;
+            lastDeletedFiles = run.deletedFiles;
+            totalDeletedFiles += run.deletedFiles;
+            lastReclaimedBytes = run.reclaimedBytes;
+            totalReclaimedBytes += run.reclaimedBytes;
+        }
+        if (run.deletedFiles > 0) {
+            System.out.println("Gambar yatim dihapus: " + run.deletedFiles + " file, "
+                    + run.reclaimedBytes + " byte");
+        }
+        return run.reclaimedBytes;
+    }
+
+    protected Instant now() {
+        return Instant.now();
+    }
+
+    private void collectImages(Path uploadPath, long cutoff, Run run) throws IOException {
+        DirectoryStream<Path> files = openDirectory(uploadPath);
+        if (files == null) {
+            return;
+        }
+
+        // Kandidat yatim (nama file -> ukuran), dicek ke database per batch
+        Map<String, Long> batch = new LinkedHashMap<>();
+        try {
+            for (Path file : files) {
+                String filename = file.getFileName().toString();
+                BasicFileAttributes attributes = attributes(file);
+                // Folder variants/staging dan file lain selain gambar menu dilewati
+                if (attributes == null || !attributes.isRegularFile() || !isImageFilename(filename)) {
+                    continue;
+                }
+                if (attributes.lastModifiedTime().toMillis() >= cutoff) {
+                    keep(filename, run);
+                    continue;
+                }
+                batch.put(filename, attributes.size());
+                if (batch.size() >= batchSize) {
+                    collectBatch(batch, run);
+                    batch.clear();
+                }
+            }
+        } finally {
+            files.close();
+        }
+        if (!batch.isEmpty()) {
+            collectBatch(batch, run);
+        }
+    }
+
+    private void collectBatch(Map<String, Long> batch, Run run) {
+        Set<String> referenced = new HashSet<>(menuItemRepository.findImageUrlsIn(batch.keySet()));
+        for (Map.Entry<String, Long> candidate : batch.entrySet()) {
+            String filename = candidate.getKey();
+            if (!referenced.contains(filename) && imageUploadService.releaseImage(filename)) {
+                run.deleted(candidate.getValue());
+            } else {
+                keep(filename, run);
+            }
+        }
+    }
+
+    // Varian bernama [hash gambar asli]-[lebar].[ext]
+    private void collectVariants(Path variantPath, long cutoff, Run run) throws IOException {
+        DirectoryStream<Path> files = openDirectory(variantPath);
+        if (files == null) {
+            return;
+        }
+        try {
+            for (Path file : files) {
+                String filename = file.getFileName().toString();
+                int dash = filename.lastIndexOf('-');
+                String hash = dash < 0 ? filename : filename.substring(0, dash);
+                if (!run.liveHashes.contains(hash)) {
+                    deleteIfStale(file, cutoff, run);
+                }
+            }
+        } finally {
+            files.close();
+        }
+    }
+
+    // Upload yang tidak selesai diproses dan unduhan blob store yang terputus
+    private void collectStaging(Path stagingPath, long cutoff, Run run) throws IOException {
+        DirectoryStream<Path> files = openDirectory(stagingPath);
+        if (files == null) {
+            return;
+        }
+        try {
+            for (Path file : files) {
+                deleteIfStale(file, cutoff, run);
+            }
+        } finally {
+            files.close();
+        }
+    }
+
+    private void keep(String filename, Run run) {
+        if (FileStorageService.isContentAddressed(filename)) {
+            run.liveHashes.add(filename.substring(0, filename.lastIndexOf('.')));
+            return;
+        }
+        // Nama file lama (menu_[id]): hash dihitung dari isi file (di-cache)
+        MenuImage image = menuImageService.getImage(filename);
+        if (image != null) {
+            run.liveHashes.add(image.contentHash());
+        }
+    }
+
+    private void deleteIfStale(Path file, long cutoff, Run run) throws IOException {
+        BasicFileAttributes attributes = attributes(file);
+        if (attributes != null && attributes.isRegularFile() && attributes.lastModifiedTime().toMillis() < cutoff) {
+            Files.deleteIfExists(file);
+            run.deleted(attributes.size());
+        }
+    }
+
+    private static boolean isImageFilename(String filename) {
+        return filename.startsWith("menu_") || FileStorageService.isContentAddressed(filename);
+    }
+
+    // null jika folder belum pernah dibuat
+    private static DirectoryStream<Path> openDirectory(Path directory) throws IOException {
+        try {
+            return Files.newDirectoryStream(directory);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // null jika file sudah dihapus sejak folder dibaca
+    private static BasicFileAttributes attributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getRuns() {
+        return runs;
+    }
+
+    // Jumlah file yang dihapus pada run terakhir
+    public synchronized long getLastDeletedFiles() {
+        return lastDeletedFiles;
+    }
+
+    public synchronized long getTotalDeletedFiles() {
+        return totalDeletedFiles;
+    }
+
+    // Jumlah byte yang dibebaskan pada run terakhir
+    public synchronized long getLastReclaimedBytes() {
+        return lastReclaimedBytes;
+    }
+
+    public synchronized long getTotalReclaimedBytes() {
+        return totalReclaimedBytes;
+    }
+}
@@ -0,0 +1,160 @@
+package org.delcom.app.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Menjalankan hashing password (BCrypt) di thread pool terpisah yang
+ * dibatasi, agar lonjakan login tidak menghabiskan thread Tomcat yang
+ * dipakai untuk melayani menu.
+ *
+ * Jika semua thread sibuk dan antrean penuh, permintaan langsung ditolak
+ * dengan RejectedExecutionException (dikembalikan ke client sebagai 429).
+ *
+ * Durasi hashing dicatat ke metrik app.auth.password-hash (tag operation:
+ * encode, matches); antrean dan penolakan diekspor lewat MetricsConfig.
+ */
+@Service
+public class PasswordHashingService {
+
+    static final String TIMER = "app.auth.password-hash";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private long hashCount = 0;
+    private long hashTimeNanos = 0;
+    private long maxHashTimeNanos = 0;
+    private long rejected = 0;
+
+    // Tanpa registry aplikasi (misalnya di test) metrik tidak dicatat ke mana pun
+    private Timer encodeTimer = timer(Metrics.globalRegistry, "encode");
+    private Timer matchesTimer = timer(Metrics.globalRegistry, "matches");
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${app.auth.password-hashing.threads:2}") int threads,
+                                  @Value("${app.auth.password-hashing.queue-capacity:32}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Autowired(required = false)
+    protected final void setMeterRegistry(MeterRegistry meterRegistry) {
+        encodeTimer = timer(meterRegistry, "encode");
+        matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(TIMER)
+                .description("Durasi hashing password BCrypt (tanpa waktu tunggu di antrean)")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T submit(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long nanos = System.nanoTime() - start;
+                    timer.record(nanos, TimeUnit.NANOSECONDS);
+                    recordHash(nanos);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                rejected++;
+            }
+            throw e;
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Hashing password dibatalkan", e);
+        }
+    }
+
+    private synchronized void recordHash(long nanos) {
+        hashCount++;
+        hashTimeNanos += nanos;
+        maxHashTimeNanos = Math.max(maxHashTimeNanos, nanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getHashCount() {
+        return hashCount;
+    }
+
+    // Total waktu hashing (tidak termasuk waktu tunggu di antrean)
+    public synchronized long getHashTimeNanos() {
+        return hashTimeNanos;
+    }
+
+    public synchronized long getMaxHashTimeNanos() {
+        return maxHashTimeNanos;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+}
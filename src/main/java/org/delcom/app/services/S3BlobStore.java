@@ -0,0 +1,183 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.delcom.app.utils.HashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Blob store S3-compatible (AWS S3, MinIO, dsb.) lewat REST API dengan
+ * AWS Signature V4 dan URL path-style (endpoint/bucket/key), tanpa SDK
+ * tambahan (app.storage.type=s3).
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final HttpClient httpClient;
+
+    public S3BlobStore(@Value("${app.storage.s3.endpoint}") String endpoint,
+                       @Value("${app.storage.s3.bucket}") String bucket,
+                       @Value("${app.storage.s3.region:us-east-1}") String region,
+                       @Value("${app.storage.s3.access-key}") String accessKey,
+                       @Value("${app.storage.s3.secret-key}") String secretKey) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Override
+    public void store(String key, Path source) throws IOException {
+        HttpResponse<Void> response = send(key, "PUT", HttpRequest.BodyPublishers.ofFile(source),
+                HttpResponse.BodyHandlers.discarding());
+        expectSuccess(response.statusCode(), "PUT", key);
+    }
+
+    @Override
+    public InputStream stream(String key) throws IOException {
+        HttpResponse<InputStream> response = send(key, "GET", HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 200) {
+            return response.body();
+        }
+        response.body().close();
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        throw failure(response.statusCode(), "GET", key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        // DELETE S3 selalu 204, sehingga keberadaan object dicek lebih dulu
+        if (!exists(key)) {
+            return false;
+        }
+        HttpResponse<Void> response = send(key, "DELETE", HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.discarding());
+        expectSuccess(response.statusCode(), "DELETE", key);
+        return true;
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpResponse<Void> response = send(key, "HEAD", HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        expectSuccess(response.statusCode(), "HEAD", key);
+        return true;
+    }
+
+    private <T> HttpResponse<T> send(String key, String method, HttpRequest.BodyPublisher body,
+                                     HttpResponse.BodyHandler<T> handler) throws IOException {
+        if (key.isEmpty() || key.contains("/") || key.equals(".") || key.equals("..")) {
+            throw new IllegalArgumentException("Key blob tidak valid: " + key);
+        }
+        String path = endpoint.getRawPath() + "/" + encode(bucket) + "/" + encode(key);
+        String amzDate = ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE);
+
+        Map<String, String> headers = new TreeMap<>();
+        headers.put("host", endpoint.getPort() == -1 ? endpoint.getHost() : endpoint.getHost() + ":" + endpoint.getPort());
+        headers.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        headers.put("x-amz-date", amzDate);
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint.resolve(path))
+                .method(method, body)
+                .timeout(Duration.ofSeconds(30))
+                .header("x-amz-content-sha256", UNSIGNED_PAYLOAD)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", authorization(method, path, "", headers, UNSIGNED_PAYLOAD,
+                        amzDate, region, accessKey, secretKey))
+                .build();
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request S3 " + method + " " + key + " diinterupsi");
+        }
+    }
+
+    /**
+     * Header Authorization AWS Signature V4
+     *
+     * @param headers - header yang ditandatangani (nama huruf kecil, urut)
+     */
+    static String authorization(String method, String canonicalUri, String canonicalQuery,
+                                Map<String, String> headers, String payloadHash, String amzDate,
+                                String region, String accessKey, String secretKey) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            canonicalHeaders.append(header.getKey()).append(':').append(header.getValue().trim()).append('\n');
+        }
+        String signedHeaders = String.join(";", headers.keySet());
+        String canonicalRequest = method + "\n" + canonicalUri + "\n" + canonicalQuery + "\n"
+                + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                + HashUtil.sha256Hex(canonicalRequest);
+
+        byte[] signingKey = HashUtil.hmacSha256(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = HashUtil.hmacSha256(signingKey, region);
+        signingKey = HashUtil.hmacSha256(signingKey, "s3");
+        signingKey = HashUtil.hmacSha256(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(HashUtil.hmacSha256(signingKey, stringToSign));
+
+        return "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+    }
+
+    // URI encoding RFC 3986 untuk satu segmen path
+    static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8)
+                .replace("+", "%20")
+                .replace("*", "%2A")
+                .replace("%7E", "~");
+    }
+
+    // Semua status 2xx dianggap berhasil (DELETE S3 mengembalikan 204)
+    private static void expectSuccess(int status, String method, String key) throws IOException {
+        if (status / 100 != 2) {
+            throw failure(status, method, key);
+        }
+    }
+
+    private static IOException failure(int status, String method, String key) {
+        return new IOException("Request S3 " + method + " " + key + " gagal: HTTP " + status);
+    }
+}
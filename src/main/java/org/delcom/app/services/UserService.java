@@ -10,9 +10,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final AuthPrincipalCache authPrincipalCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, AuthPrincipalCache authPrincipalCache) {
         this.userRepository = userRepository;
+        this.authPrincipalCache = authPrincipalCache;
     }
 
     @Transactional
@@ -37,7 +39,9 @@ public class UserService {
         }
         user.setName(name);
         user.setEmail(email);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authPrincipalCache.invalidateUser(id);
+        return saved;
     }
 
     @Transactional
@@ -47,7 +51,9 @@ public class UserService {
             return null;
         }
         user.setPassword(newPassword);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authPrincipalCache.invalidateUser(id);
+        return saved;
     }
 
 }
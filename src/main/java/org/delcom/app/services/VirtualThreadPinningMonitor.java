@@ -0,0 +1,128 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Mendeteksi virtual thread yang tertahan (pinned) di carrier thread-nya
+ * memakai event JFR jdk.VirtualThreadPinned.
+ *
+ * Selama pinned, virtual thread yang menunggu (JDBC, file, lock) ikut
+ * memblokir carrier thread sehingga throughput mode virtual thread turun
+ * ke level platform thread. Event yang lebih lama dari threshold dihitung,
+ * dan setiap lokasi kode yang menyebabkan pinning dicatat ke log sekali.
+ *
+ * Aktif secara default jika spring.threads.virtual.enabled=true.
+ */
+@Service
+public class VirtualThreadPinningMonitor {
+
+    static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+
+    // Lokasi yang dicatat ke log dibatasi agar log tidak membanjir
+    private static final int MAX_LOGGED_FRAMES = 100;
+
+    private final boolean enabled;
+    private final Duration threshold;
+
+    private RecordingStream stream;
+    private final Set<String> loggedFrames = new HashSet<>();
+
+    private long pinnedEvents = 0;
+    private long pinnedNanos = 0;
+    private long maxPinnedNanos = 0;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${app.threads.pinning-monitor.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${app.threads.pinning-monitor.threshold:PT0.02S}") Duration threshold) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT_NAME).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT_NAME, this::record);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        String frame = pinningFrame(event.getStackTrace());
+        boolean firstAtFrame;
+        synchronized (this) {
+            pinnedEvents++;
+            pinnedNanos += nanos;
+            maxPinnedNanos = Math.max(maxPinnedNanos, nanos);
+            firstAtFrame = loggedFrames.size() < MAX_LOGGED_FRAMES && loggedFrames.add(frame);
+        }
+        if (firstAtFrame) {
+            System.err.println("Virtual thread pinned " + nanos / 1_000_000 + " ms di " + frame);
+        }
+    }
+
+    // Frame pertama di luar JDK (kode aplikasi atau library), karena frame
+    // teratas selalu berada di implementasi VirtualThread
+    static String pinningFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(tanpa stack trace)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    // ============================
+    // STATISTIK
+    // ============================
+
+    public synchronized long getPinnedEvents() {
+        return pinnedEvents;
+    }
+
+    public synchronized long getPinnedNanos() {
+        return pinnedNanos;
+    }
+
+    public synchronized long getMaxPinnedNanos() {
+        return maxPinnedNanos;
+    }
+}
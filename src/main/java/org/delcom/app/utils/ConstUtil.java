@@ -34,7 +34,14 @@ public class ConstUtil {
     
     public static final String UPLOAD_DIR = "uploads";
     public static final String MENU_IMAGES_DIR = "menu-images";
-    
+
+    // ==========================================
+    // PAGINATION
+    // ==========================================
+
+    public static final int PAGE_SIZE_DEFAULT = 20;
+    public static final int PAGE_SIZE_MAX = 100;
+
     // ==========================================
     // CATEGORIES
     // ==========================================
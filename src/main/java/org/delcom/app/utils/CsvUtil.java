@@ -0,0 +1,106 @@
+package org.delcom.app.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilitas CSV (RFC 4180) yang membaca dan menulis satu record per
+ * panggilan, sehingga file besar bisa diproses sebagai stream tanpa dimuat
+ * seluruhnya.
+ * Kolom boleh diapit tanda kutip ganda, berisi koma, baris baru, atau
+ * tanda kutip yang ditulis dua kali ("").
+ */
+public class CsvUtil {
+
+    // Batas panjang satu record, agar tanda kutip yang tidak ditutup tidak
+    // membuat seluruh sisa file dibaca ke memori
+    public static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    /**
+     * Membaca record berikutnya
+     *
+     * @return daftar kolom, atau null jika input sudah habis
+     * @throws IOException jika gagal membaca atau record lebih panjang dari
+     *         MAX_RECORD_LENGTH
+     */
+    public static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (c != -1) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IOException("Baris CSV lebih dari " + MAX_RECORD_LENGTH + " karakter");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                // CRLF dianggap satu akhir baris
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Menambahkan satu kolom ke record yang sedang ditulis, diapit tanda
+     * kutip jika berisi koma, tanda kutip atau baris baru. null ditulis
+     * sebagai kolom kosong.
+     */
+    public static void appendField(StringBuilder record, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            record.append(value);
+            return;
+        }
+        record.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                record.append('"');
+            }
+            record.append(c);
+        }
+        record.append('"');
+    }
+}
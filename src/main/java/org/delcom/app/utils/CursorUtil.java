@@ -0,0 +1,89 @@
+package org.delcom.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Utilitas continuation token untuk pagination menu.
+ * Token bersifat opaque bagi client: isinya posisi (createdAt, id) dari
+ * item terakhir pada halaman sebelumnya, atau offset untuk hasil pencarian
+ * yang diurutkan berdasarkan relevansi, yang di-encode base64url.
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+    private static final String OFFSET_PREFIX = "offset" + SEPARATOR;
+
+    /**
+     * Posisi keyset dari sebuah item
+     */
+    public record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    // Posisi awal: lebih baru dari semua data sehingga halaman pertama
+    // memakai query keyset yang sama dengan halaman berikutnya
+    public static final Cursor FIRST = new Cursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            new UUID(-1L, -1L));
+
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt.toString() + SEPARATOR + id.toString();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode token dari client
+     *
+     * @param token continuation token, null/kosong berarti halaman pertama
+     * @return posisi keyset, atau null jika token tidak valid
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return null;
+            }
+            return new Cursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (Exception e) {
+            return null; // token tidak valid
+        }
+    }
+
+    public static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((OFFSET_PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode token offset untuk hasil pencarian
+     *
+     * @param token continuation token, null/kosong berarti halaman pertama
+     * @return offset, atau null jika token tidak valid
+     */
+    public static Integer decodeOffset(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(OFFSET_PREFIX)) {
+                return null;
+            }
+            int offset = Integer.parseInt(raw.substring(OFFSET_PREFIX.length()));
+            return offset < 0 ? null : offset;
+        } catch (Exception e) {
+            return null; // token tidak valid
+        }
+    }
+}
@@ -14,12 +14,41 @@ public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 2; // 2 jam
     private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
+    // Parser bersifat immutable dan thread-safe, cukup dibuat sekali
+    private static final JwtParser parser = Jwts.parser().verifyWith(key).build();
+
+    /**
+     * Hasil verifikasi token: signature sudah dicek, claims siap dipakai
+     * tanpa parsing ulang.
+     */
+    public record VerifiedToken(String subject, Date issuedAt, Date expiration, boolean expired) {
+
+        /**
+         * @return userId dari subject, atau null jika formatnya bukan UUID
+         */
+        public UUID userId() {
+            try {
+                return UUID.fromString(subject);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
     public static SecretKey getKey() {
         return key;
     }
 
+    // Masa berlaku token dalam milidetik
+    public static long getExpirationTime() {
+        return EXPIRATION_TIME;
+    }
+
     public static String generateToken(UUID userId) {
+        // jti acak: token yang dibuat untuk user yang sama pada detik yang sama
+        // tetap berbeda, sehingga tidak bentrok di index unik auth_tokens
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -27,18 +56,44 @@ public class JwtUtil {
                 .compact();
     }
 
-    public static UUID extractUserId(String token) {
+    /**
+     * Parse dan verifikasi token satu kali (satu perhitungan HMAC).
+     * Token yang sudah expired tetap dikembalikan dengan expired = true,
+     * karena signature-nya sudah terverifikasi sebelum waktu expired dicek.
+     *
+     * @param token JWT token
+     * @return claims terverifikasi, atau null jika token tidak valid
+     */
+    public static VerifiedToken verify(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return UUID.fromString(claims.getSubject());
+            return toVerifiedToken(parser.parseSignedClaims(token).getPayload(), false);
+        } catch (ExpiredJwtException e) {
+            return toVerifiedToken(e.getClaims(), true);
         } catch (Exception e) {
+            return null; // token invalid
+        }
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims, boolean expired) {
+        return new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(), expired);
+    }
+
+    public static UUID extractUserId(String token) {
+        VerifiedToken verified = verify(token);
+        if (verified == null || verified.expired()) {
             return null;
         }
+        return verified.userId();
+    }
+
+    /**
+     * Mengambil waktu expired token (juga untuk token yang sudah expired)
+     *
+     * @return waktu expired, atau null jika token tidak valid
+     */
+    public static Date extractExpiration(String token) {
+        VerifiedToken verified = verify(token);
+        return verified == null ? null : verified.expiration();
     }
 
     /**
@@ -48,19 +103,10 @@ public class JwtUtil {
      * @param ignoreExpired jika true maka token expired tetap dianggap valid
      */
     public static boolean validateToken(String token, boolean ignoreExpired) {
-        try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true; // valid
-        } catch (ExpiredJwtException e) {
-            if (ignoreExpired) {
-                return true; // abaikan expired
-            }
-            return false;
-        } catch (Exception e) {
+        VerifiedToken verified = verify(token);
+        if (verified == null) {
             return false; // token invalid
         }
+        return ignoreExpired || !verified.expired();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package org.delcom.app.utils;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Utilitas untuk membangun query full-text search PostgreSQL
+ */
+public class SearchUtil {
+
+    private static final int MAX_TERMS = 8;
+
+    /**
+     * Mengubah input pencarian bebas menjadi tsquery dengan prefix matching.
+     * Contoh: "Nasi gor" menjadi "nasi:* & gor:*".
+     * Hanya huruf dan angka yang dipertahankan sehingga operator tsquery
+     * dari input user tidak ikut terbawa.
+     *
+     * @return tsquery, atau null jika tidak ada kata yang bisa dicari
+     */
+    public static String toPrefixTsQuery(String search) {
+        if (search == null) {
+            return null;
+        }
+
+        StringJoiner query = new StringJoiner(" & ");
+        int terms = 0;
+        for (String word : search.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            query.add(word + ":*");
+            if (++terms == MAX_TERMS) {
+                break;
+            }
+        }
+        return terms == 0 ? null : query.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package org.delcom.app.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Utilitas sendfile Tomcat: file dikirim langsung dari page cache ke socket
+ * oleh connector (FileChannel.transferTo), tanpa disalin lewat buffer di
+ * aplikasi. Nama atribut sama dengan org.apache.catalina.Globals, ditulis
+ * sebagai string agar tidak bergantung langsung ke Tomcat.
+ */
+public class SendfileUtil {
+
+    private static final String SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * @return true jika connector mendukung sendfile untuk request ini
+     */
+    public static boolean isSupported(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(SUPPORTED_ATTR));
+    }
+
+    /**
+     * Meminta connector mengirim seluruh isi file sebagai body response.
+     * Header (Content-Type, Content-Length, dst.) harus sudah diset.
+     */
+    public static void sendfile(HttpServletRequest request, Path file, long length) throws IOException {
+        // Tomcat hanya menerima path kanonik
+        request.setAttribute(FILENAME_ATTR, file.toRealPath().toString());
+        request.setAttribute(START_ATTR, 0L);
+        request.setAttribute(END_ATTR, length);
+    }
+}
@@ -1,11 +1,13 @@
 package org.delcom.app.views;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.delcom.app.dto.LoginForm;
 import org.delcom.app.dto.RegisterForm;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.ConstUtil;
 
@@ -16,9 +18,9 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -27,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
@@ -43,6 +46,11 @@ public class AuthView {
         this.userService = userService;
     }
 
+    @Autowired
+    protected PasswordHashingService passwordHashingService;
+
+    private static final String MESSAGE_BUSY = "Server sedang sibuk, silakan coba lagi";
+
     // ===========================
     // LOGIN PAGE
     // ===========================
@@ -69,6 +77,7 @@ public class AuthView {
     public String postLogin(@Valid @ModelAttribute("loginForm") LoginForm loginForm,
                             BindingResult bindingResult,
                             HttpSession session,
+                            HttpServletResponse response,
                             Model model) {
 
         if (bindingResult.hasErrors()) {
@@ -81,8 +90,14 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(loginForm.getPassword(), existingUser.getPassword());
+        boolean isPasswordMatch;
+        try {
+            isPasswordMatch = passwordHashingService.matches(loginForm.getPassword(), existingUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            response.setStatus(429);
+            bindingResult.rejectValue("email", "error.loginForm", MESSAGE_BUSY);
+            return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
+        }
 
         if (!isPasswordMatch) {
             bindingResult.rejectValue("email", "error.loginForm", "Email atau kata sandi salah");
@@ -135,6 +150,7 @@ public class AuthView {
                                BindingResult bindingResult,
                                RedirectAttributes redirectAttributes,
                                HttpSession session,
+                               HttpServletResponse response,
                                Model model) {
 
         if (bindingResult.hasErrors()) {
@@ -147,7 +163,14 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(registerForm.getPassword());
+        String hashPassword;
+        try {
+            hashPassword = passwordHashingService.encode(registerForm.getPassword());
+        } catch (RejectedExecutionException e) {
+            response.setStatus(429);
+            bindingResult.rejectValue("email", "error.registerForm", MESSAGE_BUSY);
+            return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
+        }
 
         User createdUser = userService.createUser(
                 registerForm.getName(),
@@ -1,7 +1,7 @@
 package org.delcom.app.views;
 
 import org.delcom.app.dto.MenuItemForm;
-import org.delcom.app.entities.MenuItem;
+import org.delcom.app.dto.MenuItemPage;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.MenuItemService;
 import org.delcom.app.utils.ConstUtil;
@@ -13,8 +13,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
-
 @Controller
 public class HomeView {
 
@@ -28,6 +26,7 @@ public class HomeView {
     public String home(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
             Model model) {
         
         // Autentikasi user
@@ -44,19 +43,23 @@ public class HomeView {
         User authUser = (User) principal;
         model.addAttribute("auth", authUser);
 
-        // Ambil menu items dengan filter kategori atau search
-        List<MenuItem> menuItems;
+        // Ambil satu halaman menu items dengan filter kategori atau search
+        MenuItemPage page = menuItemService.getMenuItemsPage(
+                authUser.getId(), category, search, cursor, ConstUtil.PAGE_SIZE_DEFAULT);
+        if (page == null) {
+            // Cursor tidak valid, mulai lagi dari halaman pertama
+            page = menuItemService.getMenuItemsPage(
+                    authUser.getId(), category, search, null, ConstUtil.PAGE_SIZE_DEFAULT);
+        }
+
         if (category != null && !category.isEmpty()) {
-            menuItems = menuItemService.getMenuItemsByCategory(authUser.getId(), category);
             model.addAttribute("selectedCategory", category);
         } else if (search != null && !search.isEmpty()) {
-            menuItems = menuItemService.getAllMenuItems(authUser.getId(), search);
             model.addAttribute("searchKeyword", search);
-        } else {
-            menuItems = menuItemService.getAllMenuItems(authUser.getId(), "");
         }
-        
-        model.addAttribute("menuItems", menuItems);
+
+        model.addAttribute("menuItems", page.getMenuItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
 
         // Menu Item Form untuk modal
         model.addAttribute("menuItemForm", new MenuItemForm());
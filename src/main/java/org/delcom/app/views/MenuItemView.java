@@ -1,19 +1,33 @@
 package org.delcom.app.views;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.dto.ImageUploadStatus;
 import org.delcom.app.dto.MenuImageForm;
 import org.delcom.app.dto.MenuItemForm;
+import org.delcom.app.dto.MenuStats;
 import org.delcom.app.entities.MenuItem;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.ImageUploadService;
+import org.delcom.app.services.ImageVariantService;
+import org.delcom.app.services.MenuImageService;
+import org.delcom.app.services.MenuImageService.MenuImage;
 import org.delcom.app.services.MenuItemService;
 import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.SendfileUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,9 +35,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
@@ -31,18 +49,26 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 @RequestMapping("/menu-items")
 public class MenuItemView {
 
     private final MenuItemService menuItemService;
-    private final FileStorageService fileStorageService;
+    private final MenuImageService menuImageService;
+    private final ImageVariantService imageVariantService;
+    private final ImageUploadService imageUploadService;
 
-    public MenuItemView(MenuItemService menuItemService, FileStorageService fileStorageService) {
+    // Ukuran minimum gambar yang dikirim lewat sendfile, negatif = nonaktif
+    @Value("${app.upload.sendfile-min-size:49152}")
+    protected long sendfileMinSize;
+
+    public MenuItemView(MenuItemService menuItemService, MenuImageService menuImageService,
+            ImageVariantService imageVariantService, ImageUploadService imageUploadService) {
         this.menuItemService = menuItemService;
-        this.fileStorageService = fileStorageService;
+        this.menuImageService = menuImageService;
+        this.imageVariantService = imageVariantService;
+        this.imageUploadService = imageUploadService;
     }
 
     // ============================================
@@ -71,27 +97,11 @@ public class MenuItemView {
         System.out.println("isAvailable from form: " + isAvailable);
         System.out.println("calories from form: " + menuItemForm.getCalories());
 
-        // Validasi form
-        if (menuItemForm.getName() == null || menuItemForm.getName().isBlank()) {
-            redirectAttributes.addFlashAttribute("error", "Nama menu tidak boleh kosong");
-            redirectAttributes.addFlashAttribute("addMenuModalOpen", true);
-            return "redirect:/";
-        }
-
-        if (menuItemForm.getCategory() == null || menuItemForm.getCategory().isBlank()) {
-            redirectAttributes.addFlashAttribute("error", "Kategori tidak boleh kosong");
-            redirectAttributes.addFlashAttribute("addMenuModalOpen", true);
-            return "redirect:/";
-        }
-
-        if (menuItemForm.getPrice() == null || menuItemForm.getPrice() <= 0) {
-            redirectAttributes.addFlashAttribute("error", "Harga harus lebih dari 0");
-            redirectAttributes.addFlashAttribute("addMenuModalOpen", true);
-            return "redirect:/";
-        }
-
-        if (menuItemForm.getPreparationTime() == null || menuItemForm.getPreparationTime() <= 0) {
-            redirectAttributes.addFlashAttribute("error", "Waktu persiapan harus lebih dari 0");
+        // Validasi form (spicyLevel selalu 0 dari form web)
+        String error = MenuItemService.validateNewMenuItem(menuItemForm.getName(), menuItemForm.getCategory(),
+                menuItemForm.getPrice(), menuItemForm.getPreparationTime(), 0, menuItemForm.getCalories());
+        if (error != null) {
+            redirectAttributes.addFlashAttribute("error", error);
             redirectAttributes.addFlashAttribute("addMenuModalOpen", true);
             return "redirect:/";
         }
@@ -151,13 +161,12 @@ public class MenuItemView {
                         return "redirect:/";
                     }
 
-                    // Simpan file
-                    String fileName = fileStorageService.storeFile(imageFile, entity.getId());
-                    
-                    // Update menu dengan gambar
-                    menuItemService.updateMenuImage(entity.getId(), fileName);
+                    // File disimpan ke staging, gambar dipasang di background
+                    imageUploadService.submit(entity.getId(), imageFile);
                     
-                    redirectAttributes.addFlashAttribute("success", "Menu dan gambar berhasil ditambahkan!");
+                    redirectAttributes.addFlashAttribute("success", "Menu berhasil ditambahkan, gambar sedang diproses");
+                } catch (RejectedExecutionException e) {
+                    redirectAttributes.addFlashAttribute("success", "Menu berhasil ditambahkan, tapi server sedang sibuk. Silakan upload gambar lagi nanti");
                 } catch (IOException e) {
                     System.err.println("Error uploading image: " + e.getMessage());
                     redirectAttributes.addFlashAttribute("success", "Menu berhasil ditambahkan, tapi gagal upload gambar");
@@ -325,6 +334,9 @@ public class MenuItemView {
                 return "redirect:/";
             }
 
+            // File gambar dihapus jika tidak dipakai menu lain
+            imageUploadService.releaseImage(existingMenuItem.getImageUrl());
+
             // Redirect dengan pesan sukses
             redirectAttributes.addFlashAttribute("success", "Menu berhasil dihapus.");
             return "redirect:/";
@@ -381,6 +393,9 @@ public class MenuItemView {
             menuImageForm.setId(menuItemId);
             model.addAttribute("menuImageForm", menuImageForm);
 
+            // Status upload gambar yang masih diproses di background
+            model.addAttribute("imageUploadStatus", imageUploadService.getStatus(menuItemId));
+
             System.out.println("Returning template: " + ConstUtil.TEMPLATE_MODELS_MENU_ITEMS_DETAIL);
             return ConstUtil.TEMPLATE_MODELS_MENU_ITEMS_DETAIL;
             
@@ -442,13 +457,15 @@ public class MenuItemView {
         }
 
         try {
-            // Simpan file
-            String fileName = fileStorageService.storeFile(menuImageForm.getImageFile(), menuImageForm.getId());
-
-            // Update menu item dengan nama file gambar
-            menuItemService.updateMenuImage(menuImageForm.getId(), fileName);
+            // File disimpan ke staging; validasi isi, pemindahan file dan
+            // update menu berjalan di background (status di-poll halaman detail)
+            imageUploadService.submit(menuImageForm.getId(), menuImageForm.getImageFile());
 
-            redirectAttributes.addFlashAttribute("success", "Gambar menu berhasil diupload");
+            redirectAttributes.addFlashAttribute("success", "Gambar menu sedang diproses");
+            return "redirect:/menu-items/" + menuImageForm.getId();
+        } catch (RejectedExecutionException e) {
+            redirectAttributes.addFlashAttribute("error", "Server sedang sibuk, silakan coba lagi");
+            redirectAttributes.addFlashAttribute("editMenuImageModalOpen", true);
             return "redirect:/menu-items/" + menuImageForm.getId();
         } catch (IOException e) {
             System.err.println("Error uploading image: " + e.getMessage());
@@ -459,27 +476,92 @@ public class MenuItemView {
         }
     }
 
+    // ============================================
+    // GET - Status Upload Gambar Menu
+    // ============================================
+    @GetMapping("/{menuItemId}/image-status")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<ImageUploadStatus>> getMenuImageStatus(@PathVariable UUID menuItemId) {
+        // Autentikasi user
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if ((authentication instanceof AnonymousAuthenticationToken)
+                || !(authentication.getPrincipal() instanceof User)) {
+            return ResponseEntity.status(401)
+                    .body(new ApiResponse<>("fail", "Unauthorized", null));
+        }
+        User authUser = (User) authentication.getPrincipal();
+
+        if (menuItemService.getMenuItemById(authUser.getId(), menuItemId) == null) {
+            return ResponseEntity.status(404)
+                    .body(new ApiResponse<>("fail", "Menu tidak ditemukan", null));
+        }
+
+        ImageUploadStatus status = imageUploadService.getStatus(menuItemId);
+        if (status == null) {
+            return ResponseEntity.status(404)
+                    .body(new ApiResponse<>("fail", "Tidak ada upload gambar", null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>("success", status.getMessage(), status));
+    }
+
     // ============================================
     // GET - Gambar Menu
     // ============================================
     @GetMapping("/image/{filename:.+}")
-    @ResponseBody
-    public Resource getMenuImageByFilename(@PathVariable String filename) {
-        try {
-            Path file = fileStorageService.loadFile(filename);
-            Resource resource = new UrlResource(file.toUri());
+    public ResponseEntity<Resource> getMenuImageByFilename(@PathVariable String filename,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestParam(value = "w", required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        MenuImage image = menuImageService.getImage(filename);
+        if (image == null) {
+            System.err.println("Image not found or not readable: " + filename);
+            return ResponseEntity.notFound().build();
+        }
 
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
+        // URL dengan versi yang cocok atau nama file content-addressed tidak
+        // akan pernah berubah isinya, selain itu browser wajib validasi ulang
+        boolean immutable = image.getVersion().equals(version) || FileStorageService.isContentAddressed(filename);
+
+        // Varian lebar tertentu; jika belum dibuat, gambar asli dikirim tanpa
+        // cache jangka panjang agar request berikutnya mendapat variannya
+        if (width != null) {
+            MenuImage variant = imageVariantService.getVariant(image, width);
+            if (variant != null) {
+                image = variant;
             } else {
-                System.err.println("Image not found or not readable: " + filename);
-                return null;
+                immutable = false;
             }
-        } catch (Exception e) {
-            System.err.println("Error loading image: " + e.getMessage());
-            e.printStackTrace();
+        }
+
+        CacheControl cacheControl = immutable
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+
+        // GET seluruh file (bukan Range) dikirim zero-copy oleh connector
+        if (sendfileMinSize >= 0 && image.size() >= sendfileMinSize
+                && HttpMethod.GET.matches(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && SendfileUtil.isSupported(request)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            if (new ServletWebRequest(request, response).checkNotModified(image.getETag(), image.lastModified())) {
+                return null; // 304
+            }
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, image.lastModified());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setContentType(image.contentType().toString());
+            response.setContentLengthLong(image.size());
+            SendfileUtil.sendfile(request, image.path(), image.size());
             return null;
         }
+
+        // If-None-Match / If-Modified-Since (304) dan Range (206) ditangani Spring
+        return ResponseEntity.ok()
+                .eTag(image.getETag())
+                .lastModified(image.lastModified())
+                .cacheControl(cacheControl)
+                .contentType(image.contentType())
+                .body(new FileSystemResource(image.path()));
     }
 
     // ============================================
@@ -500,34 +582,28 @@ public class MenuItemView {
             User authUser = (User) principal;
             model.addAttribute("auth", authUser);
 
-            // Ambil data untuk chart
-            List<Object[]> categoryCountRaw = menuItemService.getMenuCountByCategory(authUser.getId());
-            List<Object[]> averagePriceRaw = menuItemService.getAveragePriceByCategory(authUser.getId());
-            List<Object[]> totalPriceRaw = menuItemService.getTotalPriceByCategory(authUser.getId());
+            // Ambil data untuk chart (satu query agregasi, tanpa memuat entity menu)
+            MenuStats stats = menuItemService.getMenuStats(authUser.getId());
 
             // Transform data untuk chart (as List of Maps)
             java.util.List<java.util.Map<String, Object>> categoryCountData = new java.util.ArrayList<>();
-            for (Object[] row : categoryCountRaw) {
-                java.util.Map<String, Object> item = new java.util.HashMap<>();
-                item.put("category", row[0]);
-                item.put("count", row[1]);
-                categoryCountData.add(item);
-            }
-
             java.util.List<java.util.Map<String, Object>> averagePriceData = new java.util.ArrayList<>();
-            for (Object[] row : averagePriceRaw) {
-                java.util.Map<String, Object> item = new java.util.HashMap<>();
-                item.put("category", row[0]);
-                item.put("averagePrice", row[1]);
-                averagePriceData.add(item);
-            }
-
             java.util.List<java.util.Map<String, Object>> totalPriceData = new java.util.ArrayList<>();
-            for (Object[] row : totalPriceRaw) {
-                java.util.Map<String, Object> item = new java.util.HashMap<>();
-                item.put("category", row[0]);
-                item.put("totalPrice", row[1]);
-                totalPriceData.add(item);
+            for (CategoryStats row : stats.getCategories()) {
+                java.util.Map<String, Object> countItem = new java.util.HashMap<>();
+                countItem.put("category", row.getCategory());
+                countItem.put("count", row.getCount());
+                categoryCountData.add(countItem);
+
+                java.util.Map<String, Object> averageItem = new java.util.HashMap<>();
+                averageItem.put("category", row.getCategory());
+                averageItem.put("averagePrice", row.getAveragePrice());
+                averagePriceData.add(averageItem);
+
+                java.util.Map<String, Object> totalItem = new java.util.HashMap<>();
+                totalItem.put("category", row.getCategory());
+                totalItem.put("totalPrice", row.getTotalPrice());
+                totalPriceData.add(totalItem);
             }
 
             model.addAttribute("categoryCountData", categoryCountData);
@@ -535,22 +611,10 @@ public class MenuItemView {
             model.addAttribute("totalPriceData", totalPriceData);
 
             // Summary statistics
-            List<MenuItem> allMenuItems = menuItemService.getAllMenuItems(authUser.getId(), "");
-            long totalMenus = allMenuItems.size();
-            long availableMenus = allMenuItems.stream().filter(m -> m.getIsAvailable()).count();
-            double averagePrice = allMenuItems.stream()
-                    .mapToDouble(MenuItem::getPrice)
-                    .average()
-                    .orElse(0.0);
-            long totalCategories = allMenuItems.stream()
-                    .map(MenuItem::getCategory)
-                    .distinct()
-                    .count();
-
-            model.addAttribute("totalMenus", totalMenus);
-            model.addAttribute("availableMenus", availableMenus);
-            model.addAttribute("averagePrice", averagePrice);
-            model.addAttribute("totalCategories", totalCategories);
+            model.addAttribute("totalMenus", stats.getTotalMenus());
+            model.addAttribute("availableMenus", stats.getAvailableMenus());
+            model.addAttribute("averagePrice", stats.getAveragePrice());
+            model.addAttribute("totalCategories", stats.getTotalCategories());
 
             return ConstUtil.TEMPLATE_PAGES_MENU_ITEMS_CHART;
         } catch (Exception e) {
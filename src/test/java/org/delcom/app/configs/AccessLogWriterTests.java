@@ -0,0 +1,226 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogWriterTests {
+
+    private final PrintStream originalErr = System.err;
+    private AccessLogWriter writer;
+
+    private static AccessLogWriter started(AccessLogWriter writer) {
+        writer.start();
+        return writer;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        System.setErr(originalErr);
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Record ditulis sebagai JSON per baris")
+    void testWritesJsonLines() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer = started(new AccessLogWriter(8, "drop", output));
+
+        assertTrue(writer.append(1700000000000L, "GET", "/api/menu-items", 200, 1_234_567,
+                "MenuItemController.getAllMenuItems", "127.0.0.1"));
+        assertTrue(writer.append(1700000000001L, "POST", "/cari/\"kopi\\susu\"\n\u00e9\u20ac\ud83c\udf5c", 500, 42_000,
+                null, "10.0.0.1"));
+        writer.shutdown();
+
+        assertEquals("{\"ts\":1700000000000,\"method\":\"GET\",\"uri\":\"/api/menu-items\",\"status\":200,"
+                + "\"durationMs\":1.234,\"handler\":\"MenuItemController.getAllMenuItems\",\"remote\":\"127.0.0.1\"}\n"
+                + "{\"ts\":1700000000001,\"method\":\"POST\","
+                + "\"uri\":\"/cari/\\\"kopi\\\\susu\\\"\\u000a\u00e9\u20ac\ud83c\udf5c\",\"status\":500,"
+                + "\"durationMs\":0.042,\"handler\":null,\"remote\":\"10.0.0.1\"}\n",
+                output.toString(StandardCharsets.UTF_8));
+        assertEquals(2, writer.getWritten());
+        assertEquals(0, writer.getDropped());
+        assertFalse(writer.append(0, "GET", "/", 200, 0, null, null)); // writer sudah berhenti
+    }
+
+    @Test
+    @DisplayName("Kapasitas dibulatkan ke pangkat dua, record banyak ditulis semua")
+    void testManyRecords() throws Exception {
+        CountingOutputStream output = new CountingOutputStream();
+        writer = started(new AccessLogWriter(5, "block", output));
+        assertEquals(8, writer.getCapacity());
+
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    writer.append(i, "GET", "/x".repeat(i % 50), 200, i, "H.m", "127.0.0.1");
+                }
+            });
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        writer.shutdown();
+
+        assertEquals(20000, writer.getWritten());
+        assertEquals(20000, output.lines);
+        assertEquals(0, writer.getDropped());
+    }
+
+    @Test
+    @DisplayName("Buffer penuh dengan policy drop: record dibuang dan dilaporkan")
+    void testDropWhenFull() throws Exception {
+        ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errContent));
+        BlockingOutputStream output = new BlockingOutputStream();
+        writer = started(new AccessLogWriter(2, "DROP", output));
+
+        // Writer tertahan saat menulis record pertama, buffer (2 slot) lalu penuh
+        writer.append(1, "GET", "/1", 200, 0, null, null);
+        assertTrue(output.entered.await(5, TimeUnit.SECONDS));
+        assertTrue(writer.append(2, "GET", "/2", 200, 0, null, null));
+        assertTrue(writer.append(3, "GET", "/3", 200, 0, null, null));
+        assertFalse(writer.append(4, "GET", "/4", 200, 0, null, null));
+        assertEquals(1, writer.getDropped());
+
+        output.release.countDown();
+        writer.shutdown();
+
+        assertEquals(3, writer.getWritten());
+        assertTrue(errContent.toString().contains("Access log: 1 record dibuang (buffer penuh)"));
+    }
+
+    @Test
+    @DisplayName("Buffer penuh dengan policy block: thread request menunggu slot kosong")
+    void testBlockWhenFull() throws Exception {
+        BlockingOutputStream output = new BlockingOutputStream();
+        writer = started(new AccessLogWriter(2, "block", output));
+
+        writer.append(1, "GET", "/1", 200, 0, null, null);
+        assertTrue(output.entered.await(5, TimeUnit.SECONDS));
+        writer.append(2, "GET", "/2", 200, 0, null, null);
+        writer.append(3, "GET", "/3", 200, 0, null, null);
+        AtomicBoolean appended = new AtomicBoolean();
+        Thread producer = Thread.ofPlatform().start(() -> appended.set(writer.append(4, "GET", "/4", 200, 0,
+                null, null)));
+
+        producer.join(200);
+        assertTrue(producer.isAlive());
+        output.release.countDown();
+        producer.join(5000);
+
+        assertTrue(appended.get());
+        writer.shutdown();
+        assertEquals(4, writer.getWritten());
+        assertEquals(0, writer.getDropped());
+    }
+
+    @Test
+    @DisplayName("Writer belum berjalan: policy block tetap membuang record saat buffer penuh")
+    void testBlockFailsOpenWithoutWriter() throws Exception {
+        writer = new AccessLogWriter(2, "block", new ByteArrayOutputStream());
+
+        assertTrue(writer.append(1, "GET", "/1", 200, 0, null, null));
+        assertTrue(writer.append(2, "GET", "/2", 200, 0, null, null));
+        assertFalse(writer.append(3, "GET", "/3", 200, 0, null, null));
+        assertEquals(1, writer.getDropped());
+        assertEquals(0, writer.getWritten());
+    }
+
+    @Test
+    @DisplayName("Writer mati karena error: request yang menunggu slot tidak tertahan")
+    void testBlockFailsOpenWhenWriterDies() throws Exception {
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        CountDownLatch entered = new CountDownLatch(1);
+        writer = started(new AccessLogWriter(2, "block", new OutputStream() {
+            @Override
+            public void write(int b) {
+                entered.countDown();
+                throw new IllegalStateException("output rusak");
+            }
+        }));
+
+        writer.append(1, "GET", "/1", 200, 0, null, null);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        writer.append(2, "GET", "/2", 200, 0, null, null);
+        writer.append(3, "GET", "/3", 200, 0, null, null);
+        assertFalse(writer.append(4, "GET", "/4", 200, 0, null, null));
+        assertEquals(1, writer.getDropped());
+    }
+
+    @Test
+    @DisplayName("Gagal menulis output tidak menghentikan writer")
+    void testWriteFailure() throws Exception {
+        ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errContent));
+        writer = started(new AccessLogWriter(8, "drop", new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk penuh");
+            }
+        }));
+
+        writer.append(1, "GET", "/1", 200, 0, null, null);
+        writer.shutdown();
+
+        assertEquals(1, writer.getWritten());
+        assertTrue(errContent.toString().contains("Access log gagal ditulis: disk penuh"));
+    }
+
+    @Test
+    @DisplayName("Policy tidak dikenal ditolak")
+    void testInvalidPolicy() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new AccessLogWriter(8, "wait", new ByteArrayOutputStream()));
+        assertEquals("app.access-log.full-policy harus drop atau block: wait", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Constructor Spring menulis ke System.out")
+    void testDefaultOutput() throws Exception {
+        writer = new AccessLogWriter(8192, "drop");
+
+        assertEquals(8192, writer.getCapacity());
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private volatile long lines = 0;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+
+    // Menahan penulisan pertama sampai dilepas oleh test
+    private static final class BlockingOutputStream extends OutputStream {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) throws IOException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourcePoolConfigTests {
+
+    private static HikariDataSource process(MockEnvironment environment) {
+        BeanPostProcessor processor = DataSourcePoolConfig.hikariPoolSizing(environment);
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(10);
+
+        assertSame(dataSource, processor.postProcessBeforeInitialization(dataSource, "dataSource"));
+        return dataSource;
+    }
+
+    @Test
+    @DisplayName("Ukuran pool: batas koneksi database dibagi jumlah node, minimal 1")
+    void testPoolSize() {
+        assertEquals(17, DataSourcePoolConfig.poolSize(17, 1));
+        assertEquals(8, DataSourcePoolConfig.poolSize(17, 2));
+        assertEquals(1, DataSourcePoolConfig.poolSize(3, 4));
+        assertEquals(17, DataSourcePoolConfig.poolSize(17, 0));
+    }
+
+    @Test
+    @DisplayName("maximum-pool-size tidak diisi: pool dihitung dari app.db.max-connections / app.db.nodes")
+    void testPoolSizedFromMaxConnections() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DataSourcePoolConfig.MAX_CONNECTIONS, "40")
+                .withProperty(DataSourcePoolConfig.NODES, "3");
+
+        assertEquals(13, process(environment).getMaximumPoolSize());
+        assertEquals(40, process(new MockEnvironment()
+                .withProperty(DataSourcePoolConfig.MAX_CONNECTIONS, "40")).getMaximumPoolSize());
+    }
+
+    @Test
+    @DisplayName("maximum-pool-size kosong dianggap tidak diisi")
+    void testBlankPoolSizeIgnored() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DataSourcePoolConfig.MAXIMUM_POOL_SIZE, " ")
+                .withProperty(DataSourcePoolConfig.MAX_CONNECTIONS, "6");
+
+        assertEquals(6, process(environment).getMaximumPoolSize());
+    }
+
+    @Test
+    @DisplayName("maximum-pool-size diisi atau tanpa app.db.max-connections: pool tidak diubah")
+    void testConfiguredPoolSizeKept() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(DataSourcePoolConfig.MAXIMUM_POOL_SIZE, "10")
+                .withProperty(DataSourcePoolConfig.MAX_CONNECTIONS, "40");
+
+        assertEquals(10, process(environment).getMaximumPoolSize());
+        assertEquals(10, process(new MockEnvironment()).getMaximumPoolSize());
+
+        Object other = new Object();
+        assertSame(other, DataSourcePoolConfig.hikariPoolSizing(environment)
+                .postProcessBeforeInitialization(other, "other"));
+    }
+}
@@ -0,0 +1,58 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DatabaseIndexInitializerTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private DatabaseIndexInitializer initializer;
+
+    private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+    private final PrintStream originalErr = System.err;
+
+    @BeforeEach
+    void setup() {
+        System.setErr(new PrintStream(errContent));
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        initializer = new DatabaseIndexInitializer(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("Menjalankan semua statement index")
+    void testRunExecutesAllStatements() {
+        initializer.run(null);
+
+        for (String statement : DatabaseIndexInitializer.STATEMENTS) {
+            verify(jdbcTemplate, times(1)).execute(statement);
+        }
+        assertTrue(errContent.toString().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Kegagalan membuat index tidak menggagalkan startup")
+    void testRunSwallowsException() {
+        doThrow(new RuntimeException("permission denied")).when(jdbcTemplate).execute(anyString());
+
+        initializer.run(null);
+
+        verify(jdbcTemplate, times(DatabaseIndexInitializer.STATEMENTS.size())).execute(anyString());
+        assertTrue(errContent.toString().contains("Gagal membuat index database: permission denied"));
+    }
+}
@@ -0,0 +1,77 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.AuthPrincipalCache;
+import org.delcom.app.services.AuthTokenReaper;
+import org.delcom.app.services.ImageUploadService;
+import org.delcom.app.services.MenuCatalogCache;
+import org.delcom.app.services.OrphanImageCollector;
+import org.delcom.app.services.PasswordHashingService;
+import org.delcom.app.services.VirtualThreadPinningMonitor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTests {
+
+    @Test
+    @DisplayName("Statistik service dibaca sebagai metrik saat di-scrape")
+    void testApplicationStatsMetrics() {
+        MenuCatalogCache menuCatalogCache = mock(MenuCatalogCache.class);
+        when(menuCatalogCache.getHits()).thenReturn(7L);
+        when(menuCatalogCache.getMisses()).thenReturn(3L);
+        when(menuCatalogCache.getWeight()).thenReturn(1200L);
+        AuthPrincipalCache authPrincipalCache = mock(AuthPrincipalCache.class);
+        when(authPrincipalCache.getHits()).thenReturn(5L);
+        when(authPrincipalCache.getSize()).thenReturn(2);
+        ImageUploadService imageUploadService = mock(ImageUploadService.class);
+        when(imageUploadService.getFailures()).thenReturn(1L);
+        when(imageUploadService.getQueueDepth()).thenReturn(4);
+        PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+        when(passwordHashingService.getQueueDepth()).thenReturn(12);
+        when(passwordHashingService.getActiveCount()).thenReturn(2);
+        when(passwordHashingService.getRejected()).thenReturn(8L);
+        OrphanImageCollector orphanImageCollector = mock(OrphanImageCollector.class);
+        when(orphanImageCollector.getTotalReclaimedBytes()).thenReturn(2048L);
+        AuthTokenReaper authTokenReaper = mock(AuthTokenReaper.class);
+        when(authTokenReaper.getTotalReclaimed()).thenReturn(9L);
+        VirtualThreadPinningMonitor pinningMonitor = mock(VirtualThreadPinningMonitor.class);
+        when(pinningMonitor.getPinnedEvents()).thenReturn(2L);
+        when(pinningMonitor.getPinnedNanos()).thenReturn(1_500_000_000L);
+        when(pinningMonitor.getMaxPinnedNanos()).thenReturn(1_000_000_000L);
+        AccessLogWriter accessLogWriter = mock(AccessLogWriter.class);
+        when(accessLogWriter.getWritten()).thenReturn(100L);
+        when(accessLogWriter.getDropped()).thenReturn(6L);
+        when(accessLogWriter.getCapacity()).thenReturn(8192);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MetricsConfig().applicationStatsMetrics(menuCatalogCache, authPrincipalCache, imageUploadService,
+                passwordHashingService, orphanImageCollector, authTokenReaper, pinningMonitor, accessLogWriter)
+                .bindTo(registry);
+
+        assertEquals(7, registry.get("cache.gets").tags("cache", "menu_catalog", "result", "hit")
+                .functionCounter().count());
+        assertEquals(3, registry.get("cache.gets").tags("cache", "menu_catalog", "result", "miss")
+                .functionCounter().count());
+        assertEquals(1200, registry.get("cache.size").tag("cache", "menu_catalog").gauge().value());
+        assertEquals(5, registry.get("cache.gets").tags("cache", "auth_principal", "result", "hit")
+                .functionCounter().count());
+        assertEquals(2, registry.get("cache.size").tag("cache", "auth_principal").gauge().value());
+        assertEquals(1, registry.get("app.image.upload").tag("result", "failed").functionCounter().count());
+        assertEquals(4, registry.get("app.image.upload.queue").gauge().value());
+        assertEquals(12, registry.get("app.auth.password-hash.queue").gauge().value());
+        assertEquals(2, registry.get("app.auth.password-hash.active").gauge().value());
+        assertEquals(8, registry.get("app.auth.password-hash.rejected").functionCounter().count());
+        assertEquals(2048, registry.get("app.image.orphan-gc.reclaimed").functionCounter().count());
+        assertEquals(9, registry.get("app.auth.token-reaper.reclaimed").functionCounter().count());
+        assertEquals(2, registry.get("app.threads.pinned").functionCounter().count());
+        assertEquals(1.5, registry.get("app.threads.pinned.duration").functionCounter().count());
+        assertEquals(1.0, registry.get("app.threads.pinned.max").gauge().value());
+        assertEquals(100, registry.get("app.access-log.written").functionCounter().count());
+        assertEquals(6, registry.get("app.access-log.dropped").functionCounter().count());
+        assertEquals(8192, registry.get("app.access-log.capacity").gauge().value());
+    }
+}
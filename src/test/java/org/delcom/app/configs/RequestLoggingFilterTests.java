@@ -5,28 +5,40 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.delcom.app.controllers.MenuItemController;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class RequestLoggingFilterTests {
 
+    private AccessLogWriter accessLogWriter;
+    private RequestLoggingFilter filter;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setup() {
+        accessLogWriter = mock(AccessLogWriter.class);
+        filter = new RequestLoggingFilter(accessLogWriter);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        chain = mock(FilterChain.class);
+    }
+
     @Test
-    @DisplayName("Filter menampilkan log dengan warna cyan untuk status 100")
-    void testLogCyanFor100() throws ServletException, IOException {
+    @DisplayName("Filter mencatat request dengan status 100")
+    void testLogFor100() throws ServletException, IOException {
         // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
         when(request.getMethod()).thenReturn("GET");
         when(request.getRequestURI()).thenReturn("/api/test");
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
@@ -37,20 +49,14 @@ class RequestLoggingFilterTests {
 
         // Assert
         verify(chain, times(1)).doFilter(request, response);
+        verify(accessLogWriter).append(anyLong(), eq("GET"), eq("/api/test"), eq(100), anyLong(), isNull(),
+                eq("127.0.0.1"));
     }
 
     @Test
-    @DisplayName("Filter menampilkan log dengan warna hijau untuk status 200")
-    void testLogGreenFor200() throws ServletException, IOException {
+    @DisplayName("Filter mencatat request dengan status 200")
+    void testLogFor200() throws ServletException, IOException {
         // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
         when(request.getMethod()).thenReturn("GET");
         when(request.getRequestURI()).thenReturn("/api/test");
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
@@ -61,19 +67,13 @@ class RequestLoggingFilterTests {
 
         // Assert
         verify(chain, times(1)).doFilter(request, response);
+        verify(accessLogWriter).append(anyLong(), eq("GET"), eq("/api/test"), eq(200), anyLong(), isNull(),
+                eq("127.0.0.1"));
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna kuning untuk status 404")
-    void testLogYellowFor404() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
+    @DisplayName("Filter mencatat request dengan status 404")
+    void testLogFor404() throws ServletException, IOException {
         when(request.getMethod()).thenReturn("GET");
         when(request.getRequestURI()).thenReturn("/notfound");
         when(request.getRemoteAddr()).thenReturn("192.168.0.10");
@@ -82,19 +82,13 @@ class RequestLoggingFilterTests {
         filter.doFilterInternal(request, response, chain);
 
         verify(chain, times(1)).doFilter(request, response);
+        verify(accessLogWriter).append(anyLong(), eq("GET"), eq("/notfound"), eq(404), anyLong(), isNull(),
+                eq("192.168.0.10"));
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna merah untuk status 500")
-    void testLogRedFor500() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
+    @DisplayName("Filter mencatat request dengan status 500")
+    void testLogFor500() throws ServletException, IOException {
         when(request.getMethod()).thenReturn("POST");
         when(request.getRequestURI()).thenReturn("/api/error");
         when(request.getRemoteAddr()).thenReturn("10.0.0.1");
@@ -103,19 +97,13 @@ class RequestLoggingFilterTests {
         filter.doFilterInternal(request, response, chain);
 
         verify(chain, times(1)).doFilter(request, response);
+        verify(accessLogWriter).append(anyLong(), eq("POST"), eq("/api/error"), eq(500), anyLong(), isNull(),
+                eq("10.0.0.1"));
     }
 
     @Test
-    @DisplayName("Filter tidak menampilkan log untuk URI /.well-known")
+    @DisplayName("Filter tidak mencatat URI /.well-known")
     void testSkipWellKnown() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
         when(request.getMethod()).thenReturn("GET");
         when(request.getRequestURI()).thenReturn("/.well-known/acme-challenge");
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
@@ -124,6 +112,24 @@ class RequestLoggingFilterTests {
         filter.doFilterInternal(request, response, chain);
 
         verify(chain, times(1)).doFilter(request, response);
+        verifyNoInteractions(accessLogWriter);
     }
 
+    @Test
+    @DisplayName("Nama handler diambil dari handler method Spring MVC")
+    void testHandlerName() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new MenuItemController(null),
+                MenuItemController.class.getMethod("getMenuItemById", UUID.class));
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/menu-items/1");
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)).thenReturn(handler);
+        when(response.getStatus()).thenReturn(200);
+
+        filter.doFilterInternal(request, response, chain);
+        filter.doFilterInternal(request, response, chain);
+
+        verify(accessLogWriter, times(2)).append(anyLong(), eq("GET"), eq("/api/menu-items/1"), eq(200), anyLong(),
+                eq("MenuItemController.getMenuItemById"), eq("127.0.0.1"));
+    }
 }
@@ -225,6 +225,43 @@ class StartupInfoLoggerTests {
         assertTrue(output.contains("> LiveReload: DISABLED"));
     }
 
+    // ============================================
+    // TEST: Virtual Threads
+    // ============================================
+
+    @Test
+    @DisplayName("Test dengan virtual thread ENABLED")
+    void test_dengan_virtual_thread_enabled() {
+        // Arrange
+        when(environment.getProperty("server.port", "8080")).thenReturn("8080");
+        when(environment.getProperty("server.servlet.context-path", "/")).thenReturn("/");
+        when(environment.getProperty("spring.devtools.livereload.enabled", Boolean.class, false)).thenReturn(false);
+        when(environment.getProperty("server.address", "localhost")).thenReturn("localhost");
+        when(environment.getProperty("spring.threads.virtual.enabled", Boolean.class)).thenReturn(true);
+
+        // Act
+        logger.onApplicationEvent(event);
+
+        // Assert
+        assertTrue(outContent.toString().contains("> Virtual threads: ENABLED"));
+    }
+
+    @Test
+    @DisplayName("Test dengan virtual thread DISABLED (default)")
+    void test_dengan_virtual_thread_disabled() {
+        // Arrange
+        when(environment.getProperty("server.port", "8080")).thenReturn("8080");
+        when(environment.getProperty("server.servlet.context-path", "/")).thenReturn("/");
+        when(environment.getProperty("spring.devtools.livereload.enabled", Boolean.class, false)).thenReturn(false);
+        when(environment.getProperty("server.address", "localhost")).thenReturn("localhost");
+
+        // Act
+        logger.onApplicationEvent(event);
+
+        // Assert
+        assertTrue(outContent.toString().contains("> Virtual threads: DISABLED"));
+    }
+
     // ============================================
     // TEST: Custom Host
     // ============================================
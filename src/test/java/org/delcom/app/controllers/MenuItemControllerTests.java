@@ -2,8 +2,16 @@ package org.delcom.app.controllers;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.MenuBatchRequest;
+import org.delcom.app.dto.MenuBatchResult;
+import org.delcom.app.dto.MenuImportResult;
+import org.delcom.app.dto.MenuItemPage;
 import org.delcom.app.entities.MenuItem;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.ImageUploadService;
+import org.delcom.app.services.MenuBatchService;
+import org.delcom.app.services.MenuExportService;
+import org.delcom.app.services.MenuImportService;
 import org.delcom.app.services.MenuItemService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,11 +22,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +47,18 @@ class MenuItemControllerTests {
     @Mock
     private AuthContext authContext;
 
+    @Mock
+    private ImageUploadService imageUploadService;
+
+    @Mock
+    private MenuImportService menuImportService;
+
+    @Mock
+    private MenuExportService menuExportService;
+
+    @Mock
+    private MenuBatchService menuBatchService;
+
     @InjectMocks
     private MenuItemController controller;
     
@@ -45,6 +71,10 @@ class MenuItemControllerTests {
         // Setup manual injection jika @InjectMocks tidak otomatis menangani field protected
         // Tapi @InjectMocks biasanya cukup. Jika authContext null, kita set manual:
         controller.authContext = authContext;
+        controller.imageUploadService = imageUploadService;
+        controller.menuImportService = menuImportService;
+        controller.menuExportService = menuExportService;
+        controller.menuBatchService = menuBatchService;
 
         mockUser = new User();
         mockUser.setId(UUID.randomUUID());
@@ -236,17 +266,19 @@ class MenuItemControllerTests {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
 
-        List<MenuItem> menuItems = Arrays.asList(mockMenuItem);
-        when(menuItemService.getAllMenuItems(any(UUID.class), isNull())).thenReturn(menuItems);
+        MenuItemPage page = new MenuItemPage(Arrays.asList(mockMenuItem), null);
+        when(menuItemService.getMenuItemsPage(any(UUID.class), isNull(), isNull(), isNull(), isNull()))
+            .thenReturn(page);
 
-        ResponseEntity<ApiResponse<Map<String, List<MenuItem>>>> response = controller.getAllMenuItems(null);
+        ResponseEntity<ApiResponse<MenuItemPage>> response = controller.getAllMenuItems(null, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("success", response.getBody().getStatus());
         assertEquals("Daftar menu berhasil diambil", response.getBody().getMessage());
-        assertNotNull(response.getBody().getData().get("menuItems"));
-        assertEquals(1, response.getBody().getData().get("menuItems").size());
-        assertEquals("Nasi Goreng", response.getBody().getData().get("menuItems").get(0).getName());
+        assertNotNull(response.getBody().getData().getMenuItems());
+        assertEquals(1, response.getBody().getData().getMenuItems().size());
+        assertEquals("Nasi Goreng", response.getBody().getData().getMenuItems().get(0).getName());
+        assertFalse(response.getBody().getData().isHasMore());
     }
 
     @Test
@@ -255,15 +287,48 @@ class MenuItemControllerTests {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
 
-        List<MenuItem> menuItems = Arrays.asList(mockMenuItem);
-        when(menuItemService.getAllMenuItems(any(UUID.class), eq("Nasi"))).thenReturn(menuItems);
+        MenuItemPage page = new MenuItemPage(Arrays.asList(mockMenuItem), null);
+        when(menuItemService.getMenuItemsPage(any(UUID.class), isNull(), eq("Nasi"), isNull(), isNull()))
+            .thenReturn(page);
 
-        ResponseEntity<ApiResponse<Map<String, List<MenuItem>>>> response = controller.getAllMenuItems("Nasi");
+        ResponseEntity<ApiResponse<MenuItemPage>> response = controller.getAllMenuItems("Nasi", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("success", response.getBody().getStatus());
-        assertNotNull(response.getBody().getData().get("menuItems"));
-        verify(menuItemService).getAllMenuItems(any(UUID.class), eq("Nasi"));
+        assertNotNull(response.getBody().getData().getMenuItems());
+        verify(menuItemService).getMenuItemsPage(any(UUID.class), isNull(), eq("Nasi"), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("getAllMenuItems - With Cursor")
+    void testGetAllMenuItems_WithCursor() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        MenuItemPage page = new MenuItemPage(Arrays.asList(mockMenuItem), "next-token");
+        when(menuItemService.getMenuItemsPage(any(UUID.class), isNull(), isNull(), eq("token"), eq(10)))
+            .thenReturn(page);
+
+        ResponseEntity<ApiResponse<MenuItemPage>> response = controller.getAllMenuItems(null, "token", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next-token", response.getBody().getData().getNextCursor());
+        assertTrue(response.getBody().getData().isHasMore());
+    }
+
+    @Test
+    @DisplayName("getAllMenuItems - Invalid Cursor")
+    void testGetAllMenuItems_InvalidCursor() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(menuItemService.getMenuItemsPage(any(UUID.class), isNull(), isNull(), eq("rusak"), isNull()))
+            .thenReturn(null);
+
+        ResponseEntity<ApiResponse<MenuItemPage>> response = controller.getAllMenuItems(null, "rusak", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("fail", response.getBody().getStatus());
+        assertEquals("Cursor tidak valid", response.getBody().getMessage());
     }
 
     @Test
@@ -271,7 +336,7 @@ class MenuItemControllerTests {
     void testGetAllMenuItems_Unauthenticated() {
         when(authContext.isAuthenticated()).thenReturn(false);
 
-        ResponseEntity<ApiResponse<Map<String, List<MenuItem>>>> response = controller.getAllMenuItems(null);
+        ResponseEntity<ApiResponse<MenuItemPage>> response = controller.getAllMenuItems(null, null, null);
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertEquals("fail", response.getBody().getStatus());
@@ -329,17 +394,32 @@ class MenuItemControllerTests {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
 
-        List<MenuItem> menuItems = Arrays.asList(mockMenuItem);
-        when(menuItemService.getMenuItemsByCategory(any(UUID.class), eq("Main Course")))
-                .thenReturn(menuItems);
+        MenuItemPage page = new MenuItemPage(Arrays.asList(mockMenuItem), null);
+        when(menuItemService.getMenuItemsPage(any(UUID.class), eq("Main Course"), isNull(), isNull(), isNull()))
+                .thenReturn(page);
 
-        ResponseEntity<ApiResponse<Map<String, List<MenuItem>>>> response = 
-                controller.getMenuItemsByCategory("Main Course");
+        ResponseEntity<ApiResponse<MenuItemPage>> response = 
+                controller.getMenuItemsByCategory("Main Course", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("success", response.getBody().getStatus());
         assertEquals("Daftar menu berdasarkan kategori berhasil diambil", response.getBody().getMessage());
-        assertNotNull(response.getBody().getData().get("menuItems"));
+        assertNotNull(response.getBody().getData().getMenuItems());
+    }
+
+    @Test
+    @DisplayName("getMenuItemsByCategory - Invalid Cursor")
+    void testGetMenuItemsByCategory_InvalidCursor() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(menuItemService.getMenuItemsPage(any(UUID.class), eq("Main Course"), isNull(), eq("rusak"), isNull()))
+                .thenReturn(null);
+
+        ResponseEntity<ApiResponse<MenuItemPage>> response = 
+                controller.getMenuItemsByCategory("Main Course", "rusak", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Cursor tidak valid", response.getBody().getMessage());
     }
 
     @Test
@@ -347,8 +427,8 @@ class MenuItemControllerTests {
     void testGetMenuItemsByCategory_Unauthenticated() {
         when(authContext.isAuthenticated()).thenReturn(false);
 
-        ResponseEntity<ApiResponse<Map<String, List<MenuItem>>>> response = 
-                controller.getMenuItemsByCategory("Main Course");
+        ResponseEntity<ApiResponse<MenuItemPage>> response = 
+                controller.getMenuItemsByCategory("Main Course", null, null);
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertEquals("fail", response.getBody().getStatus());
@@ -509,6 +589,7 @@ class MenuItemControllerTests {
     void testDeleteMenuItem_Success() {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(menuItemService.getMenuImageUrl(menuItemId)).thenReturn("menu.jpg");
         when(menuItemService.deleteMenuItem(any(UUID.class), eq(menuItemId))).thenReturn(true);
 
         ResponseEntity<ApiResponse<String>> response = controller.deleteMenuItem(menuItemId);
@@ -516,6 +597,7 @@ class MenuItemControllerTests {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("success", response.getBody().getStatus());
         assertEquals("Menu berhasil dihapus", response.getBody().getMessage());
+        verify(imageUploadService).releaseImage("menu.jpg");
     }
 
     @Test
@@ -614,4 +696,222 @@ class MenuItemControllerTests {
         assertEquals("fail", response.getBody().getStatus());
         assertEquals("User tidak terautentikasi", response.getBody().getMessage());
     }
-}
\ No newline at end of file
+
+    // ========== IMPORT TESTS ==========
+
+    @Test
+    @DisplayName("importMenuItems - CSV berhasil dengan laporan baris gagal")
+    void testImportMenuItems_Csv() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        MenuImportResult result = new MenuImportResult(10, 2, List.of());
+        when(menuImportService.importMenuItems(mockUser.getId(), MenuImportService.FORMAT_CSV, body))
+                .thenReturn(result);
+
+        ResponseEntity<ApiResponse<MenuImportResult>> response =
+                controller.importMenuItems("text/csv; charset=UTF-8", body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("success", response.getBody().getStatus());
+        assertEquals("Import selesai: 10 menu ditambahkan, 2 baris gagal", response.getBody().getMessage());
+        assertSame(result, response.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("importMenuItems - NDJSON")
+    void testImportMenuItems_Ndjson() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(menuImportService.importMenuItems(mockUser.getId(), MenuImportService.FORMAT_NDJSON, body))
+                .thenReturn(new MenuImportResult(1, 0, List.of()));
+
+        ResponseEntity<ApiResponse<MenuImportResult>> response =
+                controller.importMenuItems("application/x-ndjson", body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getData().getImported());
+    }
+
+    @Test
+    @DisplayName("importMenuItems - Header CSV tidak valid")
+    void testImportMenuItems_InvalidHeader() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(menuImportService.importMenuItems(any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Kolom CSV wajib tidak ada: price"));
+
+        ResponseEntity<ApiResponse<MenuImportResult>> response =
+                controller.importMenuItems("text/csv", new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("fail", response.getBody().getStatus());
+        assertEquals("Kolom CSV wajib tidak ada: price", response.getBody().getMessage());
+    }
+
+    @Test
+    @DisplayName("importMenuItems - Unauthenticated")
+    void testImportMenuItems_Unauthenticated() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<MenuImportResult>> response =
+                controller.importMenuItems("text/csv", new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(menuImportService);
+    }
+
+    // ========== EXPORT TESTS ==========
+
+    @Test
+    @DisplayName("exportMenuItems - CSV ditulis langsung ke response")
+    void testExportMenuItems_Csv() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(menuExportService.exportMenuItems(eq(mockUser.getId()), eq(MenuImportService.FORMAT_CSV), any()))
+                .thenAnswer(invocation -> {
+                    OutputStream output = invocation.getArgument(2);
+                    output.write("id,name\n".getBytes(StandardCharsets.UTF_8));
+                    return 0L;
+                });
+
+        controller.exportMenuItems(MenuImportService.FORMAT_CSV, false, response);
+
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertEquals("attachment; filename=\"menu-items.csv\"", response.getHeader("Content-Disposition"));
+        assertEquals("id,name\n", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("exportMenuItems - NDJSON terkompresi gzip")
+    void testExportMenuItems_NdjsonGzip() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(menuExportService.exportMenuItems(eq(mockUser.getId()), eq(MenuImportService.FORMAT_NDJSON), any()))
+                .thenAnswer(invocation -> {
+                    OutputStream output = invocation.getArgument(2);
+                    output.write("{}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        controller.exportMenuItems(MenuImportService.FORMAT_NDJSON, true, response);
+
+        assertEquals("application/gzip", response.getContentType());
+        assertEquals("attachment; filename=\"menu-items.ndjson.gz\"", response.getHeader("Content-Disposition"));
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals("{}\n", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("exportMenuItems - NDJSON tanpa kompresi")
+    void testExportMenuItems_Ndjson() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.exportMenuItems(MenuImportService.FORMAT_NDJSON, false, response);
+
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        verify(menuExportService).exportMenuItems(eq(mockUser.getId()), eq(MenuImportService.FORMAT_NDJSON), any());
+    }
+
+    @Test
+    @DisplayName("exportMenuItems - Format tidak valid")
+    void testExportMenuItems_InvalidFormat() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.exportMenuItems("xml", false, response);
+
+        assertEquals(400, response.getStatus());
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        assertEquals("{\"status\":\"fail\",\"message\":\"Format export harus csv atau ndjson\",\"data\":null}",
+                response.getContentAsString());
+        verifyNoInteractions(menuExportService);
+    }
+
+    @Test
+    @DisplayName("exportMenuItems - Unauthenticated")
+    void testExportMenuItems_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.exportMenuItems(MenuImportService.FORMAT_CSV, false, response);
+
+        assertEquals(403, response.getStatus());
+        assertEquals("{\"status\":\"fail\",\"message\":\"User tidak terautentikasi\",\"data\":null}",
+                response.getContentAsString());
+        verifyNoInteractions(menuExportService);
+    }
+
+    @Test
+    @DisplayName("exportMenuItems - Semua slot export terpakai")
+    void testExportMenuItems_Busy() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(menuExportService.exportMenuItems(eq(mockUser.getId()), eq(MenuImportService.FORMAT_CSV), any()))
+                .thenThrow(new IllegalStateException("Terlalu banyak export"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.exportMenuItems(MenuImportService.FORMAT_CSV, true, response);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        assertNull(response.getHeader("Content-Disposition"));
+        assertEquals("{\"status\":\"fail\",\"message\":\"Terlalu banyak export\",\"data\":null}",
+                response.getContentAsString());
+    }
+
+    // ========== BATCH TESTS ==========
+
+    @Test
+    @DisplayName("batchUpdateMenuItems - Berhasil dengan status per menu")
+    void testBatchUpdateMenuItems_Success() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        MenuBatchRequest request = new MenuBatchRequest();
+        request.setAction(MenuBatchService.ACTION_AVAILABILITY);
+        MenuBatchResult result = new MenuBatchResult(MenuBatchService.ACTION_AVAILABILITY, 2, List.of());
+        when(menuBatchService.applyBatch(mockUser.getId(), request)).thenReturn(result);
+
+        ResponseEntity<ApiResponse<MenuBatchResult>> response = controller.batchUpdateMenuItems(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("success", response.getBody().getStatus());
+        assertEquals("Batch selesai: 2 menu diproses", response.getBody().getMessage());
+        assertSame(result, response.getBody().getData());
+    }
+
+    @Test
+    @DisplayName("batchUpdateMenuItems - Request tidak valid")
+    void testBatchUpdateMenuItems_Invalid() {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(mockUser);
+        when(menuBatchService.applyBatch(any(), any()))
+                .thenThrow(new IllegalArgumentException("Daftar ID menu tidak boleh kosong"));
+
+        ResponseEntity<ApiResponse<MenuBatchResult>> response =
+                controller.batchUpdateMenuItems(new MenuBatchRequest());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("fail", response.getBody().getStatus());
+        assertEquals("Daftar ID menu tidak boleh kosong", response.getBody().getMessage());
+    }
+
+    @Test
+    @DisplayName("batchUpdateMenuItems - Unauthenticated")
+    void testBatchUpdateMenuItems_Unauthenticated() {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        ResponseEntity<ApiResponse<MenuBatchResult>> response =
+                controller.batchUpdateMenuItems(new MenuBatchRequest());
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(menuBatchService);
+    }
+}
@@ -1,17 +1,20 @@
 package org.delcom.app.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
@@ -33,6 +36,7 @@ public class UserControllerTests {
 
         UserController userController = new UserController(userService, authTokenService);
         userController.authContext = new AuthContext();
+        userController.passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(), 1, 10);
 
         // Menguji method registerUser
         {
@@ -202,6 +206,12 @@ public class UserControllerTests {
                     assert (result != null);
                     assert (result.getStatusCode().is2xxSuccessful());
                     assert (result.getBody().getStatus().equals("success"));
+
+                    // Login berulang pada detik yang sama menghasilkan token berbeda
+                    ResponseEntity<ApiResponse<Map<String, String>>> again = userController
+                            .loginUser(fakeReqUser);
+                    assertNotEquals(result.getBody().getData().get("authToken"),
+                            again.getBody().getData().get("authToken"));
                 }
 
             }
@@ -387,4 +397,57 @@ public class UserControllerTests {
             }
         }
     }
+
+    @Test
+    @DisplayName("Hashing password sedang penuh, request ditolak dengan 429")
+    public void testPasswordHashingBusy() {
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        UserService userService = Mockito.mock(UserService.class);
+        PasswordHashingService passwordHashingService = Mockito.mock(PasswordHashingService.class);
+
+        UserController userController = new UserController(userService, authTokenService);
+        userController.authContext = new AuthContext();
+        userController.passwordHashingService = passwordHashingService;
+
+        Mockito.when(passwordHashingService.encode(Mockito.anyString()))
+                .thenThrow(new RejectedExecutionException("penuh"));
+        Mockito.when(passwordHashingService.matches(Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new RejectedExecutionException("penuh"));
+
+        User user = new User("User", "user@example.com", "password123");
+        user.setId(UUID.randomUUID());
+
+        // Registrasi
+        {
+            ResponseEntity<ApiResponse<Map<String, UUID>>> result = userController.registerUser(user);
+            assertEquals(429, result.getStatusCode().value());
+            assertEquals("fail", result.getBody().getStatus());
+            Mockito.verify(userService, Mockito.never()).createUser(Mockito.anyString(), Mockito.anyString(),
+                    Mockito.anyString());
+        }
+
+        // Login
+        {
+            Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(user);
+
+            ResponseEntity<ApiResponse<Map<String, String>>> result = userController
+                    .loginUser(new User("user@example.com", "password123"));
+            assertEquals(429, result.getStatusCode().value());
+            assertEquals("fail", result.getBody().getStatus());
+            Mockito.verify(authTokenService, Mockito.never()).createAuthToken(Mockito.any(AuthToken.class));
+        }
+
+        // Ganti password
+        {
+            userController.authContext.setAuthUser(user);
+
+            ResponseEntity<ApiResponse<Void>> result = userController.updateUserPassword(Map.of(
+                    "password", "password123",
+                    "newPassword", "newpassword123"));
+            assertEquals(429, result.getStatusCode().value());
+            assertEquals("fail", result.getBody().getStatus());
+            Mockito.verify(userService, Mockito.never()).updatePassword(Mockito.any(UUID.class),
+                    Mockito.anyString());
+        }
+    }
 }
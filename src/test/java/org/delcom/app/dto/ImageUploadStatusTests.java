@@ -0,0 +1,34 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ImageUploadStatusTests {
+
+    @Test
+    @DisplayName("Status upload yang sudah selesai")
+    void testSelesai() {
+        UUID uploadId = UUID.randomUUID();
+        ImageUploadStatus done = new ImageUploadStatus(uploadId, ImageUploadStatus.DONE, "ok", "menu_1.jpg");
+        ImageUploadStatus failed = new ImageUploadStatus(uploadId, ImageUploadStatus.FAILED, "gagal", null);
+
+        assertEquals(uploadId, done.getUploadId());
+        assertEquals(ImageUploadStatus.DONE, done.getState());
+        assertEquals("ok", done.getMessage());
+        assertEquals("menu_1.jpg", done.getImageUrl());
+        assertTrue(done.isFinished());
+        assertTrue(failed.isFinished());
+        assertNull(failed.getImageUrl());
+    }
+
+    @Test
+    @DisplayName("Status upload yang masih berjalan")
+    void testBerjalan() {
+        assertFalse(new ImageUploadStatus(UUID.randomUUID(), ImageUploadStatus.PENDING, null, null).isFinished());
+        assertFalse(new ImageUploadStatus(UUID.randomUUID(), ImageUploadStatus.PROCESSING, null, null).isFinished());
+    }
+}
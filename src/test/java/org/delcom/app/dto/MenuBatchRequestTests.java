@@ -0,0 +1,43 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MenuBatchRequestTests {
+
+    @Test
+    @DisplayName("Constructor default membuat objek kosong")
+    void constructor_default_membuat_objek_kosong() {
+        MenuBatchRequest request = new MenuBatchRequest();
+
+        assertNull(request.getAction());
+        assertNull(request.getIds());
+        assertNull(request.getCategory());
+        assertNull(request.getIsAvailable());
+        assertNull(request.getPricePercent());
+    }
+
+    @Test
+    @DisplayName("Setter dan Getter bekerja dengan benar")
+    void setter_dan_getter_bekerja_dengan_benar() {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        MenuBatchRequest request = new MenuBatchRequest();
+
+        request.setAction("price");
+        request.setIds(ids);
+        request.setCategory("Dessert");
+        request.setIsAvailable(false);
+        request.setPricePercent(-12.5);
+
+        assertEquals("price", request.getAction());
+        assertEquals(ids, request.getIds());
+        assertEquals("Dessert", request.getCategory());
+        assertFalse(request.getIsAvailable());
+        assertEquals(-12.5, request.getPricePercent());
+    }
+}
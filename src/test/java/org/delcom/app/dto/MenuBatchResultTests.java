@@ -0,0 +1,25 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MenuBatchResultTests {
+
+    @Test
+    @DisplayName("Hasil batch berisi status per menu")
+    void testHasilPerMenu() {
+        UUID id = UUID.randomUUID();
+        MenuBatchResult.ItemResult item = new MenuBatchResult.ItemResult(id, "not_found");
+        MenuBatchResult result = new MenuBatchResult("delete", 0, List.of(item));
+
+        assertEquals("delete", result.getAction());
+        assertEquals(0, result.getAffected());
+        assertEquals(id, result.getResults().get(0).id());
+        assertEquals("not_found", result.getResults().get(0).status());
+    }
+}
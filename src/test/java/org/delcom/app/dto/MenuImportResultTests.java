@@ -0,0 +1,32 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MenuImportResultTests {
+
+    @Test
+    @DisplayName("Hasil import dengan semua baris gagal dilaporkan")
+    void testSemuaErrorDilaporkan() {
+        MenuImportResult.RowError error = new MenuImportResult.RowError(3, "Harga harus lebih dari 0");
+        MenuImportResult result = new MenuImportResult(10, 1, List.of(error));
+
+        assertEquals(10, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).row());
+        assertEquals("Harga harus lebih dari 0", result.getErrors().get(0).message());
+        assertFalse(result.isErrorsTruncated());
+    }
+
+    @Test
+    @DisplayName("Daftar error dibatasi")
+    void testErrorDibatasi() {
+        MenuImportResult result = new MenuImportResult(0, 5, List.of());
+
+        assertTrue(result.isErrorsTruncated());
+    }
+}
@@ -0,0 +1,32 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.delcom.app.entities.MenuItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MenuItemPageTests {
+
+    @Test
+    @DisplayName("Halaman terakhir tidak memiliki cursor berikutnya")
+    void testHalamanTerakhir() {
+        MenuItemPage page = new MenuItemPage(List.of(new MenuItem()), null);
+
+        assertEquals(1, page.getMenuItems().size());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Halaman dengan cursor berikutnya")
+    void testHalamanDenganCursor() {
+        MenuItemPage page = new MenuItemPage(List.of(), "abc");
+
+        assertTrue(page.getMenuItems().isEmpty());
+        assertEquals("abc", page.getNextCursor());
+        assertTrue(page.isHasMore());
+    }
+}
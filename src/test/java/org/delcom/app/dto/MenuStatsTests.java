@@ -0,0 +1,52 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MenuStatsTests {
+
+    @Test
+    @DisplayName("Statistik keseluruhan diturunkan dari baris per kategori")
+    void testStatistikKeseluruhan() {
+        CategoryStats dessert = new CategoryStats("Dessert", 2L, 1L, 10000.0, 20000.0, 5, 15);
+        CategoryStats beverage = new CategoryStats("Beverage", 3L, 3L, 5000.0, 15000.0, 5, 15);
+
+        MenuStats stats = new MenuStats(List.of(dessert, beverage));
+
+        assertEquals(2, stats.getCategories().size());
+        assertEquals(2, stats.getTotalCategories());
+        assertEquals(5, stats.getTotalMenus());
+        assertEquals(4, stats.getAvailableMenus());
+        assertEquals(35000.0, stats.getTotalPrice());
+        assertEquals(7000.0, stats.getAveragePrice());
+    }
+
+    @Test
+    @DisplayName("Statistik kosong tidak membagi dengan nol")
+    void testStatistikKosong() {
+        MenuStats stats = new MenuStats(List.of());
+
+        assertEquals(0, stats.getTotalCategories());
+        assertEquals(0, stats.getTotalMenus());
+        assertEquals(0, stats.getAvailableMenus());
+        assertEquals(0.0, stats.getAveragePrice());
+    }
+
+    @Test
+    @DisplayName("Getter CategoryStats")
+    void testCategoryStats() {
+        CategoryStats stats = new CategoryStats("Dessert", 2L, 1L, 10000.0, 20000.0, 5, 15);
+
+        assertEquals("Dessert", stats.getCategory());
+        assertEquals(2, stats.getCount());
+        assertEquals(1, stats.getAvailableCount());
+        assertEquals(10000.0, stats.getAveragePrice());
+        assertEquals(20000.0, stats.getTotalPrice());
+        assertEquals(5, stats.getMinPreparationTime());
+        assertEquals(15, stats.getMaxPreparationTime());
+    }
+}
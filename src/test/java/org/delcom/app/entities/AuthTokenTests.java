@@ -1,10 +1,13 @@
 package org.delcom.app.entities;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.UUID;
 
+import org.delcom.app.utils.HashUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -42,7 +45,20 @@ public class AuthTokenTests {
             assertEquals(authToken.getId(), generatedId);
             assertEquals(authToken.getUserId(), generatedUserId);
             assertEquals(authToken.getToken(), "Set Token");
+            assertArrayEquals(HashUtil.sha256("Set Token"), authToken.getTokenHash());
             assertTrue(authToken.getCreatedAt() != null);
+
+            // Token dihapus, hash ikut dihapus
+            authToken.setToken(null);
+            assertNull(authToken.getTokenHash());
+        }
+
+        // Hash token dihitung saat token dibuat (32 byte SHA-256)
+        {
+            AuthToken authToken = new AuthToken(UUID.randomUUID(), "token123");
+
+            assertEquals(32, authToken.getTokenHash().length);
+            assertArrayEquals(HashUtil.sha256("token123"), authToken.getTokenHash());
         }
     }
 }
\ No newline at end of file
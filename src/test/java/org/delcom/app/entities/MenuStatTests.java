@@ -0,0 +1,25 @@
+package org.delcom.app.entities;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MenuStatTests {
+    @Test
+    @DisplayName("Membuat instance dari kelas MenuStat")
+    void testMembuatInstanceMenuStat() {
+        // Baris statistik hanya diisi oleh database
+        MenuStat menuStat = new MenuStat();
+
+        assertNull(menuStat.getId());
+        assertNull(menuStat.getUserId());
+        assertNull(menuStat.getCategory());
+        assertNull(menuStat.getMenuCount());
+        assertNull(menuStat.getPriceSum());
+        assertNull(menuStat.getAvailableCount());
+        assertNull(menuStat.getMinPreparationTime());
+        assertNull(menuStat.getMaxPreparationTime());
+        assertNull(menuStat.getUpdatedAt());
+    }
+}
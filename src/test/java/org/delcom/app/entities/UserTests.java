@@ -29,6 +29,23 @@ public class UserTests {
             assertEquals("password123", user.getPassword());
         }
 
+        // Salinan user
+        {
+            User user = new User("Name", "email@example.com", "password123");
+            user.setId(UUID.randomUUID());
+            user.onCreate();
+
+            User copy = new User(user);
+            copy.setPassword(null);
+
+            assertEquals(user.getId(), copy.getId());
+            assertEquals("Name", copy.getName());
+            assertEquals("email@example.com", copy.getEmail());
+            assertEquals(user.getCreatedAt(), copy.getCreatedAt());
+            assertEquals(user.getUpdatedAt(), copy.getUpdatedAt());
+            assertEquals("password123", user.getPassword());
+        }
+
         // User dengan nilai default
         {
             User user = new User();
@@ -6,12 +6,14 @@ import static org.mockito.Mockito.when;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Duration;
 import java.util.Date;
 import java.util.UUID;
 
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthPrincipalCache;
 import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
@@ -20,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -54,6 +57,7 @@ public class AuthInterceptorTests {
         authInterceptor.authTokenService = authTokenService;
         authInterceptor.userService = userService;
         authInterceptor.authContext = new AuthContext();
+        authInterceptor.authPrincipalCache = new AuthPrincipalCache(100, Duration.ofMinutes(5));
 
         // Menguji method preHandle yang berhasil
         {
@@ -70,6 +74,18 @@ public class AuthInterceptorTests {
 
             boolean isPublic = authInterceptor.preHandle(request, response, null);
             assertTrue(isPublic);
+            assertEquals(userId, authInterceptor.authContext.getAuthUser().getId());
+        }
+
+        // Menguji method preHandle dengan token yang sudah di-cache (tanpa query database)
+        {
+            Mockito.clearInvocations(authTokenService, userService);
+            authInterceptor.authContext = new AuthContext();
+
+            boolean isAuth = authInterceptor.preHandle(request, response, null);
+            assertTrue(isAuth);
+            assertEquals(userId, authInterceptor.authContext.getAuthUser().getId());
+            Mockito.verifyNoInteractions(authTokenService, userService);
         }
 
         // Menguji method preHandle yang berhasil dengan path public
@@ -133,6 +149,9 @@ public class AuthInterceptorTests {
             when(request.getRequestURI()).thenReturn("/api/users/me");
             when(request.getHeader("Authorization")).thenReturn("Bearer " + bearerToken);
 
+            // Token dicabut (misalnya setelah ganti password) sehingga cache dihapus
+            authInterceptor.authPrincipalCache.invalidateUser(userId);
+
             // Token tidak ditemukan di database
             when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
                     .thenReturn(null);
@@ -157,5 +176,70 @@ public class AuthInterceptorTests {
             boolean isPublic = authInterceptor.preHandle(request, response, null);
             assertEquals(false, isPublic);
         }
+
+        // Menguji method preHandle dengan token expired (subject valid)
+        {
+            String expiredToken = Jwts.builder()
+                    .subject(userId.toString())
+                    .issuedAt(new Date(System.currentTimeMillis() - 1000 * 60 * 60 * 3))
+                    .expiration(new Date(System.currentTimeMillis() - 1000 * 60 * 60 * 1))
+                    .signWith(JwtUtil.getKey())
+                    .compact();
+
+            when(request.getRequestURI()).thenReturn("/api/users/me");
+            when(request.getHeader("Authorization")).thenReturn("Bearer " + expiredToken);
+
+            boolean isAuth = authInterceptor.preHandle(request, response, null);
+            assertEquals(false, isAuth);
+        }
+
+        // Menguji method preHandle dengan token tanpa waktu expired
+        {
+            String tokenWithoutExpiry = Jwts.builder()
+                    .subject(userId.toString())
+                    .signWith(JwtUtil.getKey())
+                    .compact();
+
+            when(request.getRequestURI()).thenReturn("/api/users/me");
+            when(request.getHeader("Authorization")).thenReturn("Bearer " + tokenWithoutExpiry);
+            when(userService.getUserById(userId)).thenReturn(user);
+
+            boolean isAuth = authInterceptor.preHandle(request, response, null);
+            assertTrue(isAuth);
+        }
+    }
+
+    @Test
+    @DisplayName("Durasi verifikasi JWT, lookup token dan lookup user dicatat per tahap")
+    public void testStageTimers() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String bearerToken = JwtUtil.generateToken(userId);
+        User user = new User("testuser", "testuser@example.com");
+        user.setId(userId);
+
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        UserService userService = Mockito.mock(UserService.class);
+        when(authTokenService.findUserToken(userId, bearerToken)).thenReturn(new AuthToken(userId, bearerToken));
+        when(userService.getUserById(userId)).thenReturn(user);
+
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn("/api/users/me");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + bearerToken);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthInterceptor authInterceptor = new AuthInterceptor();
+        authInterceptor.setMeterRegistry(meterRegistry);
+        authInterceptor.authTokenService = authTokenService;
+        authInterceptor.userService = userService;
+        authInterceptor.authContext = new AuthContext();
+        authInterceptor.authPrincipalCache = new AuthPrincipalCache(100, Duration.ofMinutes(5));
+
+        assertTrue(authInterceptor.preHandle(request, Mockito.mock(HttpServletResponse.class), null));
+        // Request kedua dilayani cache: hanya verifikasi JWT yang dicatat lagi
+        assertTrue(authInterceptor.preHandle(request, Mockito.mock(HttpServletResponse.class), null));
+
+        assertEquals(2, meterRegistry.get(AuthInterceptor.STAGE_TIMER).tag("stage", "jwt_verify").timer().count());
+        assertEquals(1, meterRegistry.get(AuthInterceptor.STAGE_TIMER).tag("stage", "token_lookup").timer().count());
+        assertEquals(1, meterRegistry.get(AuthInterceptor.STAGE_TIMER).tag("stage", "user_lookup").timer().count());
     }
 }
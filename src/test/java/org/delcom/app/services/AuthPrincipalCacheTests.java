@@ -0,0 +1,169 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AuthPrincipalCacheTests {
+
+    // Waktu dikendalikan oleh test
+    private static class TestCache extends AuthPrincipalCache {
+        private long now = 1_000_000;
+
+        TestCache(int maxEntries, Duration ttl) {
+            super(maxEntries, ttl);
+        }
+
+        @Override
+        protected long now() {
+            return now;
+        }
+    }
+
+    private static User buildUser() {
+        User user = new User("Test", "test@example.com", "hash");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    @Test
+    @DisplayName("Token yang disimpan dikembalikan sebagai salinan")
+    void testPutAndGet() {
+        TestCache cache = new TestCache(10, Duration.ofMinutes(5));
+        User user = buildUser();
+
+        assertNull(cache.get("token"));
+        cache.put("token", user, cache.now + 60_000, cache.getGeneration());
+
+        User first = cache.get("token");
+        first.setPassword(null);
+        User second = cache.get("token");
+
+        assertEquals(user.getId(), second.getId());
+        assertEquals("hash", second.getPassword());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getSize());
+
+        // Menyimpan ulang token yang sama tidak menduplikasi entry
+        cache.put("token", user, cache.now + 60_000, cache.getGeneration());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    @DisplayName("Entry kedaluwarsa mengikuti waktu expired JWT atau TTL")
+    void testExpiry() {
+        TestCache cache = new TestCache(10, Duration.ofMinutes(5));
+        User user = buildUser();
+
+        // Dibatasi expired JWT
+        cache.put("jwt", user, cache.now + 1_000, cache.getGeneration());
+        // Dibatasi TTL
+        cache.put("ttl", user, cache.now + 3_600_000, cache.getGeneration());
+        // Sudah expired, tidak disimpan
+        cache.put("expired", user, cache.now - 1, cache.getGeneration());
+        assertEquals(2, cache.getSize());
+
+        cache.now += 1_000;
+        assertNull(cache.get("jwt"));
+        assertNotNull(cache.get("ttl"));
+
+        cache.now += Duration.ofMinutes(5).toMillis();
+        assertNull(cache.get("ttl"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    @DisplayName("Token paling lama tidak dipakai dievict saat penuh")
+    void testEviction() {
+        TestCache cache = new TestCache(2, Duration.ofMinutes(5));
+        User userA = buildUser();
+        User userB = buildUser();
+
+        cache.put("a1", userA, cache.now + 60_000, cache.getGeneration());
+        cache.put("a2", userA, cache.now + 60_000, cache.getGeneration());
+        cache.get("a1");
+        cache.put("b1", userB, cache.now + 60_000, cache.getGeneration());
+        cache.put("b2", userB, cache.now + 60_000, cache.getGeneration());
+
+        assertEquals(2, cache.getEvictions());
+        assertNull(cache.get("a1"));
+        assertNull(cache.get("a2"));
+
+        // Semua token user B masih bisa diinvalidasi
+        cache.invalidateUser(userB.getId());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    @DisplayName("Kapasitas nol menonaktifkan cache")
+    void testDisabled() {
+        TestCache cache = new TestCache(0, Duration.ofMinutes(5));
+
+        cache.put("token", buildUser(), cache.now + 60_000, cache.getGeneration());
+
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    @DisplayName("Invalidasi user menghapus semua tokennya saja")
+    void testInvalidateUser() {
+        TestCache cache = new TestCache(10, Duration.ofMinutes(5));
+        User userA = buildUser();
+        User userB = buildUser();
+
+        cache.put("a1", userA, cache.now + 60_000, cache.getGeneration());
+        cache.put("a2", userA, cache.now + 60_000, cache.getGeneration());
+        cache.put("b1", userB, cache.now + 60_000, cache.getGeneration());
+
+        cache.invalidateUser(userA.getId());
+        cache.invalidateUser(UUID.randomUUID()); // user tanpa cache
+
+        assertNull(cache.get("a1"));
+        assertNull(cache.get("a2"));
+        assertNotNull(cache.get("b1"));
+    }
+
+    @Test
+    @DisplayName("Hasil verifikasi tidak disimpan jika ada invalidasi selama verifikasi")
+    void testInvalidateDuringVerification() {
+        TestCache cache = new TestCache(10, Duration.ofMinutes(5));
+        User user = buildUser();
+
+        long generation = cache.getGeneration();
+        cache.invalidateUser(user.getId());
+        cache.put("token", user, cache.now + 60_000, generation);
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    @DisplayName("Invalidasi di dalam transaksi diulang setelah transaksi selesai")
+    void testInvalidateInTransaction() {
+        TestCache cache = new TestCache(10, Duration.ofMinutes(5));
+        User user = buildUser();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateUser(user.getId());
+
+            // Request lain memverifikasi token sebelum transaksi commit
+            cache.put("token", user, cache.now + 60_000, cache.getGeneration());
+            assertEquals(1, cache.getSize());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            assertNull(cache.get("token"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
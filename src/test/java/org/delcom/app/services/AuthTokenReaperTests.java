@@ -0,0 +1,93 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+
+import org.delcom.app.repositories.AuthTokenRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AuthTokenReaperTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final AuthTokenRepository authTokenRepository = Mockito.mock(AuthTokenRepository.class);
+
+    private AuthTokenReaper reaper(int batchSize, int maxBatchesPerRun) {
+        return new AuthTokenReaper(authTokenRepository, batchSize, maxBatchesPerRun) {
+            @Override
+            protected LocalDateTime now() {
+                return NOW;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Menghapus token yang dibuat sebelum masa berlaku JWT")
+    void testReapUsesJwtExpiration() {
+        AuthTokenReaper reaper = reaper(100, 10);
+        when(authTokenRepository.deleteCreatedBefore(any(LocalDateTime.class), anyInt())).thenReturn(3);
+
+        assertEquals(3, reaper.reap());
+
+        verify(authTokenRepository, times(1)).deleteCreatedBefore(NOW.minusHours(2), 100);
+        assertEquals(1, reaper.getRuns());
+        assertEquals(3, reaper.getLastReclaimed());
+        assertEquals(3, reaper.getTotalReclaimed());
+    }
+
+    @Test
+    @DisplayName("Batch penuh dilanjutkan sampai batch tidak penuh")
+    void testReapContinuesWhileBatchFull() {
+        AuthTokenReaper reaper = reaper(100, 10);
+        when(authTokenRepository.deleteCreatedBefore(any(LocalDateTime.class), anyInt()))
+                .thenReturn(100, 100, 40);
+
+        assertEquals(240, reaper.reap());
+
+        verify(authTokenRepository, times(3)).deleteCreatedBefore(NOW.minusHours(2), 100);
+    }
+
+    @Test
+    @DisplayName("Jumlah batch per run dibatasi, sisanya dihapus run berikutnya")
+    void testReapStopsAtMaxBatches() {
+        AuthTokenReaper reaper = reaper(100, 2);
+        when(authTokenRepository.deleteCreatedBefore(any(LocalDateTime.class), anyInt())).thenReturn(100);
+
+        assertEquals(200, reaper.reap());
+        assertEquals(200, reaper.reap());
+
+        verify(authTokenRepository, times(4)).deleteCreatedBefore(NOW.minusHours(2), 100);
+        assertEquals(2, reaper.getRuns());
+        assertEquals(200, reaper.getLastReclaimed());
+        assertEquals(400, reaper.getTotalReclaimed());
+    }
+
+    @Test
+    @DisplayName("Tidak ada token expired")
+    void testReapNothing() {
+        AuthTokenReaper reaper = reaper(100, 10);
+
+        assertEquals(0, reaper.reap());
+
+        assertEquals(1, reaper.getRuns());
+        assertEquals(0, reaper.getLastReclaimed());
+        assertEquals(0, reaper.getTotalReclaimed());
+    }
+
+    @Test
+    @DisplayName("Waktu default diambil dari jam sistem")
+    void testDefaultNow() {
+        AuthTokenReaper reaper = new AuthTokenReaper(authTokenRepository, 100, 10);
+        LocalDateTime before = LocalDateTime.now();
+
+        LocalDateTime now = reaper.now();
+
+        assertFalse(now.isBefore(before));
+    }
+}
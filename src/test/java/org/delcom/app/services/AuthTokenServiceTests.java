@@ -7,8 +7,10 @@ import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.HashUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalMatchers;
 import org.mockito.Mockito;
 
 public class AuthTokenServiceTests {
@@ -22,7 +24,8 @@ public class AuthTokenServiceTests {
         AuthTokenRepository authTokenRepository = Mockito.mock(AuthTokenRepository.class);
 
         // Membuat instance AuthToken dengan repository palsu
-        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository);
+        AuthPrincipalCache authPrincipalCache = Mockito.mock(AuthPrincipalCache.class);
+        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository, authPrincipalCache);
         assertTrue(authTokenService != null);
 
         // Menguji createAuthToken
@@ -37,7 +40,9 @@ public class AuthTokenServiceTests {
 
         // Menguji findUserToken
         {
-            Mockito.when(authTokenRepository.findUserToken(userId, "token")).thenReturn(authToken);
+            // Token dicari berdasarkan hash SHA-256
+            Mockito.when(authTokenRepository.findUserToken(Mockito.eq(userId),
+                    AdditionalMatchers.aryEq(HashUtil.sha256("token")))).thenReturn(authToken);
 
             AuthToken result = authTokenService.findUserToken(userId, "token");
             assertTrue(result != null);
@@ -51,6 +56,7 @@ public class AuthTokenServiceTests {
 
             authTokenService.deleteAuthToken(userId);
             Mockito.verify(authTokenRepository, Mockito.times(1)).deleteByUserId(userId);
+            Mockito.verify(authPrincipalCache, Mockito.times(1)).invalidateUser(userId);
         }
     }
 }
@@ -1,13 +1,15 @@
 package org.delcom.app.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -42,127 +44,25 @@ class FileStorageServiceTest {
     // ============================================
 
     @Test
-    @DisplayName("Store file berhasil menyimpan gambar menu dengan extension")
-    void storeFile_berhasil_menyimpan_gambar_menu_dengan_extension() throws Exception {
+    @DisplayName("Store file berhasil menyimpan gambar menu lewat staging")
+    void storeFile_berhasil_menyimpan_gambar_menu_lewat_staging() throws Exception {
         // Arrange
         UUID menuId = UUID.randomUUID();
-        String originalFilename = "nasi-goreng.jpg";
         String expectedFilename = "menu_" + menuId + ".jpg";
         byte[] fileContent = "fake image content".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
+        MultipartFile file = new MockMultipartFile("imageFile", "nasi-goreng.jpg", "image/jpeg", fileContent);
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
-
-        // Assert
-        assertEquals(expectedFilename, result);
+        Path staged = fileStorageService.stageFile(file);
+        fileStorageService.storeStagedFile(staged, FileStorageService.menuFilename(menuId, ".jpg"));
 
         // Verify file benar-benar ada dan contentnya sesuai
         Path expectedFile = tempDir.resolve(expectedFilename);
         assertTrue(Files.exists(expectedFile));
+        assertFalse(Files.exists(staged));
         assertArrayEquals(fileContent, Files.readAllBytes(expectedFile));
     }
 
-    @Test
-    @DisplayName("Store file berhasil dengan format PNG")
-    void storeFile_berhasil_dengan_format_png() throws Exception {
-        // Arrange
-        UUID menuId = UUID.randomUUID();
-        String originalFilename = "sate-ayam.png";
-        String expectedFilename = "menu_" + menuId + ".png";
-        byte[] fileContent = "fake png image".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
-
-        // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
-
-        // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
-    }
-
-    @Test
-    @DisplayName("Store file berhasil dengan format GIF")
-    void storeFile_berhasil_dengan_format_gif() throws Exception {
-        // Arrange
-        UUID menuId = UUID.randomUUID();
-        String originalFilename = "es-teh.gif";
-        String expectedFilename = "menu_" + menuId + ".gif";
-        byte[] fileContent = "fake gif image".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
-
-        // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
-
-        // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
-    }
-
-    @Test
-    @DisplayName("Store file berhasil tanpa extension ketika original filename null")
-    void storeFile_berhasil_tanpa_extension_ketika_originalFilename_null() throws Exception {
-        // Arrange
-        UUID menuId = UUID.randomUUID();
-        String expectedFilename = "menu_" + menuId.toString();
-        byte[] fileContent = "fake content".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(null);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
-
-        // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
-
-        // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
-    }
-
-    @Test
-    @DisplayName("Store file berhasil tanpa extension ketika tidak ada dot")
-    void storeFile_berhasil_tanpa_extension_ketika_tidak_ada_dot() throws Exception {
-        // Arrange
-        UUID menuId = UUID.randomUUID();
-        String expectedFilename = "menu_" + menuId.toString();
-        byte[] fileContent = "fake content".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn("filename");
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
-
-        // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
-
-        // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
-    }
-
-    @Test
-    @DisplayName("Store file berhasil dengan complex extension")
-    void storeFile_berhasil_dengan_complex_extension() throws Exception {
-        // Arrange
-        UUID menuId = UUID.randomUUID();
-        String originalFilename = "menu-special.final.jpeg";
-        String expectedFilename = "menu_" + menuId + ".jpeg";
-        byte[] fileContent = "fake jpeg content".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
-
-        // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
-
-        // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
-    }
-
     @Test
     @DisplayName("Store file membuat directory ketika belum ada")
     void storeFile_membuat_directory_ketika_belum_ada() throws Exception {
@@ -170,12 +70,11 @@ class FileStorageServiceTest {
         UUID menuId = UUID.randomUUID();
         Path customUploadDir = tempDir.resolve("custom-upload");
         fileStorageService.uploadDir = customUploadDir.toString();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn("menu-image.jpg");
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("content".getBytes()));
+        Path staged = Files.writeString(tempDir.resolve("upload.tmp"), "content");
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
+        String result = FileStorageService.menuFilename(menuId, ".jpg");
+        fileStorageService.storeStagedFile(staged, result);
 
         // Assert
         assertTrue(Files.exists(customUploadDir));
@@ -183,47 +82,19 @@ class FileStorageServiceTest {
         assertTrue(Files.exists(customUploadDir.resolve(result)));
     }
 
-    @Test
-    @DisplayName("Store file menggantikan gambar menu yang sudah ada (update)")
-    void storeFile_menggantikan_gambar_menu_yang_sudah_ada() throws Exception {
-        // Arrange
-        UUID menuId = UUID.randomUUID();
-        String originalFilename = "menu-baru.jpg";
-        String expectedFilename = "menu_" + menuId + ".jpg";
-
-        // Create existing file dengan content lama
-        Path existingFile = tempDir.resolve(expectedFilename);
-        Files.write(existingFile, "old image content".getBytes());
-
-        byte[] newContent = "new image content".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(newContent));
-
-        // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, menuId);
-
-        // Assert
-        assertEquals(expectedFilename, result);
-        assertArrayEquals(newContent, Files.readAllBytes(existingFile));
-    }
-
     // ============================================
     // TEST STORE FILE - ERROR SCENARIOS
     // ============================================
 
     @Test
-    @DisplayName("Store file melemparkan exception ketika IOException terjadi")
-    void storeFile_melemparkan_exception_ketika_ioexception_terjadi() throws Exception {
+    @DisplayName("Stage file melemparkan exception ketika IOException terjadi")
+    void stageFile_melemparkan_exception_ketika_ioexception_terjadi() throws Exception {
         // Arrange
-        UUID menuId = UUID.randomUUID();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn("menu.jpg");
-        when(mockMultipartFile.getInputStream()).thenThrow(new IOException("Simulated IO error"));
+        doThrow(new IOException("Simulated IO error")).when(mockMultipartFile).transferTo(any(File.class));
 
         // Act & Assert
         assertThrows(IOException.class, () -> {
-            fileStorageService.storeFile(mockMultipartFile, menuId);
+            fileStorageService.stageFile(mockMultipartFile);
         });
     }
 
@@ -392,15 +263,12 @@ class FileStorageServiceTest {
     void skenario_lengkap_store_exists_load_delete() throws Exception {
         // Arrange
         UUID menuId = UUID.randomUUID();
-        String originalFilename = "rendang.jpg";
         byte[] fileContent = "rendang image".getBytes();
-
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
+        MultipartFile file = new MockMultipartFile("imageFile", "rendang.jpg", "image/jpeg", fileContent);
 
         // Act & Assert - STORE
-        String filename = fileStorageService.storeFile(mockMultipartFile, menuId);
-        assertNotNull(filename);
+        String filename = FileStorageService.menuFilename(menuId, ".jpg");
+        fileStorageService.storeStagedFile(fileStorageService.stageFile(file), filename);
 
         // Act & Assert - EXISTS
         assertTrue(fileStorageService.fileExists(filename));
@@ -424,23 +292,17 @@ class FileStorageServiceTest {
         UUID menuId2 = UUID.randomUUID();
         UUID menuId3 = UUID.randomUUID();
 
-        MultipartFile file1 = mock(MultipartFile.class);
-        MultipartFile file2 = mock(MultipartFile.class);
-        MultipartFile file3 = mock(MultipartFile.class);
-
-        when(file1.getOriginalFilename()).thenReturn("soto.jpg");
-        when(file1.getInputStream()).thenReturn(new ByteArrayInputStream("soto".getBytes()));
-
-        when(file2.getOriginalFilename()).thenReturn("gado-gado.png");
-        when(file2.getInputStream()).thenReturn(new ByteArrayInputStream("gado-gado".getBytes()));
-
-        when(file3.getOriginalFilename()).thenReturn("es-campur.gif");
-        when(file3.getInputStream()).thenReturn(new ByteArrayInputStream("es-campur".getBytes()));
+        MultipartFile file1 = new MockMultipartFile("imageFile", "soto.jpg", "image/jpeg", "soto".getBytes());
+        MultipartFile file2 = new MockMultipartFile("imageFile", "gado-gado.png", "image/png", "gado-gado".getBytes());
+        MultipartFile file3 = new MockMultipartFile("imageFile", "es-campur.gif", "image/gif", "es-campur".getBytes());
 
         // Act
-        String filename1 = fileStorageService.storeFile(file1, menuId1);
-        String filename2 = fileStorageService.storeFile(file2, menuId2);
-        String filename3 = fileStorageService.storeFile(file3, menuId3);
+        String filename1 = FileStorageService.menuFilename(menuId1, ".jpg");
+        String filename2 = FileStorageService.menuFilename(menuId2, ".png");
+        String filename3 = FileStorageService.menuFilename(menuId3, ".gif");
+        fileStorageService.storeStagedFile(fileStorageService.stageFile(file1), filename1);
+        fileStorageService.storeStagedFile(fileStorageService.stageFile(file2), filename2);
+        fileStorageService.storeStagedFile(fileStorageService.stageFile(file3), filename3);
 
         // Assert
         assertTrue(fileStorageService.fileExists(filename1));
@@ -452,4 +314,205 @@ class FileStorageServiceTest {
         assertNotEquals(filename2, filename3);
         assertNotEquals(filename1, filename3);
     }
-}
\ No newline at end of file
+
+    // ============================================
+    // TEST STAGING
+    // ============================================
+
+    @Test
+    @DisplayName("Stage file menyimpan upload ke folder staging dengan nama acak")
+    void stageFile_menyimpan_ke_folder_staging() throws Exception {
+        // Arrange
+        byte[] fileContent = "fake image content".getBytes();
+        MultipartFile file = new MockMultipartFile(
+                "imageFile", "nasi-goreng.jpg", "image/jpeg", fileContent);
+
+        // Act
+        Path first = fileStorageService.stageFile(file);
+        Path second = fileStorageService.stageFile(file);
+
+        // Assert
+        assertEquals(tempDir.resolve("staging").toAbsolutePath(), first.getParent());
+        assertNotEquals(first, second);
+        assertArrayEquals(fileContent, Files.readAllBytes(first));
+    }
+
+    @Test
+    @DisplayName("Store staged file memindahkan file menjadi gambar menu")
+    void storeStagedFile_memindahkan_file_menjadi_gambar_menu() throws Exception {
+        // Arrange
+        UUID menuId = UUID.randomUUID();
+        Path staged = Files.writeString(tempDir.resolve("upload.tmp"), "gambar baru");
+        Files.writeString(tempDir.resolve("menu_" + menuId + ".png"), "gambar lama");
+
+        // Act
+        String result = FileStorageService.menuFilename(menuId, ".png");
+        fileStorageService.storeStagedFile(staged, result);
+
+        // Assert
+        assertEquals("menu_" + menuId + ".png", result);
+        assertFalse(Files.exists(staged));
+        assertEquals("gambar baru", Files.readString(tempDir.resolve(result)));
+    }
+
+    @Test
+    @DisplayName("File content-addressed yang sudah ada tidak ditimpa")
+    void storeStagedFile_content_addressed_tidak_menimpa_file_yang_ada() throws Exception {
+        // Arrange
+        String filename = FileStorageService.contentAddressedFilename("a".repeat(64), ".jpg");
+        Path existing = Files.writeString(tempDir.resolve(filename), "gambar");
+        Files.setLastModifiedTime(existing, java.nio.file.attribute.FileTime.fromMillis(1000));
+        Path first = Files.writeString(tempDir.resolve("first.tmp"), "gambar");
+
+        // Act
+        fileStorageService.storeStagedFile(first, filename);
+
+        // Assert
+        assertFalse(Files.exists(first));
+        assertEquals(1000, Files.getLastModifiedTime(existing).toMillis());
+        assertEquals("gambar", Files.readString(existing));
+    }
+
+    @Test
+    @DisplayName("Nama file content-addressed dikenali")
+    void isContentAddressed_mengenali_nama_hash() {
+        assertTrue(FileStorageService.isContentAddressed("0123456789abcdef".repeat(4) + ".png"));
+        assertFalse(FileStorageService.isContentAddressed("menu_" + UUID.randomUUID() + ".png"));
+        assertFalse(FileStorageService.isContentAddressed("0123456789ABCDEF".repeat(4) + ".png"));
+        assertFalse(FileStorageService.isContentAddressed(null));
+    }
+
+    // ============================================
+    // TEST BLOB STORE
+    // ============================================
+
+    @Test
+    @DisplayName("File yang disimpan juga dikirim ke blob store")
+    void blobStore_menerima_file_yang_disimpan() throws Exception {
+        // Arrange
+        Path remote = tempDir.resolve("remote");
+        fileStorageService.blobStore = new LocalBlobStore(remote.toString());
+        UUID menuId = UUID.randomUUID();
+        Path staged = Files.writeString(tempDir.resolve("staged.tmp"), "rawon");
+        String stagedName = FileStorageService.contentAddressedFilename("b".repeat(64), ".jpg");
+
+        // Act
+        fileStorageService.storeStagedFile(staged, stagedName);
+        fileStorageService.storeStagedFile(Files.writeString(tempDir.resolve("pecel.tmp"), "pecel"),
+                FileStorageService.menuFilename(menuId, ".png"));
+
+        // Assert
+        assertEquals("pecel", Files.readString(remote.resolve("menu_" + menuId + ".png")));
+        assertEquals("rawon", Files.readString(remote.resolve(stagedName)));
+        assertEquals("rawon", Files.readString(tempDir.resolve(stagedName)));
+    }
+
+    @Test
+    @DisplayName("File content-addressed yang sudah ada di blob store tidak diunggah ulang")
+    void blobStore_content_addressed_tidak_diunggah_ulang() throws Exception {
+        // Arrange
+        BlobStore blobStore = mock(BlobStore.class);
+        fileStorageService.blobStore = blobStore;
+        String existing = FileStorageService.contentAddressedFilename("c".repeat(64), ".png");
+        String missing = FileStorageService.contentAddressedFilename("d".repeat(64), ".png");
+        when(blobStore.exists(existing)).thenReturn(true);
+
+        // Act
+        fileStorageService.storeStagedFile(Files.writeString(tempDir.resolve("1.tmp"), "x"), existing);
+        fileStorageService.storeStagedFile(Files.writeString(tempDir.resolve("2.tmp"), "y"), missing);
+
+        // Assert
+        verify(blobStore, never()).store(eq(existing), any());
+        verify(blobStore).store(missing, tempDir.resolve(missing));
+    }
+
+    @Test
+    @DisplayName("Cache read-through mengunduh file yang belum ada di disk lokal")
+    void ensureLocalCopy_mengunduh_dari_blob_store() throws Exception {
+        // Arrange
+        Path remote = tempDir.resolve("remote");
+        LocalBlobStore blobStore = new LocalBlobStore(remote.toString());
+        blobStore.store("menu_a.jpg", Files.writeString(tempDir.resolve("a.tmp"), "dari remote"));
+        Files.writeString(tempDir.resolve("menu_b.jpg"), "lokal");
+        blobStore.store("menu_b.jpg", Files.writeString(tempDir.resolve("b.tmp"), "remote"));
+
+        // Act: tanpa blob store tidak ada yang diunduh
+        fileStorageService.ensureLocalCopy("menu_a.jpg");
+        assertFalse(fileStorageService.fileExists("menu_a.jpg"));
+
+        fileStorageService.blobStore = blobStore;
+        fileStorageService.ensureLocalCopy("menu_a.jpg");
+        fileStorageService.ensureLocalCopy("menu_b.jpg");
+        fileStorageService.ensureLocalCopy("tidak-ada.jpg");
+
+        // Assert
+        assertEquals("dari remote", Files.readString(tempDir.resolve("menu_a.jpg")));
+        assertEquals("lokal", Files.readString(tempDir.resolve("menu_b.jpg")));
+        assertFalse(fileStorageService.fileExists("tidak-ada.jpg"));
+        try (var files = Files.list(tempDir.resolve("staging"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Blob store yang gagal diakses hanya dicatat")
+    void ensureLocalCopy_blob_store_gagal() throws Exception {
+        // Arrange
+        BlobStore blobStore = mock(BlobStore.class);
+        when(blobStore.load(eq("menu.jpg"), any())).thenThrow(new IOException("S3 down"));
+        fileStorageService.blobStore = blobStore;
+
+        // Act
+        fileStorageService.ensureLocalCopy("menu.jpg");
+
+        // Assert
+        assertFalse(fileStorageService.fileExists("menu.jpg"));
+    }
+
+    @Test
+    @DisplayName("Delete file menghapus dari blob store dan disk lokal")
+    void deleteFile_menghapus_dari_blob_store() throws Exception {
+        // Arrange
+        BlobStore blobStore = mock(BlobStore.class);
+        fileStorageService.blobStore = blobStore;
+        Files.writeString(tempDir.resolve("lokal.jpg"), "x");
+        when(blobStore.delete("hanya-remote.jpg")).thenReturn(true);
+        doThrow(new IOException("S3 down")).when(blobStore).delete("gagal.jpg");
+        Files.writeString(tempDir.resolve("gagal.jpg"), "x");
+
+        // Act & Assert
+        assertTrue(fileStorageService.deleteFile("lokal.jpg"));
+        assertTrue(fileStorageService.deleteFile("hanya-remote.jpg"));
+        assertFalse(fileStorageService.deleteFile("gagal.jpg"));
+        // Tidak ada di mana pun: tidak dilaporkan terhapus
+        assertFalse(fileStorageService.deleteFile("tidak-ada.jpg"));
+
+        assertFalse(Files.exists(tempDir.resolve("lokal.jpg")));
+        assertTrue(Files.exists(tempDir.resolve("gagal.jpg")));
+        verify(blobStore).delete("hanya-remote.jpg");
+    }
+
+    @Test
+    @DisplayName("Durasi dan ukuran file dicatat per operasi")
+    void metrik_durasi_dan_ukuran_per_operasi() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        fileStorageService.setMeterRegistry(meterRegistry);
+        LocalBlobStore blobStore = new LocalBlobStore(tempDir.resolve("remote").toString());
+        blobStore.store("menu_remote.jpg", Files.writeString(tempDir.resolve("remote.tmp"), "123456"));
+        fileStorageService.blobStore = blobStore;
+        Path staged = Files.writeString(tempDir.resolve("staged.upload"), "12345678");
+
+        // Act
+        fileStorageService.storeStagedFile(staged, "menu_staged.jpg");
+        fileStorageService.ensureLocalCopy("menu_remote.jpg");
+        fileStorageService.deleteFile("menu_staged.jpg");
+
+        // Assert
+        assertEquals(1, meterRegistry.get(FileStorageService.TIMER).tag("operation", "store").timer().count());
+        assertEquals(1, meterRegistry.get(FileStorageService.TIMER).tag("operation", "fetch").timer().count());
+        assertEquals(1, meterRegistry.get(FileStorageService.TIMER).tag("operation", "delete").timer().count());
+        assertEquals(8, meterRegistry.get(FileStorageService.BYTES).tag("operation", "store").summary().totalAmount());
+        assertEquals(6, meterRegistry.get(FileStorageService.BYTES).tag("operation", "fetch").summary().totalAmount());
+    }
+}
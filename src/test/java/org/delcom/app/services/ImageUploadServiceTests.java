@@ -0,0 +1,479 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+
+import javax.imageio.ImageIO;
+
+import org.delcom.app.dto.ImageUploadStatus;
+import org.delcom.app.entities.MenuItem;
+import org.delcom.app.utils.HashUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class ImageUploadServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+    private MenuItemService menuItemService;
+    private ImageVariantService imageVariantService;
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ImageUploadService service;
+
+    @BeforeEach
+    void setup() {
+        fileStorageService = new FileStorageService();
+        fileStorageService.uploadDir = tempDir.toString();
+        menuItemService = mock(MenuItemService.class);
+        imageVariantService = mock(ImageVariantService.class);
+        when(menuItemService.updateMenuImage(any(), any())).thenReturn(new MenuItem());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private static byte[] image(String format) throws Exception {
+        BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+
+    private static MockMultipartFile upload(byte[] content) {
+        return new MockMultipartFile("imageFile", "menu.jpg", "image/jpeg", content);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private long stagedCount() {
+        try (var files = Files.list(tempDir.resolve(FileStorageService.STAGING_DIR))) {
+            return files.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Upload diproses di background: file dipindah, menu diperbarui, varian dijadwalkan")
+    void testSubmitProcessed() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, false, false);
+        UUID menuId = UUID.randomUUID();
+        byte[] content = image("png");
+
+        ImageUploadStatus pending = service.submit(menuId, new MockMultipartFile("imageFile", "menu.jpg", "image/jpeg", content));
+
+        assertEquals(ImageUploadStatus.PENDING, pending.getState());
+        waitUntil(() -> service.getCompleted() == 1);
+
+        // Ekstensi mengikuti isi file, bukan nama file dari browser
+        String filename = "menu_" + menuId + ".png";
+        ImageUploadStatus done = service.getStatus(menuId);
+        assertEquals(pending.getUploadId(), done.getUploadId());
+        assertEquals(ImageUploadStatus.DONE, done.getState());
+        assertEquals(filename, done.getImageUrl());
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve(filename)));
+        waitUntil(() -> stagedCount() == 0);
+        verify(menuItemService).updateMenuImage(menuId, filename);
+        verify(imageVariantService).generateAsync(filename);
+        assertEquals(1, service.getSubmitted());
+        assertEquals(0, service.getFailures());
+        assertEquals(0, service.getQueueDepth());
+        assertNull(service.getStatus(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Mode virtual thread: upload diproses oleh virtual thread")
+    void testSubmitProcessedOnVirtualThread() throws Exception {
+        Thread[] worker = new Thread[1];
+        when(menuItemService.updateMenuImage(any(), any())).thenAnswer(invocation -> {
+            worker[0] = Thread.currentThread();
+            return new MenuItem();
+        });
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, false, true);
+
+        service.submit(UUID.randomUUID(), new MockMultipartFile("imageFile", "menu.png", "image/png", image("png")));
+
+        waitUntil(() -> service.getCompleted() == 1);
+        assertTrue(worker[0].isVirtual());
+        assertTrue(worker[0].getName().startsWith("image-upload-"));
+    }
+
+    @Test
+    @DisplayName("Deteksi format dari isi file")
+    void testDetectExtension() throws Exception {
+        Path jpeg = Files.write(tempDir.resolve("a"), image("jpg"));
+        Path gif = Files.write(tempDir.resolve("b"), image("gif"));
+        Path bmp = Files.write(tempDir.resolve("c"), image("bmp"));
+        Path text = Files.writeString(tempDir.resolve("d"), "bukan gambar");
+
+        assertEquals(".jpg", ImageUploadService.detectExtension(jpeg));
+        assertEquals(".gif", ImageUploadService.detectExtension(gif));
+        assertNull(ImageUploadService.detectExtension(bmp));
+        assertNull(ImageUploadService.detectExtension(text));
+    }
+
+    @Test
+    @DisplayName("File yang bukan gambar dan gambar terpotong gagal diproses")
+    void testInvalidContent() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, false, false);
+        UUID textMenu = UUID.randomUUID();
+        UUID truncatedMenu = UUID.randomUUID();
+        byte[] png = image("png");
+        byte[] truncated = new byte[10];
+        System.arraycopy(png, 0, truncated, 0, truncated.length);
+
+        service.submit(textMenu, upload("bukan gambar".getBytes()));
+        service.submit(truncatedMenu, upload(truncated));
+        waitUntil(() -> service.getFailures() == 2);
+
+        assertEquals(ImageUploadStatus.FAILED, service.getStatus(textMenu).getState());
+        assertEquals(ImageUploadService.MESSAGE_UNSUPPORTED, service.getStatus(textMenu).getMessage());
+        assertEquals(ImageUploadStatus.FAILED, service.getStatus(truncatedMenu).getState());
+        assertTrue(service.getStatus(truncatedMenu).getMessage().startsWith("Gagal mengupload gambar"));
+        waitUntil(() -> stagedCount() == 0);
+        verify(menuItemService, never()).updateMenuImage(any(), any());
+        assertEquals(0, service.getCompleted());
+    }
+
+    @Test
+    @DisplayName("Menu yang dihapus selama upload diproses: file gambar dibuang")
+    void testMenuDeleted() throws Exception {
+        when(menuItemService.updateMenuImage(any(), any())).thenReturn(null);
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, false, false);
+        UUID menuId = UUID.randomUUID();
+
+        service.submit(menuId, upload(image("jpg")));
+        waitUntil(() -> service.getFailures() == 1);
+
+        assertEquals(ImageUploadService.MESSAGE_NOT_FOUND, service.getStatus(menuId).getMessage());
+        assertFalse(Files.exists(tempDir.resolve("menu_" + menuId + ".jpg")));
+        verify(imageVariantService, never()).generateAsync(any());
+    }
+
+    @Test
+    @DisplayName("Upload lama yang digantikan upload baru tidak dipasang")
+    void testSuperseded() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, false, false) {
+            @Override
+            void process(UUID menuId, UUID uploadId, Path stagedFile) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.process(menuId, uploadId, stagedFile);
+            }
+        };
+        UUID menuId = UUID.randomUUID();
+        UUID otherMenu = UUID.randomUUID();
+
+        service.submit(otherMenu, upload(image("jpg"))); // menahan worker
+        started.await();
+        ImageUploadStatus first = service.submit(menuId, upload(image("gif")));
+        ImageUploadStatus second = service.submit(menuId, upload(image("png")));
+        assertNotEquals(first.getUploadId(), second.getUploadId());
+
+        release.countDown();
+        waitUntil(() -> service.getCompleted() == 2);
+
+        assertEquals(1, service.getSuperseded());
+        assertEquals("menu_" + menuId + ".png", service.getStatus(menuId).getImageUrl());
+        assertFalse(Files.exists(tempDir.resolve("menu_" + menuId + ".gif")));
+        verify(menuItemService, never()).updateMenuImage(menuId, "menu_" + menuId + ".gif");
+        waitUntil(() -> stagedCount() == 0);
+    }
+
+    @Test
+    @DisplayName("Upload yang digantikan saat database diperbarui tidak menimpa status upload baru")
+    void testSupersededDuringInstall() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, false, false);
+        UUID doneMenu = UUID.randomUUID();
+        UUID deletedMenu = UUID.randomUUID();
+        ImageUploadStatus[] newer = new ImageUploadStatus[2];
+
+        when(menuItemService.updateMenuImage(eq(doneMenu), any())).thenAnswer(invocation -> {
+            newer[0] = service.submit(doneMenu, upload("bukan gambar".getBytes()));
+            return new MenuItem();
+        });
+        when(menuItemService.updateMenuImage(eq(deletedMenu), any())).thenAnswer(invocation -> {
+            newer[1] = service.submit(deletedMenu, upload("bukan gambar".getBytes()));
+            return null;
+        });
+
+        service.submit(doneMenu, upload(image("jpg")));
+        service.submit(deletedMenu, upload(image("jpg")));
+        waitUntil(() -> service.getFailures() == 2);
+
+        // Hanya upload terbaru yang menentukan status
+        assertEquals(newer[0].getUploadId(), service.getStatus(doneMenu).getUploadId());
+        assertEquals(ImageUploadService.MESSAGE_UNSUPPORTED, service.getStatus(doneMenu).getMessage());
+        assertEquals(newer[1].getUploadId(), service.getStatus(deletedMenu).getUploadId());
+        assertEquals(0, service.getCompleted());
+    }
+
+    // Worker pertama tertahan sampai release dibuka
+    private ImageUploadService blockingService(boolean virtualThreads, CountDownLatch started,
+                                               CountDownLatch release) {
+        return new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 1, 100, false, virtualThreads) {
+            @Override
+            void process(UUID menuId, UUID uploadId, Path stagedFile) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.process(menuId, uploadId, stagedFile);
+            }
+        };
+    }
+
+    private void assertRejectedWhenFull(boolean virtualThreads) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service = blockingService(virtualThreads, started, release);
+        UUID menuId = UUID.randomUUID();
+
+        service.submit(UUID.randomUUID(), upload(image("jpg")));
+        started.await();
+        service.submit(UUID.randomUUID(), upload(image("jpg"))); // masuk antrean
+        assertThrows(RejectedExecutionException.class, () -> service.submit(menuId, upload(image("jpg"))));
+
+        assertEquals(1, service.getRejected());
+        assertEquals(1, service.getQueueDepth());
+        assertEquals(ImageUploadStatus.FAILED, service.getStatus(menuId).getState());
+        assertEquals(ImageUploadService.MESSAGE_BUSY, service.getStatus(menuId).getMessage());
+        assertEquals(2, stagedCount());
+
+        release.countDown();
+        waitUntil(() -> service.getCompleted() == 2);
+        waitUntil(() -> stagedCount() == 0);
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Antrean penuh: upload ditolak dan file staging dihapus")
+    void testRejected() throws Exception {
+        assertRejectedWhenFull(false);
+    }
+
+    @Test
+    @DisplayName("Mode virtual thread: jumlah worker dan antrean tetap dibatasi")
+    void testRejectedOnVirtualThreads() throws Exception {
+        assertRejectedWhenFull(true);
+    }
+
+    @Test
+    @DisplayName("Shutdown: upload yang menunggu worker dibatalkan, upload baru ditolak")
+    void testShutdown() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        service = blockingService(true, started, new CountDownLatch(1));
+
+        service.submit(UUID.randomUUID(), upload(image("jpg")));
+        started.await();
+        service.submit(UUID.randomUUID(), upload(image("jpg")));
+        assertEquals(1, service.getQueueDepth());
+
+        service.shutdown();
+        waitUntil(() -> service.getQueueDepth() == 0);
+
+        UUID menuId = UUID.randomUUID();
+        assertThrows(RejectedExecutionException.class, () -> service.submit(menuId, upload(image("jpg"))));
+        assertEquals(1, service.getRejected());
+        assertEquals(ImageUploadService.MESSAGE_BUSY, service.getStatus(menuId).getMessage());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Jumlah status dibatasi, status tertua dibuang")
+    void testStatusesBounded() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 1, false, false);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        service.submit(first, upload(image("jpg")));
+        waitUntil(() -> service.getCompleted() == 1);
+        service.submit(second, upload(image("jpg")));
+        waitUntil(() -> service.getCompleted() == 2);
+
+        assertNull(service.getStatus(first));
+        assertNotNull(service.getStatus(second));
+
+        // Upload yang statusnya sudah dibuang tidak diproses
+        Path staged = Files.write(tempDir.resolve("staged.upload"), image("jpg"));
+        service.process(first, UUID.randomUUID(), staged);
+        assertEquals(1, service.getSuperseded());
+        assertFalse(Files.exists(staged));
+    }
+
+    @Test
+    @DisplayName("File staging yang tidak bisa dihapus hanya dicatat")
+    void testStagedFileNotDeletable() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, false, false);
+        UUID menuId = UUID.randomUUID();
+        service.submit(menuId, upload("bukan gambar".getBytes()));
+        waitUntil(() -> service.getFailures() == 1);
+        ImageUploadStatus status = service.getStatus(menuId);
+
+        // Direktori yang tidak kosong tidak bisa dibaca maupun dihapus
+        Path directory = Files.createDirectories(tempDir.resolve("dir.upload"));
+        Files.writeString(directory.resolve("isi"), "isi");
+        service.process(menuId, status.getUploadId(), directory);
+
+        assertTrue(Files.exists(directory));
+        assertEquals(2, service.getFailures());
+    }
+
+    @Test
+    @DisplayName("Content-addressed: foto yang sama untuk banyak menu disimpan sekali")
+    void testContentAddressedDeduplicated() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, true, false);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        byte[] content = image("jpg");
+        String filename = HashUtil.sha256Hex(Files.write(tempDir.resolve("expected"), content)) + ".jpg";
+        Files.delete(tempDir.resolve("expected"));
+
+        service.submit(first, upload(content));
+        waitUntil(() -> service.getCompleted() == 1);
+        service.submit(second, upload(content));
+        waitUntil(() -> service.getCompleted() == 2);
+
+        assertTrue(FileStorageService.isContentAddressed(filename));
+        assertEquals(filename, service.getStatus(first).getImageUrl());
+        assertEquals(filename, service.getStatus(second).getImageUrl());
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve(filename)));
+        assertEquals(1, service.getDeduplicated());
+        // File dipasang di bawah lock nama file, dalam transaksi yang sama
+        // dengan update image_url
+        InOrder inOrder = inOrder(transactionManager, menuItemService);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(menuItemService).lockImageUrl(filename);
+        inOrder.verify(menuItemService).updateMenuImage(first, filename);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(menuItemService).lockImageUrl(filename);
+        inOrder.verify(menuItemService).updateMenuImage(second, filename);
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Gambar lama dihapus setelah diganti jika tidak dipakai menu lain")
+    void testPreviousImageReleased() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, true, false);
+        UUID menuId = UUID.randomUUID();
+        UUID sharedMenu = UUID.randomUUID();
+        Files.writeString(tempDir.resolve("menu_" + menuId + ".png"), "gambar lama");
+        Files.writeString(tempDir.resolve("shared.jpg"), "dipakai menu lain");
+        when(menuItemService.getMenuImageUrl(menuId)).thenReturn("menu_" + menuId + ".png");
+        when(menuItemService.getMenuImageUrl(sharedMenu)).thenReturn("shared.jpg");
+        when(menuItemService.countMenuItemsByImageUrl("shared.jpg")).thenReturn(2L);
+
+        service.submit(menuId, upload(image("jpg")));
+        service.submit(sharedMenu, upload(image("gif")));
+        waitUntil(() -> service.getCompleted() == 2);
+
+        assertFalse(Files.exists(tempDir.resolve("menu_" + menuId + ".png")));
+        assertTrue(Files.exists(tempDir.resolve("shared.jpg")));
+        assertEquals(1, service.getReleased());
+    }
+
+    @Test
+    @DisplayName("Upload ulang gambar yang sama tidak menghapus gambar menu")
+    void testSameImageReuploaded() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, true, false);
+        UUID menuId = UUID.randomUUID();
+        byte[] content = image("png");
+        service.submit(menuId, upload(content));
+        waitUntil(() -> service.getCompleted() == 1);
+        String filename = service.getStatus(menuId).getImageUrl();
+        when(menuItemService.getMenuImageUrl(menuId)).thenReturn(filename);
+
+        service.submit(menuId, upload(content));
+        waitUntil(() -> service.getCompleted() == 2);
+
+        assertTrue(Files.exists(tempDir.resolve(filename)));
+        assertEquals(1, service.getDeduplicated());
+        verify(menuItemService, never()).countMenuItemsByImageUrl(any());
+    }
+
+    @Test
+    @DisplayName("Release gambar: null, masih dipakai, tidak ada di disk, dan tidak dipakai")
+    void testReleaseImage() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, true, false);
+        Files.writeString(tempDir.resolve("used.jpg"), "gambar");
+        Files.writeString(tempDir.resolve("unused.jpg"), "gambar");
+        when(menuItemService.countMenuItemsByImageUrl("used.jpg")).thenReturn(1L);
+
+        assertFalse(service.releaseImage(null));
+        assertFalse(service.releaseImage(""));
+        assertFalse(service.releaseImage("used.jpg"));
+        assertFalse(service.releaseImage("missing.jpg"));
+        assertTrue(service.releaseImage("unused.jpg"));
+
+        assertTrue(Files.exists(tempDir.resolve("used.jpg")));
+        assertFalse(Files.exists(tempDir.resolve("unused.jpg")));
+        assertEquals(1, service.getReleased());
+        verify(menuItemService, times(3)).countMenuItemsByImageUrl(any());
+
+        // Reference count dicek di bawah lock nama file sampai transaksi commit
+        InOrder inOrder = inOrder(transactionManager, menuItemService);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(menuItemService).lockImageUrl("used.jpg");
+        inOrder.verify(menuItemService).countMenuItemsByImageUrl("used.jpg");
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Gagal menyimpan file ke folder upload menjadi status FAILED")
+    void testStoreFailed() throws Exception {
+        service = new ImageUploadService(fileStorageService, menuItemService, imageVariantService, transactionManager, 1, 10, 100, true, false);
+        UUID menuId = UUID.randomUUID();
+        service.submit(menuId, upload("bukan gambar".getBytes()));
+        waitUntil(() -> service.getFailures() == 1);
+        ImageUploadStatus status = service.getStatus(menuId);
+
+        // Folder upload berupa file biasa sehingga tidak bisa dibuat
+        Path staged = Files.write(tempDir.resolve("menu.upload"), image("png"));
+        fileStorageService.uploadDir = Files.writeString(tempDir.resolve("bukan-folder"), "x").toString();
+        service.process(menuId, status.getUploadId(), staged);
+
+        assertEquals(2, service.getFailures());
+        assertEquals(ImageUploadStatus.FAILED, service.getStatus(menuId).getState());
+        assertTrue(service.getStatus(menuId).getMessage().startsWith("Gagal mengupload gambar: "));
+        verify(menuItemService, never()).updateMenuImage(any(), any());
+    }
+}
@@ -0,0 +1,254 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import javax.imageio.ImageIO;
+
+import org.delcom.app.services.MenuImageService.MenuImage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+public class ImageVariantServiceTests {
+
+    private static final int[] WIDTHS = { 480, 160 };
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+    private MenuImageService menuImageService;
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setup() throws Exception {
+        fileStorageService = new FileStorageService();
+        fileStorageService.uploadDir = tempDir.toString();
+        menuImageService = new MenuImageService(fileStorageService, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private Path writeImage(String filename, int width, int height, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 7 + y * 13) & 0xffffff);
+            }
+        }
+        Path path = tempDir.resolve(filename);
+        ImageIO.write(image, format, path.toFile());
+        return path;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static int widthOf(MenuImage image) throws Exception {
+        return ImageIO.read(image.path().toFile()).getWidth();
+    }
+
+    @Test
+    @DisplayName("Varian JPEG dibuat di background untuk setiap lebar")
+    void testGenerateJpegVariants() throws Exception {
+        writeImage("menu_1.jpg", 1200, 600, "jpg");
+        service = new ImageVariantService(menuImageService, fileStorageService, WIDTHS, 1, 10);
+
+        service.generateAsync("menu_1.jpg");
+        waitUntil(() -> service.getGenerated() == 2);
+
+        MenuImage original = menuImageService.getImage("menu_1.jpg");
+        MenuImage small = service.getVariant(original, 100);
+        MenuImage medium = service.getVariant(original, 300);
+
+        assertEquals(160, widthOf(small));
+        assertEquals(480, widthOf(medium));
+        assertEquals(240, ImageIO.read(medium.path().toFile()).getHeight());
+        assertEquals(MediaType.IMAGE_JPEG, medium.contentType());
+        assertTrue(medium.path().getFileName().toString().startsWith(original.contentHash()));
+        assertTrue(medium.size() < original.size());
+        assertNotEquals(original.getETag(), medium.getETag());
+
+        // Lebih lebar dari semua varian: gambar asli
+        assertNull(service.getVariant(original, 2000));
+        assertEquals(0, service.getFailures());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Gambar transparan tetap PNG, foto PNG/GIF menjadi JPEG, gambar kecil tidak diperbesar")
+    void testPngAndGifVariants() throws Exception {
+        BufferedImage transparent = new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(transparent, "png", tempDir.resolve("menu_2.png").toFile());
+        writeImage("menu_3.gif", 100, 50, "gif");
+        writeImage("menu_6.png", 600, 300, "png");
+        service = new ImageVariantService(menuImageService, fileStorageService, WIDTHS, 1, 10);
+
+        MenuImage png = menuImageService.getImage("menu_2.png");
+        MenuImage gif = menuImageService.getImage("menu_3.gif");
+        MenuImage photo = menuImageService.getImage("menu_6.png");
+        service.generate(png);
+        service.generate(gif);
+        service.generate(photo);
+
+        MenuImage pngVariant = service.getVariant(png, 480);
+        assertEquals(MediaType.IMAGE_PNG, pngVariant.contentType());
+        assertEquals(300, widthOf(pngVariant));
+        assertTrue(pngVariant.path().toString().endsWith(".png"));
+        assertTrue(ImageIO.read(pngVariant.path().toFile()).getColorModel().hasAlpha());
+
+        MenuImage gifVariant = service.getVariant(gif, 160);
+        assertEquals(MediaType.IMAGE_JPEG, gifVariant.contentType());
+        assertEquals(100, widthOf(gifVariant));
+
+        MenuImage photoVariant = service.getVariant(photo, 480);
+        assertEquals(MediaType.IMAGE_JPEG, photoVariant.contentType());
+        assertTrue(photoVariant.path().toString().endsWith(".jpg"));
+        assertEquals(6, service.getGenerated());
+
+        // Varian yang sudah ada tidak dibuat ulang
+        service.generate(png);
+        assertEquals(6, service.getGenerated());
+    }
+
+    @Test
+    @DisplayName("Gambar lama tanpa varian: asli dikirim, varian dibuat di background")
+    void testMissingVariantScheduled() throws Exception {
+        writeImage("menu_4.jpg", 800, 400, "jpg");
+        service = new ImageVariantService(menuImageService, fileStorageService, WIDTHS, 1, 10);
+        MenuImage original = menuImageService.getImage("menu_4.jpg");
+
+        assertNull(service.getVariant(original, 480));
+        waitUntil(() -> service.getGenerated() == 2);
+
+        assertEquals(480, widthOf(service.getVariant(original, 480)));
+    }
+
+    @Test
+    @DisplayName("Gambar rusak dicatat gagal dan tidak dijadwalkan ulang")
+    void testFailedImageNotRescheduled() throws Exception {
+        Files.writeString(tempDir.resolve("menu_5.png"), "bukan gambar");
+        service = new ImageVariantService(menuImageService, fileStorageService, WIDTHS, 1, 10);
+
+        service.generateAsync("menu_5.png");
+        waitUntil(() -> service.getFailures() == 1);
+        waitUntil(() -> service.getQueueDepth() == 0);
+        Thread.sleep(50);
+
+        MenuImage original = menuImageService.getImage("menu_5.png");
+        assertNull(service.getVariant(original, 160));
+        Thread.sleep(50);
+        assertEquals(1, service.getFailures());
+        assertEquals(0, service.getGenerated());
+    }
+
+    @Test
+    @DisplayName("Daftar gambar gagal dibatasi, entry tertua dibuang")
+    void testFailedEntriesBounded() throws Exception {
+        Path garbage = Files.writeString(tempDir.resolve("rusak.png"), "bukan gambar");
+        service = new ImageVariantService(menuImageService, fileStorageService, WIDTHS, 1, 10);
+
+        MenuImage first = new MenuImage(garbage, 1, 1, "hash-0", MediaType.IMAGE_PNG);
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            service.generate(first);
+            for (int i = 1; i <= 10000; i++) {
+                service.generate(new MenuImage(garbage, 1, 1, "hash-" + i, MediaType.IMAGE_PNG));
+            }
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals(10001, service.getFailures());
+
+        // hash-0 sudah dibuang sehingga boleh dijadwalkan lagi
+        assertNull(service.getVariant(first, 160));
+        waitUntil(() -> service.getFailures() == 10002);
+    }
+
+    @Test
+    @DisplayName("File bukan gambar dan file yang hilang")
+    void testUnsupportedAndMissing() throws Exception {
+        Files.writeString(tempDir.resolve("data.bin"), "data");
+        service = new ImageVariantService(menuImageService, fileStorageService, WIDTHS, 1, 10);
+
+        MenuImage binary = menuImageService.getImage("data.bin");
+        assertNull(service.getVariant(binary, 160));
+        service.generateAsync("data.bin");
+        service.generateAsync("tidak-ada.jpg");
+
+        Thread.sleep(50);
+        assertEquals(0, service.getFailures());
+        assertEquals(0, service.getGenerated());
+    }
+
+    @Test
+    @DisplayName("Gambar yang sedang diproses tidak dijadwalkan dua kali, antrean penuh ditolak")
+    void testInFlightAndRejected() throws Exception {
+        writeImage("a.jpg", 10, 10, "jpg");
+        writeImage("b.jpg", 20, 10, "jpg");
+        writeImage("c.jpg", 30, 10, "jpg");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service = new ImageVariantService(menuImageService, fileStorageService, WIDTHS, 1, 1) {
+            @Override
+            void generate(MenuImage original) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.generate(original);
+            }
+        };
+
+        service.generateAsync("a.jpg");
+        started.await();
+        service.generateAsync("a.jpg"); // sedang diproses
+        service.generateAsync("b.jpg"); // masuk antrean
+        service.generateAsync("c.jpg"); // antrean penuh
+        assertEquals(1, service.getQueueDepth());
+        assertEquals(1, service.getRejected());
+
+        release.countDown();
+        waitUntil(() -> service.getGenerated() == 4);
+
+        // c dijadwalkan lagi saat variannya diminta
+        assertNull(service.getVariant(menuImageService.getImage("c.jpg"), 160));
+        waitUntil(() -> service.getGenerated() == 6);
+    }
+
+    @Test
+    @DisplayName("Resize bertahap menjaga rasio dan tinggi minimal 1px")
+    void testResize() {
+        BufferedImage wide = new BufferedImage(2000, 3, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage resized = ImageVariantService.resize(wide, 160, false);
+
+        assertEquals(160, resized.getWidth());
+        assertEquals(1, resized.getHeight());
+        assertEquals(BufferedImage.TYPE_INT_RGB, resized.getType());
+        assertEquals(BufferedImage.TYPE_INT_ARGB, ImageVariantService.resize(wide, 500, true).getType());
+    }
+}
@@ -0,0 +1,69 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LocalBlobStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setup() {
+        root = tempDir.resolve("blobs");
+        store = new LocalBlobStore(root.toString());
+    }
+
+    @Test
+    @DisplayName("Store, stream, load, exists dan delete")
+    void testRoundTrip() throws Exception {
+        Path source = Files.writeString(tempDir.resolve("source.jpg"), "gambar");
+
+        store.store("menu.jpg", source);
+        store.store("menu.jpg", source); // menimpa file yang ada
+
+        assertTrue(store.exists("menu.jpg"));
+        try (InputStream input = store.stream("menu.jpg")) {
+            assertEquals("gambar", new String(input.readAllBytes()));
+        }
+        Path target = tempDir.resolve("target.jpg");
+        assertTrue(store.load("menu.jpg", target));
+        assertEquals("gambar", Files.readString(target));
+
+        // Tidak ada file sementara yang tertinggal
+        try (var files = Files.list(root)) {
+            assertEquals(1, files.count());
+        }
+
+        assertTrue(store.delete("menu.jpg"));
+        assertFalse(store.delete("menu.jpg"));
+        assertFalse(store.exists("menu.jpg"));
+    }
+
+    @Test
+    @DisplayName("File yang tidak ada")
+    void testMissing() throws Exception {
+        assertNull(store.stream("tidak-ada.jpg"));
+        assertFalse(store.load("tidak-ada.jpg", tempDir.resolve("target.jpg")));
+        assertFalse(Files.exists(tempDir.resolve("target.jpg")));
+    }
+
+    @Test
+    @DisplayName("Key yang keluar dari folder ditolak")
+    void testInvalidKey() {
+        assertThrows(IllegalArgumentException.class, () -> store.exists("../rahasia.txt"));
+        assertThrows(IllegalArgumentException.class, () -> store.stream("a/b.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> store.delete(".."));
+    }
+}
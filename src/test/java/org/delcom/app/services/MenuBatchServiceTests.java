@@ -0,0 +1,238 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.dto.MenuBatchRequest;
+import org.delcom.app.dto.MenuBatchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+public class MenuBatchServiceTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID id1 = UUID.randomUUID();
+    private final UUID id2 = UUID.randomUUID();
+    private final UUID id3 = UUID.randomUUID();
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+    private final MenuStatService menuStatService = Mockito.mock(MenuStatService.class);
+    private final MenuCatalogCache menuCatalogCache = Mockito.mock(MenuCatalogCache.class);
+    private final ImageUploadService imageUploadService = Mockito.mock(ImageUploadService.class);
+    private final Connection connection = Mockito.mock(Connection.class);
+    private final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+    private final Array uuidArray = Mockito.mock(Array.class);
+
+    // Baris hasil RETURNING yang dikirim ke RowMapper
+    private final List<ResultSet> rows = new ArrayList<>();
+
+    private MenuBatchService service;
+
+    @BeforeEach
+    void setup() throws Exception {
+        service = new MenuBatchService(jdbcTemplate, transactionManager, menuStatService, menuCatalogCache,
+                imageUploadService, 3);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.createArrayOf(eq("uuid"), any())).thenReturn(uuidArray);
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            RowMapper<?> mapper = invocation.getArgument(1);
+            creator.createPreparedStatement(connection);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                mapped.add(mapper.mapRow(rows.get(i), i));
+            }
+            return mapped;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), anyRowMapper());
+    }
+
+    // any(RowMapper.class) adalah raw type; matcher bertipe memilih overload query yang sama
+    private static RowMapper<Object> anyRowMapper() {
+        return any();
+    }
+
+    private void addRow(UUID id, String category, String imageUrl) throws Exception {
+        ResultSet row = Mockito.mock(ResultSet.class);
+        when(row.getObject("id", UUID.class)).thenReturn(id);
+        when(row.getString("category")).thenReturn(category);
+        when(row.getString("image_url")).thenReturn(imageUrl);
+        rows.add(row);
+    }
+
+    private static MenuBatchRequest request(String action, UUID... ids) {
+        MenuBatchRequest request = new MenuBatchRequest();
+        request.setAction(action);
+        request.setIds(ids.length == 0 ? null : Arrays.asList(ids));
+        return request;
+    }
+
+    private static List<String> statuses(MenuBatchResult result) {
+        return result.getResults().stream().map(MenuBatchResult.ItemResult::status).toList();
+    }
+
+    @Test
+    @DisplayName("availability - satu UPDATE untuk semua ID, status per ID sesuai urutan request")
+    void testAvailability() throws Exception {
+        addRow(id3, "Beverage", null);
+        addRow(id1, "Dessert", null);
+        MenuBatchRequest request = request(MenuBatchService.ACTION_AVAILABILITY, id1, id2, id1, id3);
+        request.setIsAvailable(false);
+
+        MenuBatchResult result = service.applyBatch(userId, request);
+
+        assertEquals(MenuBatchService.ACTION_AVAILABILITY, result.getAction());
+        assertEquals(2, result.getAffected());
+        assertEquals(List.of(id1, id2, id3),
+                result.getResults().stream().map(MenuBatchResult.ItemResult::id).toList());
+        assertEquals(List.of("updated", "not_found", "updated"), statuses(result));
+
+        verify(connection).prepareStatement(MenuBatchService.AVAILABILITY_SQL);
+        verify(statement).setObject(1, false);
+        verify(statement).setObject(2, userId);
+        verify(connection).createArrayOf("uuid", new Object[] { id1, id2, id3 });
+        verify(statement).setArray(3, uuidArray);
+        verify(menuStatService).rebuildCategories(userId, Set.of("Beverage", "Dessert"));
+        verify(transactionManager).commit(any());
+        verify(menuCatalogCache).invalidate(userId);
+        verifyNoInteractions(imageUploadService);
+    }
+
+    @Test
+    @DisplayName("price - persentase per kategori, hasil mengikuti baris yang diubah")
+    void testPriceByCategory() throws Exception {
+        addRow(id2, "Dessert", null);
+        addRow(id1, "Dessert", null);
+        MenuBatchRequest request = request(MenuBatchService.ACTION_PRICE);
+        request.setCategory("Dessert");
+        request.setPricePercent(10.0);
+
+        MenuBatchResult result = service.applyBatch(userId, request);
+
+        assertEquals(2, result.getAffected());
+        assertEquals(id2, result.getResults().get(0).id());
+        assertEquals(List.of("updated", "updated"), statuses(result));
+        verify(connection).prepareStatement(MenuBatchService.PRICE_BY_CATEGORY_SQL);
+        verify(statement).setObject(1, 1.1);
+        verify(statement).setObject(2, userId);
+        verify(statement).setObject(3, "Dessert");
+        verify(menuStatService).rebuildCategories(userId, Set.of("Dessert"));
+    }
+
+    @Test
+    @DisplayName("price - persentase negatif per daftar ID")
+    void testPriceByIds() throws Exception {
+        addRow(id1, "Main Course", null);
+        MenuBatchRequest request = request(MenuBatchService.ACTION_PRICE, id1);
+        request.setCategory("");
+        request.setPricePercent(-50.0);
+
+        MenuBatchResult result = service.applyBatch(userId, request);
+
+        assertEquals(List.of("updated"), statuses(result));
+        verify(connection).prepareStatement(MenuBatchService.PRICE_BY_ID_SQL);
+        verify(statement).setObject(1, 0.5);
+        verify(statement).setArray(3, uuidArray);
+    }
+
+    @Test
+    @DisplayName("delete - gambar dilepas setelah transaksi, sekali per file")
+    void testDelete() throws Exception {
+        addRow(id1, "Dessert", "a.jpg");
+        addRow(id2, "Dessert", "a.jpg");
+        addRow(id3, "Beverage", null);
+
+        MenuBatchResult result = service.applyBatch(userId,
+                request(MenuBatchService.ACTION_DELETE, id1, id2, id3));
+
+        assertEquals(3, result.getAffected());
+        assertEquals(List.of("deleted", "deleted", "deleted"), statuses(result));
+        verify(connection).prepareStatement(MenuBatchService.DELETE_SQL);
+        verify(statement).setObject(1, userId);
+        verify(statement).setArray(2, uuidArray);
+        verify(menuStatService).rebuildCategories(userId, Set.of("Dessert", "Beverage"));
+        var inOrder = inOrder(transactionManager, imageUploadService);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(imageUploadService, times(1)).releaseImage("a.jpg");
+        verifyNoMoreInteractions(imageUploadService);
+    }
+
+    @Test
+    @DisplayName("delete - ID tidak ditemukan, cache tidak diinvalidasi")
+    void testDeleteNotFound() {
+        MenuBatchResult result = service.applyBatch(userId, request(MenuBatchService.ACTION_DELETE, id1));
+
+        assertEquals(0, result.getAffected());
+        assertEquals(List.of("not_found"), statuses(result));
+        verify(menuStatService).rebuildCategories(userId, Set.of());
+        verifyNoInteractions(menuCatalogCache, imageUploadService);
+    }
+
+    @Test
+    @DisplayName("Error database membatalkan seluruh batch")
+    void testDatabaseError() {
+        doThrow(new DataIntegrityViolationException("gagal")).when(jdbcTemplate)
+                .query(any(PreparedStatementCreator.class), anyRowMapper());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> service.applyBatch(userId, request(MenuBatchService.ACTION_DELETE, id1)));
+
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(menuStatService, menuCatalogCache, imageUploadService);
+    }
+
+    @Test
+    @DisplayName("Request tidak valid ditolak sebelum query")
+    void testInvalidRequests() {
+        assertInvalid("Aksi batch harus availability, price, atau delete", request(null, id1));
+        assertInvalid("Aksi batch harus availability, price, atau delete", request("archive", id1));
+        assertInvalid("Status ketersediaan tidak boleh kosong", request(MenuBatchService.ACTION_AVAILABILITY, id1));
+
+        MenuBatchRequest price = request(MenuBatchService.ACTION_PRICE, id1);
+        assertInvalid("Persentase harga harus lebih dari -100", price);
+        price.setPricePercent(Double.NaN);
+        assertInvalid("Persentase harga harus lebih dari -100", price);
+        price.setPricePercent(-100.0);
+        assertInvalid("Persentase harga harus lebih dari -100", price);
+
+        MenuBatchRequest byCategory = request(MenuBatchService.ACTION_DELETE);
+        byCategory.setCategory("Dessert");
+        assertInvalid("Kategori hanya bisa dipakai untuk perubahan harga", byCategory);
+
+        assertInvalid("Daftar ID menu tidak boleh kosong", request(MenuBatchService.ACTION_DELETE));
+        MenuBatchRequest empty = request(MenuBatchService.ACTION_DELETE);
+        empty.setIds(List.of());
+        assertInvalid("Daftar ID menu tidak boleh kosong", empty);
+        assertInvalid("Maksimal 3 menu per batch",
+                request(MenuBatchService.ACTION_DELETE, id1, id2, id3, UUID.randomUUID()));
+        assertInvalid("ID menu tidak boleh kosong", request(MenuBatchService.ACTION_DELETE, id1, null));
+
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    private void assertInvalid(String message, MenuBatchRequest request) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.applyBatch(userId, request));
+        assertEquals(message, error.getMessage());
+    }
+}
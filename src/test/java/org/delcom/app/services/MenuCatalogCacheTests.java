@@ -0,0 +1,232 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.dto.MenuItemPage;
+import org.delcom.app.dto.MenuStats;
+import org.delcom.app.entities.MenuItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class MenuCatalogCacheTests {
+
+    private static List<Integer> rows(int size) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    @DisplayName("Hit dan miss dihitung, loader hanya dipanggil sekali")
+    void testHitAndMiss() {
+        MenuCatalogCache cache = new MenuCatalogCache(100);
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Integer> first = cache.get(userId, "all", () -> {
+            loads.incrementAndGet();
+            return rows(3);
+        });
+        List<Integer> second = cache.get(userId, "all", () -> {
+            loads.incrementAndGet();
+            return rows(3);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(1, cache.getTenantCount());
+        assertEquals(4, cache.getWeight()); // 1 overhead + 3 baris
+        assertEquals(100, cache.getMaxWeight());
+    }
+
+    @Test
+    @DisplayName("Bobot dihitung dari jumlah baris")
+    void testWeight() {
+        MenuCatalogCache cache = new MenuCatalogCache(100);
+        UUID userId = UUID.randomUUID();
+        List<MenuItem> items = List.of(new MenuItem(), new MenuItem());
+
+        cache.get(userId, "page", () -> new MenuItemPage(items, null));
+        cache.get(userId, "emptyPage", () -> new MenuItemPage(new ArrayList<>(), null));
+        cache.get(userId, "empty", () -> new ArrayList<>());
+        cache.get(userId, "count", () -> 7L);
+        cache.get(userId, "stats", () -> new MenuStats(List.of(
+                new CategoryStats("Dessert", 1L, 1L, 1.0, 1.0, 5, 15),
+                new CategoryStats("Beverage", 1L, 1L, 1.0, 1.0, 5, 15))));
+        cache.get(userId, "emptyStats", () -> new MenuStats(new ArrayList<>()));
+
+        assertEquals(1 + 2 + 1 + 1 + 1 + 2 + 1, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("Nilai null tidak disimpan")
+    void testNullNotCached() {
+        MenuCatalogCache cache = new MenuCatalogCache(100);
+        UUID userId = UUID.randomUUID();
+
+        assertNull(cache.get(userId, "page", () -> null));
+        assertNull(cache.get(userId, "page", () -> null));
+
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Nilai yang melebihi kapasitas tidak disimpan")
+    void testOversizedNotCached() {
+        MenuCatalogCache cache = new MenuCatalogCache(5);
+        UUID userId = UUID.randomUUID();
+
+        assertEquals(10, cache.get(userId, "all", () -> rows(10)).size());
+
+        assertEquals(1, cache.getWeight());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("User yang paling lama tidak dipakai dievict lebih dulu")
+    void testLruEviction() {
+        MenuCatalogCache cache = new MenuCatalogCache(12);
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        UUID userC = UUID.randomUUID();
+
+        cache.get(userA, "all", () -> rows(4));
+        cache.get(userB, "all", () -> rows(4));
+        cache.get(userA, "all", () -> rows(4)); // A menjadi yang terbaru
+        cache.get(userC, "all", () -> rows(4));
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getTenantCount());
+        assertEquals(10, cache.getWeight());
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(userA, "all", () -> {
+            loads.incrementAndGet();
+            return rows(4);
+        });
+        cache.get(userB, "all", () -> {
+            loads.incrementAndGet();
+            return rows(4);
+        });
+        assertEquals(1, loads.get()); // hanya B yang dimuat ulang
+    }
+
+    @Test
+    @DisplayName("Invalidasi menghapus seluruh data milik user")
+    void testInvalidate() {
+        MenuCatalogCache cache = new MenuCatalogCache(100);
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+
+        cache.get(userA, "all", () -> rows(2));
+        cache.get(userA, "available", () -> rows(1));
+        cache.get(userB, "all", () -> rows(2));
+
+        cache.invalidate(userA);
+        cache.invalidate(UUID.randomUUID()); // user tanpa cache
+
+        assertEquals(1, cache.getTenantCount());
+        assertEquals(3, cache.getWeight());
+
+        cache.clear();
+        assertEquals(0, cache.getTenantCount());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("Hasil query tidak disimpan jika diinvalidasi selama query berjalan")
+    void testInvalidateDuringLoad() {
+        MenuCatalogCache cache = new MenuCatalogCache(100);
+        UUID userId = UUID.randomUUID();
+
+        List<Integer> stale = cache.get(userId, "all", () -> {
+            cache.invalidate(userId);
+            return rows(2);
+        });
+
+        assertEquals(2, stale.size());
+        assertEquals(0, cache.getTenantCount());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("Pemuatan bersamaan untuk key yang sama hanya disimpan sekali")
+    void testConcurrentLoadSameKey() {
+        MenuCatalogCache cache = new MenuCatalogCache(100);
+        UUID userId = UUID.randomUUID();
+
+        cache.get(userId, "all", () -> {
+            cache.get(userId, "all", () -> rows(2));
+            return rows(2);
+        });
+
+        assertEquals(3, cache.getWeight());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Kapasitas nol menonaktifkan cache")
+    void testZeroCapacity() {
+        MenuCatalogCache cache = new MenuCatalogCache(0);
+        UUID userId = UUID.randomUUID();
+
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(userId, "all", () -> {
+            loads.incrementAndGet();
+            return rows(1);
+        });
+        List<Integer> second = cache.get(userId, "all", () -> {
+            loads.incrementAndGet();
+            return rows(1);
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(1, second.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(0, cache.getTenantCount());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("Invalidasi di dalam transaksi diulang setelah transaksi selesai")
+    void testInvalidateInTransaction() {
+        MenuCatalogCache cache = new MenuCatalogCache(100);
+        UUID userId = UUID.randomUUID();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.get(userId, "all", () -> rows(2));
+            cache.invalidate(userId);
+            assertEquals(0, cache.getTenantCount());
+
+            // Pembaca lain memuat data sebelum transaksi commit
+            cache.get(userId, "all", () -> rows(2));
+            assertEquals(1, cache.getTenantCount());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            assertEquals(0, cache.getTenantCount());
+            assertEquals(0, cache.getWeight());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
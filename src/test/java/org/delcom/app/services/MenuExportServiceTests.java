@@ -0,0 +1,190 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import tools.jackson.databind.json.JsonMapper;
+
+public class MenuExportServiceTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 1, 3, 3, 4, 5);
+
+    private final UUID userId = UUID.randomUUID();
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+    private final Connection connection = Mockito.mock(Connection.class);
+    private final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    // Baris hasil query yang dikirim ke RowCallbackHandler
+    private final List<ResultSet> rows = new ArrayList<>();
+
+    private MenuExportService service;
+
+    @BeforeEach
+    void setup() throws Exception {
+        service = new MenuExportService(jdbcTemplate, transactionManager, jsonMapper, 500, 1, Duration.ofMinutes(5));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(connection.prepareStatement(MenuExportService.SELECT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            creator.createPreparedStatement(connection);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private void addRow(String id, String name, String description, Integer calories, String imageUrl)
+            throws Exception {
+        ResultSet row = Mockito.mock(ResultSet.class);
+        when(row.getString("id")).thenReturn(id);
+        when(row.getString("name")).thenReturn(name);
+        when(row.getString("category")).thenReturn("Main Course");
+        when(row.getDouble("price")).thenReturn(25000.0);
+        when(row.getString("description")).thenReturn(description);
+        when(row.getBoolean("is_available")).thenReturn(true);
+        when(row.getInt("preparation_time")).thenReturn(15);
+        when(row.getInt("spicy_level")).thenReturn(2);
+        when(row.getObject("calories", Integer.class)).thenReturn(calories);
+        when(row.getString("image_url")).thenReturn(imageUrl);
+        when(row.getObject("created_at", LocalDateTime.class)).thenReturn(CREATED);
+        when(row.getObject("updated_at", LocalDateTime.class)).thenReturn(UPDATED);
+        rows.add(row);
+    }
+
+    @Test
+    @DisplayName("CSV - header sama dengan import, kolom khusus dikutip")
+    void testExportCsv() throws Exception {
+        addRow("id-1", "Nasi Goreng", "Pedas, \"spesial\"\nenak", 300, "menu.jpg");
+        addRow("id-2", "Es Teh", null, null, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(2, service.exportMenuItems(userId, MenuImportService.FORMAT_CSV, output));
+
+        assertEquals(MenuExportService.CSV_HEADER
+                + "id-1,Nasi Goreng,Main Course,25000.0,\"Pedas, \"\"spesial\"\"\nenak\",true,15,2,300,menu.jpg,"
+                + "2025-01-02T03:04:05,2025-01-03T03:04:05\n"
+                + "id-2,Es Teh,Main Course,25000.0,,true,15,2,,,2025-01-02T03:04:05,2025-01-03T03:04:05\n",
+                output.toString(StandardCharsets.UTF_8));
+
+        // Cursor forward-only dengan fetch size, di dalam transaksi read-only
+        verify(statement).setFetchSize(500);
+        verify(statement).setObject(1, userId);
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getTimeout() == 300));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("NDJSON - satu objek JSON per baris")
+    @SuppressWarnings("unchecked")
+    void testExportNdjson() throws Exception {
+        addRow("id-1", "Nasi Goreng", "Pedas", 300, "menu.jpg");
+        addRow("id-2", "Es Teh", null, null, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(2, service.exportMenuItems(userId, MenuImportService.FORMAT_NDJSON, output));
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        Map<String, Object> first = jsonMapper.readValue(lines[0], Map.class);
+        assertEquals("id-1", first.get("id"));
+        assertEquals("Nasi Goreng", first.get("name"));
+        assertEquals(25000.0, first.get("price"));
+        assertEquals(true, first.get("isAvailable"));
+        assertEquals(15, first.get("preparationTime"));
+        assertEquals(300, first.get("calories"));
+        assertEquals("menu.jpg", first.get("imageUrl"));
+        assertEquals("2025-01-02T03:04:05", first.get("createdAt"));
+        Map<String, Object> second = jsonMapper.readValue(lines[1], Map.class);
+        assertNull(second.get("calories"));
+        assertNull(second.get("description"));
+    }
+
+    @Test
+    @DisplayName("Output yang gagal ditulis menghentikan export dengan IOException")
+    void testWriteFailure() throws Exception {
+        addRow("id-1", "Nasi Goreng", "x".repeat(100 * 1024), 300, null);
+        addRow("id-2", "Es Teh", null, null, null);
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("koneksi terputus");
+            }
+        };
+
+        IOException error = assertThrows(IOException.class,
+                () -> service.exportMenuItems(userId, MenuImportService.FORMAT_CSV, broken));
+        assertEquals("koneksi terputus", error.getMessage());
+        verify(rows.get(1), never()).getString("id");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Export bersamaan melebihi batas ditolak sebelum menulis, slot dilepas setelah selesai")
+    void testMaxConcurrent() throws Exception {
+        ByteArrayOutputStream nested = new ByteArrayOutputStream();
+        ResultSet row = Mockito.mock(ResultSet.class);
+        when(row.getString("id")).thenAnswer(invocation -> {
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> service.exportMenuItems(userId, MenuImportService.FORMAT_CSV, nested));
+            assertEquals("Terlalu banyak export yang sedang berjalan, coba lagi nanti", error.getMessage());
+            return "id-1";
+        });
+        rows.add(row);
+
+        assertEquals(1, service.exportMenuItems(userId, MenuImportService.FORMAT_CSV, new ByteArrayOutputStream()));
+        assertEquals(0, nested.size());
+
+        rows.clear();
+        assertEquals(0, service.exportMenuItems(userId, MenuImportService.FORMAT_CSV, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    @DisplayName("Export yang melebihi batas waktu dihentikan dengan IOException")
+    void testTimeout() throws Exception {
+        service = new MenuExportService(jdbcTemplate, transactionManager, jsonMapper, 500, 1, Duration.ZERO);
+        addRow("id-1", "Nasi Goreng", null, null, null);
+
+        IOException error = assertThrows(IOException.class,
+                () -> service.exportMenuItems(userId, MenuImportService.FORMAT_CSV, new ByteArrayOutputStream()));
+        assertEquals("Export melebihi batas waktu PT0S", error.getMessage());
+        verify(rows.get(0), never()).getString("id");
+        verify(transactionManager).getTransaction(argThat(definition -> definition.getTimeout() == 1));
+        verify(transactionManager).rollback(any());
+
+        // Slot dilepas walaupun export gagal
+        rows.clear();
+        assertEquals(0, service.exportMenuItems(userId, MenuImportService.FORMAT_CSV, new ByteArrayOutputStream()));
+    }
+}
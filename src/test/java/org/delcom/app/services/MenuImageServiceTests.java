@@ -0,0 +1,118 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.delcom.app.services.MenuImageService.MenuImage;
+import org.delcom.app.utils.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+public class MenuImageServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setup() {
+        fileStorageService = new FileStorageService();
+        fileStorageService.uploadDir = tempDir.resolve("uploads").toString();
+    }
+
+    private Path writeImage(String filename, String content) throws Exception {
+        Path dir = tempDir.resolve("uploads");
+        Files.createDirectories(dir);
+        return Files.writeString(dir.resolve(filename), content);
+    }
+
+    @Test
+    @DisplayName("Metadata gambar: ETag dari hash isi, versi, tipe konten")
+    void testGetImage() throws Exception {
+        Path path = writeImage("menu_1.png", "gambar");
+        MenuImageService service = new MenuImageService(fileStorageService, 100);
+
+        MenuImage image = service.getImage("menu_1.png");
+
+        String hash = HashUtil.sha256Hex(path);
+        assertEquals(path.toAbsolutePath().normalize(), image.path());
+        assertEquals(6, image.size());
+        assertEquals(Files.getLastModifiedTime(path).toMillis(), image.lastModified());
+        assertEquals(hash, image.contentHash());
+        assertEquals("\"" + hash + "\"", image.getETag());
+        assertEquals(hash.substring(0, 16), image.getVersion());
+        assertEquals(MediaType.IMAGE_PNG, image.contentType());
+        assertEquals(image.getVersion(), service.getVersion("menu_1.png"));
+    }
+
+    @Test
+    @DisplayName("Ekstensi tidak dikenal dikirim sebagai octet-stream")
+    void testUnknownContentType() throws Exception {
+        writeImage("menu_2", "gambar");
+        MenuImageService service = new MenuImageService(fileStorageService, 100);
+
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM, service.getImage("menu_2").contentType());
+    }
+
+    @Test
+    @DisplayName("Hash dipakai ulang selama file tidak berubah")
+    void testCachedUntilFileChanges() throws Exception {
+        Path path = writeImage("menu_3.jpg", "versi-1");
+        MenuImageService service = new MenuImageService(fileStorageService, 100);
+
+        MenuImage first = service.getImage("menu_3.jpg");
+        assertSame(first, service.getImage("menu_3.jpg"));
+
+        // Ukuran berubah
+        Files.writeString(path, "versi-baru");
+        MenuImage second = service.getImage("menu_3.jpg");
+        assertNotEquals(first.contentHash(), second.contentHash());
+
+        // Ukuran sama, waktu modifikasi berubah
+        Files.writeString(path, "versi-lain");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(second.lastModified() + 5000));
+        MenuImage third = service.getImage("menu_3.jpg");
+        assertNotEquals(second.contentHash(), third.contentHash());
+        assertEquals(HashUtil.sha256Hex(path), third.contentHash());
+    }
+
+    @Test
+    @DisplayName("Cache metadata dibatasi jumlah entry")
+    void testCacheBounded() throws Exception {
+        writeImage("a.png", "a");
+        writeImage("b.png", "b");
+        MenuImageService service = new MenuImageService(fileStorageService, 1);
+
+        MenuImage a = service.getImage("a.png");
+        service.getImage("b.png");
+
+        // a sudah dibuang dari cache, dihitung ulang
+        MenuImage again = service.getImage("a.png");
+        assertNotSame(a, again);
+        assertEquals(a, again);
+    }
+
+    @Test
+    @DisplayName("Nama file tidak valid atau file tidak ada")
+    void testInvalidOrMissing() throws Exception {
+        writeImage("menu_4.png", "gambar");
+        Files.writeString(tempDir.resolve("rahasia.txt"), "rahasia");
+        Files.createDirectories(tempDir.resolve("uploads").resolve("folder"));
+        MenuImageService service = new MenuImageService(fileStorageService, 100);
+
+        assertNull(service.getImage(null));
+        assertNull(service.getImage(""));
+        assertNull(service.getImage("../rahasia.txt"));
+        assertNull(service.getImage("."));
+        assertNull(service.getImage("folder"));
+        assertNull(service.getImage("tidak-ada.png"));
+        assertNull(service.getVersion("tidak-ada.png"));
+    }
+}
@@ -0,0 +1,256 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.MenuImportResult;
+import org.delcom.app.entities.MenuItem;
+import org.delcom.app.utils.CsvUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import tools.jackson.databind.json.JsonMapper;
+
+public class MenuImportServiceTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+    private final MenuStatService menuStatService = Mockito.mock(MenuStatService.class);
+    private final MenuCatalogCache menuCatalogCache = Mockito.mock(MenuCatalogCache.class);
+
+    // Menu yang "tersimpan" per batch insert
+    private final List<List<MenuItem>> batches = new ArrayList<>();
+    private final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(eq(MenuImportService.INSERT_SQL), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    Collection<MenuItem> items = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<MenuItem> setter = invocation.getArgument(3);
+                    for (MenuItem item : items) {
+                        setter.setValues(statement, item);
+                    }
+                    batches.add(new ArrayList<>(items));
+                    return new int[0][];
+                });
+    }
+
+    private MenuImportService service(int batchSize, int maxRows, int maxErrors) {
+        return new MenuImportService(jdbcTemplate, transactionManager, menuStatService, menuCatalogCache,
+                JsonMapper.builder().build(), batchSize, maxRows, maxErrors);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Long> rows(MenuImportResult result) {
+        return result.getErrors().stream().map(MenuImportResult.RowError::row).toList();
+    }
+
+    @Test
+    @DisplayName("CSV - header fleksibel, kolom berkutip, disimpan per chunk")
+    void testImportCsv() throws Exception {
+        String csv = "\uFEFFName,Category,Price,Description,Preparation Time,spicy_level,calories,is_available\r\n"
+                + "Nasi Goreng,Main Course,25000,\"Pedas, \"\"spesial\"\"\",15,2,300,true\r\n"
+                + "Es Teh,Beverage,5000,\"Manis\ndingin\",3,,,0\n"
+                + "\n"
+                + "Puding,Dessert,8000,,10,0,,ya\n"
+                + "Sup,Appetizer,12000,,7,1,120,\n"
+                + "Kopi,Beverage,9000,,5";
+
+        MenuImportResult result = service(2, 100, 100).importMenuItems(userId, MenuImportService.FORMAT_CSV,
+                input(csv));
+
+        assertEquals(5, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(3, batches.size());
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+
+        MenuItem first = batches.get(0).get(0);
+        assertEquals(userId, first.getUserId());
+        assertNotNull(first.getId());
+        assertEquals("Pedas, \"spesial\"", first.getDescription());
+        assertEquals(2, first.getSpicyLevel());
+        assertEquals(300, first.getCalories());
+        assertTrue(first.getIsAvailable());
+
+        MenuItem second = batches.get(0).get(1);
+        assertEquals("Manis\ndingin", second.getDescription());
+        assertEquals(0, second.getSpicyLevel());
+        assertNull(second.getCalories());
+        assertFalse(second.getIsAvailable());
+        assertTrue(batches.get(1).get(1).getIsAvailable()); // kolom kosong = tersedia
+
+        verify(statement).setString(3, "Nasi Goreng");
+        verify(statement).setDouble(5, 25000.0);
+        verify(statement, times(3)).setObject(10, null, Types.INTEGER);
+        verify(statement, times(5)).setObject(eq(11), any(LocalDateTime.class));
+        verify(menuStatService, times(3)).recordAddedAll(eq(userId), any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(menuCatalogCache, times(1)).invalidate(userId);
+    }
+
+    @Test
+    @DisplayName("CSV - baris tidak valid dilaporkan dengan nomor barisnya")
+    void testImportCsvInvalidRows() {
+        String csv = "name,category,price,preparation_time,is_available\n"
+                + "Nasi,Main,abc,10,true\n"     // 2
+                + "Nasi,Main,1000,x,true\n"     // 3
+                + "Nasi,Main,1000,10,mungkin\n" // 4
+                + ",Main,1000,10,true\n"        // 5
+                + "Nasi,Main\n"                 // 6
+                + "Nasi,Main,1000,10,tidak\n"   // 7 (valid)
+                + "Nasi\n";                     // 8
+
+        MenuImportResult result = service(100, 100, 100).importMenuItems(userId, MenuImportService.FORMAT_CSV,
+                input(csv));
+
+        assertEquals(1, result.getImported());
+        assertEquals(6, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 8L), rows(result));
+        assertEquals("Harga tidak valid: abc", result.getErrors().get(0).message());
+        assertEquals("Waktu persiapan tidak valid: x", result.getErrors().get(1).message());
+        assertEquals("Status ketersediaan tidak valid: mungkin", result.getErrors().get(2).message());
+        assertEquals("Nama menu tidak boleh kosong", result.getErrors().get(3).message());
+        assertEquals("Harga harus lebih dari 0", result.getErrors().get(4).message());
+        assertEquals("Kategori tidak boleh kosong", result.getErrors().get(5).message());
+        assertFalse(batches.get(0).get(0).getIsAvailable());
+    }
+
+    @Test
+    @DisplayName("CSV - header tanpa kolom wajib ditolak, file kosong tidak mengimport apa pun")
+    void testImportCsvHeader() {
+        MenuImportService service = service(100, 100, 100);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.importMenuItems(userId, MenuImportService.FORMAT_CSV, input("name,category,price\n")));
+        assertEquals("Kolom CSV wajib tidak ada: preparationtime", error.getMessage());
+
+        MenuImportResult result = service.importMenuItems(userId, MenuImportService.FORMAT_CSV, input(""));
+        assertEquals(0, result.getImported());
+        assertEquals(0, result.getFailed());
+        verifyNoInteractions(jdbcTemplate, menuCatalogCache);
+    }
+
+    @Test
+    @DisplayName("NDJSON - satu objek per baris, JSON tidak valid dilaporkan")
+    void testImportNdjson() {
+        String ndjson = "{\"name\":\"Nasi\",\"category\":\"Main\",\"price\":1000,\"preparationTime\":10}\r\n"
+                + "\n"
+                + "{bukan json\r"
+                + "null\n"
+                + "{\"name\":\"Es\",\"category\":\"Beverage\",\"price\":500,\"preparationTime\":2,"
+                + "\"isAvailable\":false,\"spicyLevel\":0,\"calories\":90}\n"
+                + "{\"name\":\"Es\",\"category\":\"Beverage\",\"price\":0,\"preparationTime\":2}";
+
+        MenuImportResult result = service(100, 100, 100).importMenuItems(userId, MenuImportService.FORMAT_NDJSON,
+                input(ndjson));
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(3L, 4L, 6L), rows(result));
+        assertEquals("JSON tidak valid", result.getErrors().get(0).message());
+        assertEquals("JSON tidak valid", result.getErrors().get(1).message());
+        assertEquals("Harga harus lebih dari 0", result.getErrors().get(2).message());
+        assertEquals(1, batches.size());
+        assertTrue(batches.get(0).get(0).getIsAvailable());
+        assertFalse(batches.get(0).get(1).getIsAvailable());
+        assertEquals(90, batches.get(0).get(1).getCalories());
+    }
+
+    @Test
+    @DisplayName("Batas jumlah baris dan jumlah error yang dilaporkan")
+    void testLimits() {
+        String ndjson = "{}\n{}\n{}\n{}\n";
+
+        MenuImportResult result = service(100, 3, 2).importMenuItems(userId, MenuImportService.FORMAT_NDJSON,
+                input(ndjson));
+        assertEquals(0, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.isErrorsTruncated());
+
+        String csv = "name,category,price,preparationTime\nA,B,1,1\nA,B,1,1\nA,B,1,1\n";
+        result = service(100, 2, 100).importMenuItems(userId, MenuImportService.FORMAT_CSV, input(csv));
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(4L), rows(result));
+        assertEquals("Maksimal 2 baris per import, sisa file tidak diproses", result.getErrors().get(0).message());
+    }
+
+    @Test
+    @DisplayName("Chunk yang gagal disimpan dilaporkan per baris, chunk lain tetap tersimpan")
+    @SuppressWarnings("unchecked")
+    void testChunkFailure() {
+        when(jdbcTemplate.batchUpdate(eq(MenuImportService.INSERT_SQL), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[0][])
+                .thenThrow(new DataIntegrityViolationException("duplikat"));
+        String csv = "name,category,price,preparationTime\nA,B,1,1\nA,B,1,1\nA,B,1,1\n";
+
+        MenuImportResult result = service(2, 100, 100).importMenuItems(userId, MenuImportService.FORMAT_CSV,
+                input(csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(4L), rows(result));
+        assertEquals("Gagal menyimpan menu: duplikat", result.getErrors().get(0).message());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(menuCatalogCache, times(1)).invalidate(userId);
+    }
+
+    @Test
+    @DisplayName("Stream yang gagal dibaca: baris valid sebelumnya tetap disimpan")
+    void testReadFailure() {
+        InputStream broken = new SequenceInputStream(input("{\"name\":\"Nasi\",\"category\":\"Main\",\"price\":1,"
+                + "\"preparationTime\":1}\n"), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("koneksi terputus");
+                    }
+                });
+
+        MenuImportResult result = service(100, 100, 100).importMenuItems(userId, MenuImportService.FORMAT_NDJSON,
+                broken);
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(2L), rows(result));
+        assertEquals("Gagal membaca file: koneksi terputus", result.getErrors().get(0).message());
+
+        String csv = "name,category,price,preparationTime\n\"" + "x".repeat(CsvUtil.MAX_RECORD_LENGTH);
+        result = service(100, 100, 100).importMenuItems(userId, MenuImportService.FORMAT_CSV, input(csv));
+        assertEquals(List.of(2L), rows(result));
+        assertTrue(result.getErrors().get(0).message().startsWith("Gagal membaca file: Baris CSV lebih dari"));
+
+        String ndjson = "{\"name\":\"Nasi\",\"category\":\"Main\",\"price\":1,\"preparationTime\":1}\n"
+                + "x".repeat(CsvUtil.MAX_RECORD_LENGTH + 1);
+        result = service(100, 100, 100).importMenuItems(userId, MenuImportService.FORMAT_NDJSON, input(ndjson));
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(2L), rows(result));
+        assertTrue(result.getErrors().get(0).message().startsWith("Gagal membaca file: Baris NDJSON lebih dari"));
+    }
+}
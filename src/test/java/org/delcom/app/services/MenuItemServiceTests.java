@@ -3,18 +3,29 @@ package org.delcom.app.services;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.dto.MenuItemPage;
+import org.delcom.app.dto.MenuStats;
 import org.delcom.app.entities.MenuItem;
 import org.delcom.app.repositories.MenuItemRepository;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 public class MenuItemServiceTests {
 
     private final MenuItemRepository menuItemRepository = Mockito.mock(MenuItemRepository.class);
-    private final MenuItemService menuItemService = new MenuItemService(menuItemRepository);
+    private final MenuCatalogCache menuCatalogCache = new MenuCatalogCache(1000);
+    private final MenuStatService menuStatService = Mockito.mock(MenuStatService.class);
+    private final MenuItemService menuItemService =
+            new MenuItemService(menuItemRepository, menuCatalogCache, menuStatService);
 
     // ============================
     // CREATE
@@ -37,6 +48,7 @@ public class MenuItemServiceTests {
         assertNotNull(result);
         assertNotNull(result.getId());
         verify(menuItemRepository, times(1)).save(any(MenuItem.class));
+        verify(menuStatService, times(1)).recordAdded(savedItem);
     }
 
     @Test
@@ -59,146 +71,197 @@ public class MenuItemServiceTests {
     }
 
     // ============================
-    // READ – getAllMenuItems
+    // READ – getMenuItemsPage
     // ============================
+    private List<MenuItem> buildMenuItems(int count) {
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MenuItem item = new MenuItem();
+            item.setId(UUID.randomUUID());
+            item.setName("Menu " + i);
+            ReflectionTestUtils.setField(item, "createdAt", LocalDateTime.of(2025, 1, 1, 10, 0).minusMinutes(i));
+            items.add(item);
+        }
+        return items;
+    }
+
     @Test
-    @DisplayName("getAllMenuItems - tanpa search (null)")
-    void testGetAllMenuItems_NoSearch() {
+    @DisplayName("getMenuItemsPage - halaman pertama tanpa halaman berikutnya")
+    void testGetMenuItemsPage_FirstPageLast() {
         UUID userId = UUID.randomUUID();
-        List<MenuItem> mockList = new ArrayList<>();
+        List<MenuItem> items = buildMenuItems(3);
 
-        when(menuItemRepository.findAllByUserId(userId)).thenReturn(mockList);
+        when(menuItemRepository.findPageByUserId(eq(userId), eq(CursorUtil.FIRST.createdAt()),
+                eq(CursorUtil.FIRST.id()), eq(Limit.of(ConstUtil.PAGE_SIZE_DEFAULT + 1)))).thenReturn(items);
 
-        List<MenuItem> result = menuItemService.getAllMenuItems(userId, null);
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, null, null, null, null);
 
-        assertEquals(mockList, result);
-        verify(menuItemRepository, times(1)).findAllByUserId(userId);
-        verify(menuItemRepository, never()).findByKeyword(any(), any());
+        assertNotNull(page);
+        assertEquals(3, page.getMenuItems().size());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasMore());
     }
 
     @Test
-    @DisplayName("getAllMenuItems - tanpa search (empty string)")
-    void testGetAllMenuItems_EmptySearch() {
+    @DisplayName("getMenuItemsPage - ada halaman berikutnya")
+    void testGetMenuItemsPage_HasMore() {
         UUID userId = UUID.randomUUID();
-        List<MenuItem> mockList = new ArrayList<>();
+        List<MenuItem> items = buildMenuItems(3);
 
-        when(menuItemRepository.findAllByUserId(userId)).thenReturn(mockList);
+        when(menuItemRepository.findPageByUserId(eq(userId), any(), any(), eq(Limit.of(3)))).thenReturn(items);
 
-        List<MenuItem> result = menuItemService.getAllMenuItems(userId, "");
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, "", "", "", 2);
 
-        assertEquals(mockList, result);
-        verify(menuItemRepository, times(1)).findAllByUserId(userId);
-        verify(menuItemRepository, never()).findByKeyword(any(), any());
+        assertEquals(2, page.getMenuItems().size());
+        assertTrue(page.isHasMore());
+
+        CursorUtil.Cursor next = CursorUtil.decode(page.getNextCursor());
+        assertEquals(items.get(1).getId(), next.id());
+        assertEquals(items.get(1).getCreatedAt(), next.createdAt());
     }
 
     @Test
-    @DisplayName("getAllMenuItems - dengan search")
-    void testGetAllMenuItems_WithSearch() {
+    @DisplayName("getMenuItemsPage - melanjutkan dari cursor")
+    void testGetMenuItemsPage_WithCursor() {
         UUID userId = UUID.randomUUID();
-        String search = "nasi";
+        UUID lastId = UUID.randomUUID();
+        LocalDateTime lastCreatedAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+        String cursor = CursorUtil.encode(lastCreatedAt, lastId);
 
-        List<MenuItem> mockList = new ArrayList<>();
-        when(menuItemRepository.findByKeyword(userId, search)).thenReturn(mockList);
+        when(menuItemRepository.findPageByUserId(eq(userId), eq(lastCreatedAt), eq(lastId), any()))
+                .thenReturn(new ArrayList<>());
 
-        List<MenuItem> result = menuItemService.getAllMenuItems(userId, search);
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, null, null, cursor, 10);
 
-        assertEquals(mockList, result);
-        verify(menuItemRepository, times(1)).findByKeyword(userId, search);
-        verify(menuItemRepository, never()).findAllByUserId(any());
+        assertTrue(page.getMenuItems().isEmpty());
+        verify(menuItemRepository, times(1)).findPageByUserId(eq(userId), eq(lastCreatedAt), eq(lastId), any());
     }
 
-    // ============================
-    // READ – getMenuItemById
-    // ============================
     @Test
-    @DisplayName("getMenuItemById - menu ditemukan")
-    void testGetMenuItemById_Found() {
+    @DisplayName("getMenuItemsPage - filter kategori")
+    void testGetMenuItemsPage_Category() {
         UUID userId = UUID.randomUUID();
-        UUID id = UUID.randomUUID();
 
-        MenuItem item = new MenuItem();
-        when(menuItemRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(item));
+        when(menuItemRepository.findPageByCategory(eq(userId), eq("Dessert"), any(), any(), any()))
+                .thenReturn(new ArrayList<>());
 
-        MenuItem result = menuItemService.getMenuItemById(userId, id);
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, "Dessert", "abaikan", null, null);
 
-        assertNotNull(result);
-        verify(menuItemRepository, times(1)).findByUserIdAndId(userId, id);
+        assertNotNull(page);
+        verify(menuItemRepository, times(1)).findPageByCategory(eq(userId), eq("Dessert"), any(), any(), any());
+        verify(menuItemRepository, never()).searchFullText(any(), any(), anyInt(), anyInt());
     }
 
     @Test
-    @DisplayName("getMenuItemById - menu tidak ditemukan")
-    void testGetMenuItemById_NotFound() {
+    @DisplayName("getMenuItemsPage - pencarian full-text halaman pertama")
+    void testGetMenuItemsPage_Search() {
         UUID userId = UUID.randomUUID();
-        UUID id = UUID.randomUUID();
 
-        when(menuItemRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.empty());
+        when(menuItemRepository.searchFullText(userId, "nasi:*", ConstUtil.PAGE_SIZE_DEFAULT + 1, 0))
+                .thenReturn(buildMenuItems(2));
 
-        MenuItem result = menuItemService.getMenuItemById(userId, id);
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, null, "nasi", null, null);
 
-        assertNull(result);
-        verify(menuItemRepository, times(1)).findByUserIdAndId(userId, id);
+        assertEquals(2, page.getMenuItems().size());
+        assertFalse(page.isHasMore());
+        verify(menuItemRepository, never()).findPageByUserId(any(), any(), any(), any());
     }
 
-    // ============================
-    // READ – getMenuItemsByCategory
-    // ============================
     @Test
-    @DisplayName("getMenuItemsByCategory - berhasil mengambil data")
-    void testGetMenuItemsByCategory() {
+    @DisplayName("getMenuItemsPage - pencarian full-text dengan halaman berikutnya")
+    void testGetMenuItemsPage_SearchHasMore() {
         UUID userId = UUID.randomUUID();
-        List<MenuItem> mockList = List.of(new MenuItem());
 
-        when(menuItemRepository.findByCategory(userId, "Main Course")).thenReturn(mockList);
+        when(menuItemRepository.searchFullText(userId, "nasi:*", 3, 4)).thenReturn(buildMenuItems(3));
 
-        List<MenuItem> result = menuItemService.getMenuItemsByCategory(userId, "Main Course");
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, "", "nasi", CursorUtil.encodeOffset(4), 2);
 
-        assertEquals(mockList, result);
-        verify(menuItemRepository, times(1)).findByCategory(userId, "Main Course");
+        assertEquals(2, page.getMenuItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(6, CursorUtil.decodeOffset(page.getNextCursor()));
     }
 
     @Test
-    @DisplayName("getMenuItemsByCategory - empty result")
-    void testGetMenuItemsByCategory_Empty() {
+    @DisplayName("getMenuItemsPage - pencarian tanpa kata yang valid")
+    void testGetMenuItemsPage_SearchWithoutTerms() {
         UUID userId = UUID.randomUUID();
-        List<MenuItem> mockList = new ArrayList<>();
 
-        when(menuItemRepository.findByCategory(userId, "Dessert")).thenReturn(mockList);
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, null, "***", null, null);
 
-        List<MenuItem> result = menuItemService.getMenuItemsByCategory(userId, "Dessert");
+        assertTrue(page.getMenuItems().isEmpty());
+        assertFalse(page.isHasMore());
+        verifyNoInteractions(menuItemRepository);
+    }
 
-        assertTrue(result.isEmpty());
-        verify(menuItemRepository, times(1)).findByCategory(userId, "Dessert");
+    @Test
+    @DisplayName("getMenuItemsPage - pencarian dengan cursor tidak valid")
+    void testGetMenuItemsPage_SearchInvalidCursor() {
+        UUID userId = UUID.randomUUID();
+
+        assertNull(menuItemService.getMenuItemsPage(userId, null, "nasi", "bukan-cursor", null));
+        assertNull(menuItemService.getMenuItemsPage(userId, null, "nasi",
+                CursorUtil.encode(LocalDateTime.now(), UUID.randomUUID()), null));
+        assertNull(menuItemService.getMenuItemsPage(userId, null, "nasi", CursorUtil.encodeOffset(-1), null));
+        verifyNoInteractions(menuItemRepository);
+    }
+
+    @Test
+    @DisplayName("getMenuItemsPage - ukuran halaman dibatasi maksimum")
+    void testGetMenuItemsPage_LimitCapped() {
+        UUID userId = UUID.randomUUID();
+
+        when(menuItemRepository.findPageByUserId(eq(userId), any(), any(), any())).thenReturn(new ArrayList<>());
+
+        menuItemService.getMenuItemsPage(userId, null, null, null, 100000);
+        menuItemService.getMenuItemsPage(userId, null, null, null, 0);
+
+        verify(menuItemRepository, times(1)).findPageByUserId(eq(userId), any(), any(),
+                eq(Limit.of(ConstUtil.PAGE_SIZE_MAX + 1)));
+        verify(menuItemRepository, times(1)).findPageByUserId(eq(userId), any(), any(),
+                eq(Limit.of(ConstUtil.PAGE_SIZE_DEFAULT + 1)));
+    }
+
+    @Test
+    @DisplayName("getMenuItemsPage - cursor tidak valid")
+    void testGetMenuItemsPage_InvalidCursor() {
+        UUID userId = UUID.randomUUID();
+
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, null, null, "bukan-cursor", null);
+
+        assertNull(page);
+        verifyNoInteractions(menuItemRepository);
     }
 
     // ============================
-    // READ – getAvailableMenuItems
+    // READ – getMenuItemById
     // ============================
     @Test
-    @DisplayName("getAvailableMenuItems - berhasil mengambil menu tersedia")
-    void testGetAvailableMenuItems() {
+    @DisplayName("getMenuItemById - menu ditemukan")
+    void testGetMenuItemById_Found() {
         UUID userId = UUID.randomUUID();
-        List<MenuItem> mockList = List.of(new MenuItem());
+        UUID id = UUID.randomUUID();
 
-        when(menuItemRepository.findAvailableMenus(userId)).thenReturn(mockList);
+        MenuItem item = new MenuItem();
+        when(menuItemRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(item));
 
-        List<MenuItem> result = menuItemService.getAvailableMenuItems(userId);
+        MenuItem result = menuItemService.getMenuItemById(userId, id);
 
-        assertEquals(mockList, result);
-        verify(menuItemRepository, times(1)).findAvailableMenus(userId);
+        assertNotNull(result);
+        verify(menuItemRepository, times(1)).findByUserIdAndId(userId, id);
     }
 
     @Test
-    @DisplayName("getAvailableMenuItems - empty result")
-    void testGetAvailableMenuItems_Empty() {
+    @DisplayName("getMenuItemById - menu tidak ditemukan")
+    void testGetMenuItemById_NotFound() {
         UUID userId = UUID.randomUUID();
-        List<MenuItem> mockList = new ArrayList<>();
+        UUID id = UUID.randomUUID();
 
-        when(menuItemRepository.findAvailableMenus(userId)).thenReturn(mockList);
+        when(menuItemRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.empty());
 
-        List<MenuItem> result = menuItemService.getAvailableMenuItems(userId);
+        MenuItem result = menuItemService.getMenuItemById(userId, id);
 
-        assertTrue(result.isEmpty());
-        verify(menuItemRepository, times(1)).findAvailableMenus(userId);
+        assertNull(result);
+        verify(menuItemRepository, times(1)).findByUserIdAndId(userId, id);
     }
 
     // ============================
@@ -211,6 +274,10 @@ public class MenuItemServiceTests {
         UUID id = UUID.randomUUID();
 
         MenuItem existing = new MenuItem();
+        existing.setCategory("Appetizer");
+        existing.setPrice(8000.0);
+        existing.setIsAvailable(false);
+        existing.setPreparationTime(12);
         when(menuItemRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(existing));
         when(menuItemRepository.save(existing)).thenReturn(existing);
 
@@ -230,6 +297,9 @@ public class MenuItemServiceTests {
         assertEquals(500, existing.getCalories());
         assertTrue(existing.getIsAvailable());
         verify(menuItemRepository, times(1)).save(existing);
+        // Statistik: nilai lama dikurangi, nilai baru ditambahkan
+        verify(menuStatService, times(1)).recordRemoved(userId, "Appetizer", 8000.0, false, 12);
+        verify(menuStatService, times(1)).recordAdded(existing);
     }
 
     @Test
@@ -246,6 +316,7 @@ public class MenuItemServiceTests {
 
         assertNull(result);
         verify(menuItemRepository, times(0)).save(any());
+        verifyNoInteractions(menuStatService);
     }
 
     @Test
@@ -289,6 +360,7 @@ public class MenuItemServiceTests {
         assertEquals("http://example.com/img.jpg", item.getImageUrl());
         verify(menuItemRepository, times(1)).findById(id);
         verify(menuItemRepository, times(1)).save(item);
+        verifyNoInteractions(menuStatService);
     }
 
     @Test
@@ -321,6 +393,37 @@ public class MenuItemServiceTests {
         verify(menuItemRepository, times(1)).save(item);
     }
 
+    // ============================
+    // READ – referensi gambar
+    // ============================
+    @Test
+    @DisplayName("getMenuImageUrl - nama file gambar atau null")
+    void testGetMenuImageUrl() {
+        UUID id = UUID.randomUUID();
+
+        when(menuItemRepository.findImageUrlById(id)).thenReturn(Optional.of("menu.jpg"));
+        assertEquals("menu.jpg", menuItemService.getMenuImageUrl(id));
+
+        when(menuItemRepository.findImageUrlById(id)).thenReturn(Optional.empty());
+        assertNull(menuItemService.getMenuImageUrl(id));
+    }
+
+    @Test
+    @DisplayName("countMenuItemsByImageUrl - jumlah menu yang memakai gambar")
+    void testCountMenuItemsByImageUrl() {
+        when(menuItemRepository.countByImageUrl("abc.jpg")).thenReturn(3L);
+
+        assertEquals(3L, menuItemService.countMenuItemsByImageUrl("abc.jpg"));
+    }
+
+    @Test
+    @DisplayName("lockImageUrl - mengunci nama file gambar lewat repository")
+    void testLockImageUrl() {
+        menuItemService.lockImageUrl("abc.jpg");
+
+        verify(menuItemRepository).lockImageUrl("abc.jpg");
+    }
+
     // ============================
     // DELETE – deleteMenuItem
     // ============================
@@ -331,6 +434,10 @@ public class MenuItemServiceTests {
         UUID id = UUID.randomUUID();
 
         MenuItem item = new MenuItem();
+        item.setCategory("Dessert");
+        item.setPrice(12000.0);
+        item.setIsAvailable(true);
+        item.setPreparationTime(7);
         when(menuItemRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(item));
         doNothing().when(menuItemRepository).delete(item);
 
@@ -339,6 +446,7 @@ public class MenuItemServiceTests {
         assertTrue(result);
         verify(menuItemRepository, times(1)).findByUserIdAndId(userId, id);
         verify(menuItemRepository, times(1)).delete(item);
+        verify(menuStatService, times(1)).recordRemoved(userId, "Dessert", 12000.0, true, 7);
     }
 
     @Test
@@ -354,110 +462,194 @@ public class MenuItemServiceTests {
         assertFalse(result);
         verify(menuItemRepository, times(1)).findByUserIdAndId(userId, id);
         verify(menuItemRepository, never()).delete(any());
+        verifyNoInteractions(menuStatService);
     }
 
     // ============================
     // CHART DATA
     // ============================
+    private static List<CategoryStats> buildCategoryStats() {
+        return Arrays.asList(
+            new CategoryStats("Beverage", 3L, 2L, 15000.0, 45000.0, 5, 15),
+            new CategoryStats("Main Course", 5L, 5L, 20000.0, 100000.0, 5, 15)
+        );
+    }
+
     @Test
-    @DisplayName("getMenuCountByCategory - berhasil mengambil data")
-    void testGetMenuCountByCategory() {
+    @DisplayName("getMenuStats - satu query untuk statistik per kategori dan keseluruhan")
+    void testGetMenuStats() {
         UUID userId = UUID.randomUUID();
+        when(menuStatService.getCategoryStats(userId)).thenReturn(buildCategoryStats());
 
-        List<Object[]> mockList = Arrays.asList(
-            new Object[]{"Main Course", 5L},
-            new Object[]{"Beverage", 3L}
-        );
+        MenuStats stats = menuItemService.getMenuStats(userId);
+
+        assertEquals(2, stats.getTotalCategories());
+        assertEquals(8, stats.getTotalMenus());
+        assertEquals(7, stats.getAvailableMenus());
+        assertEquals(145000.0, stats.getTotalPrice());
+        verify(menuStatService, times(1)).getCategoryStats(userId);
+        verifyNoInteractions(menuItemRepository);
+    }
 
-        when(menuItemRepository.countByCategory(userId)).thenReturn(mockList);
+    @Test
+    @DisplayName("getMenuCountByCategory - berhasil mengambil data")
+    void testGetMenuCountByCategory() {
+        UUID userId = UUID.randomUUID();
+        when(menuStatService.getCategoryStats(userId)).thenReturn(buildCategoryStats());
 
         List<Object[]> result = menuItemService.getMenuCountByCategory(userId);
 
-        assertNotNull(result);
         assertEquals(2, result.size());
-        verify(menuItemRepository, times(1)).countByCategory(userId);
+        assertArrayEquals(new Object[]{"Beverage", 3L}, result.get(0));
+        assertArrayEquals(new Object[]{"Main Course", 5L}, result.get(1));
     }
 
     @Test
     @DisplayName("getMenuCountByCategory - empty result")
     void testGetMenuCountByCategory_Empty() {
         UUID userId = UUID.randomUUID();
-
-        List<Object[]> mockList = new ArrayList<>();
-        when(menuItemRepository.countByCategory(userId)).thenReturn(mockList);
+        when(menuStatService.getCategoryStats(userId)).thenReturn(new ArrayList<>());
 
         List<Object[]> result = menuItemService.getMenuCountByCategory(userId);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(menuItemRepository, times(1)).countByCategory(userId);
     }
 
     @Test
     @DisplayName("getAveragePriceByCategory - berhasil mengambil data")
     void testGetAveragePriceByCategory() {
         UUID userId = UUID.randomUUID();
-
-        List<Object[]> mockList = Arrays.asList(
-            new Object[]{"Main Course", 20000.0},
-            new Object[]{"Dessert", 15000.0}
-        );
-
-        when(menuItemRepository.averagePriceByCategory(userId)).thenReturn(mockList);
+        when(menuStatService.getCategoryStats(userId)).thenReturn(buildCategoryStats());
 
         List<Object[]> result = menuItemService.getAveragePriceByCategory(userId);
 
-        assertNotNull(result);
         assertEquals(2, result.size());
-        verify(menuItemRepository, times(1)).averagePriceByCategory(userId);
+        assertArrayEquals(new Object[]{"Beverage", 15000.0}, result.get(0));
+        assertArrayEquals(new Object[]{"Main Course", 20000.0}, result.get(1));
     }
 
     @Test
     @DisplayName("getAveragePriceByCategory - empty result")
     void testGetAveragePriceByCategory_Empty() {
         UUID userId = UUID.randomUUID();
-
-        List<Object[]> mockList = new ArrayList<>();
-        when(menuItemRepository.averagePriceByCategory(userId)).thenReturn(mockList);
+        when(menuStatService.getCategoryStats(userId)).thenReturn(new ArrayList<>());
 
         List<Object[]> result = menuItemService.getAveragePriceByCategory(userId);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(menuItemRepository, times(1)).averagePriceByCategory(userId);
     }
 
+    // ============================
+    // CACHE
+    // ============================
     @Test
-    @DisplayName("getTotalPriceByCategory - berhasil mengambil data")
-    void testGetTotalPriceByCategory() {
+    @DisplayName("Cache - pembacaan kedua dilayani dari cache")
+    void testCache_SecondReadIsHit() {
         UUID userId = UUID.randomUUID();
+        when(menuItemRepository.findPageByUserId(eq(userId), any(), any(), any())).thenReturn(buildMenuItems(2));
+        when(menuItemRepository.findPageByCategory(eq(userId), eq("Dessert"), any(), any(), any()))
+                .thenReturn(buildMenuItems(1));
+
+        menuItemService.getMenuItemsPage(userId, null, null, null, null);
+        MenuItemPage page = menuItemService.getMenuItemsPage(userId, null, null, null, null);
+        menuItemService.getMenuItemsPage(userId, "Dessert", null, null, null);
+        menuItemService.getMenuItemsPage(userId, "Dessert", null, null, null);
+
+        assertEquals(2, page.getMenuItems().size());
+        verify(menuItemRepository, times(1)).findPageByUserId(eq(userId), any(), any(), any());
+        verify(menuItemRepository, times(1)).findPageByCategory(eq(userId), eq("Dessert"), any(), any(), any());
+        assertEquals(2, menuCatalogCache.getHits());
+        assertEquals(2, menuCatalogCache.getMisses());
+    }
 
-        List<Object[]> mockList = Arrays.asList(
-            new Object[]{"Beverage", 45000.0},
-            new Object[]{"Snack", 30000.0}
-        );
+    @Test
+    @DisplayName("Cache - cursor tidak valid tidak disimpan")
+    void testCache_InvalidCursorNotCached() {
+        UUID userId = UUID.randomUUID();
 
-        when(menuItemRepository.totalPriceByCategory(userId)).thenReturn(mockList);
+        assertNull(menuItemService.getMenuItemsPage(userId, null, null, "bukan-cursor", null));
+        assertNull(menuItemService.getMenuItemsPage(userId, null, null, "bukan-cursor", null));
 
-        List<Object[]> result = menuItemService.getTotalPriceByCategory(userId);
+        assertEquals(0, menuCatalogCache.getHits());
+        assertEquals(2, menuCatalogCache.getMisses());
+    }
 
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(menuItemRepository, times(1)).totalPriceByCategory(userId);
+    @Test
+    @DisplayName("Cache - create, update, update gambar, dan delete menghapus cache user")
+    void testCache_WritesInvalidate() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        MenuItem item = new MenuItem();
+        item.setUserId(userId);
+
+        when(menuItemRepository.findPageByUserId(any(), any(), any(), any())).thenReturn(new ArrayList<>());
+        when(menuItemRepository.save(any(MenuItem.class))).thenReturn(item);
+        when(menuItemRepository.findByUserIdAndId(userId, id)).thenReturn(Optional.of(item));
+        when(menuItemRepository.findById(id)).thenReturn(Optional.of(item));
+
+        menuItemService.getMenuItemsPage(otherUserId, null, null, null, null);
+
+        menuItemService.getMenuItemsPage(userId, null, null, null, null);
+        menuItemService.createMenuItem(userId, "Nasi", "Main Course", 1000.0, null, 5, 0, null);
+        menuItemService.getMenuItemsPage(userId, null, null, null, null);
+        menuItemService.updateMenuItem(userId, id, "Nasi", "Main Course", 1000.0, null, 5, 0, null, true);
+        menuItemService.getMenuItemsPage(userId, null, null, null, null);
+        menuItemService.updateMenuImage(id, "menu.png");
+        menuItemService.getMenuItemsPage(userId, null, null, null, null);
+        menuItemService.deleteMenuItem(userId, id);
+        menuItemService.getMenuItemsPage(userId, null, null, null, null);
+
+        menuItemService.getMenuItemsPage(otherUserId, null, null, null, null);
+
+        verify(menuItemRepository, times(5)).findPageByUserId(eq(userId), any(), any(), any());
+        verify(menuItemRepository, times(1)).findPageByUserId(eq(otherUserId), any(), any(), any());
     }
 
     @Test
-    @DisplayName("getTotalPriceByCategory - empty result")
-    void testGetTotalPriceByCategory_Empty() {
+    @DisplayName("Cache - data chart di-cache per user")
+    void testCache_Chart() {
         UUID userId = UUID.randomUUID();
+        when(menuStatService.getCategoryStats(userId)).thenReturn(new ArrayList<>());
 
-        List<Object[]> mockList = new ArrayList<>();
-        when(menuItemRepository.totalPriceByCategory(userId)).thenReturn(mockList);
+        for (int i = 0; i < 2; i++) {
+            menuItemService.getMenuCountByCategory(userId);
+            menuItemService.getAveragePriceByCategory(userId);
+            menuItemService.getMenuStats(userId);
+        }
 
-        List<Object[]> result = menuItemService.getTotalPriceByCategory(userId);
+        verify(menuStatService, times(1)).getCategoryStats(userId);
+    }
 
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(menuItemRepository, times(1)).totalPriceByCategory(userId);
+    @Test
+    @DisplayName("Validasi menu baru termasuk batas kolom database")
+    void testValidateNewMenuItem() {
+        assertNull(MenuItemService.validateNewMenuItem("Nasi", "Main", 1000.0, 10, 5, 0));
+        assertNull(MenuItemService.validateNewMenuItem("Nasi", "Main", 1000.0, 10, null, null));
+
+        assertEquals("Nama menu tidak boleh kosong", MenuItemService.validateNewMenuItem(null, "Main", 1.0, 1, 0, 0));
+        assertEquals("Nama menu tidak boleh kosong", MenuItemService.validateNewMenuItem(" ", "Main", 1.0, 1, 0, 0));
+        assertEquals("Nama menu maksimal 100 karakter",
+                MenuItemService.validateNewMenuItem("n".repeat(101), "Main", 1.0, 1, 0, 0));
+        assertEquals("Kategori tidak boleh kosong", MenuItemService.validateNewMenuItem("Nasi", null, 1.0, 1, 0, 0));
+        assertEquals("Kategori tidak boleh kosong", MenuItemService.validateNewMenuItem("Nasi", "", 1.0, 1, 0, 0));
+        assertEquals("Kategori maksimal 50 karakter",
+                MenuItemService.validateNewMenuItem("Nasi", "k".repeat(51), 1.0, 1, 0, 0));
+        assertEquals("Harga harus lebih dari 0", MenuItemService.validateNewMenuItem("Nasi", "Main", null, 1, 0, 0));
+        assertEquals("Harga harus lebih dari 0",
+                MenuItemService.validateNewMenuItem("Nasi", "Main", Double.NaN, 1, 0, 0));
+        assertEquals("Harga harus lebih dari 0", MenuItemService.validateNewMenuItem("Nasi", "Main", -1.0, 1, 0, 0));
+        assertEquals("Waktu persiapan harus lebih dari 0",
+                MenuItemService.validateNewMenuItem("Nasi", "Main", 1.0, null, 0, 0));
+        assertEquals("Waktu persiapan harus lebih dari 0",
+                MenuItemService.validateNewMenuItem("Nasi", "Main", 1.0, 0, 0, 0));
+        assertEquals("Level pedas harus antara 0 dan 5",
+                MenuItemService.validateNewMenuItem("Nasi", "Main", 1.0, 1, -1, 0));
+        assertEquals("Level pedas harus antara 0 dan 5",
+                MenuItemService.validateNewMenuItem("Nasi", "Main", 1.0, 1, 6, 0));
+        assertEquals("Kalori tidak boleh negatif",
+                MenuItemService.validateNewMenuItem("Nasi", "Main", 1.0, 1, 0, -1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.dto.CategoryStats;
+import org.delcom.app.entities.MenuItem;
+import org.delcom.app.repositories.MenuStatRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+public class MenuStatServiceTests {
+
+    private final MenuStatRepository menuStatRepository = Mockito.mock(MenuStatRepository.class);
+    private final MenuCatalogCache menuCatalogCache = new MenuCatalogCache(1000);
+    private final MenuStatService menuStatService = new MenuStatService(menuStatRepository, menuCatalogCache);
+
+    @Test
+    @DisplayName("getCategoryStats - membaca dari tabel statistik")
+    void testGetCategoryStats() {
+        UUID userId = UUID.randomUUID();
+        List<CategoryStats> rows = List.of(new CategoryStats("Dessert", 1L, 1L, 5000.0, 5000.0, 5, 5));
+        when(menuStatRepository.findCategoryStats(userId)).thenReturn(rows);
+
+        assertEquals(rows, menuStatService.getCategoryStats(userId));
+    }
+
+    @Test
+    @DisplayName("recordAdded - menambahkan menu tersedia dan tidak tersedia")
+    void testRecordAdded() {
+        UUID userId = UUID.randomUUID();
+        MenuItem item = new MenuItem();
+        item.setUserId(userId);
+        item.setCategory("Dessert");
+        item.setPrice(5000.0);
+        item.setPreparationTime(10);
+
+        item.setIsAvailable(true);
+        menuStatService.recordAdded(item);
+        item.setIsAvailable(false);
+        menuStatService.recordAdded(item);
+
+        verify(menuStatRepository, times(1)).addItem(userId, "Dessert", 5000.0, 1, 10);
+        verify(menuStatRepository, times(1)).addItem(userId, "Dessert", 5000.0, 0, 10);
+    }
+
+    @Test
+    @DisplayName("recordAddedAll - satu upsert per kategori")
+    void testRecordAddedAll() {
+        UUID userId = UUID.randomUUID();
+        List<MenuItem> items = List.of(
+                item(userId, "Dessert", 5000.0, true, 10),
+                item(userId, "Beverage", 3000.0, false, 4),
+                item(userId, "Dessert", 7000.0, false, 20),
+                item(userId, "Dessert", 1000.0, true, 5));
+
+        menuStatService.recordAddedAll(userId, items);
+
+        verify(menuStatRepository, times(1)).addItems(userId, "Dessert", 3, 13000.0, 2, 5, 20);
+        verify(menuStatRepository, times(1)).addItems(userId, "Beverage", 1, 3000.0, 0, 4, 4);
+        verifyNoMoreInteractions(menuStatRepository);
+    }
+
+    private static MenuItem item(UUID userId, String category, double price, boolean available, int prepTime) {
+        MenuItem item = new MenuItem();
+        item.setUserId(userId);
+        item.setCategory(category);
+        item.setPrice(price);
+        item.setIsAvailable(available);
+        item.setPreparationTime(prepTime);
+        return item;
+    }
+
+    @Test
+    @DisplayName("rebuildCategories - menghitung ulang kategori yang terdampak")
+    void testRebuildCategories() {
+        UUID userId = UUID.randomUUID();
+        Set<String> categories = Set.of("Dessert", "Beverage");
+
+        menuStatService.rebuildCategories(userId, categories);
+
+        InOrder inOrder = inOrder(menuStatRepository);
+        inOrder.verify(menuStatRepository).deleteCategories(userId, categories);
+        inOrder.verify(menuStatRepository).rebuildCategories(userId, categories);
+    }
+
+    @Test
+    @DisplayName("rebuildCategories - tanpa kategori tidak menjalankan query")
+    void testRebuildCategoriesEmpty() {
+        menuStatService.rebuildCategories(UUID.randomUUID(), Set.of());
+
+        verifyNoInteractions(menuStatRepository);
+    }
+
+    @Test
+    @DisplayName("recordRemoved - mengurangi statistik lalu memperbaiki min/max")
+    void testRecordRemoved() {
+        UUID userId = UUID.randomUUID();
+
+        menuStatService.recordRemoved(userId, "Beverage", 3000.0, null, 4);
+
+        InOrder inOrder = inOrder(menuStatRepository);
+        inOrder.verify(menuStatRepository).removeItem(userId, "Beverage", 3000.0, 0);
+        inOrder.verify(menuStatRepository).refreshPreparationTimeRange(userId, "Beverage", 4);
+        inOrder.verify(menuStatRepository).deleteEmpty(userId, "Beverage");
+    }
+
+    @Test
+    @DisplayName("backfill - mengisi kategori user yang belum punya statistik")
+    void testBackfill() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        UUID cachedUserId = UUID.randomUUID();
+        menuCatalogCache.get(userId, "stats", () -> 1L);
+        menuCatalogCache.get(cachedUserId, "stats", () -> 1L);
+        when(menuStatRepository.tryLockReconcile()).thenReturn(true);
+        when(menuStatRepository.findMissingCategories()).thenReturn(List.of(
+                new Object[] { userId, "Dessert" },
+                new Object[] { otherUserId, "Beverage" },
+                new Object[] { userId, "Beverage" }));
+
+        menuStatService.backfill();
+
+        InOrder inOrder = inOrder(menuStatRepository);
+        inOrder.verify(menuStatRepository).tryLockReconcile();
+        inOrder.verify(menuStatRepository).findMissingCategories();
+        inOrder.verify(menuStatRepository).deleteCategories(userId, Set.of("Dessert", "Beverage"));
+        inOrder.verify(menuStatRepository).rebuildCategories(userId, Set.of("Dessert", "Beverage"));
+        inOrder.verify(menuStatRepository).deleteCategories(otherUserId, Set.of("Beverage"));
+        inOrder.verify(menuStatRepository).rebuildCategories(otherUserId, Set.of("Beverage"));
+        // Cache user yang diisi dihapus, cache user lain tetap
+        assertEquals(1, menuCatalogCache.getTenantCount());
+    }
+
+    @Test
+    @DisplayName("backfill - semua user sudah punya statistik, tidak ada yang ditulis")
+    void testBackfillNothingMissing() {
+        when(menuStatRepository.tryLockReconcile()).thenReturn(true);
+        when(menuStatRepository.findMissingCategories()).thenReturn(List.of());
+
+        menuStatService.backfill();
+
+        verify(menuStatRepository, never()).deleteCategories(any(), any());
+        verify(menuStatRepository, never()).rebuildCategories(any(), any());
+    }
+
+    @Test
+    @DisplayName("backfill - dilewati jika node lain sedang menjalankannya")
+    void testBackfillLockedByOtherNode() {
+        when(menuStatRepository.tryLockReconcile()).thenReturn(false);
+
+        menuStatService.backfill();
+
+        verify(menuStatRepository, never()).findMissingCategories();
+    }
+
+    @Test
+    @DisplayName("reconcile - tabel konsisten, tidak ada yang ditulis")
+    void testReconcileWithoutDrift() {
+        UUID userId = UUID.randomUUID();
+        menuCatalogCache.get(userId, "stats", () -> 1L);
+        when(menuStatRepository.tryLockReconcile()).thenReturn(true);
+        when(menuStatRepository.findDrift()).thenReturn(List.of());
+
+        assertEquals(0, menuStatService.reconcile());
+
+        verify(menuStatRepository, never()).lockCategory(any(), any());
+        verify(menuStatRepository, never()).recountCategory(any(), any());
+        assertEquals(1, menuCatalogCache.getTenantCount());
+    }
+
+    @Test
+    @DisplayName("reconcile - hanya kategori yang tidak sesuai dihitung ulang")
+    void testReconcileWithDrift() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        menuCatalogCache.get(userId, "stats", () -> 1L);
+        menuCatalogCache.get(otherUserId, "stats", () -> 1L);
+        when(menuStatRepository.tryLockReconcile()).thenReturn(true);
+        when(menuStatRepository.findDrift()).thenReturn(List.of(
+                new Object[] { userId, "Dessert" },
+                new Object[] { userId, "Beverage" }));
+
+        assertEquals(2, menuStatService.reconcile());
+
+        InOrder inOrder = inOrder(menuStatRepository);
+        inOrder.verify(menuStatRepository).tryLockReconcile();
+        inOrder.verify(menuStatRepository).findDrift();
+        inOrder.verify(menuStatRepository).lockCategory(userId, "Dessert");
+        inOrder.verify(menuStatRepository).recountCategory(userId, "Dessert");
+        inOrder.verify(menuStatRepository).deleteEmpty(userId, "Dessert");
+        inOrder.verify(menuStatRepository).lockCategory(userId, "Beverage");
+        inOrder.verify(menuStatRepository).recountCategory(userId, "Beverage");
+        inOrder.verify(menuStatRepository).deleteEmpty(userId, "Beverage");
+        // Hanya cache user yang statistiknya berubah yang dihapus
+        assertEquals(1, menuCatalogCache.getTenantCount());
+    }
+
+    @Test
+    @DisplayName("reconcile - dilewati jika node lain sedang menjalankannya")
+    void testReconcileLockedByOtherNode() {
+        when(menuStatRepository.tryLockReconcile()).thenReturn(false);
+
+        assertEquals(-1, menuStatService.reconcile());
+
+        verify(menuStatRepository, never()).findDrift();
+    }
+}
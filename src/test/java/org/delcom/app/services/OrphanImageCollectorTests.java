@@ -0,0 +1,195 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.delcom.app.repositories.MenuItemRepository;
+import org.delcom.app.services.MenuImageService.MenuImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+
+public class OrphanImageCollectorTests {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final String HASH_C = "c".repeat(64);
+    private static final String HASH_LEGACY = "d".repeat(64);
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+    private final MenuImageService menuImageService = Mockito.mock(MenuImageService.class);
+    private final ImageUploadService imageUploadService = Mockito.mock(ImageUploadService.class);
+    private final MenuItemRepository menuItemRepository = Mockito.mock(MenuItemRepository.class);
+
+    @BeforeEach
+    void setup() {
+        fileStorageService = new FileStorageService();
+        fileStorageService.uploadDir = tempDir.toString();
+        // Gambar dianggap tidak dipakai: releaseImage menghapus file
+        when(imageUploadService.releaseImage(anyString()))
+                .thenAnswer(invocation -> fileStorageService.deleteFile(invocation.getArgument(0)));
+        when(menuItemRepository.findImageUrlsIn(any())).thenReturn(List.of());
+    }
+
+    private OrphanImageCollector collector(int batchSize) {
+        return new OrphanImageCollector(fileStorageService, menuImageService, imageUploadService,
+                menuItemRepository, batchSize, Duration.ofHours(24)) {
+            @Override
+            protected Instant now() {
+                return NOW;
+            }
+        };
+    }
+
+    // File dengan waktu modifikasi sebelum grace period berakhir
+    private Path oldFile(Path path, String content) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+        Files.setLastModifiedTime(path, FileTime.from(NOW.minus(Duration.ofHours(25))));
+        return path;
+    }
+
+    private Path newFile(Path path, String content) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+        Files.setLastModifiedTime(path, FileTime.from(NOW.minus(Duration.ofHours(1))));
+        return path;
+    }
+
+    @Test
+    @DisplayName("Gambar, varian dan staging yatim yang lewat grace period dihapus")
+    void testCollect() throws Exception {
+        Path variants = tempDir.resolve(ImageVariantService.VARIANT_DIR);
+        Path staging = tempDir.resolve(FileStorageService.STAGING_DIR);
+
+        Path orphan = oldFile(tempDir.resolve(HASH_A + ".jpg"), "gambar");     // 6 byte
+        Path used = oldFile(tempDir.resolve(HASH_B + ".png"), "dipakai");
+        Path legacyOrphan = oldFile(tempDir.resolve("menu_1.png"), "lama");     // 4 byte
+        Path legacyUsed = oldFile(tempDir.resolve("menu_2.jpg"), "dipakai");
+        Path fresh = newFile(tempDir.resolve("menu_3.jpg"), "baru");
+        Path other = oldFile(tempDir.resolve("catatan.txt"), "bukan gambar");
+        Files.createSymbolicLink(tempDir.resolve("menu_4.jpg"), tempDir.resolve("tidak-ada.jpg"));
+
+        Path orphanVariant = oldFile(variants.resolve(HASH_A + "-160.jpg"), "v");  // 1 byte
+        Path usedVariant = oldFile(variants.resolve(HASH_B + "-160.png"), "v");
+        Path legacyVariant = oldFile(variants.resolve(HASH_LEGACY + "-480.jpg"), "v");
+        Path freshVariant = newFile(variants.resolve(HASH_C + "-160.jpg"), "v");
+        Path staleTemp = oldFile(variants.resolve("variant-1.tmp"), "tmp");       // 3 byte
+
+        Path staleUpload = oldFile(staging.resolve("x.upload"), "upload");        // 6 byte
+        Path freshUpload = newFile(staging.resolve("y.upload"), "upload");
+        Files.createDirectories(staging.resolve("folder"));
+
+        when(menuItemRepository.findImageUrlsIn(any())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return names.stream().filter(name -> name.equals(HASH_B + ".png") || name.equals("menu_2.jpg")).toList();
+        });
+        when(menuImageService.getImage("menu_2.jpg"))
+                .thenReturn(new MenuImage(legacyUsed, 7, 0, HASH_LEGACY, MediaType.IMAGE_JPEG));
+
+        OrphanImageCollector collector = collector(1);
+        assertEquals(20, collector.collect());
+
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(legacyOrphan));
+        assertFalse(Files.exists(orphanVariant));
+        assertFalse(Files.exists(staleTemp));
+        assertFalse(Files.exists(staleUpload));
+        assertTrue(Files.exists(used));
+        assertTrue(Files.exists(legacyUsed));
+        assertTrue(Files.exists(fresh));
+        assertTrue(Files.exists(other));
+        assertTrue(Files.exists(usedVariant));
+        assertTrue(Files.exists(legacyVariant));
+        assertTrue(Files.exists(freshVariant));
+        assertTrue(Files.exists(freshUpload));
+
+        // Batch berisi satu nama, file baru tidak dicek ke database
+        verify(menuItemRepository, times(4)).findImageUrlsIn(any());
+        verify(imageUploadService, never()).releaseImage("menu_3.jpg");
+        assertEquals(1, collector.getRuns());
+        assertEquals(5, collector.getLastDeletedFiles());
+        assertEquals(5, collector.getTotalDeletedFiles());
+        assertEquals(20, collector.getLastReclaimedBytes());
+        assertEquals(20, collector.getTotalReclaimedBytes());
+
+        // Run berikutnya tidak menemukan file yatim lagi
+        assertEquals(0, collector.collect());
+        assertEquals(2, collector.getRuns());
+        assertEquals(0, collector.getLastReclaimedBytes());
+        assertEquals(20, collector.getTotalReclaimedBytes());
+        assertEquals(5, collector.getTotalDeletedFiles());
+    }
+
+    @Test
+    @DisplayName("Sisa batch dicek di akhir, gambar yang batal dilepas tetap disimpan")
+    void testPartialBatchAndReleaseRefused() throws Exception {
+        Path first = oldFile(tempDir.resolve("menu_1.jpg"), "satu");
+        Path second = oldFile(tempDir.resolve("menu_2.jpg"), "dua");
+        Path variant = oldFile(tempDir.resolve(ImageVariantService.VARIANT_DIR).resolve("ukuran-160.jpg"), "v");
+        Path unknown = oldFile(tempDir.resolve(ImageVariantService.VARIANT_DIR).resolve("lain.jpg"), "lain");
+        Files.createDirectories(tempDir.resolve(FileStorageService.STAGING_DIR));
+        Files.createSymbolicLink(tempDir.resolve(FileStorageService.STAGING_DIR).resolve("x.upload"),
+                tempDir.resolve("tidak-ada.upload"));
+        // Menu baru memakai gambar ini setelah batch dicek
+        doReturn(false).when(imageUploadService).releaseImage("menu_2.jpg");
+
+        OrphanImageCollector collector = collector(100);
+        assertEquals(4 + 1 + 4, collector.collect());
+
+        assertFalse(Files.exists(first));
+        assertTrue(Files.exists(second));
+        assertFalse(Files.exists(variant));
+        assertFalse(Files.exists(unknown));
+        verify(menuItemRepository, times(1)).findImageUrlsIn(any());
+        verify(menuImageService, times(1)).getImage("menu_2.jpg");
+    }
+
+    @Test
+    @DisplayName("Folder upload yang belum ada")
+    void testMissingUploadDir() {
+        fileStorageService.uploadDir = tempDir.resolve("tidak-ada").toString();
+
+        OrphanImageCollector collector = new OrphanImageCollector(fileStorageService, menuImageService,
+                imageUploadService, menuItemRepository, 0, Duration.ofHours(24));
+
+        assertEquals(0, collector.collect());
+        assertEquals(1, collector.getRuns());
+        verify(menuItemRepository, never()).findImageUrlsIn(any());
+    }
+
+    @Test
+    @DisplayName("Folder yang gagal dibaca menghentikan run")
+    void testUnreadableDirectory() throws Exception {
+        Path orphan = oldFile(tempDir.resolve("menu_1.jpg"), "satu");
+        // File biasa di tempat folder varian
+        Path variants = oldFile(tempDir.resolve(ImageVariantService.VARIANT_DIR), "bukan folder");
+        Path staleUpload = oldFile(tempDir.resolve(FileStorageService.STAGING_DIR).resolve("x.upload"), "upload");
+
+        OrphanImageCollector collector = collector(100);
+
+        assertEquals(4, collector.collect());
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(variants));
+        assertTrue(Files.exists(staleUpload));
+        assertEquals(1, collector.getRuns());
+        assertEquals(1, collector.getLastDeletedFiles());
+    }
+}
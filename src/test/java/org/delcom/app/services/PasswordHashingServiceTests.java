@@ -0,0 +1,146 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PasswordHashingServiceTests {
+
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        // Pastikan flag interrupt tidak terbawa ke test lain
+        Thread.interrupted();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    // Encoder palsu yang menunggu sampai latch dibuka
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+        return encoder;
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    @DisplayName("Encode dan matches memakai encoder bersama, latensi dicatat")
+    void testEncodeAndMatches() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 2, 4);
+
+        String hash = service.encode("secret");
+
+        assertTrue(service.matches("secret", hash));
+        assertFalse(service.matches("wrong", hash));
+        assertEquals(3, service.getHashCount());
+        assertTrue(service.getHashTimeNanos() > 0);
+        assertTrue(service.getMaxHashTimeNanos() > 0);
+        assertTrue(service.getMaxHashTimeNanos() <= service.getHashTimeNanos());
+        assertEquals(0, service.getRejected());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Durasi hashing dicatat ke timer per operasi")
+    void testHashTimer() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 1, 1);
+        service.setMeterRegistry(meterRegistry);
+
+        String hash = service.encode("secret");
+        service.matches("secret", hash);
+        service.matches("wrong", hash);
+
+        assertEquals(1, meterRegistry.get(PasswordHashingService.TIMER).tag("operation", "encode")
+                .timer().count());
+        assertEquals(2, meterRegistry.get(PasswordHashingService.TIMER).tag("operation", "matches")
+                .timer().count());
+        assertTrue(meterRegistry.get(PasswordHashingService.TIMER).tag("operation", "matches")
+                .timer().max(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    @DisplayName("Antrean penuh, permintaan langsung ditolak")
+    void testRejectWhenQueueFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(release), 1, 1);
+
+        Thread running = new Thread(() -> service.matches("a", "b"));
+        running.start();
+        waitUntil(() -> service.getActiveCount() == 1);
+        Thread queued = new Thread(() -> service.matches("a", "b"));
+        queued.start();
+        waitUntil(() -> service.getQueueDepth() == 1);
+
+        assertThrows(RejectedExecutionException.class, () -> service.matches("a", "b"));
+        assertEquals(1, service.getRejected());
+
+        release.countDown();
+        running.join();
+        queued.join();
+        assertEquals(2, service.getHashCount());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Exception dari encoder diteruskan ke pemanggil")
+    void testRuntimeExceptionPropagated() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenThrow(new IllegalArgumentException("password terlalu panjang"));
+        service = new PasswordHashingService(encoder, 1, 1);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.encode("x"));
+
+        assertEquals("password terlalu panjang", e.getMessage());
+        assertEquals(1, service.getHashCount());
+    }
+
+    @Test
+    @DisplayName("Error dari encoder dibungkus IllegalStateException")
+    void testErrorWrapped() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenThrow(new AssertionError("rusak"));
+        service = new PasswordHashingService(encoder, 1, 1);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.encode("x"));
+
+        assertInstanceOf(AssertionError.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Thread pemanggil diinterupsi saat menunggu hasil hashing")
+    void testInterruptedWhileWaiting() {
+        CountDownLatch release = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(release), 1, 1);
+
+        Thread.currentThread().interrupt();
+        assertThrows(RejectedExecutionException.class, () -> service.matches("a", "b"));
+
+        // Flag interrupt dipulihkan untuk pemanggil
+        assertTrue(Thread.interrupted());
+        release.countDown();
+    }
+}
@@ -19,7 +19,8 @@ public class UserServiceTests {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
 
         // Membuat instance UserService dengan repository palsu
-        UserService userService = new UserService(userRepository);
+        AuthPrincipalCache authPrincipalCache = Mockito.mock(AuthPrincipalCache.class);
+        UserService userService = new UserService(userRepository, authPrincipalCache);
         assertTrue(userService != null);
 
         // Menguji createUser
@@ -81,6 +82,7 @@ public class UserServiceTests {
             assertTrue(result != null);
             assertEquals("Updated Name", result.getName());
             assertEquals("updated@example.com", result.getEmail());
+            Mockito.verify(authPrincipalCache, Mockito.times(1)).invalidateUser(user.getId());
         }
 
         // Menguji updateUser dengan ID yang tidak ada
@@ -100,6 +102,7 @@ public class UserServiceTests {
             User result = userService.updatePassword(user.getId(), "newpassword123");
             assertTrue(result != null);
             assertEquals("newpassword123", result.getPassword());
+            Mockito.verify(authPrincipalCache, Mockito.times(2)).invalidateUser(user.getId());
         }
 
         // Menguji updatePassword dengan ID yang tidak ada
@@ -0,0 +1,131 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+
+public class VirtualThreadPinningMonitorTests {
+
+    private VirtualThreadPinningMonitor monitor;
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    // Class initializer tetap mem-pin virtual thread, juga di JDK yang
+    // sudah tidak mem-pin synchronized
+    static class SlowInit {
+        static {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        static void touch() {
+        }
+    }
+
+    @Test
+    @DisplayName("Virtual thread yang pinned terdeteksi lewat JFR")
+    void testDetectsPinning() throws Exception {
+        monitor = new VirtualThreadPinningMonitor(true, Duration.ofMillis(20));
+        monitor.start();
+        monitor.start(); // tidak membuat stream kedua
+        assertTrue(monitor.isRunning());
+
+        Thread.ofVirtual().start(SlowInit::touch).join();
+
+        long deadline = System.nanoTime() + 15_000_000_000L;
+        while (monitor.getPinnedEvents() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(monitor.getPinnedEvents() >= 1);
+        assertTrue(monitor.getMaxPinnedNanos() >= 20_000_000);
+
+        monitor.stop();
+        assertFalse(monitor.isRunning());
+    }
+
+    @Test
+    @DisplayName("Nonaktif: stream JFR tidak dibuat")
+    void testDisabled() {
+        monitor = new VirtualThreadPinningMonitor(false, Duration.ofMillis(20));
+        monitor.start();
+        monitor.stop();
+
+        assertFalse(monitor.isRunning());
+    }
+
+    @Test
+    @DisplayName("Setiap lokasi pinning dicatat sekali, statistik tetap dihitung")
+    void testRecord() {
+        monitor = new VirtualThreadPinningMonitor(false, Duration.ofMillis(20));
+        RecordedStackTrace stackTrace = stackTrace("java.lang.VirtualThread", "org.delcom.app.services.X");
+
+        monitor.record(event(30, stackTrace));
+        monitor.record(event(50, stackTrace));
+        for (int i = 0; i < 100; i++) {
+            monitor.record(event(1, stackTrace("org.delcom.app.Y" + i)));
+        }
+
+        assertEquals(102, monitor.getPinnedEvents());
+        assertEquals(180_000_000, monitor.getPinnedNanos());
+        assertEquals(50_000_000, monitor.getMaxPinnedNanos());
+    }
+
+    @Test
+    @DisplayName("Lokasi pinning: frame pertama di luar JDK")
+    void testPinningFrame() {
+        assertEquals("(tanpa stack trace)", VirtualThreadPinningMonitor.pinningFrame(null));
+        assertEquals("(tanpa stack trace)", VirtualThreadPinningMonitor.pinningFrame(stackTrace()));
+        assertEquals("org.postgresql.Driver.run:7", VirtualThreadPinningMonitor.pinningFrame(
+                stackTrace("java.lang.VirtualThread", "jdk.internal.misc.Unsafe", "sun.nio.ch.Net",
+                        "org.postgresql.Driver")));
+        assertEquals("java.lang.VirtualThread.run:7",
+                VirtualThreadPinningMonitor.pinningFrame(stackTrace("java.lang.VirtualThread", "java.lang.Object")));
+    }
+
+    private static RecordedEvent event(long millis, RecordedStackTrace stackTrace) {
+        RecordedEvent event = Mockito.mock(RecordedEvent.class);
+        when(event.getDuration()).thenReturn(Duration.ofMillis(millis));
+        when(event.getStackTrace()).thenReturn(stackTrace);
+        return event;
+    }
+
+    private static RecordedStackTrace stackTrace(String... types) {
+        List<RecordedFrame> frames = new ArrayList<>();
+        for (String type : types) {
+            RecordedClass recordedClass = Mockito.mock(RecordedClass.class);
+            when(recordedClass.getName()).thenReturn(type);
+            RecordedMethod method = Mockito.mock(RecordedMethod.class);
+            when(method.getType()).thenReturn(recordedClass);
+            when(method.getName()).thenReturn("run");
+            RecordedFrame frame = Mockito.mock(RecordedFrame.class);
+            when(frame.getMethod()).thenReturn(method);
+            when(frame.getLineNumber()).thenReturn(7);
+            frames.add(frame);
+        }
+        RecordedStackTrace stackTrace = Mockito.mock(RecordedStackTrace.class);
+        when(stackTrace.getFrames()).thenReturn(frames);
+        return stackTrace;
+    }
+}